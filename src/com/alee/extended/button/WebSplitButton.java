@@ -21,7 +21,6 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.laf.button.WebButton;
 import com.alee.laf.menu.PopupMenuWay;
 import com.alee.laf.menu.WebPopupMenuUI;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 import java.awt.event.*;
@@ -533,7 +532,7 @@ public class WebSplitButton extends WebButton implements MouseMotionListener, Mo
         {
             try
             {
-                setUI ( ( WebSplitButtonUI ) ReflectUtils.createInstance ( WebLookAndFeel.splitButtonUI ) );
+                setUI ( ( WebSplitButtonUI ) WebLookAndFeel.createUI ( WebLookAndFeel.splitButtonUI ) );
             }
             catch ( Throwable e )
             {
@@ -19,7 +19,6 @@ package com.alee.extended.checkbox;
 
 import com.alee.laf.WebLookAndFeel;
 import com.alee.laf.checkbox.WebCheckBox;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 
@@ -332,7 +331,7 @@ public class WebTristateCheckBox extends WebCheckBox
         {
             try
             {
-                setUI ( ( WebTristateCheckBoxUI ) ReflectUtils.createInstance ( WebLookAndFeel.tristateCheckBoxUI ) );
+                setUI ( ( WebTristateCheckBoxUI ) WebLookAndFeel.createUI ( WebLookAndFeel.tristateCheckBoxUI ) );
             }
             catch ( final Throwable e )
             {
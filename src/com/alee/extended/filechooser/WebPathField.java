@@ -26,6 +26,7 @@ import com.alee.laf.button.WebButton;
 import com.alee.laf.button.WebToggleButton;
 import com.alee.laf.list.WebList;
 import com.alee.laf.list.WebListCellRenderer;
+import com.alee.laf.list.WebListModel;
 import com.alee.laf.menu.WebMenuItem;
 import com.alee.laf.menu.WebPopupMenu;
 import com.alee.laf.panel.WebPanel;
@@ -40,6 +41,7 @@ import com.alee.utils.CollectionUtils;
 import com.alee.utils.FileUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.SystemUtils;
+import com.alee.utils.swing.WebTimer;
 
 import javax.swing.*;
 import javax.swing.event.CaretEvent;
@@ -52,7 +54,14 @@ import java.awt.event.*;
 import java.io.File;
 import java.io.FileFilter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * User: mgarin Date: 05.07.11 Time: 18:20
@@ -75,7 +84,7 @@ public class WebPathField extends WebPanel
 
     protected static FileSystemView fsv = FileSystemView.getFileSystemView ();
 
-    protected AbstractFileFilter fileFilter = GlobalConstants.DIRECTORIES_FILTER;
+    protected volatile AbstractFileFilter fileFilter = GlobalConstants.DIRECTORIES_FILTER;
 
     protected int preferredWidth = -1;
     protected boolean filesDropEnabled = true;
@@ -85,6 +94,44 @@ public class WebPathField extends WebPanel
     protected boolean autocompleteEnabled = true;
     protected JWindow autocompleteDialog = null;
 
+    /**
+     * Autocomplete suggestions are loaded in background by this executor.
+     */
+    protected static final ThreadPoolExecutor autocompleteExecutor = createAutocompleteExecutor ();
+
+    /**
+     * Delay between the last caret update and suggestions loading start in milliseconds.
+     */
+    protected int autocompleteDelay = 150;
+
+    /**
+     * Amount of suggestions pushed into the autocomplete list at once.
+     */
+    protected int autocompleteBatchSize = 25;
+
+    /**
+     * Time in milliseconds for which directory listing is reused by autocomplete.
+     */
+    protected long listingCacheTimeout = 10000;
+
+    /**
+     * Cached directory listings, disk roots are cached under null key.
+     */
+    protected final Map<File, DirectoryListing> listingCache = new HashMap<File, DirectoryListing> ();
+
+    /**
+     * Cached directory listings generation, it is incremented each time listings cache is cleared.
+     * Listings made under an older generation are not cached since they might use outdated file filter.
+     * This field should only be accessed under the listings cache lock.
+     */
+    protected int listingCacheGeneration = 0;
+
+    /**
+     * Current autocomplete request ID.
+     * It is incremented each time requested suggestions become outdated, so that loaded suggestions are not displayed anymore.
+     */
+    protected final AtomicInteger requestId = new AtomicInteger ( 0 );
+
     protected WebPanel contentPanel;
 
     protected WebTextField pathField;
@@ -233,13 +280,19 @@ public class WebPathField extends WebPanel
         pathField.addCaretListener ( new CaretListener ()
         {
             private WebList list = null;
+            private WebListModel<File> model;
             private WebScrollPane listScroll;
 
+            private WebTimer requestTimer = null;
+            private File requestedParent;
+            private String requestedNamePart;
+
             @Override
             public void caretUpdate ( CaretEvent e )
             {
                 if ( !autocompleteEnabled || !pathField.isVisible () || !pathField.isShowing () )
                 {
+                    requestId.incrementAndGet ();
                     if ( autocompleteDialog != null && autocompleteDialog.isVisible () )
                     {
                         hideDialog ();
@@ -268,7 +321,8 @@ public class WebPathField extends WebPanel
                         }
                     } );
 
-                    list = new WebList ();
+                    model = new WebListModel<File> ();
+                    list = new WebList ( model );
                     list.setFocusable ( false );
                     list.setSelectionMode ( ListSelectionModel.SINGLE_SELECTION );
                     list.setRolloverSelectionEnabled ( true );
@@ -384,10 +438,6 @@ public class WebPathField extends WebPanel
                     } );
                 }
 
-                //                new Thread ( new Runnable ()
-                //                {
-                //                    public void run ()
-                //                    {
                 // Taking only the part till the caret
                 String t = pathField.getText ().substring ( 0, pathField.getCaretPosition () );
 
@@ -397,45 +447,94 @@ public class WebPathField extends WebPanel
 
                 // Parent file
                 String parentPath = t.substring ( 0, beginIndex );
-                File parent = parentPath.trim ().equals ( "" ) ? null : new File ( parentPath );
+                requestedParent = parentPath.trim ().equals ( "" ) ? null : new File ( parentPath );
+                requestedNamePart = t.substring ( beginIndex );
 
-                List<File> similar = getSimilarFileChilds ( parent, t.substring ( beginIndex ) );
-                if ( similar != null && similar.size () > 0 )
-                {
-                    updateList ( similar );
-                }
-                else
+                // Cancelling previous request and delaying the new one until typing pauses
+                requestId.incrementAndGet ();
+                if ( requestTimer == null )
                 {
-                    hideDialog ();
+                    requestTimer = new WebTimer ( "WebPathField.autocompleteTimer", autocompleteDelay, new ActionListener ()
+                    {
+                        @Override
+                        public void actionPerformed ( ActionEvent e )
+                        {
+                            loadSuggestions ( requestId.get (), requestedParent, requestedNamePart );
+                        }
+                    } );
+                    requestTimer.setRepeats ( false );
                 }
-                //                    }
-                //                } ).start ();
+                requestTimer.setInitialDelay ( autocompleteDelay );
+                requestTimer.restart ();
             }
 
-            private void updateList ( final List<File> similar )
+            private void loadSuggestions ( final int id, final File parent, final String namePart )
             {
-                SwingUtils.invokeLater ( new Runnable ()
+                autocompleteExecutor.execute ( new Runnable ()
                 {
                     @Override
                     public void run ()
                     {
-                        list.setModel ( new AbstractListModel ()
+                        if ( requestId.get () != id )
                         {
-                            @Override
-                            public int getSize ()
+                            return;
+                        }
+                        final List<File> similar = getSimilarFileChilds ( parent, namePart );
+
+                        // Pushing suggestions into the list in batches
+                        // Display name and icon are cached here so that list renderer doesn't access file system
+                        List<File> batch = new ArrayList<File> ( autocompleteBatchSize );
+                        boolean first = true;
+                        for ( File file : similar )
+                        {
+                            if ( requestId.get () != id )
+                            {
+                                return;
+                            }
+                            FileUtils.getDisplayFileName ( file );
+                            FileUtils.getFileIcon ( file );
+                            batch.add ( file );
+                            if ( batch.size () >= autocompleteBatchSize )
                             {
-                                return similar.size ();
+                                updateList ( id, batch, first, false );
+                                batch = new ArrayList<File> ( autocompleteBatchSize );
+                                first = false;
                             }
+                        }
+                        updateList ( id, batch, first, true );
+                    }
+                } );
+            }
 
-                            @Override
-                            public Object getElementAt ( int i )
+            private void updateList ( final int id, final List<File> similar, final boolean first, final boolean last )
+            {
+                SwingUtils.invokeLater ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        // Skipping outdated results
+                        if ( requestId.get () != id || !autocompleteEnabled || !pathField.isShowing () )
+                        {
+                            return;
+                        }
+
+                        // Updating suggestions
+                        if ( first )
+                        {
+                            model.clear ();
+                        }
+                        model.addElements ( similar );
+                        if ( model.getSize () == 0 )
+                        {
+                            if ( last )
                             {
-                                return similar.get ( i );
+                                hideDialog ();
                             }
-                        } );
-                        list.setVisibleRowCount ( Math.min ( similar.size (), 6 ) );
-                        list.updateUI ();
-                        if ( similar.size () > 0 )
+                            return;
+                        }
+                        list.setVisibleRowCount ( Math.min ( model.getSize (), 6 ) );
+                        if ( first )
                         {
                             list.setSelectedIndex ( 0 );
                         }
@@ -536,6 +635,9 @@ public class WebPathField extends WebPanel
             // Clearing content
             contentPanel.removeAll ();
 
+            // Each editing session starts with actual directory listings
+            clearListingCache ();
+
             // Updating path text
             if ( selectedPath != null )
             {
@@ -580,6 +682,37 @@ public class WebPathField extends WebPanel
         this.autocompleteEnabled = autocompleteEnabled;
     }
 
+    public int getAutocompleteDelay ()
+    {
+        return autocompleteDelay;
+    }
+
+    public void setAutocompleteDelay ( int autocompleteDelay )
+    {
+        this.autocompleteDelay = autocompleteDelay;
+    }
+
+    public int getAutocompleteBatchSize ()
+    {
+        return autocompleteBatchSize;
+    }
+
+    public void setAutocompleteBatchSize ( int autocompleteBatchSize )
+    {
+        this.autocompleteBatchSize = Math.max ( 1, autocompleteBatchSize );
+    }
+
+    public long getListingCacheTimeout ()
+    {
+        return listingCacheTimeout;
+    }
+
+    public void setListingCacheTimeout ( long listingCacheTimeout )
+    {
+        this.listingCacheTimeout = listingCacheTimeout;
+        clearListingCache ();
+    }
+
     public AbstractFileFilter getFileFilter ()
     {
         return fileFilter;
@@ -593,6 +726,7 @@ public class WebPathField extends WebPanel
     public void setFileFilter ( AbstractFileFilter fileFilter, boolean updatePath )
     {
         this.fileFilter = fileFilter;
+        clearListingCache ();
         if ( updatePath )
         {
             updatePath ();
@@ -818,7 +952,7 @@ public class WebPathField extends WebPanel
     protected List<File> getSimilarFileChilds ( File file, String namePart )
     {
         String searchText = namePart.toLowerCase ();
-        File[] childs = getFileChilds ( file );
+        File[] childs = getCachedFileChilds ( file );
         List<File> similar = new ArrayList<File> ();
         if ( childs != null )
         {
@@ -838,6 +972,76 @@ public class WebPathField extends WebPanel
         return file != null ? file.listFiles ( fileFilter ) : FileUtils.getDiskRoots ();
     }
 
+    /**
+     * Returns file childs using cached listing if it is not older than listing cache timeout.
+     * This method is used by autocomplete to avoid listing the same directory on each typed character.
+     *
+     * @param file directory to list or null to list disk roots
+     * @return file childs
+     */
+    protected File[] getCachedFileChilds ( File file )
+    {
+        final long time = System.currentTimeMillis ();
+        final int generation;
+        synchronized ( listingCache )
+        {
+            final DirectoryListing listing = listingCache.get ( file );
+            if ( listing != null && time - listing.time < listingCacheTimeout )
+            {
+                return listing.childs;
+            }
+            generation = listingCacheGeneration;
+        }
+        final File[] childs = getFileChilds ( file );
+        synchronized ( listingCache )
+        {
+            // Listing is not cached if cache was cleared while it was made
+            if ( generation == listingCacheGeneration )
+            {
+                listingCache.put ( file, new DirectoryListing ( childs, time ) );
+            }
+        }
+        return childs;
+    }
+
+    /**
+     * Clears cached directory listings.
+     * Suggestions which are being loaded at this moment are also discarded since they might be based on outdated listings.
+     */
+    public void clearListingCache ()
+    {
+        synchronized ( listingCache )
+        {
+            listingCache.clear ();
+            listingCacheGeneration++;
+        }
+        requestId.incrementAndGet ();
+    }
+
+    /**
+     * Returns new executor for autocomplete suggestions loading.
+     * Executor uses a single daemon thread which dies after some time of inactivity.
+     *
+     * @return new executor for autocomplete suggestions loading
+     */
+    protected static ThreadPoolExecutor createAutocompleteExecutor ()
+    {
+        final AtomicInteger threadNumber = new AtomicInteger ( 0 );
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor ( 1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable> (),
+                new ThreadFactory ()
+                {
+                    @Override
+                    public Thread newThread ( final Runnable r )
+                    {
+                        final Thread thread = new Thread ( r, "WebPathField.autocomplete-" + threadNumber.incrementAndGet () );
+                        thread.setDaemon ( true );
+                        return thread;
+                    }
+                } );
+        executor.allowCoreThreadTimeOut ( true );
+        return executor;
+    }
+
     protected boolean canShortenPath ()
     {
         return contentPanel.getPreferredSize ().width > contentPanel.getWidth () && contentPanel.getComponentCount () > 5;
@@ -1001,4 +1205,20 @@ public class WebPathField extends WebPanel
         super.applyComponentOrientation ( o );
         updatePath ();
     }
+
+    /**
+     * Cached directory listing.
+     */
+    protected static class DirectoryListing
+    {
+        protected final File[] childs;
+        protected final long time;
+
+        public DirectoryListing ( File[] childs, long time )
+        {
+            super ();
+            this.childs = childs;
+            this.time = time;
+        }
+    }
 }
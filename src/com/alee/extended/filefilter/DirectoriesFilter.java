@@ -18,6 +18,7 @@
 package com.alee.extended.filefilter;
 
 import com.alee.managers.language.LanguageManager;
+import com.alee.utils.FileUtils;
 
 import javax.swing.*;
 import java.io.File;
@@ -59,6 +60,6 @@ public class DirectoriesFilter extends AbstractFileFilter
     @Override
     public boolean accept ( final File file )
     {
-        return file.isDirectory ();
+        return FileUtils.isDirectory ( file );
     }
 }
\ No newline at end of file
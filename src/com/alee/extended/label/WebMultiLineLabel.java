@@ -21,7 +21,6 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -101,7 +100,7 @@ public class WebMultiLineLabel extends JLabel implements LanguageMethods, FontMe
         {
             try
             {
-                setUI ( ( WebMultiLineLabelUI ) ReflectUtils.createInstance ( WebLookAndFeel.multiLineLabelUI ) );
+                setUI ( ( WebMultiLineLabelUI ) WebLookAndFeel.createUI ( WebLookAndFeel.multiLineLabelUI ) );
             }
             catch ( Throwable e )
             {
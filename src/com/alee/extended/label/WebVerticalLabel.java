@@ -19,7 +19,6 @@ package com.alee.extended.label;
 
 import com.alee.laf.WebLookAndFeel;
 import com.alee.laf.label.WebLabel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 
@@ -118,7 +117,7 @@ public class WebVerticalLabel extends WebLabel
         {
             try
             {
-                setUI ( ( WebVerticalLabelUI ) ReflectUtils.createInstance ( WebLookAndFeel.verticalLabelUI ) );
+                setUI ( ( WebVerticalLabelUI ) WebLookAndFeel.createUI ( WebLookAndFeel.verticalLabelUI ) );
 
             }
             catch ( Throwable e )
@@ -25,18 +25,25 @@ import com.alee.laf.list.WebListCellRenderer;
 import com.alee.utils.FileUtils;
 import com.alee.utils.ImageUtils;
 import com.alee.utils.file.FileDescription;
+import com.alee.utils.file.ThumbnailListener;
+import com.alee.utils.file.ThumbnailService;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 /**
  * Custom list cell renderer for WebFileList component.
  * This renderer is also able to generate image thumbnails for image file elements.
+ * Thumbnails are requested from ThumbnailService when elements are rendered, requests for elements which are no longer visible are
+ * cancelled when list is scrolled or resized.
  *
  * @author Mikle Garin
  */
@@ -101,9 +108,19 @@ public class WebFileListCellRenderer extends WebListCellRenderer
     protected final Object thumbnailsLock = new Object ();
 
     /**
-     * Executor service for thumbnails generation.
+     * Service for thumbnails generation.
      */
-    protected ExecutorService executorService = Executors.newSingleThreadExecutor ();
+    protected ThumbnailService thumbnailService = ThumbnailService.getInstance ();
+
+    /**
+     * Pending thumbnail requests.
+     */
+    protected final Map<FileElement, ThumbnailService.Request> thumbnailRequests = new HashMap<FileElement, ThumbnailService.Request> ();
+
+    /**
+     * Indices of elements with pending thumbnail requests at the time they were last rendered.
+     */
+    protected final Map<FileElement, Integer> thumbnailIndices = new HashMap<FileElement, Integer> ();
 
     /**
      * Constructs cell renderer for the specified file list.
@@ -164,6 +181,21 @@ public class WebFileListCellRenderer extends WebListCellRenderer
             }
         } );
 
+        fileList.addComponentListener ( new ComponentAdapter ()
+        {
+            @Override
+            public void componentResized ( final ComponentEvent e )
+            {
+                cancelHiddenThumbnails ();
+            }
+
+            @Override
+            public void componentMoved ( final ComponentEvent e )
+            {
+                cancelHiddenThumbnails ();
+            }
+        } );
+
         updateFilesView ();
     }
 
@@ -267,7 +299,11 @@ public class WebFileListCellRenderer extends WebListCellRenderer
             {
                 if ( !element.isThumbnailQueued () && !element.isDisabledThumbnailQueued () )
                 {
-                    queueThumbnailLoad ( element, false );
+                    queueThumbnailLoad ( element, index, false );
+                }
+                else
+                {
+                    prioritizeThumbnailLoad ( element, index );
                 }
             }
 
@@ -288,7 +324,11 @@ public class WebFileListCellRenderer extends WebListCellRenderer
             {
                 if ( !element.isDisabledThumbnailQueued () )
                 {
-                    queueThumbnailLoad ( element, true );
+                    queueThumbnailLoad ( element, index, true );
+                }
+                else
+                {
+                    prioritizeThumbnailLoad ( element, index );
                 }
             }
 
@@ -346,56 +386,131 @@ public class WebFileListCellRenderer extends WebListCellRenderer
 
     /**
      * Adds specified element into thumbnails queue.
+     * Image thumbnails are created asynchronously, standard file icons are set right away.
+     * This method should only be called under the thumbnails lock.
      *
-     * @param element element to add
+     * @param element  element to add
+     * @param index    element index
+     * @param disabled whether disabled thumbnail is required or not
      */
-    protected void queueThumbnailLoad ( final FileElement element, final boolean disabled )
+    protected void queueThumbnailLoad ( final FileElement element, final int index, final boolean disabled )
     {
         element.setThumbnailQueued ( true );
         element.setDisabledThumbnailQueued ( disabled );
 
-        executorService.submit ( new Runnable ()
+        final File file = element.getFile ();
+        final String ext = FileUtils.getFileExtPart ( file.getName (), false ).toLowerCase ();
+        final ImageIcon loaded = element.getEnabledThumbnail ();
+        if ( loaded == null && fileList.isGenerateThumbnails () && GlobalConstants.IMAGE_FORMATS.contains ( ext ) )
         {
-            @Override
-            public void run ()
+            // Cancelling outdated request
+            final ThumbnailService.Request old = thumbnailRequests.remove ( element );
+            if ( old != null )
+            {
+                thumbnailService.cancel ( old );
+            }
+
+            // Requesting image thumbnail
+            final ThumbnailService.Request request = thumbnailService.request ( file, thumbSize, new ThumbnailListener ()
             {
-                final String absolutePath = element.getFile ().getAbsolutePath ();
-                final String ext = FileUtils.getFileExtPart ( element.getFile ().getName (), false ).toLowerCase ();
-                if ( fileList.isGenerateThumbnails () && GlobalConstants.IMAGE_FORMATS.contains ( ext ) )
+                @Override
+                public void thumbnailCreated ( final File file, final ImageIcon thumbnail )
                 {
-                    final ImageIcon thumb = element.getEnabledThumbnail () != null ? element.getEnabledThumbnail () :
-                            ImageUtils.createThumbnailIcon ( absolutePath, thumbSize );
-                    if ( thumb != null )
+                    synchronized ( thumbnailsLock )
                     {
-                        element.setEnabledThumbnail ( thumb );
-                        if ( disabled )
-                        {
-                            element.setDisabledThumbnail ( ImageUtils.createDisabledCopy ( thumb ) );
-                        }
+                        thumbnailRequests.remove ( element );
+                        thumbnailIndices.remove ( element );
                     }
-                    else
+                    updateThumbnails ( element, thumbnail, disabled );
+                    if ( disabled != fileList.isEnabled () )
                     {
-                        element.setEnabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, true ) );
-                        if ( disabled )
-                        {
-                            element.setDisabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, false ) );
-                        }
+                        fileList.repaint ( element );
                     }
                 }
-                else
+            } );
+            thumbnailRequests.put ( element, request );
+            thumbnailIndices.put ( element, index );
+        }
+        else
+        {
+            // Using already loaded thumbnail or standard icon
+            updateThumbnails ( element, loaded, disabled );
+        }
+    }
+
+    /**
+     * Updates element thumbnails.
+     * Standard file icons are used if thumbnail is not available.
+     *
+     * @param element   element to update
+     * @param thumbnail image thumbnail or null if it is not available
+     * @param disabled  whether disabled thumbnail is required or not
+     */
+    protected void updateThumbnails ( final FileElement element, final ImageIcon thumbnail, final boolean disabled )
+    {
+        if ( thumbnail != null )
+        {
+            element.setEnabledThumbnail ( thumbnail );
+            if ( disabled )
+            {
+                element.setDisabledThumbnail ( ImageUtils.createDisabledCopy ( thumbnail ) );
+            }
+        }
+        else
+        {
+            element.setEnabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, true ) );
+            if ( disabled )
+            {
+                element.setDisabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, false ) );
+            }
+        }
+    }
+
+    /**
+     * Moves pending thumbnail request for the specified element before all other requests.
+     * This method should only be called under the thumbnails lock.
+     *
+     * @param element rendered element
+     * @param index   element index
+     */
+    protected void prioritizeThumbnailLoad ( final FileElement element, final int index )
+    {
+        final ThumbnailService.Request request = thumbnailRequests.get ( element );
+        if ( request != null )
+        {
+            thumbnailIndices.put ( element, index );
+            thumbnailService.prioritize ( request );
+        }
+    }
+
+    /**
+     * Cancels pending thumbnail requests for elements which are not visible anymore.
+     * Cancelled elements will be queued again when they are rendered.
+     */
+    public void cancelHiddenThumbnails ()
+    {
+        final int first = fileList.getFirstVisibleIndex ();
+        final int last = fileList.getLastVisibleIndex ();
+        synchronized ( thumbnailsLock )
+        {
+            final Iterator<Map.Entry<FileElement, ThumbnailService.Request>> iterator = thumbnailRequests.entrySet ().iterator ();
+            while ( iterator.hasNext () )
+            {
+                final Map.Entry<FileElement, ThumbnailService.Request> entry = iterator.next ();
+                final FileElement element = entry.getKey ();
+                final Integer index = thumbnailIndices.get ( element );
+                if ( first == -1 || index == null || index < first || index > last )
                 {
-                    element.setEnabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, true ) );
-                    if ( disabled )
+                    if ( thumbnailService.cancel ( entry.getValue () ) )
                     {
-                        element.setDisabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, false ) );
+                        element.setThumbnailQueued ( false );
+                        element.setDisabledThumbnailQueued ( false );
+                        thumbnailIndices.remove ( element );
+                        iterator.remove ();
                     }
                 }
-                if ( disabled != fileList.isEnabled () )
-                {
-                    fileList.repaint ( element );
-                }
             }
-        } );
+        }
     }
 
     /**
@@ -102,6 +102,11 @@ public class WebAccordion extends WebPanel implements SwingConstants, SettingsMe
      */
     protected WebCollapsiblePane lastExpanded = null;
 
+    /**
+     * Whether accordion revalidation caused by panes transition is already scheduled or not.
+     */
+    protected boolean transitionRevalidationScheduled = false;
+
     /**
      * Constructs empty accordion with default style.
      */
@@ -648,6 +653,29 @@ public class WebAccordion extends WebPanel implements SwingConstants, SettingsMe
         repaint ();
     }
 
+    /**
+     * Informs accordion that transition progress of the specified pane has changed.
+     * Accordion is revalidated only once for all panes which have changed their progress within the same frame.
+     *
+     * @param pane collapsible pane which transition progress has changed
+     */
+    protected void paneTransitionProgressChanged ( final WebCollapsiblePane pane )
+    {
+        if ( !transitionRevalidationScheduled )
+        {
+            transitionRevalidationScheduled = true;
+            SwingUtilities.invokeLater ( new Runnable ()
+            {
+                @Override
+                public void run ()
+                {
+                    transitionRevalidationScheduled = false;
+                    revalidate ();
+                }
+            } );
+        }
+    }
+
     /**
      * Returns whether any collapsible pane is expanded or not.
      *
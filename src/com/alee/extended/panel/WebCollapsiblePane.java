@@ -44,6 +44,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
@@ -63,6 +64,11 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
      */
     protected boolean animate = WebCollapsiblePaneStyle.animate;
 
+    /**
+     * Whether animate content snapshot instead of laying out actual content on each transition step or not.
+     */
+    protected boolean snapshotAnimation = WebCollapsiblePaneStyle.snapshotAnimation;
+
     /**
      * Collapsed state icon.
      */
@@ -155,6 +161,12 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
      */
     protected WebTimer animator = null;
 
+    /**
+     * Content snapshot displayed instead of the actual content during state transition.
+     * Content is not laid out while this snapshot is displayed, it is only laid out once when transition ends.
+     */
+    protected BufferedImage contentSnapshot = null;
+
     /**
      * Whether custom title component is set or not.
      */
@@ -315,6 +327,10 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
                     {
                         final Insets insets = getInsets ();
                         ps.width = insets.left + WebCollapsiblePane.this.content.getPreferredSize ().width + insets.right;
+                        if ( contentSnapshot != null )
+                        {
+                            ps.height = insets.top + contentSnapshot.getHeight () + insets.bottom;
+                        }
                     }
                     if ( transitionProgress < 1f )
                     {
@@ -327,6 +343,10 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
                     {
                         final Insets insets = getInsets ();
                         ps.height = insets.top + WebCollapsiblePane.this.content.getPreferredSize ().height + insets.bottom;
+                        if ( contentSnapshot != null )
+                        {
+                            ps.width = insets.left + contentSnapshot.getWidth () + insets.right;
+                        }
                     }
                     if ( transitionProgress < 1f )
                     {
@@ -335,6 +355,31 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
                 }
                 return ps;
             }
+
+            @Override
+            public void doLayout ()
+            {
+                // Content keeps its bounds while snapshot is displayed
+                if ( contentSnapshot == null )
+                {
+                    super.doLayout ();
+                }
+            }
+
+            @Override
+            protected void paintChildren ( final Graphics g )
+            {
+                if ( contentSnapshot != null )
+                {
+                    // Painting clipped content snapshot instead of the actual content
+                    final Insets insets = getInsets ();
+                    g.drawImage ( contentSnapshot, insets.left, insets.top, null );
+                }
+                else
+                {
+                    super.paintChildren ( g );
+                }
+            }
         };
         contentPanel.setOpaque ( false );
         contentPanel.setLayout ( new BorderLayout ( 0, 0 ) );
@@ -655,6 +700,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
 
         if ( animate && isShowing () )
         {
+            startSnapshotAnimation ();
             animator = new WebTimer ( "WebCollapsiblePane.collapseTimer", StyleConstants.fastAnimationDelay, new ActionListener ()
             {
                 @Override
@@ -663,7 +709,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
                     if ( transitionProgress > 0f )
                     {
                         transitionProgress = Math.max ( 0f, transitionProgress - expandSpeed );
-                        revalidate ();
+                        transitionProgressChanged ();
                     }
                     else
                     {
@@ -688,6 +734,9 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
      */
     protected void finishCollapseAction ()
     {
+        // Remove content snapshot
+        finishSnapshotAnimation ();
+
         // Hide title border
         updateHeaderSides ();
 
@@ -747,6 +796,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
 
         if ( animate && isShowing () )
         {
+            startSnapshotAnimation ();
             animator = new WebTimer ( "WebCollapsiblePane.expandTimer", StyleConstants.fastAnimationDelay, new ActionListener ()
             {
                 @Override
@@ -755,7 +805,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
                     if ( transitionProgress < 1f )
                     {
                         transitionProgress = Math.min ( 1f, transitionProgress + expandSpeed );
-                        revalidate ();
+                        transitionProgressChanged ();
                     }
                     else
                     {
@@ -780,6 +830,9 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
      */
     protected void finishExpandAction ()
     {
+        // Remove content snapshot
+        finishSnapshotAnimation ();
+
         // Update collapsible pane
         revalidate ();
         repaint ();
@@ -788,6 +841,86 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
         fireExpanded ();
     }
 
+    /**
+     * Prepares content snapshot for the state transition if snapshot animation is enabled.
+     * Snapshot left from the interrupted transition is reused since content is not laid out while it is displayed.
+     */
+    protected void startSnapshotAnimation ()
+    {
+        if ( snapshotAnimation && content != null && contentSnapshot == null )
+        {
+            contentSnapshot = createContentSnapshot ();
+        }
+    }
+
+    /**
+     * Returns snapshot of the fully expanded content or null if it cannot be created.
+     *
+     * @return snapshot of the fully expanded content or null if it cannot be created
+     */
+    protected BufferedImage createContentSnapshot ()
+    {
+        // Content size in fully expanded state
+        // Content keeps its last bounds when collapsed so they are used unless content size along the title was changed
+        final Insets insets = contentPanel.getInsets ();
+        final Dimension cps = content.getPreferredSize ();
+        final Dimension size = content.getSize ();
+        if ( titlePanePostion == TOP || titlePanePostion == BOTTOM )
+        {
+            final int width = contentPanel.getWidth () - insets.left - insets.right;
+            size.width = width > 0 ? width : cps.width;
+            size.height = size.height > 0 ? size.height : cps.height;
+        }
+        else
+        {
+            final int height = contentPanel.getHeight () - insets.top - insets.bottom;
+            size.height = height > 0 ? height : cps.height;
+            size.width = size.width > 0 ? size.width : cps.width;
+        }
+        if ( size.width <= 0 || size.height <= 0 )
+        {
+            return null;
+        }
+
+        // Laying out content once and painting it
+        content.setBounds ( insets.left, insets.top, size.width, size.height );
+        content.validate ();
+        return SwingUtils.createComponentSnapshot ( content, size.width, size.height );
+    }
+
+    /**
+     * Removes content snapshot displayed during the state transition.
+     * Content panel was marked as valid while its layout was skipped, so it is explicitly invalidated and laid out again.
+     */
+    protected void finishSnapshotAnimation ()
+    {
+        if ( contentSnapshot != null )
+        {
+            contentSnapshot = null;
+            contentPanel.invalidate ();
+            contentPanel.validate ();
+        }
+    }
+
+    /**
+     * Updates collapsible pane view according to the new transition progress.
+     * Pane is invalidated so that parent layout picks up its new preferred size, but only parent is revalidated.
+     * Accordion coalesces revalidation requests of all its panes into a single revalidation per frame.
+     */
+    protected void transitionProgressChanged ()
+    {
+        invalidate ();
+        final Container parent = getParent ();
+        if ( parent instanceof WebAccordion )
+        {
+            ( ( WebAccordion ) parent ).paneTransitionProgressChanged ( this );
+        }
+        else
+        {
+            revalidate ();
+        }
+    }
+
     /**
      * Stops state transition animation.
      */
@@ -889,6 +1022,27 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
         this.animate = animate;
     }
 
+    /**
+     * Returns whether animate content snapshot instead of laying out actual content on each transition step or not.
+     *
+     * @return true if animate content snapshot instead of laying out actual content on each transition step, false otherwise
+     */
+    public boolean isSnapshotAnimation ()
+    {
+        return snapshotAnimation;
+    }
+
+    /**
+     * Sets whether animate content snapshot instead of laying out actual content on each transition step or not.
+     * Snapshot animation is much faster for complex content but content is not updated until transition ends.
+     *
+     * @param snapshotAnimation whether animate content snapshot instead of laying out actual content on each transition step or not
+     */
+    public void setSnapshotAnimation ( final boolean snapshotAnimation )
+    {
+        this.snapshotAnimation = snapshotAnimation;
+    }
+
     /**
      * Returns default title component icon.
      *
@@ -1262,6 +1416,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
         }
 
         this.content = content;
+        this.contentSnapshot = null;
         content.setVisible ( transitionProgress > 0f );
 
         contentPanel.add ( content, BorderLayout.CENTER );
@@ -1377,7 +1532,8 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
         }
         else
         {
-            final Dimension cps = content.getPreferredSize ();
+            final Dimension cps = contentSnapshot != null ?
+                    new Dimension ( contentSnapshot.getWidth (), contentSnapshot.getHeight () ) : content.getPreferredSize ();
             if ( titlePanePostion == TOP || titlePanePostion == BOTTOM )
             {
                 return new Dimension ( ps.width, ps.height - Math.round ( cps.height * transitionProgress ) );
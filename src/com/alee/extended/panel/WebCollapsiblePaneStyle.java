@@ -34,6 +34,11 @@ public final class WebCollapsiblePaneStyle
      */
     public static boolean animate = StyleConstants.animate;
 
+    /**
+     * Whether animate content snapshot instead of laying out actual content on each transition step or not.
+     */
+    public static boolean snapshotAnimation = true;
+
     /**
      * Collapsed state icon.
      */
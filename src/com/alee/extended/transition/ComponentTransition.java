@@ -19,6 +19,7 @@ package com.alee.extended.transition;
 
 import com.alee.extended.layout.StackLayout;
 import com.alee.extended.transition.effects.TransitionEffect;
+import com.alee.extended.transition.effects.fade.FadeTransitionEffect;
 import com.alee.laf.panel.WebPanel;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.SwingUtils;
@@ -190,7 +191,7 @@ public class ComponentTransition extends WebPanel
         else
         {
             Component currentContent = getComponentCount () > 0 ? getComponent ( 0 ) : null;
-            currentSnapshot = SwingUtils.createComponentSnapshot ( currentContent, width, height );
+            currentSnapshot = TransitionUtils.createSnapshot ( currentContent, width, height, getSnapshotArea () );
         }
 
         // Enabling focus for transition time so you can focus the panel
@@ -228,6 +229,34 @@ public class ComponentTransition extends WebPanel
         }
     }
 
+    /**
+     * Returns part of the content which should be painted on snapshots or null if the whole content should be painted.
+     * Only visible part is painted when all effects display images in place, effects which move or scale images need whole content.
+     * Whole content is also painted when panel has insets since visible area is not in the content coordinates then.
+     */
+
+    protected Rectangle getSnapshotArea ()
+    {
+        if ( transitionEffects == null || transitionEffects.isEmpty () )
+        {
+            return null;
+        }
+        for ( TransitionEffect effect : transitionEffects )
+        {
+            if ( !( effect instanceof FadeTransitionEffect ) )
+            {
+                return null;
+            }
+        }
+        final Insets insets = getInsets ();
+        if ( insets.top != 0 || insets.left != 0 || insets.bottom != 0 || insets.right != 0 )
+        {
+            return null;
+        }
+        final Rectangle visible = getVisibleRect ();
+        return visible.width < getWidth () || visible.height < getHeight () ? visible : null;
+    }
+
     protected boolean canAnimate ()
     {
         return getTransitionEffect () != null && isShowing ();
@@ -242,8 +271,14 @@ public class ComponentTransition extends WebPanel
             add ( content, StackLayout.HIDDEN );
         }
 
+        // Releasing replaced transition, its new image is reused as current one
+        if ( transition != null )
+        {
+            releaseTransition ( transition, currentSnapshot );
+        }
+
         // Creating snapshot before removing all components
-        BufferedImage otherSnapshot = SwingUtils.createComponentSnapshot ( content, width, height );
+        BufferedImage otherSnapshot = TransitionUtils.createSnapshot ( content, width, height, getSnapshotArea () );
 
         // Transition panel
         removeAll ();
@@ -297,7 +332,7 @@ public class ComponentTransition extends WebPanel
         // Cleaning collapse animation resourcs
         if ( transition != null )
         {
-            transition.destroy ();
+            releaseTransition ( transition, null );
             transition = null;
         }
 
@@ -305,6 +340,25 @@ public class ComponentTransition extends WebPanel
         fireTransitionFinished ();
     }
 
+    /**
+     * Returns transition images into snapshots pool and destroys transition
+     */
+
+    protected void releaseTransition ( ImageTransition transition, BufferedImage reused )
+    {
+        if ( transition.getCurrentImage () != reused )
+        {
+            TransitionUtils.releaseSnapshot ( transition.getCurrentImage () );
+        }
+        if ( transition.getOtherImage () != reused )
+        {
+            TransitionUtils.releaseSnapshot ( transition.getOtherImage () );
+        }
+        transition.setCurrentImage ( null );
+        transition.setOtherImage ( null );
+        transition.destroy ();
+    }
+
     protected boolean isAnimating ()
     {
         return animating;
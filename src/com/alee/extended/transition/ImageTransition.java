@@ -17,6 +17,7 @@
 
 package com.alee.extended.transition;
 
+import com.alee.extended.transition.effects.DefaultTransitionEffect;
 import com.alee.extended.transition.effects.TransitionEffect;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.MathUtils;
@@ -269,7 +270,12 @@ public class ImageTransition extends JComponent implements ActionListener
         if ( actualTransitionEffect != null && actualTransitionEffect.isAnimating () && currentImage != null && otherImage != null )
         {
             // Transition view
+            final long start = System.nanoTime ();
             actualTransitionEffect.paint ( g2d, ImageTransition.this );
+            if ( actualTransitionEffect instanceof DefaultTransitionEffect )
+            {
+                ( ( DefaultTransitionEffect ) actualTransitionEffect ).framePainted ( System.nanoTime () - start );
+            }
         }
         else if ( currentImage != null )
         {
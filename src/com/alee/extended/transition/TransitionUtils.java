@@ -23,8 +23,16 @@ import com.alee.extended.transition.effects.curtain.CurtainSlideDirection;
 import com.alee.extended.transition.effects.curtain.CurtainType;
 import com.alee.extended.transition.effects.slide.SlideType;
 import com.alee.extended.transition.effects.zoom.ZoomType;
+import com.alee.utils.ImageUtils;
 import com.alee.utils.MathUtils;
 
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 /**
  * This class provides a set of utilities for transition components.
  * This is a library utility class and its not intended for use outside of transition components.
@@ -34,6 +42,123 @@ import com.alee.utils.MathUtils;
 
 public final class TransitionUtils
 {
+    /**
+     * Maximum amount of released snapshot images kept for reuse.
+     */
+    public static int maxPooledSnapshots = 4;
+
+    /**
+     * Released snapshot images.
+     * Soft references are used so that pooled images can be reclaimed when memory is low.
+     */
+    private static final List<SoftReference<BufferedImage>> snapshotsPool = new ArrayList<SoftReference<BufferedImage>> ();
+
+    /**
+     * Returns component snapshot image of specified size.
+     * Image is taken from snapshots pool if there is one of the same size, otherwise new image is created.
+     * Only the specified area is painted, the rest of the image stays transparent.
+     * Area should only be specified for effects which display the image in place without moving or scaling it.
+     *
+     * @param content component for snapshot
+     * @param width   snapshot image width
+     * @param height  snapshot image height
+     * @param area    painted snapshot area, whole image is painted if it is null
+     * @return component snapshot image
+     */
+    public static BufferedImage createSnapshot ( final Component content, final int width, final int height, final Rectangle area )
+    {
+        BufferedImage snapshot = getPooledSnapshot ( width, height );
+        final boolean pooled = snapshot != null;
+        if ( !pooled )
+        {
+            snapshot = ImageUtils.createCompatibleImage ( width, height, Transparency.TRANSLUCENT );
+        }
+        final Graphics2D g2d = snapshot.createGraphics ();
+        if ( pooled )
+        {
+            // Clearing whole previous snapshot, not only the painted area
+            final Composite composite = g2d.getComposite ();
+            g2d.setComposite ( AlphaComposite.Clear );
+            g2d.fillRect ( 0, 0, width, height );
+            g2d.setComposite ( composite );
+        }
+        if ( area != null )
+        {
+            g2d.clip ( area );
+        }
+        if ( content != null )
+        {
+            content.setSize ( width, height );
+            content.paintAll ( g2d );
+        }
+        g2d.dispose ();
+        return snapshot;
+    }
+
+    /**
+     * Returns snapshot image which is no longer used back into snapshots pool.
+     * Image should not be used anywhere after this call.
+     *
+     * @param snapshot snapshot image
+     */
+    public static void releaseSnapshot ( final BufferedImage snapshot )
+    {
+        if ( snapshot != null )
+        {
+            synchronized ( snapshotsPool )
+            {
+                if ( snapshotsPool.size () >= maxPooledSnapshots )
+                {
+                    snapshotsPool.remove ( 0 ).clear ();
+                }
+                if ( maxPooledSnapshots > 0 )
+                {
+                    snapshotsPool.add ( new SoftReference<BufferedImage> ( snapshot ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all images from snapshots pool.
+     */
+    public static void clearSnapshotsPool ()
+    {
+        synchronized ( snapshotsPool )
+        {
+            snapshotsPool.clear ();
+        }
+    }
+
+    /**
+     * Returns pooled snapshot image of the specified size or null if there is no such image.
+     *
+     * @param width  image width
+     * @param height image height
+     * @return pooled snapshot image of the specified size or null if there is no such image
+     */
+    private static BufferedImage getPooledSnapshot ( final int width, final int height )
+    {
+        synchronized ( snapshotsPool )
+        {
+            final Iterator<SoftReference<BufferedImage>> iterator = snapshotsPool.iterator ();
+            while ( iterator.hasNext () )
+            {
+                final BufferedImage image = iterator.next ().get ();
+                if ( image == null )
+                {
+                    iterator.remove ();
+                }
+                else if ( image.getWidth () == width && image.getHeight () == height )
+                {
+                    iterator.remove ();
+                    return image;
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * Returns actual direction for the specified direction type.
      *
@@ -34,6 +34,14 @@ public abstract class DefaultTransitionEffect implements TransitionEffect
     protected Map<String, Object> effectSettings = new HashMap<String, Object> ();
     protected boolean animating = false;
 
+    /**
+     * Frame painting statistics, all times are in nanoseconds
+     */
+
+    protected long framesPainted = 0;
+    protected long totalFrameTime = 0;
+    protected long maxFrameTime = 0;
+
     /**
      * Default methods
      */
@@ -60,6 +68,44 @@ public abstract class DefaultTransitionEffect implements TransitionEffect
         put ( DIRECTION, direction );
     }
 
+    /**
+     * Frame painting statistics
+     */
+
+    public void framePainted ( long paintTime )
+    {
+        framesPainted++;
+        totalFrameTime += paintTime;
+        maxFrameTime = Math.max ( maxFrameTime, paintTime );
+    }
+
+    public long getFramesPainted ()
+    {
+        return framesPainted;
+    }
+
+    public long getTotalFrameTime ()
+    {
+        return totalFrameTime;
+    }
+
+    public long getMaxFrameTime ()
+    {
+        return maxFrameTime;
+    }
+
+    public long getAverageFrameTime ()
+    {
+        return framesPainted > 0 ? totalFrameTime / framesPainted : 0;
+    }
+
+    public void resetStatistics ()
+    {
+        framesPainted = 0;
+        totalFrameTime = 0;
+        maxFrameTime = 0;
+    }
+
     /**
      * Effect settings storage
      */
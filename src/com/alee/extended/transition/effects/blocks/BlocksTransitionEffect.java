@@ -28,7 +28,7 @@ import com.alee.utils.swing.WebTimer;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.geom.GeneralPath;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -52,7 +52,6 @@ public class BlocksTransitionEffect extends DefaultTransitionEffect
     private Direction direction;
 
     private int[][] progress;
-    private Shape clip;
     private List<Point> allPoints;
     private WebTimer randomizer;
 
@@ -145,10 +144,6 @@ public class BlocksTransitionEffect extends DefaultTransitionEffect
         {
             progress[ cols - 1 ][ rows - 1 ] = speed;
         }
-        if ( !fade )
-        {
-            clip = getBlocksProgressShape ( progress );
-        }
         if ( type.equals ( BlockType.randomize ) )
         {
             // Collecting all blocks array
@@ -236,12 +231,6 @@ public class BlocksTransitionEffect extends DefaultTransitionEffect
             }
         }
 
-        // Updating blocks clip
-        if ( !fade )
-        {
-            clip = getBlocksProgressShape ( progress );
-        }
-
         if ( !allMax )
         {
             imageTransition.repaint ();
@@ -249,7 +238,6 @@ public class BlocksTransitionEffect extends DefaultTransitionEffect
         }
         else
         {
-            clip = null;
             if ( randomizer != null )
             {
                 randomizer.stop ();
@@ -258,19 +246,6 @@ public class BlocksTransitionEffect extends DefaultTransitionEffect
         }
     }
 
-    private Shape getBlocksProgressShape ( int[][] blocksProgress )
-    {
-        GeneralPath gp = new GeneralPath ( GeneralPath.WIND_EVEN_ODD );
-        for ( int i = 0; i < blocksProgress.length; i++ )
-        {
-            for ( int j = 0; j < blocksProgress[ 0 ].length; j++ )
-            {
-                gp.append ( new Rectangle ( i * size, j * size, blocksProgress[ i ][ j ], blocksProgress[ i ][ j ] ), false );
-            }
-        }
-        return gp;
-    }
-
     private boolean canStartGrow ( int i, int j, int[][] blocksProgress )
     {
         if ( direction.equals ( Direction.right ) || direction.equals ( Direction.down ) )
@@ -319,41 +294,44 @@ public class BlocksTransitionEffect extends DefaultTransitionEffect
         // Old image as background
         g2d.drawImage ( transition.getCurrentImage (), 0, 0, width, height, null );
 
-        // Appearance type
-        if ( fade )
+        // Drawing separate blocks
+        // Each block is copied directly from the new image, so no complex clip shape is created on each frame
+        // Source coordinates are scaled in case new image size differs from the transition size
+        final BufferedImage otherImage = transition.getOtherImage ();
+        final int imageWidth = otherImage.getWidth ();
+        final int imageHeight = otherImage.getHeight ();
+        final int cols = progress.length;
+        final int rows = progress[ 0 ].length;
+        for ( int i = 0; i < cols; i++ )
         {
-            // Drawing separate transparent blocks
-            int cols = progress.length;
-            int rows = progress[ 0 ].length;
-            for ( int i = 0; i < cols; i++ )
+            for ( int j = 0; j < rows; j++ )
             {
-                for ( int j = 0; j < rows; j++ )
+                final int block = progress[ i ][ j ];
+                if ( block > 0 )
                 {
-                    int block = progress[ i ][ j ];
-                    if ( block > 0 )
+                    // Block coordinates
+                    final int dx1 = i * size;
+                    final int dy1 = j * size;
+                    final int length = fade ? size : Math.min ( block, size );
+                    final int w = Math.min ( width - dx1, length );
+                    final int h = Math.min ( height - dy1, length );
+                    if ( w > 0 && h > 0 )
                     {
-                        // Block coordinates
-                        int dx1 = i * size;
-                        int dy1 = j * size;
-                        int w = Math.min ( width - dx1, size );
-                        int h = Math.min ( height - dy1, size );
-                        int dx2 = dx1 + w;
-                        int dy2 = dy1 + h;
+                        final int dx2 = dx1 + w;
+                        final int dy2 = dy1 + h;
 
                         // Single image block with custom transparency
-                        Composite old = LafUtils.setupAlphaComposite ( g2d, ( float ) block / size, block < size );
-                        g2d.drawImage ( transition.getOtherImage (), dx1, dy1, dx2, dy2, dx1, dy1, dx2, dy2, null );
-                        LafUtils.restoreComposite ( g2d, old, block < size );
+                        final boolean transparent = fade && block < size;
+                        final Composite old = LafUtils.setupAlphaComposite ( g2d, ( float ) block / size, transparent );
+                        final int sx1 = dx1 * imageWidth / width;
+                        final int sy1 = dy1 * imageHeight / height;
+                        final int sx2 = dx2 * imageWidth / width;
+                        final int sy2 = dy2 * imageHeight / height;
+                        g2d.drawImage ( otherImage, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null );
+                        LafUtils.restoreComposite ( g2d, old, transparent );
                     }
                 }
             }
         }
-        else
-        {
-            // New image with decreasing clipped area
-            Shape old = LafUtils.intersectClip ( g2d, clip );
-            g2d.drawImage ( transition.getOtherImage (), 0, 0, width, height, null );
-            LafUtils.restoreClip ( g2d, old );
-        }
     }
 }
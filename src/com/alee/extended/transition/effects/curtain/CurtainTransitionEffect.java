@@ -24,7 +24,6 @@ import com.alee.extended.transition.effects.Direction;
 import com.alee.utils.LafUtils;
 
 import java.awt.*;
-import java.awt.geom.GeneralPath;
 import java.awt.image.BufferedImage;
 
 /**
@@ -49,7 +48,6 @@ public class CurtainTransitionEffect extends DefaultTransitionEffect
     private CurtainSlideDirection slideDirection;
 
     private int[] progress;
-    private Shape clip;
 
     public CurtainTransitionEffect ()
     {
@@ -144,11 +142,6 @@ public class CurtainTransitionEffect extends DefaultTransitionEffect
         {
             progress[ rows - 1 ] = increaseProgress ( imageTransition, 0 );
         }
-        if ( type.equals ( CurtainType.fill ) )
-        {
-            clip = getCurtainProgressShape ( progress, imageTransition );
-        }
-
         // Updating view
         imageTransition.repaint ();
     }
@@ -184,12 +177,6 @@ public class CurtainTransitionEffect extends DefaultTransitionEffect
             }
         }
 
-        // Updating curtains clip
-        if ( type.equals ( CurtainType.fill ) )
-        {
-            clip = getCurtainProgressShape ( progress, imageTransition );
-        }
-
         if ( !allMax )
         {
             imageTransition.repaint ();
@@ -197,7 +184,6 @@ public class CurtainTransitionEffect extends DefaultTransitionEffect
         }
         else
         {
-            clip = null;
             type = null;
             return true;
         }
@@ -250,23 +236,6 @@ public class CurtainTransitionEffect extends DefaultTransitionEffect
         }
     }
 
-    private Shape getCurtainProgressShape ( int[] curtainProgress, ImageTransition imageTransition )
-    {
-        GeneralPath gp = new GeneralPath ( GeneralPath.WIND_EVEN_ODD );
-        for ( int i = 0; i < curtainProgress.length; i++ )
-        {
-            if ( direction.isVertical () )
-            {
-                gp.append ( new Rectangle ( 0, i * size, imageTransition.getWidth (), curtainProgress[ i ] ), false );
-            }
-            else
-            {
-                gp.append ( new Rectangle ( i * size, 0, curtainProgress[ i ], imageTransition.getHeight () ), false );
-            }
-        }
-        return gp;
-    }
-
     @Override
     public void paint ( Graphics2D g2d, ImageTransition transition )
     {
@@ -278,9 +247,13 @@ public class CurtainTransitionEffect extends DefaultTransitionEffect
         // Old image as background
         g2d.drawImage ( transition.getCurrentImage (), 0, 0, width, height, null );
 
-        // Separately drawn transparent curtains
+        // Separately drawn curtains
+        // Filled curtains are copied directly from the new image, so no complex clip shape is created on each frame
+        // Source coordinates are scaled in case new image size differs from the transition size
         BufferedImage otherImage = transition.getOtherImage ();
-        if ( type.equals ( CurtainType.fade ) || type.equals ( CurtainType.fill ) && fade )
+        int imageWidth = otherImage.getWidth ();
+        int imageHeight = otherImage.getHeight ();
+        if ( type.equals ( CurtainType.fade ) || type.equals ( CurtainType.fill ) )
         {
             int rows = progress.length;
             for ( int i = 0; i < rows; i++ )
@@ -292,36 +265,35 @@ public class CurtainTransitionEffect extends DefaultTransitionEffect
                     {
                         int dx1 = 0;
                         int dy1 = i * size;
-                        int h = Math.min ( height - i * size, type.equals ( CurtainType.fill ) && fade ? curtain : size );
+                        int h = Math.min ( height - i * size, type.equals ( CurtainType.fill ) ? Math.min ( curtain, size ) : size );
                         int dx2 = dx1 + width;
                         int dy2 = dy1 + h;
 
-                        Composite old = LafUtils.setupAlphaComposite ( g2d, ( float ) curtain / size, curtain < size );
-                        g2d.drawImage ( otherImage, dx1, dy1, dx2, dy2, dx1, dy1, dx2, dy2, null );
-                        LafUtils.restoreComposite ( g2d, old, curtain < size );
+                        boolean transparent = ( type.equals ( CurtainType.fade ) || fade ) && curtain < size;
+                        Composite old = LafUtils.setupAlphaComposite ( g2d, ( float ) curtain / size, transparent );
+                        int sy1 = dy1 * imageHeight / height;
+                        int sy2 = dy2 * imageHeight / height;
+                        g2d.drawImage ( otherImage, dx1, dy1, dx2, dy2, 0, sy1, imageWidth, sy2, null );
+                        LafUtils.restoreComposite ( g2d, old, transparent );
                     }
                     else
                     {
                         int dx1 = i * size;
                         int dy1 = 0;
-                        int w = Math.min ( width - i * size, type.equals ( CurtainType.fill ) && fade ? curtain : size );
+                        int w = Math.min ( width - i * size, type.equals ( CurtainType.fill ) ? Math.min ( curtain, size ) : size );
                         int dx2 = dx1 + w;
                         int dy2 = dy1 + height;
 
-                        Composite old = LafUtils.setupAlphaComposite ( g2d, ( float ) curtain / size, curtain < size );
-                        g2d.drawImage ( otherImage, dx1, dy1, dx2, dy2, dx1, dy1, dx2, dy2, null );
-                        LafUtils.restoreComposite ( g2d, old, curtain < size );
+                        boolean transparent = ( type.equals ( CurtainType.fade ) || fade ) && curtain < size;
+                        Composite old = LafUtils.setupAlphaComposite ( g2d, ( float ) curtain / size, transparent );
+                        int sx1 = dx1 * imageWidth / width;
+                        int sx2 = dx2 * imageWidth / width;
+                        g2d.drawImage ( otherImage, dx1, dy1, dx2, dy2, sx1, 0, sx2, imageHeight, null );
+                        LafUtils.restoreComposite ( g2d, old, transparent );
                     }
                 }
             }
         }
-        else if ( type.equals ( CurtainType.fill ) )
-        {
-            // New image with decreasing clipped area
-            Shape old = LafUtils.intersectClip ( g2d, clip );
-            g2d.drawImage ( otherImage, 0, 0, width, height, null );
-            LafUtils.restoreClip ( g2d, old );
-        }
         else if ( type.equals ( CurtainType.slide ) )
         {
             int rows = progress.length;
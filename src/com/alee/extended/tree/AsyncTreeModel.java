@@ -17,7 +17,6 @@
 
 package com.alee.extended.tree;
 
-import com.alee.laf.tree.TreeState;
 import com.alee.laf.tree.WebTreeModel;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.MapUtils;
@@ -28,7 +27,10 @@ import com.alee.utils.compare.Filter;
 import javax.swing.*;
 import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreeNode;
+import javax.swing.tree.TreePath;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Special model for asynchronous tree that provides asynchronous data loading.
@@ -114,6 +116,23 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
      */
     protected final Object busyLock = new Object ();
 
+    /**
+     * Executor used to perform recursive sorting and filtering outside of the Event Dispatch Thread.
+     */
+    protected static final ThreadPoolExecutor sortingAndFilteringExecutor = createSortingAndFilteringExecutor ();
+
+    /**
+     * Last recursive sorting and filtering update ID.
+     * Each new update increments it which cancels all previous updates that are still in progress.
+     */
+    protected volatile int sortingAndFilteringId = 0;
+
+    /**
+     * Maximum amount of removed and inserted childs which are reported to the tree separately.
+     * If node childs change more than that the whole node structure is updated at once since it is much faster for large changes.
+     */
+    public static int maxChildsChanges = 64;
+
     /**
      * Constructs default asynchronous tree model using custom data provider.
      *
@@ -432,7 +451,8 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         {
             // Executing childs load in a separate thread to avoid locking EDT
             // This queue will also take care of amount of threads to execute async trees requests
-            AsyncTreeQueue.execute ( tree, new Runnable ()
+            // Loads for displayed nodes and most recent loads are executed first
+            AsyncTreeQueue.execute ( tree, parent, new Runnable ()
             {
                 @Override
                 public void run ()
@@ -587,6 +607,35 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         }
     }
 
+    /**
+     * Cancels pending childs loads for the specified node and all of its child nodes.
+     * Loads which are already started are not affected.
+     * Nodes with cancelled loads return to waiting state and will be loaded again when requested, load failed event is fired for each
+     * of them with CancellationException as a cause.
+     *
+     * @param node node to cancel childs loads for
+     */
+    public void cancelChildsLoad ( final E node )
+    {
+        final List<AsyncUniqueNode> cancelled = AsyncTreeQueue.cancel ( tree, node );
+        for ( final AsyncUniqueNode cancelledNode : cancelled )
+        {
+            // Queue only contains nodes loaded by this model, so they always have model node type
+            @SuppressWarnings ( "unchecked" )
+            final E parent = ( E ) cancelledNode;
+
+            // Releasing node busy state
+            synchronized ( busyLock )
+            {
+                parent.setState ( AsyncNodeState.waiting );
+                nodeChanged ( parent );
+            }
+
+            // Firing load failed event
+            fireChildsLoadFailed ( parent, new CancellationException ( "Childs load cancelled" ) );
+        }
+    }
+
     /**
      * Sets child nodes for the specified node.
      * This method might be used to manually change tree node childs without causing any structure corruptions.
@@ -976,79 +1025,419 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
     /**
      * Updates node childs using current comparator and filter.
      * Updates the whole node childs structure if recursive update requested.
+     * <p/>
+     * Recursive update is performed outside of the Event Dispatch Thread when asynchronous loading is enabled. Each new recursive update
+     * cancels the previous one if it is still in progress, so only the latest filter and comparator are applied to the tree.
      *
      * @param parentNode  node which childs sorting and filtering should be updated
      * @param recursively whether should update the whole childs structure recursively or not
      */
     protected void performSortingAndFiltering ( final E parentNode, final boolean recursively )
     {
-        // todo Restore tree state only for the updated node
-        // Saving tree state to restore it right after childs update
-        final TreeState treeState = tree.getTreeState ();
+        // Raw childs which should be sorted and filtered
+        final Map<E, List<E>> rawChilds = getRawChildsSnapshot ( parentNode, recursively );
 
-        // Updating root node childs
-        if ( recursively )
+        if ( recursively && asyncLoading )
         {
-            performSortingAndFilteringRecursivelyImpl ( parentNode );
+            // Sorting and filtering childs in a separate thread to avoid locking EDT
+            final int id = ++sortingAndFilteringId;
+            sortingAndFilteringExecutor.execute ( new Runnable ()
+            {
+                @Override
+                public void run ()
+                {
+                    final Map<E, List<E>> realChilds = filterAndSort ( rawChilds, id );
+                    if ( realChilds != null )
+                    {
+                        SwingUtils.invokeLater ( new Runnable ()
+                        {
+                            @Override
+                            public void run ()
+                            {
+                                // Skipping outdated results
+                                if ( id == sortingAndFilteringId )
+                                {
+                                    updateChilds ( rawChilds, realChilds );
+                                }
+                            }
+                        } );
+                    }
+                }
+            } );
         }
         else
         {
-            performSortingAndFilteringImpl ( parentNode );
+            // Sorting and filtering childs right away
+            updateChilds ( rawChilds, filterAndSort ( rawChilds, -1 ) );
         }
-        nodeStructureChanged ( parentNode );
+    }
 
-        // Restoring tree state including all selections and expansions
-        tree.setTreeState ( treeState );
+    /**
+     * Returns copies of raw childs lists for the specified node and, if requested, for all of its loaded child nodes.
+     * Parent nodes are placed in the resulting map before their child nodes.
+     *
+     * @param parentNode  node to retrieve raw childs for
+     * @param recursively whether should retrieve raw childs for all loaded child nodes or not
+     * @return copies of raw childs lists
+     */
+    protected Map<E, List<E>> getRawChildsSnapshot ( final E parentNode, final boolean recursively )
+    {
+        final Map<E, List<E>> snapshot = new LinkedHashMap<E, List<E>> ();
+        synchronized ( cacheLock )
+        {
+            final LinkedList<E> queue = new LinkedList<E> ();
+            queue.add ( parentNode );
+            while ( !queue.isEmpty () )
+            {
+                final E node = queue.removeFirst ();
+                final List<E> childs = rawNodeChildsCache.get ( node.getId () );
+                if ( childs != null )
+                {
+                    snapshot.put ( node, new ArrayList<E> ( childs ) );
+                    if ( recursively )
+                    {
+                        queue.addAll ( childs );
+                    }
+                }
+            }
+        }
+        return snapshot;
     }
 
     /**
-     * Updates node childs using current comparator and filter.
+     * Changes value of the node at the specified path.
+     * Also clears cached filter accept state of that node since its text might have changed.
+     *
+     * @param path     path to the changed node
+     * @param newValue new node value
+     */
+    @Override
+    public void valueForPathChanged ( final TreePath path, final Object newValue )
+    {
+        super.valueForPathChanged ( path, newValue );
+        clearFilterCache ( ( TreeNode ) path.getLastPathComponent () );
+    }
+
+    /**
+     * Clears cached accept state of the specified node in the filter used for its parent childs.
+     * This should be called when node text is changed directly, node state changes don't affect cached accept states.
+     *
+     * @param node node to clear cached accept state for
+     */
+    public void clearFilterCache ( final TreeNode node )
+    {
+        if ( node instanceof AsyncUniqueNode && node.getParent () instanceof AsyncUniqueNode )
+        {
+            final E parent = findNode ( ( ( AsyncUniqueNode ) node.getParent () ).getId () );
+            if ( parent != null )
+            {
+                final Filter<E> filter = dataProvider.getChildsFilter ( parent );
+                if ( filter instanceof AsyncTreeNodesFilter )
+                {
+                    ( ( AsyncTreeNodesFilter<?> ) filter ).clearCache ( ( ( AsyncUniqueNode ) node ).getId () );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns copy of raw childs list for the specified node.
+     * Returns empty list if node childs are not loaded yet.
+     * This method can be safely called from any thread.
+     *
+     * @param parentNode node to retrieve raw childs for
+     * @return copy of raw childs list for the specified node
+     */
+    public List<E> getRawChilds ( final E parentNode )
+    {
+        synchronized ( cacheLock )
+        {
+            final List<E> childs = rawNodeChildsCache.get ( parentNode.getId () );
+            return childs != null ? new ArrayList<E> ( childs ) : new ArrayList<E> ( 0 );
+        }
+    }
+
+    /**
+     * Performs sorting and filtering of the specified raw childs and returns filtered and sorted childs for each node.
+     * Returns null if update with the specified ID was cancelled.
+     *
+     * @param rawChilds raw childs for each node
+     * @param id        update ID or -1 if update cannot be cancelled
+     * @return filtered and sorted childs for each node or null if update was cancelled
+     */
+    protected Map<E, List<E>> filterAndSort ( final Map<E, List<E>> rawChilds, final int id )
+    {
+        final Map<E, List<E>> realChilds = new HashMap<E, List<E>> ( rawChilds.size () );
+        final Map<String, Boolean> results = new HashMap<String, Boolean> ();
+        for ( final Map.Entry<E, List<E>> entry : rawChilds.entrySet () )
+        {
+            if ( id != -1 && id != sortingAndFilteringId )
+            {
+                return null;
+            }
+            realChilds.put ( entry.getKey (), filterAndSort ( entry.getKey (), entry.getValue (), results ) );
+        }
+        return realChilds;
+    }
+
+    /**
+     * Updates childs of each specified node in tree according to filtered and sorted childs.
+     * Only actually removed and inserted childs are reported to tree, so expansion and selection states of other nodes are preserved.
+     *
+     * @param rawChilds  raw childs for each node used to calculate filtered and sorted childs
+     * @param realChilds filtered and sorted childs for each node
+     */
+    protected void updateChilds ( final Map<E, List<E>> rawChilds, final Map<E, List<E>> realChilds )
+    {
+        for ( final Map.Entry<E, List<E>> entry : rawChilds.entrySet () )
+        {
+            final E parentNode = entry.getKey ();
+            List<E> childs = realChilds.get ( parentNode );
+
+            // Raw childs might have changed while update was in progress
+            synchronized ( cacheLock )
+            {
+                final List<E> raw = rawNodeChildsCache.get ( parentNode.getId () );
+                if ( raw == null )
+                {
+                    continue;
+                }
+                if ( !raw.equals ( entry.getValue () ) )
+                {
+                    childs = filterAndSort ( parentNode, new ArrayList<E> ( raw ) );
+                }
+            }
+
+            // Updating node childs
+            if ( !updateChilds ( parentNode, childs ) )
+            {
+                replaceChilds ( parentNode, childs );
+            }
+        }
+    }
+
+    /**
+     * Replaces node childs and updates the whole node structure.
+     * Expansion and selection states of the nodes which are kept are restored after the update.
      *
      * @param parentNode node to update
+     * @param childs     filtered and sorted childs
      */
-    protected void performSortingAndFilteringRecursivelyImpl ( final E parentNode )
+    protected void replaceChilds ( final E parentNode, final List<E> childs )
     {
-        performSortingAndFilteringImpl ( parentNode );
-        for ( int i = 0; i < parentNode.getChildCount (); i++ )
+        // Simply replacing childs if node is not displayed
+        if ( !isAttached ( parentNode ) )
         {
-            performSortingAndFilteringRecursivelyImpl ( ( E ) parentNode.getChildAt ( i ) );
+            parentNode.removeAllChildren ();
+            for ( final E child : childs )
+            {
+                parentNode.add ( child );
+            }
+            return;
+        }
+
+        // Saving expansion and selection states of the node childs
+        final TreePath path = new TreePath ( parentNode.getPath () );
+        final List<TreePath> expanded = new ArrayList<TreePath> ();
+        final Enumeration<TreePath> expandedDescendants = tree.getExpandedDescendants ( path );
+        if ( expandedDescendants != null )
+        {
+            while ( expandedDescendants.hasMoreElements () )
+            {
+                expanded.add ( expandedDescendants.nextElement () );
+            }
+        }
+        final List<TreePath> selected = new ArrayList<TreePath> ();
+        final TreePath[] selectionPaths = tree.getSelectionPaths ();
+        if ( selectionPaths != null )
+        {
+            for ( final TreePath selectionPath : selectionPaths )
+            {
+                if ( path.isDescendant ( selectionPath ) && selectionPath != path && !selectionPath.equals ( path ) )
+                {
+                    selected.add ( selectionPath );
+                }
+            }
+        }
+
+        // Updating node structure
+        parentNode.removeAllChildren ();
+        for ( final E child : childs )
+        {
+            parentNode.add ( child );
+        }
+        nodeStructureChanged ( parentNode );
+
+        // Restoring states of the nodes which are still displayed
+        for ( final TreePath expandedPath : expanded )
+        {
+            if ( isAttached ( ( AsyncUniqueNode ) expandedPath.getLastPathComponent () ) )
+            {
+                tree.expandPath ( expandedPath );
+            }
+        }
+        final List<TreePath> restoredSelection = new ArrayList<TreePath> ( selected.size () );
+        for ( final TreePath selectedPath : selected )
+        {
+            if ( isAttached ( ( AsyncUniqueNode ) selectedPath.getLastPathComponent () ) )
+            {
+                restoredSelection.add ( selectedPath );
+            }
+        }
+        if ( restoredSelection.size () > 0 )
+        {
+            tree.addSelectionPaths ( restoredSelection.toArray ( new TreePath[ restoredSelection.size () ] ) );
         }
     }
 
     /**
-     * Updates node childs recursively using current comparator and filter.
+     * Updates node childs by removing childs which are not in the specified list and inserting new ones.
+     * Returns false without changing anything if childs which are kept have different order in the specified list or if there are too
+     * many changes to report them separately.
      *
      * @param parentNode node to update
+     * @param childs     filtered and sorted childs
+     * @return true if node childs were updated, false if the whole node structure should be updated instead
      */
-    protected void performSortingAndFilteringImpl ( final E parentNode )
+    protected boolean updateChilds ( final E parentNode, final List<E> childs )
     {
-        // Retrieving raw childs
-        final List<E> childs = rawNodeChildsCache.get ( parentNode.getId () );
+        final int count = parentNode.getChildCount ();
+        final Set<TreeNode> oldChilds = Collections.newSetFromMap ( new IdentityHashMap<TreeNode, Boolean> ( count ) );
+        for ( int i = 0; i < count; i++ )
+        {
+            oldChilds.add ( parentNode.getChildAt ( i ) );
+        }
+        final Set<E> newChilds = Collections.newSetFromMap ( new IdentityHashMap<E, Boolean> ( childs.size () ) );
+        newChilds.addAll ( childs );
 
-        // Process this action only if node childs are already loaded and cached
-        if ( childs != null )
+        // Checking that kept childs order is the same
+        int index = 0;
+        for ( int i = 0; i < count; i++ )
         {
-            // Removing old children
-            parentNode.removeAllChildren ();
+            final TreeNode child = parentNode.getChildAt ( i );
+            if ( newChilds.contains ( child ) )
+            {
+                while ( index < childs.size () && !oldChilds.contains ( childs.get ( index ) ) )
+                {
+                    index++;
+                }
+                if ( index == childs.size () || childs.get ( index ) != child )
+                {
+                    return false;
+                }
+                index++;
+            }
+        }
+
+        // Events are only required for nodes which are displayed in the tree
+        final boolean attached = isAttached ( parentNode );
 
-            // Filtering and sorting raw childs
-            final List<E> realChilds = filterAndSort ( parentNode, childs );
+        // Checking amount of changes
+        final int insertedCount = countNew ( childs, oldChilds );
+        final int removedCount = count - ( childs.size () - insertedCount );
+        if ( attached && removedCount + insertedCount > maxChildsChanges )
+        {
+            return false;
+        }
 
-            // Inserting new childs
-            for ( final E child : realChilds )
+        // Removing filtered out childs
+        if ( removedCount > 0 )
+        {
+            final int[] indices = new int[ removedCount ];
+            final Object[] removed = new Object[ removedCount ];
+            int r = removedCount;
+            for ( int i = count - 1; i >= 0; i-- )
             {
-                parentNode.add ( child );
+                final TreeNode child = parentNode.getChildAt ( i );
+                if ( !newChilds.contains ( child ) )
+                {
+                    r--;
+                    indices[ r ] = i;
+                    removed[ r ] = child;
+                    parentNode.remove ( i );
+                }
+            }
+            if ( attached )
+            {
+                nodesWereRemoved ( parentNode, indices, removed );
+            }
+        }
+
+        // Inserting new childs
+        if ( insertedCount > 0 )
+        {
+            final int[] indices = new int[ insertedCount ];
+            int n = 0;
+            for ( int i = 0; i < childs.size (); i++ )
+            {
+                final E child = childs.get ( i );
+                if ( !oldChilds.contains ( child ) )
+                {
+                    parentNode.insert ( child, i );
+                    indices[ n++ ] = i;
+                }
+            }
+            if ( attached )
+            {
+                nodesWereInserted ( parentNode, indices );
             }
         }
+        return true;
+    }
+
+    /**
+     * Returns amount of childs which are not in the old childs set.
+     *
+     * @param childs    childs
+     * @param oldChilds old childs set
+     * @return amount of childs which are not in the old childs set
+     */
+    private int countNew ( final List<E> childs, final Set<TreeNode> oldChilds )
+    {
+        int count = 0;
+        for ( final E child : childs )
+        {
+            if ( !oldChilds.contains ( child ) )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether the specified node is displayed in the tree structure or not.
+     * Node might be detached from the tree when one of its parents is filtered out.
+     *
+     * @param node node to check
+     * @return true if the specified node is displayed in the tree structure, false otherwise
+     */
+    protected boolean isAttached ( final AsyncUniqueNode node )
+    {
+        return node.getRoot () == rootNode;
+    }
+
+    /**
+     * Performs raw childs filtering and sorting before they can be passed into real tree and returns list of filtered and sorted childs.
+     *
+     * @param parentNode parent node
+     * @param childs     childs to filter and sort
+     * @return list of filtered and sorted childs
+     */
+    protected List<E> filterAndSort ( final E parentNode, final List<E> childs )
+    {
+        return filterAndSort ( parentNode, childs, null );
     }
 
     /**
      * Performs raw childs filtering and sorting before they can be passed into real tree and returns list of filtered and sorted childs.
      *
-     * @param childs childs to filter and sort
+     * @param parentNode parent node
+     * @param childs     childs to filter and sort
+     * @param results    cache for nodes filtering results within single filtering pass, might be null
      * @return list of filtered and sorted childs
      */
-    protected List<E> filterAndSort ( final E parentNode, List<E> childs )
+    protected List<E> filterAndSort ( final E parentNode, List<E> childs, final Map<String, Boolean> results )
     {
         // Simply return an empty array if there is no childs
         if ( childs == null || childs.size () == 0 )
@@ -1061,7 +1450,14 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         final Comparator<E> comparator = dataProvider.getChildsComparator ( parentNode );
         if ( filter != null )
         {
-            final List<E> filtered = CollectionUtils.filter ( childs, filter );
+            final List<E> filtered = new ArrayList<E> ( childs.size () );
+            for ( final E child : childs )
+            {
+                if ( accept ( filter, child, results ) )
+                {
+                    filtered.add ( child );
+                }
+            }
             if ( comparator != null )
             {
                 Collections.sort ( filtered, comparator );
@@ -1079,6 +1475,51 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         }
     }
 
+    /**
+     * Returns whether the specified filter accepts node or not.
+     * Tree nodes filter checks raw node childs cached in this model instead of childs displayed in the tree.
+     *
+     * @param filter  nodes filter
+     * @param node    node to check
+     * @param results cache for nodes filtering results within single filtering pass, might be null
+     * @return true if the specified filter accepts node, false otherwise
+     */
+    protected boolean accept ( final Filter<E> filter, final E node, final Map<String, Boolean> results )
+    {
+        if ( filter instanceof AsyncTreeNodesFilter )
+        {
+            return ( ( AsyncTreeNodesFilter<E> ) filter ).accept ( node, this, results );
+        }
+        else
+        {
+            return filter.accept ( node );
+        }
+    }
+
+    /**
+     * Returns new executor for sorting and filtering operations.
+     * Executor uses a single daemon thread which dies after some time of inactivity.
+     *
+     * @return new executor for sorting and filtering operations
+     */
+    protected static ThreadPoolExecutor createSortingAndFilteringExecutor ()
+    {
+        final AtomicInteger threadNumber = new AtomicInteger ( 0 );
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor ( 1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable> (),
+                new ThreadFactory ()
+                {
+                    @Override
+                    public Thread newThread ( final Runnable r )
+                    {
+                        final Thread thread = new Thread ( r, "AsyncTreeModel.sorting-" + threadNumber.incrementAndGet () );
+                        thread.setDaemon ( true );
+                        return thread;
+                    }
+                } );
+        executor.allowCoreThreadTimeOut ( true );
+        return executor;
+    }
+
     /**
      * Looks for the node with the specified ID in the tree model and returns it or null if it was not found.
      *
@@ -21,13 +21,19 @@ import com.alee.utils.compare.Filter;
 import com.alee.utils.text.DefaultTextProvider;
 import com.alee.utils.text.TextProvider;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Special smart tree filter that doesn't filter out parent nodes which has childs that are accepted by filter.
  * This can be used in any kind of filter fields to provide a proper visual feedback in tree.
+ * <p/>
+ * Filter caches accept state of each node for the current search request. When new search request narrows the previous one (for
+ * example when user continues typing) nodes which were rejected before are known to be rejected again, so their cached states are kept.
+ * Filter can be safely used outside of the Event Dispatch Thread.
  *
  * @author Mikle Garin
  */
@@ -40,9 +46,9 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     protected TextProvider<E> textProvider;
 
     /**
-     * Accept states by node IDs cache.
+     * Accept states cache for the current search request.
      */
-    protected Map<String, Boolean> acceptStatesCache = new HashMap<String, Boolean> ();
+    protected volatile AcceptStates acceptStates = new AcceptStates ( "", false, false, false, null );
 
     /**
      * Whether should match case or not.
@@ -83,6 +89,7 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     public void setTextProvider ( final TextProvider<E> textProvider )
     {
         this.textProvider = textProvider != null ? textProvider : new DefaultTextProvider ();
+        clearCache ();
     }
 
     /**
@@ -103,6 +110,7 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     public void setMatchCase ( final boolean matchCase )
     {
         this.matchCase = matchCase;
+        updateAcceptStates ();
     }
 
     /**
@@ -123,6 +131,7 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     public void setUseSpaceAsSeparator ( final boolean useSpaceAsSeparator )
     {
         this.useSpaceAsSeparator = useSpaceAsSeparator;
+        updateAcceptStates ();
     }
 
     /**
@@ -143,6 +152,7 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     public void setSearchFromStart ( final boolean searchFromStart )
     {
         this.searchFromStart = searchFromStart;
+        updateAcceptStates ();
     }
 
     /**
@@ -162,7 +172,8 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
      */
     public void setSearchText ( final String searchText )
     {
-        this.searchText = searchText;
+        this.searchText = searchText != null ? searchText : "";
+        updateAcceptStates ();
     }
 
     /**
@@ -170,7 +181,102 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
      */
     public void clearCache ()
     {
-        acceptStatesCache.clear ();
+        final AcceptStates states = acceptStates;
+        acceptStates = new AcceptStates ( states.request, states.matchCase, states.useSpaceAsSeparator, states.searchFromStart, null );
+    }
+
+    /**
+     * Clears cached accept state of the specified node.
+     * This should be called when node text changes.
+     *
+     * @param node node to clear cached accept state for
+     */
+    public void clearCache ( final E node )
+    {
+        clearCache ( node.getId () );
+    }
+
+    /**
+     * Clears cached accept state of the node with the specified ID.
+     * This should be called when node text changes.
+     *
+     * @param nodeId ID of the node to clear cached accept state for
+     */
+    public void clearCache ( final String nodeId )
+    {
+        AcceptStates states = acceptStates;
+        while ( states != null )
+        {
+            states.states.remove ( nodeId );
+            states = states.previous;
+        }
+    }
+
+    /**
+     * Updates accept states cache according to the current filter settings.
+     * Previous states are kept to look up rejected nodes if new search request narrows the previous one.
+     */
+    protected void updateAcceptStates ()
+    {
+        final AcceptStates old = acceptStates;
+        final String request = matchCase ? searchText : searchText.toLowerCase ();
+        final AcceptStates states = new AcceptStates ( request, matchCase, useSpaceAsSeparator, searchFromStart, old );
+        acceptStates = isNarrowing ( old, states ) ? states :
+                new AcceptStates ( request, matchCase, useSpaceAsSeparator, searchFromStart, null );
+    }
+
+    /**
+     * Returns whether new search request accepts only nodes which were accepted by the old one or not.
+     *
+     * @param old    old accept states
+     * @param states new accept states
+     * @return true if new search request accepts only nodes which were accepted by the old one, false otherwise
+     */
+    protected boolean isNarrowing ( final AcceptStates old, final AcceptStates states )
+    {
+        if ( old.request.equals ( "" ) || old.matchCase != states.matchCase || old.useSpaceAsSeparator != states.useSpaceAsSeparator ||
+                old.searchFromStart != states.searchFromStart )
+        {
+            return false;
+        }
+        if ( states.useSpaceAsSeparator )
+        {
+            final List<String> oldRequests = split ( old.request );
+            final List<String> requests = split ( states.request );
+            if ( oldRequests.size () == 0 || oldRequests.size () != requests.size () )
+            {
+                return false;
+            }
+            for ( int i = 0; i < requests.size (); i++ )
+            {
+                if ( !accept ( requests.get ( i ), oldRequests.get ( i ), states.searchFromStart ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        else
+        {
+            return accept ( states.request, old.request, states.searchFromStart );
+        }
+    }
+
+    /**
+     * Returns list of single search requests separated by spaces.
+     *
+     * @param request search request
+     * @return list of single search requests separated by spaces
+     */
+    protected List<String> split ( final String request )
+    {
+        final List<String> requests = new ArrayList<String> ();
+        final StringTokenizer tokenizer = new StringTokenizer ( request, " ", false );
+        while ( tokenizer.hasMoreTokens () )
+        {
+            requests.add ( tokenizer.nextToken () );
+        }
+        return requests;
     }
 
     /**
@@ -179,48 +285,93 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     @Override
     public boolean accept ( final E node )
     {
-        final String searchRequest = matchCase ? searchText : searchText.toLowerCase ();
-        return searchRequest.equals ( "" ) || acceptIncludingChilds ( node, searchRequest );
+        return accept ( node, null, null );
+    }
+
+    /**
+     * Returns whether the specified node or any of its childs match the filter or not.
+     * If model is specified raw childs cached in that model are checked instead of the childs currently present in the tree, this also
+     * allows this method to be called outside of the Event Dispatch Thread.
+     *
+     * @param node    node to match
+     * @param model   model to retrieve raw node childs from, might be null
+     * @param results cache for results of this method within single filtering pass, might be null
+     * @return true if the specified node or any of its childs match the filter, false otherwise
+     */
+    public boolean accept ( final E node, final AsyncTreeModel<E> model, final Map<String, Boolean> results )
+    {
+        final AcceptStates states = acceptStates;
+        return states.request.equals ( "" ) || acceptIncludingChilds ( node, states, model, results );
     }
 
     /**
      * Returns whether the specified node or any of its childs match the filter or not.
      *
-     * @param node          node to match
-     * @param searchRequest search request text
+     * @param node    node to match
+     * @param states  accept states for the current search request
+     * @param model   model to retrieve raw node childs from, might be null
+     * @param results cache for results of this method within single filtering pass, might be null
      * @return true if the specified node or any of its childs match the filter, false otherwise
      */
-    protected boolean acceptIncludingChilds ( final E node, final String searchRequest )
+    protected boolean acceptIncludingChilds ( final E node, final AcceptStates states, final AsyncTreeModel<E> model,
+                                              final Map<String, Boolean> results )
     {
-        if ( acceptNode ( node, searchRequest ) )
+        if ( results != null )
         {
-            return true;
+            final Boolean result = results.get ( node.getId () );
+            if ( result != null )
+            {
+                return result;
+            }
         }
-        for ( int i = 0; i < node.getChildCount (); i++ )
+        boolean accept = acceptNode ( node, states );
+        if ( !accept )
         {
-            if ( acceptIncludingChilds ( ( E ) node.getChildAt ( i ), searchRequest ) )
+            if ( model != null )
             {
-                return true;
+                for ( final E child : model.getRawChilds ( node ) )
+                {
+                    if ( acceptIncludingChilds ( child, states, model, results ) )
+                    {
+                        accept = true;
+                        break;
+                    }
+                }
+            }
+            else
+            {
+                for ( int i = 0; i < node.getChildCount (); i++ )
+                {
+                    if ( acceptIncludingChilds ( ( E ) node.getChildAt ( i ), states, model, results ) )
+                    {
+                        accept = true;
+                        break;
+                    }
+                }
             }
         }
-        return false;
+        if ( results != null )
+        {
+            results.put ( node.getId (), accept );
+        }
+        return accept;
     }
 
     /**
      * Returns whether the specified node matches the filter or not.
      * This method might return cached value if it exists, otherwise it will retrieve and cache a new value.
      *
-     * @param node          node to match
-     * @param searchRequest search request text
+     * @param node   node to match
+     * @param states accept states for the current search request
      * @return true if the specified node matches the filter, false otherwise
      */
-    protected boolean acceptNode ( final E node, final String searchRequest )
+    protected boolean acceptNode ( final E node, final AcceptStates states )
     {
-        Boolean accept = acceptStatesCache.get ( node.getId () );
+        Boolean accept = states.states.get ( node.getId () );
         if ( accept == null )
         {
-            accept = acceptNodeImpl ( node, searchRequest );
-            acceptStatesCache.put ( node.getId (), accept );
+            accept = states.previous != null && states.previous.isRejected ( node.getId () ) ? false : acceptNodeImpl ( node, states );
+            states.states.put ( node.getId (), accept );
         }
         return accept;
     }
@@ -228,19 +379,20 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     /**
      * Returns whether the specified node matches the filter or not.
      *
-     * @param node          node to match
-     * @param searchRequest search request text
+     * @param node   node to match
+     * @param states accept states for the current search request
      * @return true if the specified node matches the filter, false otherwise
      */
-    protected boolean acceptNodeImpl ( final E node, final String searchRequest )
+    protected boolean acceptNodeImpl ( final E node, final AcceptStates states )
     {
-        final String nodeText = matchCase ? textProvider.provide ( node ) : textProvider.provide ( node ).toLowerCase ();
-        if ( useSpaceAsSeparator )
+        final String text = textProvider.provide ( node );
+        final String nodeText = states.matchCase ? text : text.toLowerCase ();
+        if ( states.useSpaceAsSeparator )
         {
-            final StringTokenizer tokenizer = new StringTokenizer ( searchRequest, " ", false );
+            final StringTokenizer tokenizer = new StringTokenizer ( states.request, " ", false );
             while ( tokenizer.hasMoreTokens () )
             {
-                if ( accept ( nodeText, tokenizer.nextToken (), searchFromStart ) )
+                if ( accept ( nodeText, tokenizer.nextToken (), states.searchFromStart ) )
                 {
                     return true;
                 }
@@ -249,7 +401,7 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
         }
         else
         {
-            return accept ( nodeText, searchRequest, searchFromStart );
+            return accept ( nodeText, states.request, states.searchFromStart );
         }
     }
 
@@ -265,4 +417,85 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     {
         return searchFromStart ? nodeText.startsWith ( searchRequest ) : nodeText.contains ( searchRequest );
     }
-}
\ No newline at end of file
+
+    /**
+     * Accept states cache for a single search request.
+     * Search request and settings are stored together with the cache so it is never mixed with states for another request.
+     */
+    protected static final class AcceptStates
+    {
+        /**
+         * Maximum length of previous states chain.
+         */
+        protected static final int MAX_DEPTH = 16;
+
+        /**
+         * Search request text, lowercased if case doesn't matter.
+         */
+        protected final String request;
+
+        /**
+         * Whether should match case or not.
+         */
+        protected final boolean matchCase;
+
+        /**
+         * Whether should use space character as requests separator or not.
+         */
+        protected final boolean useSpaceAsSeparator;
+
+        /**
+         * Whether should search from node text beginning or not.
+         */
+        protected final boolean searchFromStart;
+
+        /**
+         * Accept states by node IDs.
+         */
+        protected final Map<String, Boolean> states = new ConcurrentHashMap<String, Boolean> ();
+
+        /**
+         * Accept states for the previous, wider search request.
+         * Nodes rejected there are also rejected for this request.
+         */
+        protected final AcceptStates previous;
+
+        /**
+         * Length of previous states chain.
+         */
+        protected final int depth;
+
+        /**
+         * Constructs new accept states cache.
+         *
+         * @param request             search request text
+         * @param matchCase           whether should match case or not
+         * @param useSpaceAsSeparator whether should use space character as requests separator or not
+         * @param searchFromStart     whether should search from node text beginning or not
+         * @param previous            accept states for the previous, wider search request
+         */
+        protected AcceptStates ( final String request, final boolean matchCase, final boolean useSpaceAsSeparator,
+                                 final boolean searchFromStart, final AcceptStates previous )
+        {
+            super ();
+            this.request = request;
+            this.matchCase = matchCase;
+            this.useSpaceAsSeparator = useSpaceAsSeparator;
+            this.searchFromStart = searchFromStart;
+            this.previous = previous != null && previous.depth < MAX_DEPTH ? previous : null;
+            this.depth = this.previous != null ? this.previous.depth + 1 : 0;
+        }
+
+        /**
+         * Returns whether node with the specified ID is known to be rejected by this or any previous search request.
+         *
+         * @param id node ID
+         * @return true if node with the specified ID is known to be rejected, false otherwise
+         */
+        protected boolean isRejected ( final String id )
+        {
+            final Boolean state = states.get ( id );
+            return state != null ? !state : previous != null && previous.isRejected ( id );
+        }
+    }
+}
@@ -17,13 +17,24 @@
 
 package com.alee.extended.tree;
 
-import java.util.Map;
-import java.util.WeakHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import javax.swing.tree.TreeNode;
+import javax.swing.tree.TreePath;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Asynchronous tree childs loading queue.
+ * <p/>
+ * All queues share a single prioritized loader engine which runs tasks on a limited pool of threads. Threads are created on demand and
+ * die after some time of inactivity. Tasks for nodes which are currently displayed within the tree visible area go first and the most
+ * recently requested ones are executed before older requests. Node visibility is checked when next task is taken from the queue, so
+ * expanding, collapsing or scrolling the tree re-prioritizes already queued tasks. Pending node tasks can be cancelled, for example when
+ * node is collapsed before its childs load started.
+ * <p/>
+ * Besides the global threads limit each queue also has its own limit for simultaneously running tasks.
  *
  * @author Mikle Garin
  */
@@ -41,20 +52,71 @@ public final class AsyncTreeQueue
      */
     public static boolean separateLimitForEachTree = true;
 
+    /**
+     * Loader threads keep-alive time in milliseconds.
+     */
+    public static long threadKeepAliveTime = 30000;
+
     /**
      * Currently cached queues list.
      */
-    private static Map<WebAsyncTree, AsyncTreeQueue> queues = new WeakHashMap<WebAsyncTree, AsyncTreeQueue> ();
+    private static Map<WebAsyncTree<?>, AsyncTreeQueue> queues = new WeakHashMap<WebAsyncTree<?>, AsyncTreeQueue> ();
+
+    /**
+     * Loader engine lock.
+     */
+    private static final Object engineLock = new Object ();
+
+    /**
+     * Pending tasks of all queues in execution order.
+     */
+    private static final TreeSet<Task> pending = new TreeSet<Task> ();
+
+    /**
+     * Requests sequence used to execute most recent requests first.
+     */
+    private static final AtomicLong sequence = new AtomicLong ( 0 );
 
     /**
-     * Lock for ExecutorService calls synchronization.
+     * Maximum amount of loader threads for all queues.
      */
-    private final Object lock = new Object ();
+    private static int globalThreadsAmount = Math.max ( 4, Runtime.getRuntime ().availableProcessors () * 2 );
 
     /**
-     * ExecutorService to limit simultaneously running threads.
+     * Loader engine state.
      */
-    private ExecutorService executorService = Executors.newFixedThreadPool ( threadsAmount );
+    private static int threadsCount = 0;
+    private static int idleThreadsCount = 0;
+    private static int threadNumber = 0;
+
+    /**
+     * Loader engine statistics.
+     */
+    private static int activeCount = 0;
+    private static int maxQueueSize = 0;
+    private static long completedCount = 0;
+    private static long cancelledCount = 0;
+
+    /**
+     * Maximum amount of simultaneously running tasks of this queue.
+     * Zero means that only global threads limit is applied.
+     */
+    private int limit = threadsAmount;
+
+    /**
+     * Amount of pending tasks of this queue.
+     */
+    private int pendingCount = 0;
+
+    /**
+     * Amount of running tasks of this queue.
+     */
+    private int runningCount = 0;
+
+    /**
+     * Whether this queue was shutdown or not.
+     */
+    private boolean shutdown = false;
 
     /**
      * Sets maximum threads amount for the specified asynchronous tree.
@@ -62,7 +124,7 @@ public final class AsyncTreeQueue
      * @param asyncTree asynchronous tree to process
      * @param amount    new maximum threads amount
      */
-    public static void setMaximumThreadsAmount ( final WebAsyncTree asyncTree, final int amount )
+    public static void setMaximumThreadsAmount ( final WebAsyncTree<?> asyncTree, final int amount )
     {
         getInstance ( asyncTree ).setMaximumThreadsAmount ( amount );
     }
@@ -73,11 +135,37 @@ public final class AsyncTreeQueue
      * @param asyncTree asynchronous tree to process
      * @param runnable  runnable to execute
      */
-    public static void execute ( final WebAsyncTree asyncTree, final Runnable runnable )
+    public static void execute ( final WebAsyncTree<?> asyncTree, final Runnable runnable )
     {
         getInstance ( asyncTree ).execute ( runnable );
     }
 
+    /**
+     * Executes node-related runnable using queue for the specified asynchronous tree.
+     * Such runnable can be cancelled until it is started, runnables for nodes displayed in the tree are executed first.
+     *
+     * @param asyncTree asynchronous tree to process
+     * @param node      node the runnable is related to
+     * @param runnable  runnable to execute
+     */
+    public static void execute ( final WebAsyncTree<?> asyncTree, final AsyncUniqueNode node, final Runnable runnable )
+    {
+        getInstance ( asyncTree ).enqueue ( asyncTree, node, runnable );
+    }
+
+    /**
+     * Cancels pending runnables related to the specified node and any of its child nodes.
+     * Runnables which are already started are not affected.
+     *
+     * @param asyncTree asynchronous tree to process
+     * @param node      node to cancel runnables for
+     * @return nodes which had their runnables cancelled
+     */
+    public static List<AsyncUniqueNode> cancel ( final WebAsyncTree<?> asyncTree, final AsyncUniqueNode node )
+    {
+        return getInstance ( asyncTree ).cancel ( node );
+    }
+
     /**
      * Returns an instance of queue for the specified asynchronous tree.
      * This method might return the same queue for all trees depending on "separateLimitForEachTree" variable value.
@@ -85,7 +173,7 @@ public final class AsyncTreeQueue
      * @param asyncTree asynchronous tree to process
      * @return an instance of queue for the specified asynchronous tree
      */
-    public static AsyncTreeQueue getInstance ( final WebAsyncTree asyncTree )
+    public static AsyncTreeQueue getInstance ( final WebAsyncTree<?> asyncTree )
     {
         if ( separateLimitForEachTree )
         {
@@ -103,22 +191,25 @@ public final class AsyncTreeQueue
      * @param asyncTree asynchronous tree to process
      * @return an instance of queue for the specified asynchronous tree
      */
-    private static AsyncTreeQueue getInstanceImpl ( final WebAsyncTree asyncTree )
+    private static AsyncTreeQueue getInstanceImpl ( final WebAsyncTree<?> asyncTree )
     {
-        AsyncTreeQueue queue = queues.get ( asyncTree );
-        if ( queue == null )
+        synchronized ( engineLock )
         {
-            // Shutting down all tree-specific queues since the queue generation rule has changed
-            if ( asyncTree == null )
+            AsyncTreeQueue queue = queues.get ( asyncTree );
+            if ( queue == null )
             {
-                shutdownAllQueues ();
-            }
+                // Shutting down all tree-specific queues since the queue generation rule has changed
+                if ( asyncTree == null )
+                {
+                    shutdownAllQueues ();
+                }
 
-            // Creating new queue
-            queue = new AsyncTreeQueue ();
-            queues.put ( asyncTree, queue );
+                // Creating new queue
+                queue = new AsyncTreeQueue ();
+                queues.put ( asyncTree, queue );
+            }
+            return queue;
         }
-        return queue;
     }
 
     /**
@@ -126,12 +217,121 @@ public final class AsyncTreeQueue
      */
     private static void shutdownAllQueues ()
     {
-        for ( final Map.Entry<WebAsyncTree, AsyncTreeQueue> queueEntry : queues.entrySet () )
+        for ( final Map.Entry<WebAsyncTree<?>, AsyncTreeQueue> queueEntry : queues.entrySet () )
         {
             queueEntry.getValue ().shutdown ();
         }
     }
 
+    /**
+     * Returns maximum amount of loader threads for all queues.
+     *
+     * @return maximum amount of loader threads for all queues
+     */
+    public static int getGlobalThreadsAmount ()
+    {
+        synchronized ( engineLock )
+        {
+            return globalThreadsAmount;
+        }
+    }
+
+    /**
+     * Sets maximum amount of loader threads for all queues.
+     *
+     * @param amount maximum amount of loader threads for all queues
+     */
+    public static void setGlobalThreadsAmount ( final int amount )
+    {
+        if ( amount <= 0 )
+        {
+            throw new IllegalArgumentException ( "Invalid threads amount: " + amount );
+        }
+        synchronized ( engineLock )
+        {
+            globalThreadsAmount = amount;
+            dispatch ();
+        }
+    }
+
+    /**
+     * Returns amount of pending tasks of all queues.
+     *
+     * @return amount of pending tasks of all queues
+     */
+    public static int getQueueSize ()
+    {
+        synchronized ( engineLock )
+        {
+            return pending.size ();
+        }
+    }
+
+    /**
+     * Returns maximum amount of simultaneously pending tasks of all queues.
+     *
+     * @return maximum amount of simultaneously pending tasks of all queues
+     */
+    public static int getMaxQueueSize ()
+    {
+        synchronized ( engineLock )
+        {
+            return maxQueueSize;
+        }
+    }
+
+    /**
+     * Returns amount of currently running tasks of all queues.
+     *
+     * @return amount of currently running tasks of all queues
+     */
+    public static int getActiveCount ()
+    {
+        synchronized ( engineLock )
+        {
+            return activeCount;
+        }
+    }
+
+    /**
+     * Returns amount of currently alive loader threads.
+     *
+     * @return amount of currently alive loader threads
+     */
+    public static int getThreadsCount ()
+    {
+        synchronized ( engineLock )
+        {
+            return threadsCount;
+        }
+    }
+
+    /**
+     * Returns amount of completed tasks of all queues.
+     *
+     * @return amount of completed tasks of all queues
+     */
+    public static long getCompletedCount ()
+    {
+        synchronized ( engineLock )
+        {
+            return completedCount;
+        }
+    }
+
+    /**
+     * Returns amount of cancelled tasks of all queues.
+     *
+     * @return amount of cancelled tasks of all queues
+     */
+    public static long getCancelledCount ()
+    {
+        synchronized ( engineLock )
+        {
+            return cancelledCount;
+        }
+    }
+
     /**
      * Constructs new queue.
      */
@@ -147,54 +347,406 @@ public final class AsyncTreeQueue
      */
     public void setMaximumThreadsAmount ( final int amount )
     {
-        synchronized ( lock )
+        synchronized ( engineLock )
         {
-            if ( executorService != null )
+            limit = Math.max ( 0, amount );
+            dispatch ();
+        }
+    }
+
+    /**
+     * Returns amount of pending tasks of this queue.
+     *
+     * @return amount of pending tasks of this queue
+     */
+    public int getPendingCount ()
+    {
+        synchronized ( engineLock )
+        {
+            return pendingCount;
+        }
+    }
+
+    /**
+     * Returns amount of running tasks of this queue.
+     *
+     * @return amount of running tasks of this queue
+     */
+    public int getRunningCount ()
+    {
+        synchronized ( engineLock )
+        {
+            return runningCount;
+        }
+    }
+
+    /**
+     * Shutdowns this queue.
+     * Already queued tasks will still be executed but new tasks will be rejected.
+     */
+    public void shutdown ()
+    {
+        synchronized ( engineLock )
+        {
+            shutdown = true;
+        }
+    }
+
+    /**
+     * Executes runnable using this queue.
+     *
+     * @param runnable runnable to execute
+     */
+    public void execute ( final Runnable runnable )
+    {
+        enqueue ( null, null, runnable );
+    }
+
+    /**
+     * Queues node-related runnable for execution.
+     * Such runnable can be cancelled until it is started, runnables for nodes displayed in the tree are executed first.
+     *
+     * @param asyncTree asynchronous tree the node belongs to
+     * @param node      node the runnable is related to
+     * @param runnable  runnable to execute
+     */
+    private void enqueue ( final WebAsyncTree<?> asyncTree, final AsyncUniqueNode node, final Runnable runnable )
+    {
+        synchronized ( engineLock )
+        {
+            if ( shutdown )
             {
-                executorService.shutdown ();
+                throw new RejectedExecutionException ( "Queue was shutdown" );
             }
-            if ( amount > 0 )
+            pending.add ( new Task ( this, asyncTree, node, sequence.incrementAndGet (), runnable ) );
+            pendingCount++;
+            maxQueueSize = Math.max ( maxQueueSize, pending.size () );
+            dispatch ();
+        }
+    }
+
+    /**
+     * Cancels pending runnables related to the specified node and any of its child nodes.
+     * Runnables which are already started are not affected.
+     *
+     * @param node node to cancel runnables for
+     * @return nodes which had their runnables cancelled
+     */
+    public List<AsyncUniqueNode> cancel ( final AsyncUniqueNode node )
+    {
+        synchronized ( engineLock )
+        {
+            List<AsyncUniqueNode> cancelled = null;
+            final Iterator<Task> iterator = pending.iterator ();
+            while ( iterator.hasNext () )
             {
-                executorService = Executors.newFixedThreadPool ( amount );
+                final Task task = iterator.next ();
+                if ( task.queue == this && task.node != null && isSameOrDescendant ( node, task.node ) )
+                {
+                    iterator.remove ();
+                    pendingCount--;
+                    cancelledCount++;
+                    if ( cancelled == null )
+                    {
+                        cancelled = new ArrayList<AsyncUniqueNode> ( 1 );
+                    }
+                    cancelled.add ( task.node );
+                }
             }
-            else
+            return cancelled != null ? cancelled : Collections.<AsyncUniqueNode>emptyList ();
+        }
+    }
+
+    /**
+     * Returns whether specified node is the same as the ancestor node or one of its descendants.
+     *
+     * @param ancestor ancestor node
+     * @param node     node to check
+     * @return true if specified node is the same as the ancestor node or one of its descendants, false otherwise
+     */
+    private static boolean isSameOrDescendant ( final AsyncUniqueNode ancestor, final AsyncUniqueNode node )
+    {
+        TreeNode current = node;
+        while ( current != null )
+        {
+            if ( current == ancestor )
             {
-                executorService = null;
+                return true;
             }
+            current = current.getParent ();
         }
+        return false;
     }
 
     /**
-     * Shutdowns this queue.
+     * Wakes up idle loader threads or starts new ones if there are tasks which can be executed.
+     * This method should only be called under the engine lock.
      */
-    public void shutdown ()
+    private static void dispatch ()
     {
-        synchronized ( lock )
+        final int executable = countExecutable ();
+        if ( executable > 0 )
         {
-            if ( executorService != null )
+            // Waking up idle threads
+            if ( idleThreadsCount > 0 )
+            {
+                engineLock.notifyAll ();
+            }
+
+            // Starting additional threads if needed
+            final int toStart = Math.min ( executable - idleThreadsCount, globalThreadsAmount - threadsCount );
+            for ( int i = 0; i < toStart; i++ )
             {
-                executorService.shutdown ();
+                startThread ();
             }
         }
     }
 
     /**
-     * Executes runnable using this queue.
+     * Returns amount of pending tasks which can be executed right now considering queue limits.
+     * This method should only be called under the engine lock.
      *
-     * @param runnable runnable to execute
+     * @return amount of pending tasks which can be executed right now
      */
-    public void execute ( final Runnable runnable )
+    private static int countExecutable ()
     {
-        synchronized ( lock )
+        int executable = 0;
+        Map<AsyncTreeQueue, Integer> planned = null;
+        for ( final Task task : pending )
         {
-            if ( executorService != null )
+            final AsyncTreeQueue queue = task.queue;
+            if ( queue.limit > 0 )
             {
-                executorService.execute ( runnable );
+                if ( planned == null )
+                {
+                    planned = new IdentityHashMap<AsyncTreeQueue, Integer> ( 2 );
+                }
+                final Integer count = planned.get ( queue );
+                final int running = queue.runningCount + ( count != null ? count : 0 );
+                if ( running >= queue.limit )
+                {
+                    continue;
+                }
+                planned.put ( queue, running - queue.runningCount + 1 );
             }
-            else
+            executable++;
+            if ( activeCount + executable >= globalThreadsAmount )
             {
-                new Thread ( runnable, "AsyncTreeQueue" ).start ();
+                break;
             }
         }
+        return executable;
+    }
+
+    /**
+     * Starts new loader thread.
+     * This method should only be called under the engine lock.
+     */
+    private static void startThread ()
+    {
+        threadsCount++;
+        final Thread thread = new Thread ( new Runnable ()
+        {
+            @Override
+            public void run ()
+            {
+                processTasks ();
+            }
+        }, "AsyncTreeQueue-" + ( ++threadNumber ) );
+        thread.setDaemon ( true );
+        thread.start ();
+    }
+
+    /**
+     * Loader thread main loop.
+     */
+    private static void processTasks ()
+    {
+        while ( true )
+        {
+            // Retrieving next task
+            final Task task;
+            synchronized ( engineLock )
+            {
+                long idleTime = 0;
+                Task next;
+                while ( ( next = activeCount < globalThreadsAmount ? pollExecutable () : null ) == null )
+                {
+                    // Terminating excessive or inactive thread
+                    if ( threadsCount > globalThreadsAmount || idleTime >= threadKeepAliveTime )
+                    {
+                        threadsCount--;
+                        return;
+                    }
+
+                    // Waiting for new tasks
+                    final long start = System.currentTimeMillis ();
+                    idleThreadsCount++;
+                    try
+                    {
+                        engineLock.wait ( Math.max ( 1, threadKeepAliveTime - idleTime ) );
+                    }
+                    catch ( final InterruptedException e )
+                    {
+                        // Simply checking tasks again
+                    }
+                    finally
+                    {
+                        idleThreadsCount--;
+                    }
+                    idleTime += System.currentTimeMillis () - start;
+                }
+                task = next;
+                task.queue.pendingCount--;
+                task.queue.runningCount++;
+                activeCount++;
+            }
+
+            // Executing task
+            try
+            {
+                task.runnable.run ();
+            }
+            catch ( final Throwable e )
+            {
+                e.printStackTrace ();
+            }
+            finally
+            {
+                synchronized ( engineLock )
+                {
+                    task.queue.runningCount--;
+                    activeCount--;
+                    completedCount++;
+                    dispatch ();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes and returns pending task which should be executed next.
+     * Most recent task for the node displayed in the tree is returned first, otherwise most recent task is returned.
+     * Only tasks which queue allows their execution are considered.
+     * This method should only be called under the engine lock.
+     *
+     * @return pending task which should be executed next or null if there is no such task
+     */
+    private static Task pollExecutable ()
+    {
+        Task next = null;
+        for ( final Task task : pending )
+        {
+            if ( task.queue.limit <= 0 || task.queue.runningCount < task.queue.limit )
+            {
+                if ( isDisplayed ( task ) )
+                {
+                    next = task;
+                    break;
+                }
+                else if ( next == null )
+                {
+                    next = task;
+                }
+            }
+        }
+        if ( next != null )
+        {
+            pending.remove ( next );
+        }
+        return next;
+    }
+
+    /**
+     * Returns whether node of the specified task is currently displayed within the tree visible area or not.
+     * Tasks which are not related to any node are considered displayed.
+     * <p/>
+     * Tree state is read outside of the Event Dispatch Thread here, so the result is only used as a hint for tasks order. Tree might
+     * also change its state while it is read, in that case node is simply considered not displayed.
+     *
+     * @param task task to check
+     * @return true if node of the specified task is currently displayed within the tree visible area, false otherwise
+     */
+    private static boolean isDisplayed ( final Task task )
+    {
+        if ( task.tree == null || task.node == null || task.node == task.tree.getModel ().getRoot () )
+        {
+            return true;
+        }
+        try
+        {
+            final TreePath path = new TreePath ( task.node.getPath () );
+            if ( !task.tree.isVisible ( path ) )
+            {
+                return false;
+            }
+            final Rectangle bounds = task.tree.getPathBounds ( path );
+            return bounds != null && bounds.intersects ( task.tree.getVisibleRect () );
+        }
+        catch ( final Throwable e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Queued task.
+     * Tasks are ordered from the most recent ones to the oldest ones.
+     */
+    private static final class Task implements Comparable<Task>
+    {
+        /**
+         * Queue this task belongs to.
+         */
+        private final AsyncTreeQueue queue;
+
+        /**
+         * Tree this task node belongs to or null if it is not related to any node.
+         */
+        private final WebAsyncTree<?> tree;
+
+        /**
+         * Node this task is related to or null if it is not related to any node.
+         */
+        private final AsyncUniqueNode node;
+
+        /**
+         * Request sequence number.
+         */
+        private final long sequence;
+
+        /**
+         * Runnable to execute.
+         */
+        private final Runnable runnable;
+
+        /**
+         * Constructs new queued task.
+         *
+         * @param queue    queue this task belongs to
+         * @param tree     tree this task node belongs to
+         * @param node     node this task is related to
+         * @param sequence request sequence number
+         * @param runnable runnable to execute
+         */
+        public Task ( final AsyncTreeQueue queue, final WebAsyncTree<?> tree, final AsyncUniqueNode node, final long sequence,
+                      final Runnable runnable )
+        {
+            super ();
+            this.queue = queue;
+            this.tree = tree;
+            this.node = node;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo ( final Task task )
+        {
+            return sequence > task.sequence ? -1 : sequence < task.sequence ? 1 : 0;
+        }
     }
-}
\ No newline at end of file
+}
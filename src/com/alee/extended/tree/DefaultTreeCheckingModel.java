@@ -33,6 +33,12 @@ import java.util.*;
 
 public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implements TreeCheckingModel<E>
 {
+    /**
+     * Maximum amount of updated nodes which are repainted separately.
+     * Visible tree rect is repainted instead when more nodes were updated at once.
+     */
+    public static int maxRepaintedNodes = 100;
+
     /**
      * Checkbox tree which uses this checking model.
      */
@@ -138,14 +144,16 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
 
         // Updating states
         final List<E> toUpdate = new ArrayList<E> ();
+        final Map<E, ChildCounts> counts = new HashMap<E, ChildCounts> ();
         for ( final E node : nodes )
         {
-            setCheckedImpl ( node, checked, toUpdate, changes );
+            setCheckedImpl ( node, checked, toUpdate, changes, counts );
         }
         repaintTreeNodes ( toUpdate );
 
         // Informing about state changes
-        fireCheckStateChanged ( changes );
+        // Parent nodes might change their states multiple times, so changes are grouped by node
+        fireCheckStateChanged ( changes != null ? groupChanges ( changes ) : null );
     }
 
     /**
@@ -174,7 +182,7 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
 
         // Updating states
         final List<E> toUpdate = new ArrayList<E> ();
-        setCheckedImpl ( node, checked, toUpdate, changes );
+        setCheckedImpl ( node, checked, toUpdate, changes, new HashMap<E, ChildCounts> () );
         repaintTreeNodes ( toUpdate );
 
         // Informing about state changes
@@ -187,9 +195,11 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
      * @param node     tree node to process
      * @param checked  whether the specified tree node is checked or not
      * @param toUpdate list of nodes for later update
-     * @param changes
+     * @param changes  list of state changes to fill, might be null
+     * @param counts   parent nodes child counts cached within the current operation
      */
-    protected void setCheckedImpl ( final E node, final boolean checked, final List<E> toUpdate, final List<CheckStateChange<E>> changes )
+    protected void setCheckedImpl ( final E node, final boolean checked, final List<E> toUpdate, final List<CheckStateChange<E>> changes,
+                                    final Map<E, ChildCounts> counts )
     {
         // Remembering old and new states
         final CheckState oldState = getCheckState ( node );
@@ -199,7 +209,7 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
         if ( oldState != newState )
         {
             // Changing node check state
-            updateNodeState ( node, newState, toUpdate );
+            updateNodeState ( node, newState, toUpdate, counts );
 
             // Saving changes
             if ( changes != null )
@@ -210,64 +220,30 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
             // Updating parent and child node states
             if ( checkBoxTree.isRecursiveCheckingEnabled () )
             {
-                updateChildNodesState ( node, newState, toUpdate, changes );
-                updateParentStates ( node, toUpdate, changes );
+                updateChildNodesState ( node, newState, toUpdate, changes, counts );
+                updateParentStates ( node, toUpdate, changes, counts );
             }
         }
     }
 
     /**
      * Updates parent nodes check states.
+     * Each parent state is taken from its child counts, so update of a single parent doesn't depend on the amount of its childs.
      *
      * @param node     node to start checking parents from
      * @param toUpdate list of nodes for later update
-     * @param changes
+     * @param changes  list of state changes to fill, might be null
+     * @param counts   parent nodes child counts cached within the current operation
      */
-    protected void updateParentStates ( final E node, final List<E> toUpdate, final List<CheckStateChange<E>> changes )
+    protected void updateParentStates ( final E node, final List<E> toUpdate, final List<CheckStateChange<E>> changes,
+                                        final Map<E, ChildCounts> counts )
     {
         // Updating all parent node states
         E parent = ( E ) node.getParent ();
         while ( parent != null )
         {
             // Calculating parent state
-            CheckState state = CheckState.unchecked;
-            boolean hasChecked = false;
-            boolean hasUnchecked = false;
-            for ( int i = 0; i < parent.getChildCount (); i++ )
-            {
-                final CheckState checkState = getCheckState ( ( E ) parent.getChildAt ( i ) );
-                if ( checkState == CheckState.mixed )
-                {
-                    state = CheckState.mixed;
-                    break;
-                }
-                else if ( checkState == CheckState.checked )
-                {
-                    hasChecked = true;
-                    if ( hasUnchecked )
-                    {
-                        state = CheckState.mixed;
-                        break;
-                    }
-                    else
-                    {
-                        state = CheckState.checked;
-                    }
-                }
-                else if ( checkState == CheckState.unchecked )
-                {
-                    hasUnchecked = true;
-                    if ( hasChecked )
-                    {
-                        state = CheckState.mixed;
-                        break;
-                    }
-                    else
-                    {
-                        state = CheckState.unchecked;
-                    }
-                }
-            }
+            final CheckState state = getChildCounts ( parent, counts ).getState ();
 
             final CheckState oldState = getCheckState ( parent );
             if ( oldState != state )
@@ -279,7 +255,7 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
                 }
 
                 // Updating state
-                updateNodeState ( parent, state, toUpdate );
+                updateNodeState ( parent, state, toUpdate, counts );
             }
 
             // Moving upstairs
@@ -287,51 +263,80 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
         }
     }
 
+    /**
+     * Returns child counts for the specified parent node.
+     * Counts are calculated only once within the operation and then kept up-to-date by node state updates.
+     *
+     * @param parent parent node
+     * @param counts parent nodes child counts cached within the current operation
+     * @return child counts for the specified parent node
+     */
+    protected ChildCounts getChildCounts ( final E parent, final Map<E, ChildCounts> counts )
+    {
+        ChildCounts childCounts = counts.get ( parent );
+        if ( childCounts == null )
+        {
+            childCounts = new ChildCounts ();
+            for ( int i = 0; i < parent.getChildCount (); i++ )
+            {
+                childCounts.add ( getCheckState ( getChildAt ( parent, i ) ) );
+            }
+            counts.put ( parent, childCounts );
+        }
+        return childCounts;
+    }
+
     /**
      * Updates child nodes check state.
      *
      * @param node     parent node
      * @param newState new check state
      * @param toUpdate list of nodes for later update
-     * @param changes
+     * @param changes  list of state changes to fill, might be null
+     * @param counts   parent nodes child counts cached within the current operation
      */
     protected void updateChildNodesState ( final E node, final CheckState newState, final List<E> toUpdate,
-                                           final List<CheckStateChange<E>> changes )
+                                           final List<CheckStateChange<E>> changes, final Map<E, ChildCounts> counts )
     {
         for ( int i = 0; i < node.getChildCount (); i++ )
         {
-            final E childNode = ( E ) node.getChildAt ( i );
+            final E childNode = getChildAt ( node, i );
 
             // Saving changes
-            if ( changes != null )
+            final CheckState oldState = getCheckState ( childNode );
+            if ( changes != null && oldState != newState )
             {
-                changes.add ( new CheckStateChange<E> ( childNode, getCheckState ( childNode ), newState ) );
+                changes.add ( new CheckStateChange<E> ( childNode, oldState, newState ) );
             }
 
             // Updating state
-            updateNodeState ( childNode, newState, toUpdate );
+            updateNodeState ( childNode, newState, toUpdate, counts );
 
             // Updating child nodes state
-            updateChildNodesState ( childNode, newState, toUpdate, changes );
+            updateChildNodesState ( childNode, newState, toUpdate, changes, counts );
         }
     }
 
     /**
      * Updates single node check state.
+     * Child counts of the node parent are updated as well if they were already calculated within the current operation.
      *
      * @param node     node to update
      * @param newState new check state
      * @param toUpdate list of nodes for later update
+     * @param counts   parent nodes child counts cached within the current operation, might be null
      */
-    protected void updateNodeState ( final E node, final CheckState newState, final List<E> toUpdate )
+    protected void updateNodeState ( final E node, final CheckState newState, final List<E> toUpdate, final Map<E, ChildCounts> counts )
     {
-        if ( newState != CheckState.unchecked )
-        {
-            nodeCheckStates.put ( node, newState );
-        }
-        else
+        final CheckState oldState = newState != CheckState.unchecked ? nodeCheckStates.put ( node, newState ) :
+                nodeCheckStates.remove ( node );
+        if ( counts != null )
         {
-            nodeCheckStates.remove ( node );
+            final ChildCounts childCounts = counts.get ( node.getParent () );
+            if ( childCounts != null )
+            {
+                childCounts.update ( oldState != null ? oldState : CheckState.unchecked, newState );
+            }
         }
         toUpdate.add ( node );
     }
@@ -352,7 +357,8 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
 
         // Updating states
         final List<E> toUpdate = new ArrayList<E> ();
-        setCheckedImpl ( node, getNextState ( getCheckState ( node ) ) == CheckState.checked, toUpdate, changes );
+        final boolean check = getNextState ( getCheckState ( node ) ) == CheckState.checked;
+        setCheckedImpl ( node, check, toUpdate, changes, new HashMap<E, ChildCounts> () );
         repaintTreeNodes ( toUpdate );
 
         // Informing about state changes
@@ -384,14 +390,16 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
                 break;
             }
         }
+        final Map<E, ChildCounts> counts = new HashMap<E, ChildCounts> ();
         for ( final E node : nodes )
         {
-            setCheckedImpl ( node, check, toUpdate, changes );
+            setCheckedImpl ( node, check, toUpdate, changes, counts );
         }
         repaintTreeNodes ( toUpdate );
 
         // Informing about state changes
-        fireCheckStateChanged ( changes );
+        // Parent nodes might change their states multiple times, so changes are grouped by node
+        fireCheckStateChanged ( changes != null ? groupChanges ( changes ) : null );
     }
 
     /**
@@ -436,20 +444,16 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
         if ( checkStateChangeListeners.size () > 0 )
         {
             changes = new ArrayList<CheckStateChange<E>> ( allNodes.size () );
-            for ( final E node : allNodes )
-            {
-                final CheckState state = getCheckState ( node );
-                if ( state != CheckState.checked )
-                {
-                    changes.add ( new CheckStateChange<E> ( node, state, CheckState.checked ) );
-                }
-            }
         }
 
         // Updating states
         for ( final E node : allNodes )
         {
-            nodeCheckStates.put ( node, CheckState.checked );
+            final CheckState state = nodeCheckStates.put ( node, CheckState.checked );
+            if ( changes != null && state != CheckState.checked )
+            {
+                changes.add ( new CheckStateChange<E> ( node, state != null ? state : CheckState.unchecked, CheckState.checked ) );
+            }
         }
         repaintVisibleTreeRect ();
 
@@ -496,25 +500,12 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
         final List<E> toUpdate = new ArrayList<E> ();
         if ( recursive )
         {
-            // Retrieving all checked nodes
-            final List<E> checked = new ArrayList<E> ( nodeCheckStates.size () );
-            for ( final Map.Entry<E, CheckState> entry : nodeCheckStates.entrySet () )
+            // Updating all node states within a single tree pass
+            // Checked nodes pass their state down to all child nodes and other nodes take their state from child nodes
+            final E root = checkBoxTree.getRootNode ();
+            if ( root != null )
             {
-                if ( entry.getValue () == CheckState.checked )
-                {
-                    checked.add ( entry.getKey () );
-                }
-            }
-
-            // Filtering out child nodes under other checked nodes
-            // We don't need to update them because they will get checked in the process
-            filterOutChildNodes ( checked );
-
-            // Updating node states
-            for ( final E node : checked )
-            {
-                updateParentStates ( node, toUpdate, changes );
-                updateChildNodesState ( node, CheckState.checked, toUpdate, changes );
+                updateTreeStates ( root, false, toUpdate, changes );
             }
         }
         else
@@ -546,25 +537,72 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
     }
 
     /**
-     * Filters out all nodes which are childs of other nodes presented in the list.
+     * Updates check states of the specified node and all of its child nodes according to recursive checking rules and returns new
+     * state of the specified node. Checked state is passed down the tree while going into the child nodes and all other states are
+     * calculated from child counts while going back up, so each node is visited only once.
      *
-     * @param nodes list of nodes to filter
+     * @param node     node to process
+     * @param checked  whether one of the parent nodes is checked or not
+     * @param toUpdate list of nodes for later update
+     * @param changes  list of state changes to fill, might be null
+     * @return new check state of the specified node
      */
-    protected void filterOutChildNodes ( final List<E> nodes )
+    protected CheckState updateTreeStates ( final E node, final boolean checked, final List<E> toUpdate,
+                                            final List<CheckStateChange<E>> changes )
     {
-        final Iterator<E> checkedIterator = nodes.iterator ();
-        while ( checkedIterator.hasNext () )
+        final CheckState oldState = getCheckState ( node );
+        final boolean check = checked || oldState == CheckState.checked;
+
+        // Calculating new node state
+        final CheckState newState;
+        if ( node.getChildCount () > 0 )
         {
-            final E node = checkedIterator.next ();
-            for ( final E otherNode : nodes )
+            final ChildCounts childCounts = new ChildCounts ();
+            for ( int i = 0; i < node.getChildCount (); i++ )
             {
-                if ( isChildNode ( node, otherNode ) )
-                {
-                    checkedIterator.remove ();
-                    break;
-                }
+                childCounts.add ( updateTreeStates ( getChildAt ( node, i ), check, toUpdate, changes ) );
+            }
+            newState = check ? CheckState.checked : childCounts.getState ();
+        }
+        else
+        {
+            newState = check ? CheckState.checked : oldState;
+        }
+
+        // Updating node state
+        if ( oldState != newState )
+        {
+            if ( changes != null )
+            {
+                changes.add ( new CheckStateChange<E> ( node, oldState, newState ) );
             }
+            updateNodeState ( node, newState, toUpdate, null );
         }
+        return newState;
+    }
+
+    /**
+     * Returns child of the specified node at the specified index.
+     *
+     * @param node  parent node
+     * @param index child index
+     * @return child of the specified node at the specified index
+     */
+    @SuppressWarnings ( "unchecked" )
+    protected E getChildAt ( final E node, final int index )
+    {
+        // Checked tree contains nodes of a single type, so child node always has the same type as its parent
+        return ( E ) node.getChildAt ( index );
+    }
+
+    /**
+     * Filters out all nodes which are childs of other nodes presented in the list.
+     *
+     * @param nodes list of nodes to filter
+     */
+    protected void filterOutChildNodes ( final List<E> nodes )
+    {
+        TreeUtils.optimizeNodes ( nodes );
     }
 
     /**
@@ -614,7 +652,14 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
      */
     protected void repaintTreeNodes ( final List<E> nodes )
     {
-        checkBoxTree.repaint ( nodes );
+        if ( nodes.size () > maxRepaintedNodes )
+        {
+            repaintVisibleTreeRect ();
+        }
+        else
+        {
+            checkBoxTree.repaint ( nodes );
+        }
     }
 
     /**
@@ -650,4 +695,132 @@ public class DefaultTreeCheckingModel<E extends DefaultMutableTreeNode> implemen
             }
         }
     }
+
+    /**
+     * Returns check state changes grouped by node.
+     * Multiple changes of the same node are merged into a single change and changes which didn't modify node state are dropped.
+     *
+     * @param stateChanges check state changes list
+     * @return check state changes grouped by node
+     */
+    protected List<CheckStateChange<E>> groupChanges ( final List<CheckStateChange<E>> stateChanges )
+    {
+        if ( stateChanges.size () < 2 )
+        {
+            return stateChanges;
+        }
+        boolean grouped = false;
+        final Map<E, CheckStateChange<E>> changes = new LinkedHashMap<E, CheckStateChange<E>> ( stateChanges.size () );
+        for ( final CheckStateChange<E> change : stateChanges )
+        {
+            final E node = change.getNode ();
+            final CheckStateChange<E> previous = changes.get ( node );
+            if ( previous != null )
+            {
+                changes.put ( node, new CheckStateChange<E> ( node, previous.getOldState (), change.getNewState () ) );
+                grouped = true;
+            }
+            else
+            {
+                changes.put ( node, change );
+            }
+        }
+        if ( !grouped )
+        {
+            return stateChanges;
+        }
+        final List<CheckStateChange<E>> result = new ArrayList<CheckStateChange<E>> ( changes.size () );
+        for ( final CheckStateChange<E> change : changes.values () )
+        {
+            if ( change.getOldState () != change.getNewState () )
+            {
+                result.add ( change );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Amounts of checked and mixed child nodes of a single parent node.
+     * These are used to calculate parent node state without iterating through its child nodes.
+     */
+    protected static final class ChildCounts
+    {
+        /**
+         * Total amount of child nodes.
+         */
+        private int total = 0;
+
+        /**
+         * Amount of checked child nodes.
+         */
+        private int checked = 0;
+
+        /**
+         * Amount of mixed child nodes.
+         */
+        private int mixed = 0;
+
+        /**
+         * Adds child node with the specified state.
+         *
+         * @param state child node check state
+         */
+        public void add ( final CheckState state )
+        {
+            total++;
+            change ( state, 1 );
+        }
+
+        /**
+         * Updates counts for a single child node state change.
+         *
+         * @param oldState old child node check state
+         * @param newState new child node check state
+         */
+        public void update ( final CheckState oldState, final CheckState newState )
+        {
+            change ( oldState, -1 );
+            change ( newState, 1 );
+        }
+
+        /**
+         * Changes amount of child nodes with the specified state.
+         *
+         * @param state check state
+         * @param delta amount change
+         */
+        private void change ( final CheckState state, final int delta )
+        {
+            if ( state == CheckState.checked )
+            {
+                checked += delta;
+            }
+            else if ( state == CheckState.mixed )
+            {
+                mixed += delta;
+            }
+        }
+
+        /**
+         * Returns parent node check state according to child node states.
+         *
+         * @return parent node check state according to child node states
+         */
+        public CheckState getState ()
+        {
+            if ( mixed > 0 || checked > 0 && checked < total )
+            {
+                return CheckState.mixed;
+            }
+            else if ( checked > 0 )
+            {
+                return CheckState.checked;
+            }
+            else
+            {
+                return CheckState.unchecked;
+            }
+        }
+    }
 }
\ No newline at end of file
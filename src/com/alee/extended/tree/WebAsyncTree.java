@@ -340,6 +340,11 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
                 {
                     // Updating tree sorting and filtering for parent of the edited node
                     final E node = ( E ) cellEditor.getCellEditorValue ();
+                    if ( filter instanceof AsyncTreeNodesFilter )
+                    {
+                        // Edited node text might have changed
+                        ( ( AsyncTreeNodesFilter<E> ) filter ).clearCache ( node );
+                    }
                     updateSortingAndFiltering ( ( E ) node.getParent () );
 
                     //                    // Performing data update in a proper separate thread as it might take some time
@@ -399,6 +404,22 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
         AsyncTreeQueue.setMaximumThreadsAmount ( this, amount );
     }
 
+    /**
+     * Notifies listeners that path was collapsed.
+     * This method also cancels pending childs loads for collapsed node and all of its child nodes.
+     *
+     * @param path collapsed path
+     */
+    @Override
+    public void fireTreeCollapsed ( final TreePath path )
+    {
+        super.fireTreeCollapsed ( path );
+        if ( isAsyncModel () && path != null )
+        {
+            getAsyncModel ().cancelChildsLoad ( ( E ) path.getLastPathComponent () );
+        }
+    }
+
     /**
      * Sets child nodes for the specified node.
      * This method might be used to manually change tree node childs without causing any structure corruptions.
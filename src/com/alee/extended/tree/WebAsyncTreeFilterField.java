@@ -353,12 +353,11 @@ public class WebAsyncTreeFilterField<E extends AsyncUniqueNode> extends WebTextF
 
     /**
      * Updates tree filtering.
+     * Filter keeps cached accept states only while they are valid for its current settings, so there is no need to clear them here.
+     * Filtering is performed outside of the Event Dispatch Thread and each new update cancels the previous one.
      */
     protected void updateFiltering ()
     {
-        // Cleaning up filter cache
-        filter.clearCache ();
-
         // Updating tree filtering
         final WebAsyncTree<E> asyncTree = getAsyncTree ();
         if ( asyncTree != null )
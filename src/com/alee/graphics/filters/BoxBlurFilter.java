@@ -110,34 +110,97 @@ public class BoxBlurFilter extends AbstractBufferedImageOp
             dst = createCompatibleDestImage ( src, null );
         }
 
-        int[] inPixels = new int[ width * height ];
-        int[] outPixels = new int[ width * height ];
-        getRGB ( src, 0, 0, width, height, inPixels );
+        boolean raw = FilterEngine.isIntPixels ( src ) && src.getType () == dst.getType ();
+        int[] inPixels = FilterEngine.acquireBuffer ( width * height );
+        int[] outPixels = FilterEngine.acquireBuffer ( width * height );
+        try
+        {
+            FilterEngine.readPixels ( src, inPixels, raw );
+
+            for ( int i = 0; i < iterations; i++ )
+            {
+                blur ( inPixels, outPixels, width, height, hRadius );
+                blur ( outPixels, inPixels, height, width, vRadius );
+            }
 
-        for ( int i = 0; i < iterations; i++ )
+            FilterEngine.writePixels ( dst, inPixels, raw );
+        }
+        finally
         {
-            blur ( inPixels, outPixels, width, height, hRadius );
-            blur ( outPixels, inPixels, height, width, vRadius );
+            FilterEngine.releaseBuffer ( inPixels );
+            FilterEngine.releaseBuffer ( outPixels );
         }
-
-        setRGB ( dst, 0, 0, width, height, inPixels );
         return dst;
     }
 
-    public static void blur ( int[] in, int[] out, int width, int height, int radius )
+    /**
+     * Approximates Gaussian blur with the specified radius using three box blur passes with different radii.
+     * Result is placed back into the input pixels array, output array is used as scratch buffer.
+     *
+     * @param in     input pixels, also receive the result
+     * @param out    scratch pixels buffer
+     * @param width  image width
+     * @param height image height
+     * @param radius Gaussian blur radius
+     * @param alpha  whether alpha channel should be blurred or made opaque
+     */
+    public static void gaussianBlur ( int[] in, int[] out, int width, int height, float radius, boolean alpha )
+    {
+        // Box sizes which give the closest variance to the Gaussian one, sigma is chosen the same way as for Gaussian kernel
+        int passes = 3;
+        double sigma = radius / 3;
+        double ideal = Math.sqrt ( 12 * sigma * sigma / passes + 1 );
+        int lower = ( int ) Math.floor ( ideal );
+        if ( lower % 2 == 0 )
+        {
+            lower--;
+        }
+        int upper = lower + 2;
+        int lowerPasses = ( int ) Math.round ( ( 12 * sigma * sigma - passes * lower * lower - 4 * passes * lower - 3 * passes ) /
+                ( -4 * lower - 4 ) );
+
+        for ( int i = 0; i < passes; i++ )
+        {
+            int boxRadius = ( ( i < lowerPasses ? lower : upper ) - 1 ) / 2;
+            blur ( in, out, width, height, boxRadius );
+            blur ( out, in, height, width, boxRadius );
+        }
+
+        if ( !alpha )
+        {
+            for ( int i = 0; i < width * height; i++ )
+            {
+                in[ i ] |= 0xff000000;
+            }
+        }
+    }
+
+    public static void blur ( final int[] in, final int[] out, final int width, final int height, final int radius )
     {
-        int widthMinus1 = width - 1;
         int tableSize = 2 * radius + 1;
-        int divide[] = new int[ 256 * tableSize ];
+        final int divide[] = new int[ 256 * tableSize ];
 
         for ( int i = 0; i < 256 * tableSize; i++ )
         {
             divide[ i ] = i / tableSize;
         }
 
-        int inIndex = 0;
+        FilterEngine.processRows ( height, width, new FilterEngine.RowsTask ()
+        {
+            @Override
+            public void process ( int from, int to )
+            {
+                blur ( in, out, width, height, radius, divide, from, to );
+            }
+        } );
+    }
+
+    public static void blur ( int[] in, int[] out, int width, int height, int radius, int[] divide, int fromRow, int toRow )
+    {
+        int widthMinus1 = width - 1;
+        int inIndex = fromRow * width;
 
-        for ( int y = 0; y < height; y++ )
+        for ( int y = fromRow; y < toRow; y++ )
         {
             int outIndex = y;
             int ta = 0, tr = 0, tg = 0, tb = 0;
@@ -0,0 +1,319 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.graphics.filters;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared engine for image filters which process pixels row by row.
+ * <p/>
+ * Engine provides pooled scratch pixel buffers, fast pixels transfer for images backed by integer data buffers and parallel processing of
+ * independent row strips on a shared pool of daemon worker threads.
+ *
+ * @author Mikle Garin
+ * @see GaussianFilter
+ * @see BoxBlurFilter
+ */
+
+public final class FilterEngine
+{
+    /**
+     * Minimum amount of per-pixel operations for the filter pass to be split between several threads.
+     * Smaller passes are processed in the calling thread since parallelization would only slow them down.
+     */
+    public static long parallelThreshold = 512 * 1024;
+
+    /**
+     * Minimum amount of rows within a single strip.
+     */
+    public static int minStripRows = 8;
+
+    /**
+     * Maximum size of the pooled scratch buffers in pixels.
+     */
+    public static long maxPoolSize = 4 * 1024 * 1024;
+
+    /**
+     * Amount of available processors.
+     */
+    private static final int processors = Runtime.getRuntime ().availableProcessors ();
+
+    /**
+     * Pooled scratch buffers.
+     */
+    private static final List<int[]> pool = new ArrayList<int[]> ();
+
+    /**
+     * Current size of the pooled scratch buffers in pixels.
+     */
+    private static long poolSize = 0;
+
+    /**
+     * Worker threads executor.
+     */
+    private static ExecutorService executor = null;
+
+    /**
+     * Interface for the filter pass which processes rows independently.
+     */
+    public static interface RowsTask
+    {
+        /**
+         * Processes rows within the specified range.
+         *
+         * @param from first row index, inclusive
+         * @param to   last row index, exclusive
+         */
+        public void process ( int from, int to );
+    }
+
+    /**
+     * Returns scratch buffer which can contain at least the specified amount of pixels.
+     * Buffer content is undefined. Buffer should be returned using {@link #releaseBuffer(int[])} method when it is no longer needed.
+     *
+     * @param size required amount of pixels
+     * @return scratch buffer which can contain at least the specified amount of pixels
+     */
+    public static int[] acquireBuffer ( final int size )
+    {
+        synchronized ( pool )
+        {
+            // Looking for the smallest suitable buffer
+            int best = -1;
+            for ( int i = 0; i < pool.size (); i++ )
+            {
+                final int length = pool.get ( i ).length;
+                if ( length >= size && ( best == -1 || length < pool.get ( best ).length ) )
+                {
+                    best = i;
+                }
+            }
+            if ( best != -1 && pool.get ( best ).length <= size * 2 )
+            {
+                final int[] buffer = pool.remove ( best );
+                poolSize -= buffer.length;
+                return buffer;
+            }
+        }
+        return new int[ size ];
+    }
+
+    /**
+     * Returns scratch buffer into the pool.
+     * Buffer is simply dropped if pool is already full.
+     *
+     * @param buffer scratch buffer
+     */
+    public static void releaseBuffer ( final int[] buffer )
+    {
+        if ( buffer != null )
+        {
+            synchronized ( pool )
+            {
+                // Evicting smaller buffers first to free some space for the new one
+                while ( poolSize + buffer.length > maxPoolSize && pool.size () > 0 )
+                {
+                    int smallest = 0;
+                    for ( int i = 1; i < pool.size (); i++ )
+                    {
+                        if ( pool.get ( i ).length < pool.get ( smallest ).length )
+                        {
+                            smallest = i;
+                        }
+                    }
+                    poolSize -= pool.remove ( smallest ).length;
+                }
+                if ( poolSize + buffer.length <= maxPoolSize )
+                {
+                    pool.add ( buffer );
+                    poolSize += buffer.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether pixels of the specified image can be transferred as is without any color conversion or not.
+     *
+     * @param image image to check
+     * @return true if pixels of the specified image can be transferred as is, false otherwise
+     */
+    public static boolean isIntPixels ( final BufferedImage image )
+    {
+        final int type = image.getType ();
+        return ( type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE || type == BufferedImage.TYPE_INT_RGB ) &&
+                image.getRaster ().getDataBuffer () instanceof DataBufferInt &&
+                image.getRaster ().getSampleModel () instanceof SinglePixelPackedSampleModel;
+    }
+
+    /**
+     * Reads pixels of the specified image into the specified buffer.
+     * <p/>
+     * Pixels of images backed by integer data buffers are copied by rows without any color conversion. This also keeps image managed
+     * unlike direct data buffer access which disables image hardware acceleration. Other images are converted into default ARGB format.
+     *
+     * @param image  image to read
+     * @param pixels pixels buffer
+     * @param raw    whether pixels can be read as is without color conversion or not
+     */
+    public static void readPixels ( final BufferedImage image, final int[] pixels, final boolean raw )
+    {
+        final int width = image.getWidth ();
+        final int height = image.getHeight ();
+        if ( raw )
+        {
+            image.getRaster ().getDataElements ( 0, 0, width, height, pixels );
+        }
+        else
+        {
+            image.getRGB ( 0, 0, width, height, pixels, 0, width );
+        }
+    }
+
+    /**
+     * Writes pixels from the specified buffer into the specified image.
+     *
+     * @param image  image to write into
+     * @param pixels pixels buffer
+     * @param raw    whether pixels can be written as is without color conversion or not
+     * @see #readPixels(java.awt.image.BufferedImage, int[], boolean)
+     */
+    public static void writePixels ( final BufferedImage image, final int[] pixels, final boolean raw )
+    {
+        final int width = image.getWidth ();
+        final int height = image.getHeight ();
+        if ( raw )
+        {
+            final WritableRaster raster = image.getRaster ();
+            raster.setDataElements ( 0, 0, width, height, pixels );
+        }
+        else
+        {
+            image.setRGB ( 0, 0, width, height, pixels, 0, width );
+        }
+    }
+
+    /**
+     * Processes specified amount of rows using the specified task.
+     * Rows are split into strips processed in parallel if the pass is expensive enough, otherwise they are processed in calling thread.
+     *
+     * @param rows    amount of rows
+     * @param rowCost approximate amount of operations required to process a single row
+     * @param task    rows task
+     */
+    public static void processRows ( final int rows, final long rowCost, final RowsTask task )
+    {
+        final int strips = ( int ) Math.min ( Math.min ( processors, rows / Math.max ( 1, minStripRows ) ),
+                rows * rowCost / Math.max ( 1, parallelThreshold ) );
+        if ( strips <= 1 )
+        {
+            task.process ( 0, rows );
+            return;
+        }
+
+        // Splitting rows into strips
+        final int stripRows = ( rows + strips - 1 ) / strips;
+        final CountDownLatch latch = new CountDownLatch ( strips - 1 );
+        final Throwable[] error = new Throwable[ 1 ];
+        final ExecutorService executor = getExecutor ();
+        for ( int from = stripRows; from < rows; from += stripRows )
+        {
+            final int stripFrom = from;
+            final int stripTo = Math.min ( rows, from + stripRows );
+            executor.execute ( new Runnable ()
+            {
+                @Override
+                public void run ()
+                {
+                    try
+                    {
+                        task.process ( stripFrom, stripTo );
+                    }
+                    catch ( final Throwable e )
+                    {
+                        error[ 0 ] = e;
+                    }
+                    finally
+                    {
+                        latch.countDown ();
+                    }
+                }
+            } );
+        }
+
+        // Processing first strip in the calling thread
+        task.process ( 0, Math.min ( rows, stripRows ) );
+
+        // Waiting for other strips
+        boolean interrupted = false;
+        while ( true )
+        {
+            try
+            {
+                latch.await ();
+                break;
+            }
+            catch ( final InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread ().interrupt ();
+        }
+        if ( error[ 0 ] != null )
+        {
+            throw new RuntimeException ( "Unable to process image rows", error[ 0 ] );
+        }
+    }
+
+    /**
+     * Returns worker threads executor.
+     *
+     * @return worker threads executor
+     */
+    private static synchronized ExecutorService getExecutor ()
+    {
+        if ( executor == null )
+        {
+            final AtomicInteger number = new AtomicInteger ( 0 );
+            final ThreadPoolExecutor pool = new ThreadPoolExecutor ( processors, processors, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable> (), new ThreadFactory ()
+            {
+                @Override
+                public Thread newThread ( final Runnable r )
+                {
+                    final Thread thread = new Thread ( r, "FilterEngine.worker-" + number.incrementAndGet () );
+                    thread.setDaemon ( true );
+                    return thread;
+                }
+            } );
+            pool.allowCoreThreadTimeOut ( true );
+            executor = pool;
+        }
+        return executor;
+    }
+}
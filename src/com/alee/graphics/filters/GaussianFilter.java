@@ -45,6 +45,12 @@ import java.awt.image.Kernel;
 
 public class GaussianFilter extends ConvolveFilter
 {
+    /**
+     * Minimum radius starting from which blur is approximated with three box blur passes.
+     * Approximation is a lot faster for large radii and is visually almost identical. Set to 0 to always use exact Gaussian kernel.
+     */
+    public static float boxBlurRadius = 24;
+
     protected float radius;
     protected Kernel kernel;
 
@@ -98,65 +104,112 @@ public class GaussianFilter extends ConvolveFilter
             dst = createCompatibleDestImage ( src, null );
         }
 
-        int[] inPixels = new int[ width * height ];
-        int[] outPixels = new int[ width * height ];
-        src.getRGB ( 0, 0, width, height, inPixels, 0, width );
+        boolean raw = FilterEngine.isIntPixels ( src ) && src.getType () == dst.getType ();
+        int[] inPixels = FilterEngine.acquireBuffer ( width * height );
+        int[] outPixels = FilterEngine.acquireBuffer ( width * height );
+        try
+        {
+            FilterEngine.readPixels ( src, inPixels, raw );
 
-        convolveAndTranspose ( kernel, inPixels, outPixels, width, height, alpha, CLAMP_EDGES );
-        convolveAndTranspose ( kernel, outPixels, inPixels, height, width, alpha, CLAMP_EDGES );
+            if ( boxBlurRadius > 0 && radius >= boxBlurRadius )
+            {
+                // Large kernels are approximated with a few box blur passes which cost doesn't depend on radius
+                BoxBlurFilter.gaussianBlur ( inPixels, outPixels, width, height, radius, alpha );
+            }
+            else
+            {
+                convolveAndTranspose ( kernel, inPixels, outPixels, width, height, alpha, CLAMP_EDGES );
+                convolveAndTranspose ( kernel, outPixels, inPixels, height, width, alpha, CLAMP_EDGES );
+            }
 
-        dst.setRGB ( 0, 0, width, height, inPixels, 0, width );
+            FilterEngine.writePixels ( dst, inPixels, raw );
+        }
+        finally
+        {
+            FilterEngine.releaseBuffer ( inPixels );
+            FilterEngine.releaseBuffer ( outPixels );
+        }
         return dst;
     }
 
-    public static void convolveAndTranspose ( Kernel kernel, int[] inPixels, int[] outPixels, int width, int height, boolean alpha,
-                                              int edgeAction )
+    public static void convolveAndTranspose ( Kernel kernel, final int[] inPixels, final int[] outPixels, final int width,
+                                              final int height, final boolean alpha, final int edgeAction )
     {
-        float[] matrix = kernel.getKernelData ( null );
-        int cols = kernel.getWidth ();
+        final float[] matrix = kernel.getKernelData ( null );
+        FilterEngine.processRows ( height, ( long ) width * matrix.length, new FilterEngine.RowsTask ()
+        {
+            @Override
+            public void process ( int from, int to )
+            {
+                convolveAndTranspose ( matrix, inPixels, outPixels, width, height, alpha, edgeAction, from, to );
+            }
+        } );
+    }
+
+    public static void convolveAndTranspose ( float[] matrix, int[] inPixels, int[] outPixels, int width, int height, boolean alpha,
+                                              int edgeAction, int fromRow, int toRow )
+    {
+        int cols = matrix.length;
         int cols2 = cols / 2;
 
-        for ( int y = 0; y < height; y++ )
+        for ( int y = fromRow; y < toRow; y++ )
         {
             int index = y;
             int ioffset = y * width;
             for ( int x = 0; x < width; x++ )
             {
                 float r = 0, g = 0, b = 0, a = 0;
-                for ( int col = -cols2; col <= cols2; col++ )
+                if ( x >= cols2 && x + cols2 < width )
                 {
-                    float f = matrix[ cols2 + col ];
-
-                    if ( f != 0 )
+                    // Kernel fits into the row, no edge checks required
+                    int offset = ioffset + x - cols2;
+                    for ( int col = 0; col < cols; col++ )
                     {
-                        int ix = x + col;
-                        if ( ix < 0 )
-                        {
-                            if ( edgeAction == CLAMP_EDGES )
-                            {
-                                ix = 0;
-                            }
-                            else if ( edgeAction == WRAP_EDGES )
-                            {
-                                ix = ( x + width ) % width;
-                            }
-                        }
-                        else if ( ix >= width )
+                        float f = matrix[ col ];
+                        int rgb = inPixels[ offset + col ];
+                        a += f * ( ( rgb >> 24 ) & 0xff );
+                        r += f * ( ( rgb >> 16 ) & 0xff );
+                        g += f * ( ( rgb >> 8 ) & 0xff );
+                        b += f * ( rgb & 0xff );
+                    }
+                }
+                else
+                {
+                    for ( int col = -cols2; col <= cols2; col++ )
+                    {
+                        float f = matrix[ cols2 + col ];
+
+                        if ( f != 0 )
                         {
-                            if ( edgeAction == CLAMP_EDGES )
+                            int ix = x + col;
+                            if ( ix < 0 )
                             {
-                                ix = width - 1;
+                                if ( edgeAction == CLAMP_EDGES )
+                                {
+                                    ix = 0;
+                                }
+                                else if ( edgeAction == WRAP_EDGES )
+                                {
+                                    ix = ( x + width ) % width;
+                                }
                             }
-                            else if ( edgeAction == WRAP_EDGES )
+                            else if ( ix >= width )
                             {
-                                ix = ( x + width ) % width;
+                                if ( edgeAction == CLAMP_EDGES )
+                                {
+                                    ix = width - 1;
+                                }
+                                else if ( edgeAction == WRAP_EDGES )
+                                {
+                                    ix = ( x + width ) % width;
+                                }
                             }
+                            int rgb = inPixels[ ioffset + ix ];
+                            a += f * ( ( rgb >> 24 ) & 0xff );
+                            r += f * ( ( rgb >> 16 ) & 0xff );
+                            g += f * ( ( rgb >> 8 ) & 0xff );
+                            b += f * ( rgb & 0xff );
                         }
-                        int rgb = inPixels[ ioffset + ix ];
-                        a += f * ( ( rgb >> 24 ) & 0xff );
-                        r += f * ( ( rgb >> 16 ) & 0xff );
-                        g += f * ( ( rgb >> 8 ) & 0xff );
-                        b += f * ( rgb & 0xff );
                     }
                 }
                 int ia = alpha ? PixelUtils.clamp ( ( int ) ( a + 0.5 ) ) : 0xff;
@@ -178,7 +178,7 @@ public class ShadowFilter extends AbstractBufferedImageOp
         float[][] extractAlpha = { { 0, 0, 0, 0 }, { 0, 0, 0, 0 }, { 0, 0, 0, 0 }, { 0, 0, 0, opacity } };
         BufferedImage shadow = new BufferedImage ( width, height, BufferedImage.TYPE_INT_ARGB );
         new BandCombineOp ( extractAlpha, null ).filter ( src.getRaster (), shadow.getRaster () );
-        shadow = new GaussianFilter ( radius ).filter ( shadow, null );
+        new GaussianFilter ( radius ).filter ( shadow, shadow );
 
         Graphics2D g = dst.createGraphics ();
         g.setComposite ( AlphaComposite.getInstance ( AlphaComposite.SRC_OVER, opacity ) );
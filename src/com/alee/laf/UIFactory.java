@@ -0,0 +1,39 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.laf;
+
+import javax.swing.plaf.ComponentUI;
+
+/**
+ * Factory which creates UI delegates of a single type.
+ * Factories are registered in WebLookAndFeel under the UI class name and used by WebLaF components instead of reflective UI creation.
+ *
+ * @author Mikle Garin
+ * @see com.alee.laf.WebLookAndFeel#registerUIFactory(String, UIFactory)
+ */
+
+public interface UIFactory
+{
+    /**
+     * Returns newly created UI delegate.
+     *
+     * @param arguments UI delegate constructor arguments
+     * @return newly created UI delegate
+     */
+    public ComponentUI createUI ( Object... arguments );
+}
@@ -69,15 +69,18 @@ import com.alee.utils.*;
 import com.alee.utils.swing.SwingLazyValue;
 
 import javax.swing.*;
+import javax.swing.plaf.ComponentUI;
 import javax.swing.plaf.InsetsUIResource;
 import javax.swing.plaf.basic.BasicLookAndFeel;
 import javax.swing.text.DefaultEditorKit;
 import java.awt.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This core class contains methods to install, configure and uninstall WebLookAndFeel.
@@ -228,6 +231,14 @@ public class WebLookAndFeel extends BasicLookAndFeel
     public static String verticalLabelUI = WebVerticalLabelUI.class.getCanonicalName ();
     public static String multiLineLabelUI = WebMultiLineLabelUI.class.getCanonicalName ();
 
+    /**
+     * UI delegate factories registered under UI class names.
+     * Factories for UI class names which were not registered explicitly are created on demand and resolve UI constructor only once.
+     * Those only reference UI classes loaded by WebLaF class loader. Explicitly registered factories are kept until they are unregistered,
+     * so factories coming from a separate class loader should be unregistered before that loader is discarded.
+     */
+    private static final Map<String, UIFactory> uiFactories = new ConcurrentHashMap<String, UIFactory> ();
+
     /**
      * Reassignable LookAndFeel fonts.
      */
@@ -291,6 +302,84 @@ public class WebLookAndFeel extends BasicLookAndFeel
     public static Font textPaneFont;
     public static Font editorPaneFont;
 
+    /**
+     * Registers UI delegate factory for the specified UI class name.
+     * Registered factory will be used by all WebLaF components which UI class name is set to the specified one.
+     * Factory is kept until it is unregistered.
+     *
+     * @param uiClass UI class canonical name
+     * @param factory UI delegate factory
+     */
+    public static void registerUIFactory ( final String uiClass, final UIFactory factory )
+    {
+        uiFactories.put ( uiClass, factory );
+    }
+
+    /**
+     * Unregisters UI delegate factory for the specified UI class name.
+     *
+     * @param uiClass UI class canonical name
+     */
+    public static void unregisterUIFactory ( final String uiClass )
+    {
+        uiFactories.remove ( uiClass );
+    }
+
+    /**
+     * Returns UI delegate factory for the specified UI class name.
+     * If there is no registered factory for that UI class name reflective factory is created and registered.
+     *
+     * @param uiClass UI class canonical name
+     * @return UI delegate factory for the specified UI class name
+     * @throws ClassNotFoundException if UI class cannot be found
+     */
+    public static UIFactory getUIFactory ( final String uiClass ) throws ClassNotFoundException
+    {
+        UIFactory factory = uiFactories.get ( uiClass );
+        if ( factory == null )
+        {
+            final Class<?> loadedClass = ReflectUtils.loadClass ( uiClass );
+            final Class<? extends ComponentUI> type = loadedClass.asSubclass ( ComponentUI.class );
+            factory = new UIFactory ()
+            {
+                @Override
+                public ComponentUI createUI ( final Object... arguments )
+                {
+                    try
+                    {
+                        return ReflectUtils.createInstance ( type, arguments );
+                    }
+                    catch ( final InvocationTargetException e )
+                    {
+                        throw new RuntimeException ( "Unable to create UI: " + uiClass, e.getCause () );
+                    }
+                    catch ( final Exception e )
+                    {
+                        throw new RuntimeException ( "Unable to create UI: " + uiClass, e );
+                    }
+                }
+            };
+            uiFactories.put ( uiClass, factory );
+        }
+        return factory;
+    }
+
+    /**
+     * Returns newly created UI delegate for the specified UI class name.
+     * This method is used by WebLaF components to create their UI delegates according to reassignable UI class names.
+     *
+     * @param uiClass   UI class canonical name
+     * @param arguments UI delegate constructor arguments
+     * @param <T>       UI delegate type
+     * @return newly created UI delegate for the specified UI class name
+     * @throws ClassNotFoundException if UI class cannot be found
+     */
+    @SuppressWarnings ( "unchecked" )
+    public static <T extends ComponentUI> T createUI ( final String uiClass, final Object... arguments ) throws ClassNotFoundException
+    {
+        return ( T ) getUIFactory ( uiClass ).createUI ( arguments );
+    }
+
     /**
      * Returns WebLookAndFeel name.
      *
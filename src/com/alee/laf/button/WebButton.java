@@ -27,7 +27,6 @@ import com.alee.managers.language.LanguageManager;
 import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
 import com.alee.managers.tooltip.TooltipWay;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -561,7 +560,7 @@ public class WebButton extends JButton implements ShapeProvider, LanguageMethods
         {
             try
             {
-                setUI ( ( WebButtonUI ) ReflectUtils.createInstance ( WebLookAndFeel.buttonUI ) );
+                setUI ( ( WebButtonUI ) WebLookAndFeel.createUI ( WebLookAndFeel.buttonUI ) );
             }
             catch ( Throwable e )
             {
@@ -23,6 +23,7 @@ import com.alee.laf.StyleConstants;
 import com.alee.laf.WebLookAndFeel;
 import com.alee.utils.ColorUtils;
 import com.alee.utils.LafUtils;
+import com.alee.utils.ShapeCache;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.AncestorAdapter;
@@ -51,6 +52,12 @@ import java.util.Map;
 
 public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingConstants, BorderMethods
 {
+    /**
+     * Shape cache keys.
+     */
+    protected static final String BORDER_SHAPE = "border";
+    protected static final String BACKGROUND_SHAPE = "background";
+
     protected Color topBgColor = WebButtonStyle.topBgColor;
     protected Color bottomBgColor = WebButtonStyle.bottomBgColor;
     protected Color topSelectedBgColor = WebButtonStyle.topSelectedBgColor;
@@ -94,6 +101,7 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
     protected float transparency = 0f;
 
     protected Point mousePoint = null;
+    protected final int[] shapeSettings = new int[ 9 ];
     protected WebTimer animator = null;
     protected AbstractButton button = null;
 
@@ -977,6 +985,23 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
     }
 
     protected Shape getButtonShape ( final AbstractButton button, final boolean border )
+    {
+        // Shape settings are put into reusable array, so cache hit doesn't create any objects
+        shapeSettings[ 0 ] = button.getWidth ();
+        shapeSettings[ 1 ] = button.getHeight ();
+        shapeSettings[ 2 ] = button.getComponentOrientation ().isLeftToRight () ? 1 : 0;
+        shapeSettings[ 3 ] = shadeWidth;
+        shapeSettings[ 4 ] = round;
+        shapeSettings[ 5 ] = drawTop ? 1 : 0;
+        shapeSettings[ 6 ] = drawLeft ? 1 : 0;
+        shapeSettings[ 7 ] = drawBottom ? 1 : 0;
+        shapeSettings[ 8 ] = drawRight ? 1 : 0;
+        final String shapeId = border ? BORDER_SHAPE : BACKGROUND_SHAPE;
+        final Shape shape = ShapeCache.getCachedShape ( button, shapeId, shapeSettings );
+        return shape != null ? shape : ShapeCache.cacheShape ( button, shapeId, shapeSettings, createButtonShape ( button, border ) );
+    }
+
+    protected Shape createButtonShape ( final AbstractButton button, final boolean border )
     {
         // Changing line marks in case of RTL orientation
         final boolean ltr = button.getComponentOrientation ().isLeftToRight ();
@@ -31,7 +31,6 @@ import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
 import com.alee.managers.tooltip.TooltipWay;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -604,7 +603,7 @@ public class WebToggleButton extends JToggleButton
         {
             try
             {
-                setUI ( ( WebToggleButtonUI ) ReflectUtils.createInstance ( WebLookAndFeel.toggleButtonUI ) );
+                setUI ( ( WebToggleButtonUI ) WebLookAndFeel.createUI ( WebLookAndFeel.toggleButtonUI ) );
             }
             catch ( Throwable e )
             {
@@ -29,7 +29,6 @@ import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
 import com.alee.managers.tooltip.TooltipWay;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -345,7 +344,7 @@ public class WebCheckBox extends JCheckBox
         {
             try
             {
-                setUI ( ( WebCheckBoxUI ) ReflectUtils.createInstance ( WebLookAndFeel.checkBoxUI ) );
+                setUI ( ( WebCheckBoxUI ) WebLookAndFeel.createUI ( WebLookAndFeel.checkBoxUI ) );
             }
             catch ( Throwable e )
             {
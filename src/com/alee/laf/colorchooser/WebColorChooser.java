@@ -18,7 +18,6 @@
 package com.alee.laf.colorchooser;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.swing.DialogOptions;
 
 import javax.swing.*;
@@ -113,7 +112,7 @@ public class WebColorChooser extends JColorChooser implements DialogOptions
         {
             try
             {
-                setUI ( ( WebColorChooserUI ) ReflectUtils.createInstance ( WebLookAndFeel.colorChooserUI ) );
+                setUI ( ( WebColorChooserUI ) WebLookAndFeel.createUI ( WebLookAndFeel.colorChooserUI ) );
             }
             catch ( Throwable e )
             {
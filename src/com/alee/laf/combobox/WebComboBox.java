@@ -22,7 +22,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -203,7 +202,7 @@ public class WebComboBox extends JComboBox implements ShapeProvider, SettingsMet
         {
             try
             {
-                setUI ( ( WebComboBoxUI ) ReflectUtils.createInstance ( WebLookAndFeel.comboBoxUI ) );
+                setUI ( ( WebComboBoxUI ) WebLookAndFeel.createUI ( WebLookAndFeel.comboBoxUI ) );
             }
             catch ( Throwable e )
             {
@@ -18,7 +18,6 @@
 package com.alee.laf.desktoppane;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 
@@ -45,7 +44,7 @@ public class WebDesktopPane extends JDesktopPane
         {
             try
             {
-                setUI ( ( WebDesktopPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.desktopPaneUI ) );
+                setUI ( ( WebDesktopPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.desktopPaneUI ) );
             }
             catch ( Throwable e )
             {
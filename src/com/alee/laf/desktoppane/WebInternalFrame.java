@@ -21,7 +21,6 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 import java.beans.PropertyVetoException;
@@ -112,7 +111,7 @@ public class WebInternalFrame extends JInternalFrame implements LanguageMethods
         {
             try
             {
-                setUI ( ( WebInternalFrameUI ) ReflectUtils.createInstance ( WebLookAndFeel.internalFrameUI, this ) );
+                setUI ( ( WebInternalFrameUI ) WebLookAndFeel.createUI ( WebLookAndFeel.internalFrameUI, this ) );
             }
             catch ( Throwable e )
             {
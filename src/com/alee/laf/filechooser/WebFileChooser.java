@@ -25,7 +25,6 @@ import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.ImageUtils;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.Customizer;
 
@@ -305,7 +304,7 @@ public class WebFileChooser extends JFileChooser implements LanguageMethods, Lan
         {
             try
             {
-                setUI ( ( WebFileChooserUI ) ReflectUtils.createInstance ( WebLookAndFeel.fileChooserUI ) );
+                setUI ( ( WebFileChooserUI ) WebLookAndFeel.createUI ( WebLookAndFeel.fileChooserUI ) );
             }
             catch ( final Throwable e )
             {
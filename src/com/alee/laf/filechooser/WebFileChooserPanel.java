@@ -732,7 +732,7 @@ public class WebFileChooserPanel extends WebPanel
             public void actionPerformed ( final ActionEvent e )
             {
                 final File file = fileList.getSelectedFile ();
-                if ( file.isDirectory () )
+                if ( FileUtils.isDirectory ( file ) )
                 {
                     updateCurrentFolder ( file, UpdateSource.list );
                 }
@@ -747,7 +747,7 @@ public class WebFileChooserPanel extends WebPanel
                 if ( SwingUtilities.isLeftMouseButton ( e ) && e.getClickCount () % 2 == 0 && fileList.getSelectedIndex () != -1 )
                 {
                     final File file = fileList.getSelectedFile ();
-                    if ( file.isDirectory () )
+                    if ( FileUtils.isDirectory ( file ) )
                     {
                         updateCurrentFolder ( file, UpdateSource.list );
                     }
@@ -812,7 +812,7 @@ public class WebFileChooserPanel extends WebPanel
             public void actionPerformed ( final ActionEvent e )
             {
                 final File file = fileTable.getSelectedFile ();
-                if ( file.isDirectory () )
+                if ( FileUtils.isDirectory ( file ) )
                 {
                     updateCurrentFolder ( file, UpdateSource.table );
                 }
@@ -827,7 +827,7 @@ public class WebFileChooserPanel extends WebPanel
                 if ( SwingUtilities.isLeftMouseButton ( e ) && e.getClickCount () % 2 == 0 && fileTable.getSelectedRow () != -1 )
                 {
                     final File file = fileTable.getSelectedFile ();
-                    if ( file.isDirectory () )
+                    if ( FileUtils.isDirectory ( file ) )
                     {
                         updateCurrentFolder ( file, UpdateSource.table );
                     }
@@ -2137,7 +2137,7 @@ public class WebFileChooserPanel extends WebPanel
         @Override
         public boolean accept ( final File file )
         {
-            return showHiddenFiles || !file.isHidden ();
+            return showHiddenFiles || !FileUtils.isHidden ( file );
         }
     }
 }
\ No newline at end of file
@@ -22,7 +22,6 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
@@ -204,7 +203,7 @@ public class WebLabel extends JLabel implements LanguageMethods, FontMethods<Web
         {
             try
             {
-                setUI ( ( WebLabelUI ) ReflectUtils.createInstance ( WebLookAndFeel.labelUI ) );
+                setUI ( ( WebLabelUI ) WebLookAndFeel.createUI ( WebLookAndFeel.labelUI ) );
             }
             catch ( Throwable e )
             {
@@ -22,7 +22,6 @@ import com.alee.laf.list.editor.DefaultListCellEditor;
 import com.alee.laf.list.editor.ListCellEditor;
 import com.alee.laf.list.editor.ListEditListener;
 import com.alee.utils.CollectionUtils;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
@@ -553,7 +552,7 @@ public class WebList extends JList implements FontMethods<WebList>, SizeMethods<
         {
             try
             {
-                setUI ( ( WebListUI ) ReflectUtils.createInstance ( WebLookAndFeel.listUI ) );
+                setUI ( ( WebListUI ) WebLookAndFeel.createUI ( WebLookAndFeel.listUI ) );
             }
             catch ( Throwable e )
             {
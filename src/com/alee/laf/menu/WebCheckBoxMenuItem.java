@@ -27,7 +27,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -484,7 +483,7 @@ public class WebCheckBoxMenuItem extends JCheckBoxMenuItem implements LanguageMe
         {
             try
             {
-                setUI ( ( WebCheckBoxMenuItemUI ) ReflectUtils.createInstance ( WebLookAndFeel.checkBoxMenuItemUI ) );
+                setUI ( ( WebCheckBoxMenuItemUI ) WebLookAndFeel.createUI ( WebLookAndFeel.checkBoxMenuItemUI ) );
             }
             catch ( Throwable e )
             {
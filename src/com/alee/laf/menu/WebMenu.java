@@ -22,7 +22,6 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -330,7 +329,7 @@ public class WebMenu extends JMenu implements LanguageMethods, FontMethods<WebMe
         {
             try
             {
-                setUI ( ( WebMenuUI ) ReflectUtils.createInstance ( WebLookAndFeel.menuUI ) );
+                setUI ( ( WebMenuUI ) WebLookAndFeel.createUI ( WebLookAndFeel.menuUI ) );
             }
             catch ( Throwable e )
             {
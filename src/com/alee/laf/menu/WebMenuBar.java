@@ -18,7 +18,6 @@
 package com.alee.laf.menu;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.laf.ShapeProvider;
 
 import javax.swing.*;
@@ -109,7 +108,7 @@ public class WebMenuBar extends JMenuBar implements ShapeProvider
         {
             try
             {
-                setUI ( ( WebMenuBarUI ) ReflectUtils.createInstance ( WebLookAndFeel.menuBarUI ) );
+                setUI ( ( WebMenuBarUI ) WebLookAndFeel.createUI ( WebLookAndFeel.menuBarUI ) );
             }
             catch ( Throwable e )
             {
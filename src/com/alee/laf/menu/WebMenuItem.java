@@ -23,7 +23,6 @@ import com.alee.managers.hotkey.HotkeyData;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -420,7 +419,7 @@ public class WebMenuItem extends JMenuItem implements LanguageMethods, FontMetho
         {
             try
             {
-                setUI ( ( WebMenuItemUI ) ReflectUtils.createInstance ( WebLookAndFeel.menuItemUI ) );
+                setUI ( ( WebMenuItemUI ) WebLookAndFeel.createUI ( WebLookAndFeel.menuItemUI ) );
             }
             catch ( Throwable e )
             {
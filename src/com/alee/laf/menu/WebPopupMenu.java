@@ -18,7 +18,6 @@
 package com.alee.laf.menu;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.laf.ShapeProvider;
 
 import javax.swing.*;
@@ -423,7 +422,7 @@ public class WebPopupMenu extends JPopupMenu implements ShapeProvider
         {
             try
             {
-                setUI ( ( WebPopupMenuUI ) ReflectUtils.createInstance ( WebLookAndFeel.popupMenuUI ) );
+                setUI ( ( WebPopupMenuUI ) WebLookAndFeel.createUI ( WebLookAndFeel.popupMenuUI ) );
             }
             catch ( Throwable e )
             {
@@ -18,7 +18,6 @@
 package com.alee.laf.menu;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 import java.awt.*;
@@ -143,7 +142,7 @@ public class WebPopupMenuSeparator extends JSeparator
         {
             try
             {
-                setUI ( ( WebPopupMenuSeparatorUI ) ReflectUtils.createInstance ( WebLookAndFeel.popupMenuSeparatorUI ) );
+                setUI ( ( WebPopupMenuSeparatorUI ) WebLookAndFeel.createUI ( WebLookAndFeel.popupMenuSeparatorUI ) );
             }
             catch ( Throwable e )
             {
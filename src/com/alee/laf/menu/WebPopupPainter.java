@@ -24,7 +24,6 @@ import com.alee.utils.NinePatchUtils;
 import com.alee.utils.ShapeCache;
 import com.alee.utils.laf.PainterShapeProvider;
 import com.alee.utils.ninepatch.NinePatchIcon;
-import com.alee.utils.swing.DataProvider;
 
 import javax.swing.*;
 import java.awt.*;
@@ -67,6 +66,7 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
     protected int cornerSide = TOP;
     protected int relativeCorner = 0;
     protected int cornerAlignment = -1;
+    protected final int[] shapeSettings = new int[ 8 ];
 
     /**
      * Returns popup style.
@@ -555,25 +555,19 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
         {
             case simple:
             {
-                return ShapeCache.getShape ( popup, fill ? SIMPLE_FILL_SHAPE : SIMPLE_BORDER_SHAPE, new DataProvider<Shape> ()
-                {
-                    @Override
-                    public Shape provide ()
-                    {
-                        return createSimpleShape ( popup, popupSize, fill );
-                    }
-                }, getCachedShapeSettings ( popup ) );
+                final String shapeId = fill ? SIMPLE_FILL_SHAPE : SIMPLE_BORDER_SHAPE;
+                final int[] settings = getShapeSettingsKey ( popup );
+                final Shape shape = ShapeCache.getCachedShape ( popup, shapeId, settings );
+                return shape != null ? shape :
+                        ShapeCache.cacheShape ( popup, shapeId, settings, createSimpleShape ( popup, popupSize, fill ) );
             }
             case dropdown:
             {
-                return ShapeCache.getShape ( popup, fill ? DROPDOWN_FILL_SHAPE : DROPDOWN_BORDER_SHAPE, new DataProvider<Shape> ()
-                {
-                    @Override
-                    public Shape provide ()
-                    {
-                        return createDropdownShape ( popup, popupSize, fill );
-                    }
-                }, getCachedShapeSettings ( popup ) );
+                final String shapeId = fill ? DROPDOWN_FILL_SHAPE : DROPDOWN_BORDER_SHAPE;
+                final int[] settings = getShapeSettingsKey ( popup );
+                final Shape shape = ShapeCache.getCachedShape ( popup, shapeId, settings );
+                return shape != null ? shape :
+                        ShapeCache.cacheShape ( popup, shapeId, settings, createDropdownShape ( popup, popupSize, fill ) );
             }
             default:
             {
@@ -587,12 +581,34 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
      *
      * @param popup popup component
      * @return an array of shape settings cached along with the shape
+     * @deprecated shapes are now cached using {@link #getShapeSettingsKey} settings, override that method instead
      */
+    @Deprecated
     protected Object[] getCachedShapeSettings ( final E popup )
     {
         return new Object[]{ round, shadeWidth, cornerWidth, cornerSide, relativeCorner, cornerAlignment, popup.getSize () };
     }
 
+    /**
+     * Returns an array of shape settings cached along with the shape.
+     * Returned array is reused between calls, so no objects are created on each paint.
+     *
+     * @param popup popup component
+     * @return an array of shape settings cached along with the shape
+     */
+    protected int[] getShapeSettingsKey ( final E popup )
+    {
+        shapeSettings[ 0 ] = round;
+        shapeSettings[ 1 ] = shadeWidth;
+        shapeSettings[ 2 ] = cornerWidth;
+        shapeSettings[ 3 ] = cornerSide;
+        shapeSettings[ 4 ] = relativeCorner;
+        shapeSettings[ 5 ] = cornerAlignment;
+        shapeSettings[ 6 ] = popup.getWidth ();
+        shapeSettings[ 7 ] = popup.getHeight ();
+        return shapeSettings;
+    }
+
     /**
      * Creates and returns simple popup shape.
      *
@@ -725,14 +741,11 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
      */
     protected Shape getDropdownCornerShape ( final E popupMenu, final Dimension menuSize, final boolean fill )
     {
-        return ShapeCache.getShape ( popupMenu, fill ? "dropdown-corner-fill" : "dropdown-corner-border", new DataProvider<Shape> ()
-        {
-            @Override
-            public Shape provide ()
-            {
-                return createDropdownCornerShape ( popupMenu, menuSize, fill );
-            }
-        }, getCachedShapeSettings ( popupMenu ) );
+        final String shapeId = fill ? "dropdown-corner-fill" : "dropdown-corner-border";
+        final int[] settings = getShapeSettingsKey ( popupMenu );
+        final Shape shape = ShapeCache.getCachedShape ( popupMenu, shapeId, settings );
+        return shape != null ? shape :
+                ShapeCache.cacheShape ( popupMenu, shapeId, settings, createDropdownCornerShape ( popupMenu, menuSize, fill ) );
     }
 
     /**
@@ -27,7 +27,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -496,7 +495,7 @@ public class WebRadioButtonMenuItem extends JRadioButtonMenuItem
         {
             try
             {
-                setUI ( ( WebRadioButtonMenuItemUI ) ReflectUtils.createInstance ( WebLookAndFeel.radioButtonMenuItemUI ) );
+                setUI ( ( WebRadioButtonMenuItemUI ) WebLookAndFeel.createUI ( WebLookAndFeel.radioButtonMenuItemUI ) );
             }
             catch ( Throwable e )
             {
@@ -18,7 +18,6 @@
 package com.alee.laf.optionpane;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 
@@ -75,7 +74,7 @@ public class WebOptionPane extends JOptionPane
         {
             try
             {
-                setUI ( ( WebOptionPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.optionPaneUI ) );
+                setUI ( ( WebOptionPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.optionPaneUI ) );
             }
             catch ( Throwable e )
             {
@@ -21,7 +21,6 @@ import com.alee.extended.painter.Painter;
 import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.LanguageContainerMethods;
 import com.alee.managers.language.LanguageManager;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -384,7 +383,7 @@ public class WebPanel extends JPanel implements ShapeProvider, SizeMethods<WebPa
         {
             try
             {
-                setUI ( ( WebPanelUI ) ReflectUtils.createInstance ( WebLookAndFeel.panelUI ) );
+                setUI ( ( WebPanelUI ) WebLookAndFeel.createUI ( WebLookAndFeel.panelUI ) );
             }
             catch ( Throwable e )
             {
@@ -25,6 +25,7 @@ import com.alee.managers.focus.DefaultFocusTracker;
 import com.alee.managers.focus.FocusManager;
 import com.alee.managers.focus.FocusTracker;
 import com.alee.utils.LafUtils;
+import com.alee.utils.ShapeCache;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.PainterShapeProvider;
 import com.alee.utils.laf.ShapeProvider;
@@ -46,6 +47,12 @@ import java.beans.PropertyChangeListener;
 
 public class WebPanelUI extends BasicPanelUI implements ShapeProvider, BorderMethods
 {
+    /**
+     * Shape cache keys.
+     */
+    private static final String BORDER_SHAPE = "border";
+    private static final String BACKGROUND_SHAPE = "background";
+
     /**
      * Style settings.
      */
@@ -83,6 +90,11 @@ public class WebPanelUI extends BasicPanelUI implements ShapeProvider, BorderMet
      */
     protected boolean focused = false;
 
+    /**
+     * Reusable panel shape settings.
+     */
+    private final int[] shapeSettings = new int[ 9 ];
+
     /**
      * Returns an instance of the WebPanelUI for the specified component.
      * This tricky method is used by UIManager to create component UIs when needed.
@@ -619,13 +631,37 @@ public class WebPanelUI extends BasicPanelUI implements ShapeProvider, BorderMet
     }
 
     /**
-     * Returns panel shape.
+     * Returns cached panel shape.
      *
      * @param c          component
      * @param background whether should return background shape or not
      * @return panel shape
      */
     private Shape getPanelShape ( final JComponent c, final boolean background )
+    {
+        // Shape settings are put into reusable array, so cache hit doesn't create any objects
+        shapeSettings[ 0 ] = c.getWidth ();
+        shapeSettings[ 1 ] = c.getHeight ();
+        shapeSettings[ 2 ] = c.getComponentOrientation ().isLeftToRight () ? 1 : 0;
+        shapeSettings[ 3 ] = shadeWidth;
+        shapeSettings[ 4 ] = round;
+        shapeSettings[ 5 ] = drawTop ? 1 : 0;
+        shapeSettings[ 6 ] = drawLeft ? 1 : 0;
+        shapeSettings[ 7 ] = drawBottom ? 1 : 0;
+        shapeSettings[ 8 ] = drawRight ? 1 : 0;
+        final String shapeId = background ? BACKGROUND_SHAPE : BORDER_SHAPE;
+        final Shape shape = ShapeCache.getCachedShape ( c, shapeId, shapeSettings );
+        return shape != null ? shape : ShapeCache.cacheShape ( c, shapeId, shapeSettings, createPanelShape ( c, background ) );
+    }
+
+    /**
+     * Returns panel shape.
+     *
+     * @param c          component
+     * @param background whether should return background shape or not
+     * @return panel shape
+     */
+    private Shape createPanelShape ( final JComponent c, final boolean background )
     {
         // Changing draw marks in case of RTL orientation
         final boolean ltr = c.getComponentOrientation ().isLeftToRight ();
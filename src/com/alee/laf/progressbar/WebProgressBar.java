@@ -21,7 +21,6 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.language.LanguageMethods;
 import com.alee.managers.language.updaters.LanguageUpdater;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -212,7 +211,7 @@ public class WebProgressBar extends JProgressBar
         {
             try
             {
-                setUI ( ( WebProgressBarUI ) ReflectUtils.createInstance ( WebLookAndFeel.progressBarUI ) );
+                setUI ( ( WebProgressBarUI ) WebLookAndFeel.createUI ( WebLookAndFeel.progressBarUI ) );
             }
             catch ( Throwable e )
             {
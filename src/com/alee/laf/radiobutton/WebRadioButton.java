@@ -29,7 +29,6 @@ import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
 import com.alee.managers.tooltip.TooltipWay;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -335,7 +334,7 @@ public class WebRadioButton extends JRadioButton
         {
             try
             {
-                setUI ( ( WebRadioButtonUI ) ReflectUtils.createInstance ( WebLookAndFeel.radioButtonUI ) );
+                setUI ( ( WebRadioButtonUI ) WebLookAndFeel.createUI ( WebLookAndFeel.radioButtonUI ) );
             }
             catch ( Throwable e )
             {
@@ -18,7 +18,6 @@
 package com.alee.laf.rootpane;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 
@@ -45,7 +44,7 @@ public class WebRootPane extends JRootPane
         {
             try
             {
-                setUI ( ( WebRootPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.rootPaneUI ) );
+                setUI ( ( WebRootPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.rootPaneUI ) );
             }
             catch ( Throwable e )
             {
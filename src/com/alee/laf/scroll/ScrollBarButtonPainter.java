@@ -20,7 +20,6 @@ package com.alee.laf.scroll;
 import com.alee.extended.painter.AbstractPainter;
 import com.alee.laf.button.WebButtonUI;
 import com.alee.utils.ShapeCache;
-import com.alee.utils.swing.DataProvider;
 
 import javax.swing.*;
 import javax.swing.plaf.ButtonUI;
@@ -61,6 +60,8 @@ public class ScrollBarButtonPainter<E extends AbstractButton> extends AbstractPa
      */
     protected final ScrollBarButtonType buttonType;
     protected final JScrollBar scrollbar;
+    protected final Insets shapeInsets = new Insets ( 0, 0, 0, 0 );
+    protected final int[] shapeSettings = new int[ 9 ];
 
     /**
      * Constructs new scroll bar button painter.
@@ -340,14 +341,10 @@ public class ScrollBarButtonPainter<E extends AbstractButton> extends AbstractPa
      */
     protected Shape getArrowButtonShape ( final Rectangle bounds, final E button )
     {
-        return ShapeCache.getShape ( button, ARROW_BUTTON_SHAPE, new DataProvider<Shape> ()
-        {
-            @Override
-            public Shape provide ()
-            {
-                return createArrowButtonShape ( bounds, button );
-            }
-        }, getCachedShapeSettings ( button ) );
+        final int[] settings = getShapeSettingsKey ( button );
+        final Shape shape = ShapeCache.getCachedShape ( button, ARROW_BUTTON_SHAPE, settings );
+        return shape != null ? shape :
+                ShapeCache.cacheShape ( button, ARROW_BUTTON_SHAPE, settings, createArrowButtonShape ( bounds, button ) );
     }
 
     /**
@@ -355,13 +352,37 @@ public class ScrollBarButtonPainter<E extends AbstractButton> extends AbstractPa
      *
      * @param button button component
      * @return an array of shape settings cached along with the shape
+     * @deprecated shapes are now cached using {@link #getShapeSettingsKey} settings, override that method instead
      */
+    @Deprecated
     protected Object[] getCachedShapeSettings ( final E button )
     {
         return new Object[]{ button.getSize (), button.getInsets (), buttonType, button.getComponentOrientation ().isLeftToRight (),
                 scrollbar.getOrientation () };
     }
 
+    /**
+     * Returns an array of shape settings cached along with the shape.
+     * Returned array is reused between calls, so no objects are created on each paint.
+     *
+     * @param button button component
+     * @return an array of shape settings cached along with the shape
+     */
+    protected int[] getShapeSettingsKey ( final E button )
+    {
+        final Insets insets = button.getInsets ( shapeInsets );
+        shapeSettings[ 0 ] = button.getWidth ();
+        shapeSettings[ 1 ] = button.getHeight ();
+        shapeSettings[ 2 ] = insets.top;
+        shapeSettings[ 3 ] = insets.left;
+        shapeSettings[ 4 ] = insets.bottom;
+        shapeSettings[ 5 ] = insets.right;
+        shapeSettings[ 6 ] = buttonType.ordinal ();
+        shapeSettings[ 7 ] = button.getComponentOrientation ().isLeftToRight () ? 1 : 0;
+        shapeSettings[ 8 ] = scrollbar.getOrientation ();
+        return shapeSettings;
+    }
+
     /**
      * Returns arrow button shape.
      *
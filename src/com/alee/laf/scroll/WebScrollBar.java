@@ -18,7 +18,6 @@
 package com.alee.laf.scroll;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 import java.awt.*;
@@ -509,7 +508,7 @@ public class WebScrollBar extends JScrollBar
         {
             try
             {
-                setUI ( ( WebScrollBarUI ) ReflectUtils.createInstance ( WebLookAndFeel.scrollBarUI ) );
+                setUI ( ( WebScrollBarUI ) WebLookAndFeel.createUI ( WebLookAndFeel.scrollBarUI ) );
             }
             catch ( Throwable e )
             {
@@ -20,7 +20,6 @@ package com.alee.laf.scroll;
 import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.LanguageContainerMethods;
 import com.alee.managers.language.LanguageManager;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.SizeMethods;
@@ -202,7 +201,7 @@ public class WebScrollPane extends JScrollPane implements ShapeProvider, SizeMet
         {
             try
             {
-                setUI ( ( WebScrollPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.scrollPaneUI ) );
+                setUI ( ( WebScrollPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.scrollPaneUI ) );
             }
             catch ( Throwable e )
             {
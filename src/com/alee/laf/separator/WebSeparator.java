@@ -18,7 +18,6 @@
 package com.alee.laf.separator;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 import java.awt.*;
@@ -195,7 +194,7 @@ public class WebSeparator extends JSeparator
         {
             try
             {
-                setUI ( ( WebSeparatorUI ) ReflectUtils.createInstance ( WebLookAndFeel.separatorUI ) );
+                setUI ( ( WebSeparatorUI ) WebLookAndFeel.createUI ( WebLookAndFeel.separatorUI ) );
             }
             catch ( Throwable e )
             {
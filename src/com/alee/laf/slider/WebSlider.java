@@ -23,7 +23,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
@@ -312,7 +311,7 @@ public class WebSlider extends JSlider implements SettingsMethods, FontMethods<W
         {
             try
             {
-                setUI ( ( WebSliderUI ) ReflectUtils.createInstance ( WebLookAndFeel.sliderUI, this ) );
+                setUI ( ( WebSliderUI ) WebLookAndFeel.createUI ( WebLookAndFeel.sliderUI, this ) );
             }
             catch ( Throwable e )
             {
@@ -18,7 +18,6 @@
 package com.alee.laf.spinner;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.FontMethods;
@@ -129,7 +128,7 @@ public class WebSpinner extends JSpinner implements ShapeProvider, FontMethods<W
         {
             try
             {
-                setUI ( ( WebSpinnerUI ) ReflectUtils.createInstance ( WebLookAndFeel.spinnerUI ) );
+                setUI ( ( WebSpinnerUI ) WebLookAndFeel.createUI ( WebLookAndFeel.spinnerUI ) );
             }
             catch ( Throwable e )
             {
@@ -18,7 +18,6 @@
 package com.alee.laf.splitpane;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 import java.awt.*;
@@ -109,7 +108,7 @@ public class WebSplitPane extends JSplitPane
         {
             try
             {
-                setUI ( ( WebSplitPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.splitPaneUI ) );
+                setUI ( ( WebSplitPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.splitPaneUI ) );
             }
             catch ( Throwable e )
             {
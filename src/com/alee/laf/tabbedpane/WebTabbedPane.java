@@ -27,7 +27,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.FontMethods;
@@ -253,7 +252,7 @@ public class WebTabbedPane extends JTabbedPane
         {
             try
             {
-                setUI ( ( WebTabbedPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.tabbedPaneUI ) );
+                setUI ( ( WebTabbedPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.tabbedPaneUI ) );
             }
             catch ( Throwable e )
             {
@@ -19,7 +19,6 @@ package com.alee.laf.table;
 
 import com.alee.laf.WebLookAndFeel;
 import com.alee.utils.GeometryUtils;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -297,7 +296,7 @@ public class WebTable extends JTable implements FontMethods<WebTable>
         {
             try
             {
-                setUI ( ( WebTableUI ) ReflectUtils.createInstance ( WebLookAndFeel.tableUI ) );
+                setUI ( ( WebTableUI ) WebLookAndFeel.createUI ( WebLookAndFeel.tableUI ) );
             }
             catch ( Throwable e )
             {
@@ -25,7 +25,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -84,7 +83,7 @@ public class WebEditorPane extends JEditorPane implements LanguageMethods, Setti
         {
             try
             {
-                setUI ( ( WebEditorPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.editorPaneUI ) );
+                setUI ( ( WebEditorPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.editorPaneUI ) );
             }
             catch ( Throwable e )
             {
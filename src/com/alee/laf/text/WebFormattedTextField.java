@@ -26,7 +26,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -285,7 +284,7 @@ public class WebFormattedTextField extends JFormattedTextField
         {
             try
             {
-                setUI ( ( WebFormattedTextFieldUI ) ReflectUtils.createInstance ( WebLookAndFeel.formattedTextFieldUI ) );
+                setUI ( ( WebFormattedTextFieldUI ) WebLookAndFeel.createUI ( WebLookAndFeel.formattedTextFieldUI ) );
             }
             catch ( Throwable e )
             {
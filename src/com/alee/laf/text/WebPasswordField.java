@@ -26,7 +26,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -284,7 +283,7 @@ public class WebPasswordField extends JPasswordField
         {
             try
             {
-                setUI ( ( WebPasswordFieldUI ) ReflectUtils.createInstance ( WebLookAndFeel.passwordFieldUI ) );
+                setUI ( ( WebPasswordFieldUI ) WebLookAndFeel.createUI ( WebLookAndFeel.passwordFieldUI ) );
             }
             catch ( Throwable e )
             {
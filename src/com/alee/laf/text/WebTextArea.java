@@ -26,7 +26,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -115,7 +114,7 @@ public class WebTextArea extends JTextArea implements LanguageMethods, SettingsM
         {
             try
             {
-                setUI ( ( WebTextAreaUI ) ReflectUtils.createInstance ( WebLookAndFeel.textAreaUI ) );
+                setUI ( ( WebTextAreaUI ) WebLookAndFeel.createUI ( WebLookAndFeel.textAreaUI ) );
             }
             catch ( Throwable e )
             {
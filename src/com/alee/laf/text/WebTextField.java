@@ -27,7 +27,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SizeUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
@@ -311,7 +310,7 @@ public class WebTextField extends JTextField
         {
             try
             {
-                setUI ( ( WebTextFieldUI ) ReflectUtils.createInstance ( WebLookAndFeel.textFieldUI ) );
+                setUI ( ( WebTextFieldUI ) WebLookAndFeel.createUI ( WebLookAndFeel.textFieldUI ) );
             }
             catch ( Throwable e )
             {
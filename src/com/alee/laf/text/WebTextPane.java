@@ -25,7 +25,6 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -73,7 +72,7 @@ public class WebTextPane extends JTextPane implements LanguageMethods, SettingsM
         {
             try
             {
-                setUI ( ( WebTextPaneUI ) ReflectUtils.createInstance ( WebLookAndFeel.textPaneUI ) );
+                setUI ( ( WebTextPaneUI ) WebLookAndFeel.createUI ( WebLookAndFeel.textPaneUI ) );
             }
             catch ( Throwable e )
             {
@@ -24,7 +24,6 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.laf.separator.WebSeparator;
 import com.alee.managers.language.LanguageContainerMethods;
 import com.alee.managers.language.LanguageManager;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.laf.ShapeProvider;
 
 import javax.swing.*;
@@ -375,7 +374,7 @@ public class WebToolBar extends JToolBar implements ShapeProvider, LanguageConta
         {
             try
             {
-                setUI ( ( WebToolBarUI ) ReflectUtils.createInstance ( WebLookAndFeel.toolBarUI ) );
+                setUI ( ( WebToolBarUI ) WebLookAndFeel.createUI ( WebLookAndFeel.toolBarUI ) );
             }
             catch ( Throwable e )
             {
@@ -18,7 +18,6 @@
 package com.alee.laf.tooltip;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.FontMethods;
@@ -73,7 +72,7 @@ public class WebToolTip extends JToolTip implements ShapeProvider, FontMethods<W
         {
             try
             {
-                setUI ( ( WebToolTipUI ) ReflectUtils.createInstance ( WebLookAndFeel.toolTipUI ) );
+                setUI ( ( WebToolTipUI ) WebLookAndFeel.createUI ( WebLookAndFeel.toolTipUI ) );
             }
             catch ( Throwable e )
             {
@@ -19,9 +19,9 @@ package com.alee.laf.tree;
 
 import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * This class provides a set of utilities for trees.
@@ -157,22 +157,50 @@ public final class TreeUtils
 
     /**
      * Optimizes list of nodes by removing those which already have their parent node in the list.
+     * Nodes are looked up within an identity set, so this method takes linear time for trees of reasonable depth.
      *
      * @param nodes nodes list to optimize
      */
     public static <E extends DefaultMutableTreeNode> void optimizeNodes ( final List<E> nodes )
     {
-        for ( int i = nodes.size () - 1; i >= 0; i-- )
+        if ( nodes.size () > 1 )
         {
-            final E node = nodes.get ( i );
-            for ( final E other : nodes )
+            final Set<TreeNode> lookup = Collections.newSetFromMap ( new IdentityHashMap<TreeNode, Boolean> ( nodes.size () ) );
+            lookup.addAll ( nodes );
+            final List<E> optimized = new ArrayList<E> ( nodes.size () );
+            for ( final E node : nodes )
             {
-                if ( other != node && node.isNodeAncestor ( other ) )
+                if ( !hasParentIn ( node, lookup ) )
                 {
-                    nodes.remove ( i );
-                    break;
+                    optimized.add ( node );
                 }
             }
+            if ( optimized.size () < nodes.size () )
+            {
+                nodes.clear ();
+                nodes.addAll ( optimized );
+            }
+        }
+    }
+
+    /**
+     * Returns whether any of the specified node parents is presented in the nodes set or not.
+     *
+     * @param node  node to process
+     * @param nodes nodes set
+     * @return true if any of the specified node parents is presented in the nodes set, false otherwise
+     */
+    private static boolean hasParentIn ( final TreeNode node, final Set<TreeNode> nodes )
+    {
+        TreeNode parent = node.getParent ();
+        while ( parent != null )
+        {
+            if ( nodes.contains ( parent ) )
+            {
+                return true;
+            }
+            parent = parent.getParent ();
         }
+        return false;
     }
 }
\ No newline at end of file
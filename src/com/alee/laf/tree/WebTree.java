@@ -19,7 +19,6 @@ package com.alee.laf.tree;
 
 import com.alee.laf.WebLookAndFeel;
 import com.alee.utils.GeometryUtils;
-import com.alee.utils.ReflectUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.FontMethods;
 
@@ -949,7 +948,7 @@ public class WebTree<E extends DefaultMutableTreeNode> extends JTree implements
         {
             try
             {
-                setUI ( ( WebTreeUI ) ReflectUtils.createInstance ( WebLookAndFeel.treeUI ) );
+                setUI ( ( WebTreeUI ) WebLookAndFeel.createUI ( WebLookAndFeel.treeUI ) );
             }
             catch ( Throwable e )
             {
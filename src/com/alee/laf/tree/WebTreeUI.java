@@ -40,6 +40,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Enumeration;
 import java.util.List;
 
@@ -98,11 +99,21 @@ public class WebTreeUI extends BasicTreeUI
     protected TreeExpansionListener treeExpansionListener;
     protected MouseAdapter mouseAdapter;
 
+    /**
+     * Multiselector modes.
+     */
+    protected static final int SELECTOR_REPLACE = 0;
+    protected static final int SELECTOR_ADD = 1;
+    protected static final int SELECTOR_INVERT = 2;
+
     /**
      * Runtime variables.
      */
     protected int rolloverRow = -1;
-    protected List<Integer> initialSelection = new ArrayList<Integer> ();
+    protected BitSet initialSelection = new BitSet ();
+    protected BitSet selectorRows = null;
+    protected int selectorMode = -1;
+    protected Rectangle selectorBounds = null;
     protected Point selectionStart = null;
     protected Point selectionEnd = null;
     protected boolean leftToRight = true;
@@ -189,7 +200,7 @@ public class WebTreeUI extends BasicTreeUI
             public void valueChanged ( final TreeSelectionEvent e )
             {
                 // Optimized selection repaint
-                repaintSelection ();
+                repaintSelection ( e );
 
                 // Tree expansion on selection
                 if ( autoExpandSelectedNode && tree.getSelectionCount () > 0 )
@@ -252,7 +263,9 @@ public class WebTreeUI extends BasicTreeUI
                                     selectionEnd = selectionStart;
 
                                     // Initial tree selection
-                                    initialSelection = getSelectionRowsList ();
+                                    initialSelection = getSelectionRowsSet ();
+                                    selectorRows = null;
+                                    selectorMode = -1;
 
                                     // Updating selection
                                     validateSelection ( e );
@@ -325,132 +338,133 @@ public class WebTreeUI extends BasicTreeUI
                 }
                 if ( isSelectorAvailable () && selectionStart != null )
                 {
-                    // Saving selection rect to repaint
-                    // Rectangle fr = GeometryUtils.getContainingRect ( selectionStart, selectionEnd );
-
                     // Selection
                     selectionStart = null;
                     selectionEnd = null;
+                    selectorRows = null;
 
                     // Repainting selection on the tree
-                    repaintSelector ( /*fr*/ );
+                    repaintSelector ();
                 }
             }
 
             private void validateSelection ( final MouseEvent e )
             {
-                // todo Possibly optimize selection? - modify it instead of overwriting each time
-
-                // Selection rect
+                // Rows covered by selector
                 final Rectangle selection = GeometryUtils.getContainingRect ( selectionStart, selectionEnd );
+                final BitSet rows = getRowsInBounds ( selection, isFullLineSelection () );
+                final int mode = SwingUtils.isShift ( e ) ? SELECTOR_ADD : SwingUtils.isCtrl ( e ) ? SELECTOR_INVERT : SELECTOR_REPLACE;
 
-                // Compute new selection
-                final List<Integer> newSelection = new ArrayList<Integer> ();
-                if ( SwingUtils.isShift ( e ) )
+                if ( selectorRows == null || selectorMode != mode )
                 {
-                    for ( int row = 0; row < tree.getRowCount (); row++ )
+                    // Computing the whole selection when selector appears or its mode changes
+                    final BitSet newSelection;
+                    if ( mode == SELECTOR_ADD )
                     {
-                        if ( getRowBounds ( row ).intersects ( selection ) && !initialSelection.contains ( row ) )
-                        {
-                            newSelection.add ( row );
-                        }
+                        newSelection = ( BitSet ) initialSelection.clone ();
+                        newSelection.or ( rows );
                     }
-                    for ( final int row : initialSelection )
+                    else if ( mode == SELECTOR_INVERT )
                     {
-                        newSelection.add ( row );
+                        newSelection = ( BitSet ) initialSelection.clone ();
+                        newSelection.xor ( rows );
+                    }
+                    else
+                    {
+                        newSelection = rows;
+                    }
+                    if ( !getSelectionRowsSet ().equals ( newSelection ) )
+                    {
+                        if ( newSelection.isEmpty () )
+                        {
+                            tree.clearSelection ();
+                        }
+                        else
+                        {
+                            tree.setSelectionRows ( toArray ( newSelection ) );
+                        }
                     }
                 }
-                else if ( SwingUtils.isCtrl ( e ) )
+                else
                 {
-                    final List<Integer> excludedRows = new ArrayList<Integer> ();
-                    for ( int row = 0; row < tree.getRowCount (); row++ )
+                    // Updating only rows which got in or out of the selector
+                    final BitSet changed = ( BitSet ) selectorRows.clone ();
+                    changed.xor ( rows );
+                    if ( !changed.isEmpty () )
                     {
-                        if ( getRowBounds ( row ).intersects ( selection ) )
+                        final BitSet added = new BitSet ();
+                        final BitSet removed = new BitSet ();
+                        for ( int row = changed.nextSetBit ( 0 ); row >= 0; row = changed.nextSetBit ( row + 1 ) )
                         {
-                            if ( initialSelection.contains ( row ) )
+                            final boolean covered = rows.get ( row );
+                            final boolean selected;
+                            if ( mode == SELECTOR_ADD )
+                            {
+                                selected = covered || initialSelection.get ( row );
+                            }
+                            else if ( mode == SELECTOR_INVERT )
                             {
-                                excludedRows.add ( row );
+                                selected = covered != initialSelection.get ( row );
                             }
                             else
                             {
-                                newSelection.add ( row );
+                                selected = covered;
                             }
+                            ( selected ? added : removed ).set ( row );
                         }
-                    }
-                    for ( final int row : initialSelection )
-                    {
-                        if ( !excludedRows.contains ( row ) )
+                        if ( !removed.isEmpty () )
                         {
-                            newSelection.add ( row );
+                            tree.removeSelectionRows ( toArray ( removed ) );
                         }
-                    }
-                }
-                else
-                {
-                    for ( int row = 0; row < tree.getRowCount (); row++ )
-                    {
-                        if ( getRowBounds ( row ).intersects ( selection ) )
+                        if ( !added.isEmpty () )
                         {
-                            newSelection.add ( row );
+                            tree.addSelectionRows ( toArray ( added ) );
                         }
                     }
                 }
-
-                // Change selection if it is not the same as before
-                if ( !CollectionUtils.areEqual ( getSelectionRowsList (), newSelection ) )
-                {
-                    if ( newSelection.size () > 0 )
-                    {
-                        tree.setSelectionRows ( CollectionUtils.toArray ( newSelection ) );
-                    }
-                    else
-                    {
-                        tree.clearSelection ();
-                    }
-                }
+                selectorRows = rows;
+                selectorMode = mode;
             }
 
-            private List<Integer> getSelectionRowsList ()
+            private BitSet getSelectionRowsSet ()
             {
-                final List<Integer> selection = new ArrayList<Integer> ();
+                final BitSet selection = new BitSet ();
                 final int[] selectionRows = tree.getSelectionRows ();
                 if ( selectionRows != null )
                 {
                     for ( final int row : selectionRows )
                     {
-                        selection.add ( row );
+                        selection.set ( row );
                     }
                 }
                 return selection;
             }
 
-            private void repaintSelector ()
+            private int[] toArray ( final BitSet rows )
             {
-                //                // Calculating selector pervious and current rects
-                //                final Rectangle sb1 = GeometryUtils.getContainingRect ( selectionStart, selectionPrevEnd );
-                //                final Rectangle sb2 = GeometryUtils.getContainingRect ( selectionStart, selectionEnd );
-                //
-                //                // Repainting final rect
-                //                repaintSelector ( GeometryUtils.getContainingRect ( sb1, sb2 ) );
-
-                // Replaced with full repaint due to strange tree lines painting bug
-                tree.repaint ( tree.getVisibleRect () );
+                final int[] array = new int[ rows.cardinality () ];
+                int i = 0;
+                for ( int row = rows.nextSetBit ( 0 ); row >= 0; row = rows.nextSetBit ( row + 1 ) )
+                {
+                    array[ i++ ] = row;
+                }
+                return array;
             }
 
-            //            private void repaintSelector ( Rectangle fr )
-            //            {
-            //                //                // Expanding width and height to fully cover the selector
-            //                //                fr.x -= 1;
-            //                //                fr.y -= 1;
-            //                //                fr.width += 2;
-            //                //                fr.height += 2;
-            //                //
-            //                //                // Repainting selector area
-            //                //                tree.repaint ( fr );
-            //
-            //                // Replaced with full repaint due to strange tree lines painting bug
-            //                tree.repaint ();
-            //            }
+            private void repaintSelector ()
+            {
+                // Repainting area covered by previous and current selector
+                final Rectangle previous = selectorBounds;
+                selectorBounds = getSelectorBounds ();
+                if ( previous != null && selectorBounds != null )
+                {
+                    tree.repaint ( GeometryUtils.getContainingRect ( previous, selectorBounds ) );
+                }
+                else if ( previous != null || selectorBounds != null )
+                {
+                    tree.repaint ( previous != null ? previous : selectorBounds );
+                }
+            }
 
             @Override
             public void mouseEntered ( final MouseEvent e )
@@ -845,11 +859,12 @@ public class WebTreeUI extends BasicTreeUI
     {
         if ( tree != null )
         {
-            // todo Optimize
-            for ( int row = 0; row < tree.getRowCount (); row++ )
+            // Rows are placed one under another so only the closest one might contain the point
+            final int row = tree.getClosestRowForLocation ( point.x, point.y );
+            if ( row != -1 )
             {
                 final Rectangle bounds = getRowBounds ( row, countFullRow );
-                if ( bounds.contains ( point ) )
+                if ( bounds != null && bounds.contains ( point ) )
                 {
                     return row;
                 }
@@ -858,6 +873,56 @@ public class WebTreeUI extends BasicTreeUI
         return -1;
     }
 
+    /**
+     * Returns rows which bounds intersect with the specified rectangle.
+     * Only rows located between the closest rows to the rectangle top and bottom sides are checked.
+     *
+     * @param rect         rectangle on the tree
+     * @param countFullRow whether take the whole row into account or just node renderer rect
+     * @return rows which bounds intersect with the specified rectangle
+     */
+    public BitSet getRowsInBounds ( final Rectangle rect, final boolean countFullRow )
+    {
+        final BitSet rows = new BitSet ();
+        if ( tree != null && tree.getRowCount () > 0 )
+        {
+            final int first = tree.getClosestRowForLocation ( rect.x, rect.y );
+            final int last = tree.getClosestRowForLocation ( rect.x, rect.y + rect.height );
+            for ( int row = first; row <= last; row++ )
+            {
+                final Rectangle bounds = getRowBounds ( row, countFullRow );
+                if ( bounds != null && bounds.intersects ( rect ) )
+                {
+                    rows.set ( row );
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns area covered by multiselector including its border or null if multiselector is not visible.
+     *
+     * @return area covered by multiselector including its border or null if multiselector is not visible
+     */
+    protected Rectangle getSelectorBounds ()
+    {
+        if ( selectionStart != null && selectionEnd != null )
+        {
+            final Rectangle bounds = GeometryUtils.getContainingRect ( selectionStart, selectionEnd );
+            final int stroke = selectorStroke != null ? ( int ) Math.ceil ( selectorStroke.getLineWidth () ) : 1;
+            bounds.x -= stroke + 1;
+            bounds.y -= stroke + 1;
+            bounds.width += stroke * 2 + 2;
+            bounds.height += stroke * 2 + 2;
+            return bounds;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
     /**
      * Returns row bounds by its index.
      * This method takes selection style into account.
@@ -1049,6 +1114,65 @@ public class WebTreeUI extends BasicTreeUI
         }
     }
 
+    /**
+     * Repaints visible area affected by the specified selection change.
+     * Rows which selection has changed are repainted together with their neighbours since selection of adjacent rows is grouped.
+     *
+     * @param e selection event
+     */
+    protected void repaintSelection ( final TreeSelectionEvent e )
+    {
+        final Rectangle visible = tree.getVisibleRect ();
+        if ( tree.getRowCount () == 0 || visible.isEmpty () )
+        {
+            return;
+        }
+
+        // Visible rows range
+        final int firstVisible = tree.getClosestRowForLocation ( 0, visible.y );
+        final int lastVisible = tree.getClosestRowForLocation ( 0, visible.y + visible.height - 1 );
+
+        // Changed rows range
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        for ( final TreePath path : e.getPaths () )
+        {
+            final int row = tree.getRowForPath ( path );
+            if ( row != -1 )
+            {
+                first = Math.min ( first, row );
+                last = Math.max ( last, row );
+            }
+        }
+        first = Math.max ( first - 1, firstVisible );
+        last = Math.min ( last + 1, lastVisible );
+        if ( first > last )
+        {
+            return;
+        }
+
+        // Group selection width depends on all grouped rows
+        if ( selectionStyle == TreeSelectionStyle.group )
+        {
+            while ( first > firstVisible && tree.isRowSelected ( first ) )
+            {
+                first--;
+            }
+            while ( last < lastVisible && tree.isRowSelected ( last ) )
+            {
+                last++;
+            }
+        }
+
+        // Repainting changed rows
+        final Rectangle firstBounds = tree.getRowBounds ( first );
+        final Rectangle lastBounds = tree.getRowBounds ( last );
+        if ( firstBounds != null && lastBounds != null )
+        {
+            tree.repaint ( 0, firstBounds.y, tree.getWidth (), lastBounds.y + lastBounds.height - firstBounds.y );
+        }
+    }
+
     /**
      * Returns list of tree selections bounds.
      * This method takes selection style into account.
@@ -1057,19 +1181,94 @@ public class WebTreeUI extends BasicTreeUI
      */
     protected List<Rectangle> getSelectionRects ()
     {
-        final List<Rectangle> selections = new ArrayList<Rectangle> ();
-
         // Checking that selection exists
         final int[] rows = tree.getSelectionRows ();
         if ( rows == null )
         {
-            return selections;
+            return new ArrayList<Rectangle> ();
         }
 
         // Sorting selected rows
         Arrays.sort ( rows );
 
         // Calculating selection rects
+        return getSelectionRects ( rows );
+    }
+
+    /**
+     * Returns list of tree selections bounds which are required to paint the specified area.
+     * Only selected rows within that area and grouped selected rows near it are taken into account.
+     *
+     * @param clip painted area
+     * @return list of tree selections bounds which are required to paint the specified area
+     */
+    protected List<Rectangle> getSelectionRects ( final Rectangle clip )
+    {
+        if ( clip == null )
+        {
+            return getSelectionRects ();
+        }
+        if ( tree.getRowCount () == 0 )
+        {
+            return new ArrayList<Rectangle> ();
+        }
+
+        // Rows within painted area
+        int first = tree.getClosestRowForLocation ( 0, clip.y );
+        int last = tree.getClosestRowForLocation ( 0, clip.y + clip.height - 1 );
+
+        // Grouped rows outside of painted area
+        if ( selectionStyle != TreeSelectionStyle.single )
+        {
+            // Group selection width depends on all grouped rows, line selection only needs its rounded corners to be out of sight
+            final boolean whole = selectionStyle == TreeSelectionStyle.group;
+            final int margin = selectionRound * 2 + selectionShadeWidth * 2 + 1;
+            while ( first > 0 && tree.isRowSelected ( first - 1 ) && ( whole || tree.getRowBounds ( first ).y > clip.y - margin ) )
+            {
+                first--;
+            }
+            final int lastRow = tree.getRowCount () - 1;
+            final int bottom = clip.y + clip.height + margin;
+            while ( last < lastRow && tree.isRowSelected ( last + 1 ) && ( whole || rowBottom ( last ) < bottom ) )
+            {
+                last++;
+            }
+        }
+
+        // Selected rows
+        final int[] buffer = new int[ last - first + 1 ];
+        int count = 0;
+        for ( int row = first; row <= last; row++ )
+        {
+            if ( tree.isRowSelected ( row ) )
+            {
+                buffer[ count++ ] = row;
+            }
+        }
+        return getSelectionRects ( Arrays.copyOf ( buffer, count ) );
+    }
+
+    /**
+     * Returns bottom coordinate of the specified row.
+     *
+     * @param row row index
+     * @return bottom coordinate of the specified row
+     */
+    private int rowBottom ( final int row )
+    {
+        final Rectangle bounds = tree.getRowBounds ( row );
+        return bounds.y + bounds.height;
+    }
+
+    /**
+     * Returns list of selections bounds for the specified sorted selected rows.
+     *
+     * @param rows sorted selected rows
+     * @return list of selections bounds for the specified sorted selected rows
+     */
+    protected List<Rectangle> getSelectionRects ( final int[] rows )
+    {
+        final List<Rectangle> selections = new ArrayList<Rectangle> ();
         final Insets insets = tree.getInsets ();
         Rectangle maxRect = null;
         int lastRow = -1;
@@ -1173,7 +1372,7 @@ public class WebTreeUI extends BasicTreeUI
         if ( tree.getSelectionCount () > 0 )
         {
             // Draw final selections
-            final List<Rectangle> selections = getSelectionRects ();
+            final List<Rectangle> selections = getSelectionRects ( g2d.getClipBounds () );
             for ( final Rectangle rect : selections )
             {
                 LafUtils.drawCustomWebBorder ( g2d, tree,
@@ -18,7 +18,6 @@
 package com.alee.laf.viewport;
 
 import com.alee.laf.WebLookAndFeel;
-import com.alee.utils.ReflectUtils;
 
 import javax.swing.*;
 
@@ -58,7 +57,7 @@ public class WebViewport extends JViewport
         {
             try
             {
-                setUI ( ( WebViewportUI ) ReflectUtils.createInstance ( WebLookAndFeel.viewportUI ) );
+                setUI ( ( WebViewportUI ) WebLookAndFeel.createUI ( WebLookAndFeel.viewportUI ) );
             }
             catch ( Throwable e )
             {
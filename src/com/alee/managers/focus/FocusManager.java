@@ -18,7 +18,6 @@
 package com.alee.managers.focus;
 
 import com.alee.laf.GlobalConstants;
-import com.alee.utils.CollectionUtils;
 import com.alee.utils.SwingUtils;
 
 import java.awt.*;
@@ -31,6 +30,10 @@ import java.util.List;
 /**
  * This manager allows you to track certain component their childs focus state by adding your custom FocusTracker or global focus
  * listeners to track component focus state.
+ * <p/>
+ * Registered trackers are dispatched from an immutable snapshot which is rebuilt only after trackers are added or removed. On focus
+ * change only trackers registered for the new focus owner and its ancestors and trackers which are currently focused are checked, so
+ * focus change cost doesn't depend on the total amount of registered trackers.
  *
  * @author Mikle Garin
  */
@@ -44,8 +47,34 @@ public final class FocusManager
 
     /**
      * Focus trackers list.
+     * Trackers must also be kept in a weak references as they might have links leading to component.
      */
-    private static final Map<Component, Map<FocusTracker, Boolean>> trackers = new WeakHashMap<Component, Map<FocusTracker, Boolean>> ();
+    private static final Map<Component, Map<FocusTracker, TrackerState>> trackers =
+            new WeakHashMap<Component, Map<FocusTracker, TrackerState>> ();
+
+    /**
+     * Trackers snapshot used for focus changes dispatch.
+     * It is dropped whenever trackers are added or removed and rebuilt on the next focus change.
+     */
+    private static volatile Map<Component, TrackerState[]> trackersSnapshot = null;
+
+    /**
+     * Trackers which were focused after the last focus change.
+     * Only accessed from focus changes dispatch.
+     */
+    private static TrackerState[] focusedTrackers = new TrackerState[ 0 ];
+    private static int focusedTrackersCount = 0;
+
+    /**
+     * Trackers focused after the current focus change, swapped with focusedTrackers afterwards.
+     */
+    private static TrackerState[] newFocusedTrackers = new TrackerState[ 0 ];
+    private static int newFocusedTrackersCount = 0;
+
+    /**
+     * Focus changes counter used to avoid checking the same tracker twice.
+     */
+    private static int dispatchId = 0;
 
     /**
      * Global focus listeners lock.
@@ -57,6 +86,11 @@ public final class FocusManager
      */
     private static final List<GlobalFocusListener> globalFocusListeners = new ArrayList<GlobalFocusListener> ( 2 );
 
+    /**
+     * Global focus listeners snapshot used for dispatch.
+     */
+    private static volatile GlobalFocusListener[] globalFocusListenersSnapshot = new GlobalFocusListener[ 0 ];
+
     /**
      * Reference to previously focused component.
      */
@@ -91,7 +125,7 @@ public final class FocusManager
                 {
                     if ( event instanceof FocusEvent )
                     {
-                        if ( globalFocusListeners.size () > 0 )
+                        if ( globalFocusListenersSnapshot.length > 0 )
                         {
                             // Filtering unnecessary events (each focus change within application generates 2 events - lost/gained)
                             final FocusEvent focusEvent = ( FocusEvent ) event;
@@ -127,78 +161,183 @@ public final class FocusManager
                         System.out.println ( "Focus changed: " + oldName + " --> " + newName );
                     }
 
-                    // Checking all added trackers
-                    // Iterating through registered components
-                    for ( final Map.Entry<Component, Map<FocusTracker, Boolean>> entry : getTrackersCopy ().entrySet () )
-                    {
-                        // Retrieving tracked component and its trackers
-                        final Component tracked = entry.getKey ();
-                        final Map<FocusTracker, Boolean> componentTrackers = entry.getValue ();
+                    // Checking trackers
+                    updateTrackers ( newFocus );
+                }
+            } );
+        }
+    }
 
-                        // Iterating through registered component trackers
-                        for ( final Map.Entry<FocusTracker, Boolean> innerEntry : componentTrackers.entrySet () )
-                        {
-                            // Retrieving tracker and its last state
-                            final FocusTracker focusTracker = innerEntry.getKey ();
-                            final Boolean trackerStateCache = innerEntry.getValue ();
+    /**
+     * Informs trackers about focus changes.
+     * Only trackers which were focused before this change and trackers of the new focus owner and its ancestors are checked.
+     *
+     * @param newFocus currently focused component
+     */
+    private static void updateTrackers ( final Component newFocus )
+    {
+        final Map<Component, TrackerState[]> snapshot = getTrackersSnapshot ();
+        dispatchId++;
+        newFocusedTrackersCount = 0;
 
-                            // Checking state change
-                            if ( tracked != null )
-                            {
-                                // Skip if tracker is disabled
-                                if ( focusTracker.isTrackingEnabled () )
-                                {
-                                    // Determining component is focused or not
-                                    final boolean unite = focusTracker.isUniteWithChilds ();
-                                    final boolean focused = unite ? SwingUtils.isEqualOrChild ( tracked, newFocus ) : tracked == newFocus;
-
-                                    // Informing about focus changes if needed
-                                    if ( trackerStateCache != focused )
-                                    {
-                                        focusTracker.focusChanged ( focused );
-                                    }
-
-                                    // Caching focus state
-                                    synchronized ( trackersLock )
-                                    {
-                                        final Map<FocusTracker, Boolean> ct = trackers.get ( tracked );
-                                        if ( ct != null && ct.containsKey ( focusTracker ) )
-                                        {
-                                            ct.put ( focusTracker, focused );
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
+        // Checking previously focused trackers
+        for ( int i = 0; i < focusedTrackersCount; i++ )
+        {
+            final TrackerState state = focusedTrackers[ i ];
+            focusedTrackers[ i ] = null;
+            updateTracker ( state, state.component.get (), newFocus );
+        }
+
+        // Checking trackers of the new focus owner and its ancestors
+        // Ancestors are only checked up to the window since owned windows are not their owner childs
+        Component ancestor = newFocus;
+        while ( ancestor != null )
+        {
+            final TrackerState[] states = snapshot.get ( ancestor );
+            if ( states != null )
+            {
+                for ( final TrackerState state : states )
+                {
+                    updateTracker ( state, ancestor, newFocus );
                 }
-            } );
+            }
+            ancestor = ancestor instanceof Window ? null : ancestor.getParent ();
         }
+
+        // Swapping focused trackers lists
+        final TrackerState[] focused = focusedTrackers;
+        focusedTrackers = newFocusedTrackers;
+        focusedTrackersCount = newFocusedTrackersCount;
+        newFocusedTrackers = focused;
+        newFocusedTrackersCount = 0;
     }
 
     /**
-     * Returns trackers map copy.
+     * Updates single tracker state and informs it about focus changes if needed.
      *
-     * @return trackers map copy
+     * @param state    tracker state
+     * @param tracked  tracked component
+     * @param newFocus currently focused component
      */
-    private static Map<Component, Map<FocusTracker, Boolean>> getTrackersCopy ()
+    private static void updateTracker ( final TrackerState state, final Component tracked, final Component newFocus )
     {
-        // Checking all added trackers
-        synchronized ( trackersLock )
+        // Skip if tracker was already checked
+        if ( state.dispatchId == dispatchId )
+        {
+            return;
+        }
+        state.dispatchId = dispatchId;
+
+        // Skip if tracker or component were collected
+        final FocusTracker focusTracker = state.tracker.get ();
+        if ( focusTracker == null || tracked == null )
+        {
+            return;
+        }
+
+        // Skip if tracker is disabled
+        if ( focusTracker.isTrackingEnabled () )
         {
-            final Map<Component, Map<FocusTracker, Boolean>> copy = new HashMap<Component, Map<FocusTracker, Boolean>> ( trackers.size () );
-            for ( final Map.Entry<Component, Map<FocusTracker, Boolean>> entry : trackers.entrySet () )
+            // Determining component is focused or not
+            final boolean unite = focusTracker.isUniteWithChilds ();
+            final boolean focused = unite ? isEqualOrAncestor ( tracked, newFocus ) : tracked == newFocus;
+
+            // Informing about focus changes if needed
+            if ( state.focused != focused )
             {
-                final Map<FocusTracker, Boolean> trackers = entry.getValue ();
-                final Map<FocusTracker, Boolean> trackersCopy = new HashMap<FocusTracker, Boolean> ( trackers.size () );
-                for ( final Map.Entry<FocusTracker, Boolean> innerEntry : trackers.entrySet () )
+                state.focused = focused;
+                focusTracker.focusChanged ( focused );
+            }
+        }
+
+        // Remembering focused tracker
+        if ( state.focused )
+        {
+            addNewFocusedTracker ( state );
+        }
+    }
+
+    /**
+     * Returns whether specified component is equal to or an ancestor of the specified focus owner.
+     * Unlike SwingUtils.isEqualOrChild this method walks up the hierarchy, so it doesn't iterate through containers childs.
+     *
+     * @param component component to process
+     * @param focus     focus owner
+     * @return true if specified component is equal to or an ancestor of the specified focus owner, false otherwise
+     */
+    private static boolean isEqualOrAncestor ( final Component component, final Component focus )
+    {
+        Component ancestor = focus;
+        while ( ancestor != null )
+        {
+            if ( ancestor == component )
+            {
+                return true;
+            }
+            ancestor = ancestor instanceof Window ? null : ancestor.getParent ();
+        }
+        return false;
+    }
+
+    /**
+     * Adds tracker into the list of focused trackers.
+     *
+     * @param state focused tracker state
+     */
+    private static void addNewFocusedTracker ( final TrackerState state )
+    {
+        if ( newFocusedTrackersCount == newFocusedTrackers.length )
+        {
+            newFocusedTrackers = Arrays.copyOf ( newFocusedTrackers, Math.max ( 8, newFocusedTrackersCount * 2 ) );
+        }
+        newFocusedTrackers[ newFocusedTrackersCount++ ] = state;
+    }
+
+    /**
+     * Returns trackers snapshot, rebuilding it if trackers were changed.
+     * Focused trackers list is also rebuilt together with snapshot since new trackers might already be focused.
+     *
+     * @return trackers snapshot
+     */
+    private static Map<Component, TrackerState[]> getTrackersSnapshot ()
+    {
+        Map<Component, TrackerState[]> snapshot = trackersSnapshot;
+        if ( snapshot == null )
+        {
+            synchronized ( trackersLock )
+            {
+                snapshot = new WeakHashMap<Component, TrackerState[]> ( trackers.size () );
+                for ( int i = 0; i < focusedTrackersCount; i++ )
+                {
+                    focusedTrackers[ i ] = null;
+                }
+                focusedTrackersCount = 0;
+                newFocusedTrackersCount = 0;
+                for ( final Map.Entry<Component, Map<FocusTracker, TrackerState>> entry : trackers.entrySet () )
                 {
-                    trackersCopy.put ( innerEntry.getKey (), innerEntry.getValue () );
+                    final Collection<TrackerState> states = entry.getValue ().values ();
+                    if ( states.size () > 0 )
+                    {
+                        final TrackerState[] array = states.toArray ( new TrackerState[ states.size () ] );
+                        snapshot.put ( entry.getKey (), array );
+                        for ( final TrackerState state : array )
+                        {
+                            if ( state.focused )
+                            {
+                                addNewFocusedTracker ( state );
+                            }
+                        }
+                    }
                 }
-                copy.put ( entry.getKey (), trackersCopy );
+                final TrackerState[] focused = focusedTrackers;
+                focusedTrackers = newFocusedTrackers;
+                focusedTrackersCount = newFocusedTrackersCount;
+                newFocusedTrackers = focused;
+                newFocusedTrackersCount = 0;
+                trackersSnapshot = snapshot;
             }
-            return copy;
         }
+        return snapshot;
     }
 
     /**
@@ -231,6 +370,7 @@ public final class FocusManager
         synchronized ( listenersLock )
         {
             globalFocusListeners.add ( listener );
+            globalFocusListenersSnapshot = globalFocusListeners.toArray ( new GlobalFocusListener[ globalFocusListeners.size () ] );
         }
     }
 
@@ -244,6 +384,7 @@ public final class FocusManager
         synchronized ( listenersLock )
         {
             globalFocusListeners.remove ( listener );
+            globalFocusListenersSnapshot = globalFocusListeners.toArray ( new GlobalFocusListener[ globalFocusListeners.size () ] );
         }
     }
 
@@ -255,12 +396,7 @@ public final class FocusManager
      */
     private static void fireGlobalFocusChanged ( final Component oldComponent, final Component newComponent )
     {
-        final List<GlobalFocusListener> listeners;
-        synchronized ( listenersLock )
-        {
-            listeners = CollectionUtils.copy ( globalFocusListeners );
-        }
-        for ( final GlobalFocusListener listener : listeners )
+        for ( final GlobalFocusListener listener : globalFocusListenersSnapshot )
         {
             listener.focusChanged ( oldComponent, newComponent );
         }
@@ -275,16 +411,17 @@ public final class FocusManager
     {
         synchronized ( trackersLock )
         {
-            Map<FocusTracker, Boolean> componentTrackers = trackers.get ( component );
+            Map<FocusTracker, TrackerState> componentTrackers = trackers.get ( component );
             if ( componentTrackers == null )
             {
                 // Trackers must also be kept in a weak references as they might have links leading to component
                 // That caused most of memory leak issues in previous tracker versions
-                componentTrackers = new WeakHashMap<FocusTracker, Boolean> ();
+                componentTrackers = new WeakHashMap<FocusTracker, TrackerState> ();
                 trackers.put ( component, componentTrackers );
             }
-            componentTrackers.put ( focusTracker,
-                    focusTracker.isUniteWithChilds () ? SwingUtils.hasFocusOwner ( component ) : component.isFocusOwner () );
+            final boolean focused = focusTracker.isUniteWithChilds () ? SwingUtils.hasFocusOwner ( component ) : component.isFocusOwner ();
+            componentTrackers.put ( focusTracker, new TrackerState ( component, focusTracker, focused ) );
+            trackersSnapshot = null;
         }
     }
 
@@ -297,17 +434,18 @@ public final class FocusManager
     {
         synchronized ( trackersLock )
         {
-            final Iterator<Map.Entry<Component, Map<FocusTracker, Boolean>>> iterator = trackers.entrySet ().iterator ();
+            final Iterator<Map.Entry<Component, Map<FocusTracker, TrackerState>>> iterator = trackers.entrySet ().iterator ();
             while ( iterator.hasNext () )
             {
-                final Map.Entry<Component, Map<FocusTracker, Boolean>> entry = iterator.next ();
-                final Map<FocusTracker, Boolean> componentTrackers = entry.getValue ();
+                final Map.Entry<Component, Map<FocusTracker, TrackerState>> entry = iterator.next ();
+                final Map<FocusTracker, TrackerState> componentTrackers = entry.getValue ();
                 componentTrackers.remove ( focusTracker );
                 if ( componentTrackers.size () == 0 )
                 {
                     iterator.remove ();
                 }
             }
+            trackersSnapshot = null;
         }
     }
 
@@ -320,12 +458,55 @@ public final class FocusManager
     {
         synchronized ( trackersLock )
         {
-            final Map<FocusTracker, Boolean> allTrackers = trackers.get ( component );
+            final Map<FocusTracker, TrackerState> allTrackers = trackers.get ( component );
             if ( allTrackers != null && allTrackers.size () > 0 )
             {
                 allTrackers.clear ();
             }
             trackers.remove ( component );
+            trackersSnapshot = null;
+        }
+    }
+
+    /**
+     * Registered tracker state.
+     * It references both tracker and component weakly since it is also referenced from trackers snapshot.
+     */
+    private static final class TrackerState
+    {
+        /**
+         * Tracked component.
+         */
+        private final WeakReference<Component> component;
+
+        /**
+         * Focus tracker.
+         */
+        private final WeakReference<FocusTracker> tracker;
+
+        /**
+         * Last known tracker focus state.
+         */
+        private volatile boolean focused;
+
+        /**
+         * Last focus change in which this tracker was checked.
+         */
+        private int dispatchId = 0;
+
+        /**
+         * Constructs new tracker state.
+         *
+         * @param component tracked component
+         * @param tracker   focus tracker
+         * @param focused   initial focus state
+         */
+        public TrackerState ( final Component component, final FocusTracker tracker, final boolean focused )
+        {
+            super ();
+            this.component = new WeakReference<Component> ( component );
+            this.tracker = new WeakReference<FocusTracker> ( tracker );
+            this.focused = focused;
         }
     }
 }
\ No newline at end of file
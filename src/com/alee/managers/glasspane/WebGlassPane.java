@@ -19,6 +19,8 @@ package com.alee.managers.glasspane;
 
 import com.alee.extended.layout.MultiLayout;
 import com.alee.laf.panel.WebPanel;
+import com.alee.utils.GeometryUtils;
+import com.alee.utils.ImageUtils;
 import com.alee.utils.LafUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.TextUtils;
@@ -29,6 +31,7 @@ import java.awt.geom.Area;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -91,6 +94,20 @@ public class WebGlassPane extends WebPanel
      */
     protected int highlightSpacing = 3;
 
+    /**
+     * Highlight painting settings.
+     */
+    protected static final int highlightBorderWidth = 2;
+    protected static final Color highlightFill = new Color ( 128, 128, 128, 128 );
+    protected static final Stroke highlightStroke = new BasicStroke ( 1.5f );
+
+    /**
+     * Cached highlight mask, its location and geometry it was created for.
+     */
+    protected BufferedImage highlightMask = null;
+    protected Point highlightMaskLocation = null;
+    protected int[] highlightGeometry = null;
+
     /**
      * Constructs WebGlassPane for the specified JRootPane.
      *
@@ -253,6 +270,8 @@ public class WebGlassPane extends WebPanel
 
     /**
      * Sets painted image at the specified location with the specified opacity.
+     * Only the area covered by old and new image bounds is repainted.
+     * Area is repainted even if the same image is passed again, so it is safe to update image content and call this method again.
      *
      * @param image    image to paint
      * @param location image location
@@ -263,38 +282,10 @@ public class WebGlassPane extends WebPanel
         final Rectangle oldRect = getPaintedImageBounds ();
 
         this.paintedImage = image;
-        this.imageLocation = location;
+        this.imageLocation = location != null ? new Point ( location ) : null;
         this.imageOpacity = opacity;
 
-        Rectangle repaintRect = null;
-        if ( this.imageOpacity != 0 && this.paintedImage != null && this.imageLocation != null )
-        {
-            repaintRect = getPaintedImageBounds ();
-            if ( oldRect != null )
-            {
-                repaintRect = new Rectangle ( Math.max ( 0, Math.min ( oldRect.x, repaintRect.x ) ),
-                        Math.max ( 0, Math.min ( oldRect.y, repaintRect.y ) ),
-                        Math.max ( oldRect.x + oldRect.width, repaintRect.x + repaintRect.width ),
-                        Math.max ( oldRect.y + oldRect.height, repaintRect.y + repaintRect.height ) );
-            }
-        }
-
-        final Rectangle finalRepaintRect = repaintRect != null ? repaintRect : oldRect;
-        SwingUtilities.invokeLater ( new Runnable ()
-        {
-            @Override
-            public void run ()
-            {
-                if ( finalRepaintRect != null )
-                {
-                    repaint ( finalRepaintRect );
-                }
-                else
-                {
-                    repaint ();
-                }
-            }
-        } );
+        repaintUnion ( oldRect, getPaintedImageBounds () );
     }
 
     /**
@@ -310,14 +301,7 @@ public class WebGlassPane extends WebPanel
 
         if ( oldRect != null )
         {
-            SwingUtilities.invokeLater ( new Runnable ()
-            {
-                @Override
-                public void run ()
-                {
-                    repaint ( oldRect );
-                }
-            } );
+            repaint ( oldRect );
         }
     }
 
@@ -344,14 +328,7 @@ public class WebGlassPane extends WebPanel
      */
     public void addHighlightedComponents ( final Component... components )
     {
-        for ( final Component component : components )
-        {
-            if ( !highlightedComponents.contains ( component ) )
-            {
-                highlightedComponents.add ( component );
-            }
-        }
-        repaint ();
+        addHighlightedComponents ( Arrays.asList ( components ) );
     }
 
     /**
@@ -361,14 +338,17 @@ public class WebGlassPane extends WebPanel
      */
     public void addHighlightedComponents ( final List<Component> components )
     {
+        final boolean hadHighlights = highlightedComponents.size () > 0;
+        Rectangle dirty = null;
         for ( final Component component : components )
         {
             if ( !highlightedComponents.contains ( component ) )
             {
                 highlightedComponents.add ( component );
+                dirty = GeometryUtils.getContainingRect ( dirty, getHighlightBounds ( component ) );
             }
         }
-        repaint ();
+        repaintHighlights ( hadHighlights, dirty );
     }
 
     /**
@@ -378,11 +358,7 @@ public class WebGlassPane extends WebPanel
      */
     public void removeHighlightedComponents ( final Component... components )
     {
-        for ( final Component component : components )
-        {
-            highlightedComponents.remove ( component );
-        }
-        repaint ();
+        removeHighlightedComponents ( Arrays.asList ( components ) );
     }
 
     /**
@@ -392,11 +368,16 @@ public class WebGlassPane extends WebPanel
      */
     public void removeHighlightedComponents ( final List<Component> components )
     {
+        final boolean hadHighlights = highlightedComponents.size () > 0;
+        Rectangle dirty = null;
         for ( final Component component : components )
         {
-            highlightedComponents.remove ( component );
+            if ( highlightedComponents.remove ( component ) )
+            {
+                dirty = GeometryUtils.getContainingRect ( dirty, getHighlightBounds ( component ) );
+            }
         }
-        repaint ();
+        repaintHighlights ( hadHighlights, dirty );
     }
 
     /**
@@ -404,8 +385,98 @@ public class WebGlassPane extends WebPanel
      */
     public void clearHighlights ()
     {
-        highlightedComponents.clear ();
-        repaint ();
+        if ( highlightedComponents.size () > 0 )
+        {
+            highlightedComponents.clear ();
+            repaintHighlights ( true, null );
+        }
+    }
+
+    /**
+     * Repaints highlights after highlighted components change.
+     * Whole highlight base is repainted only when highlight appears or disappears, otherwise only changed highlights are repainted.
+     *
+     * @param hadHighlights whether there were any highlighted components before the change or not
+     * @param dirty         changed highlights bounds
+     */
+    protected void repaintHighlights ( final boolean hadHighlights, final Rectangle dirty )
+    {
+        final boolean hasHighlights = highlightedComponents.size () > 0;
+        if ( !hasHighlights )
+        {
+            // Releasing cached mask
+            highlightMask = null;
+            highlightMaskLocation = null;
+            highlightGeometry = null;
+        }
+        if ( hadHighlights != hasHighlights )
+        {
+            repaintUnion ( getHighlightBaseBounds (), null );
+        }
+        else if ( hasHighlights && dirty != null )
+        {
+            repaint ( dirty );
+        }
+    }
+
+    /**
+     * Returns highlight bounds for the specified component, including highlight border.
+     *
+     * @param component highlighted component
+     * @return highlight bounds for the specified component
+     */
+    protected Rectangle getHighlightBounds ( final Component component )
+    {
+        if ( component.isShowing () && isShowing () )
+        {
+            final Rectangle bounds = SwingUtils.getRelativeBounds ( component, WebGlassPane.this );
+            final int grow = highlightSpacing + highlightBorderWidth;
+            bounds.grow ( grow, grow );
+            return bounds;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Returns highlight base bounds, including highlight border.
+     *
+     * @return highlight base bounds
+     */
+    protected Rectangle getHighlightBaseBounds ()
+    {
+        if ( highlightBase != null && highlightBase.isShowing () && isShowing () )
+        {
+            final Rectangle bounds = SwingUtils.getRelativeBounds ( highlightBase, WebGlassPane.this );
+            bounds.grow ( highlightBorderWidth, highlightBorderWidth );
+            return bounds;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Repaints union of the specified rectangles, whole glass pane is repainted if both rectangles are null.
+     * This method can be called from any thread, repaint requests are coalesced by RepaintManager.
+     *
+     * @param oldRect old bounds
+     * @param newRect new bounds
+     */
+    protected void repaintUnion ( final Rectangle oldRect, final Rectangle newRect )
+    {
+        final Rectangle rect = GeometryUtils.getContainingRect ( oldRect, newRect );
+        if ( rect != null )
+        {
+            repaint ( rect );
+        }
+        else
+        {
+            repaint ();
+        }
     }
 
     /**
@@ -425,7 +496,15 @@ public class WebGlassPane extends WebPanel
      */
     public void setHighlightBase ( final Component highlightBase )
     {
-        this.highlightBase = highlightBase;
+        if ( this.highlightBase != highlightBase )
+        {
+            final Rectangle oldBounds = highlightedComponents.size () > 0 ? getHighlightBaseBounds () : null;
+            this.highlightBase = highlightBase;
+            if ( highlightedComponents.size () > 0 )
+            {
+                repaintUnion ( oldBounds, getHighlightBaseBounds () );
+            }
+        }
     }
 
     /**
@@ -445,7 +524,14 @@ public class WebGlassPane extends WebPanel
      */
     public void setHighlightSpacing ( final int spacing )
     {
-        this.highlightSpacing = spacing;
+        if ( this.highlightSpacing != spacing )
+        {
+            this.highlightSpacing = spacing;
+            if ( highlightedComponents.size () > 0 )
+            {
+                repaintUnion ( getHighlightBaseBounds (), null );
+            }
+        }
     }
 
     // todo Add this functionality
@@ -456,6 +542,86 @@ public class WebGlassPane extends WebPanel
     //
     //    }
 
+    /**
+     * Returns highlight mask image.
+     * Mask is cached and only repainted when highlight base or highlighted components bounds change, so painting highlights within
+     * small dirty regions costs a single image copy.
+     *
+     * @return highlight mask image
+     */
+    protected BufferedImage getHighlightMask ()
+    {
+        // Collecting current highlight geometry
+        final int[] key = new int[ 5 + highlightedComponents.size () * 4 ];
+        final Rectangle baseBounds = SwingUtils.getRelativeBounds ( highlightBase, WebGlassPane.this );
+        key[ 0 ] = highlightSpacing;
+        putBounds ( key, 1, baseBounds );
+        int index = 5;
+        for ( final Component component : highlightedComponents )
+        {
+            if ( component.isShowing () )
+            {
+                putBounds ( key, index, SwingUtils.getRelativeBounds ( component, WebGlassPane.this ) );
+                index += 4;
+            }
+        }
+        final int[] geometry = index < key.length ? Arrays.copyOf ( key, index ) : key;
+
+        // Updating mask only if geometry has changed
+        if ( highlightMask == null || !Arrays.equals ( geometry, highlightGeometry ) )
+        {
+            final Area area =
+                    new Area ( new Rectangle ( baseBounds.x - 1, baseBounds.y - 1, baseBounds.width + 1, baseBounds.height + 1 ) );
+            for ( int i = 5; i < geometry.length; i += 4 )
+            {
+                final RoundRectangle2D.Double shape =
+                        new RoundRectangle2D.Double ( geometry[ i ] - highlightSpacing, geometry[ i + 1 ] - highlightSpacing,
+                                geometry[ i + 2 ] + highlightSpacing * 2 - 1, geometry[ i + 3 ] + highlightSpacing * 2 - 1, 8, 8 );
+                area.subtract ( new Area ( shape ) );
+            }
+
+            // Painting mask
+            final Rectangle bounds = area.getBounds ();
+            bounds.grow ( highlightBorderWidth, highlightBorderWidth );
+            final BufferedImage mask = ImageUtils.createCompatibleImage ( Math.max ( 1, bounds.width ), Math.max ( 1, bounds.height ),
+                    Transparency.TRANSLUCENT );
+            final Graphics2D mg = mask.createGraphics ();
+            LafUtils.setupAntialias ( mg );
+            mg.translate ( -bounds.x, -bounds.y );
+
+            // Fill
+            mg.setPaint ( highlightFill );
+            mg.fill ( area );
+
+            // Border
+            mg.setStroke ( highlightStroke );
+            mg.setPaint ( Color.GRAY );
+            mg.draw ( area );
+
+            mg.dispose ();
+
+            highlightMask = mask;
+            highlightMaskLocation = bounds.getLocation ();
+            highlightGeometry = geometry;
+        }
+        return highlightMask;
+    }
+
+    /**
+     * Puts rectangle bounds into the array at the specified index.
+     *
+     * @param array  array to fill
+     * @param index  first value index
+     * @param bounds rectangle bounds
+     */
+    private static void putBounds ( final int[] array, final int index, final Rectangle bounds )
+    {
+        array[ index ] = bounds.x;
+        array[ index + 1 ] = bounds.y;
+        array[ index + 2 ] = bounds.width;
+        array[ index + 3 ] = bounds.height;
+    }
+
     /**
      * Paints WebGlassPane content.
      *
@@ -471,29 +637,8 @@ public class WebGlassPane extends WebPanel
 
         if ( highlightedComponents.size () > 0 )
         {
-            final Rectangle baseBounds = SwingUtils.getRelativeBounds ( highlightBase, WebGlassPane.this );
-            final Area area =
-                    new Area ( new Rectangle ( baseBounds.x - 1, baseBounds.y - 1, baseBounds.width + 1, baseBounds.height + 1 ) );
-            for ( final Component component : highlightedComponents )
-            {
-                if ( component.isShowing () )
-                {
-                    final Rectangle bounds = SwingUtils.getRelativeBounds ( component, WebGlassPane.this );
-                    final RoundRectangle2D.Double shape =
-                            new RoundRectangle2D.Double ( bounds.x - highlightSpacing, bounds.y - highlightSpacing,
-                                    bounds.width + highlightSpacing * 2 - 1, bounds.height + highlightSpacing * 2 - 1, 8, 8 );
-                    area.subtract ( new Area ( shape ) );
-                }
-            }
-
-            // Fill
-            g2d.setPaint ( new Color ( 128, 128, 128, 128 ) );
-            g2d.fill ( area );
-
-            // Border
-            g2d.setStroke ( new BasicStroke ( 1.5f ) );
-            g2d.setPaint ( Color.GRAY );
-            g2d.draw ( area );
+            final BufferedImage mask = getHighlightMask ();
+            g2d.drawImage ( mask, highlightMaskLocation.x, highlightMaskLocation.y, null );
         }
 
         if ( imageOpacity != 0 && paintedImage != null && imageLocation != null )
@@ -0,0 +1,1045 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.alee.managers.highlight;
+
+import com.alee.extended.date.WebCalendar;
+import com.alee.extended.date.WebDateField;
+import com.alee.extended.filechooser.WebFileChooserField;
+import com.alee.extended.filechooser.WebPathField;
+import com.alee.extended.panel.WebCollapsiblePane;
+
+import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import java.awt.*;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index of texts visible within the components hierarchy, used by HighlightManager to find components which contain some text.
+ * <p/>
+ * Hierarchy is walked only once when index is created, after that it is kept up to date by container, property, document and other
+ * listeners installed onto indexed components. Those listeners only mark changed entries and their texts are re-read before the next
+ * search, so typing into an indexed text field costs almost nothing. Texts are indexed by their lowercase character trigrams, so only
+ * components containing the rarest trigram of the searched text are checked. When searched text extends the previous one only previous
+ * results are checked.
+ * <p/>
+ * Components are matched using the same rules as SwingUtils.findComponentsWithText method uses.
+ * Since Swing components can only be accessed from Event Dispatch Thread all index methods should be called from it as well. Large
+ * searches can be performed in batches - texts are matched on a background thread and each batch of found components is passed back
+ * into Event Dispatch Thread, running search is cancelled by a newer one.
+ * <p/>
+ * Index uninstalls all of its listeners and removes itself once its root becomes undisplayable, so components removed from the
+ * hierarchy are not kept listened. New index is created on the next {@link #getIndex(java.awt.Component)} call.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.highlight.HighlightManager
+ * @see com.alee.utils.SwingUtils#findComponentsWithText(String, java.awt.Component)
+ */
+
+public final class ComponentTextIndex
+{
+    /**
+     * Default amount of components checked within a single search batch.
+     */
+    public static int defaultBatchSize = 500;
+
+    /**
+     * Separator used to join texts of composite components.
+     * It cannot be typed into single-line search field, so joined texts match the same way separate texts do.
+     */
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * Time in milliseconds after which idle search thread is stopped.
+     */
+    private static final long SEARCH_THREAD_KEEP_ALIVE = 10000;
+
+    /**
+     * Executor matching texts of batched searches.
+     * Single thread is enough since only the latest search of each index is actually matched, older ones quit on the next batch.
+     */
+    private static final ExecutorService searchExecutor = createSearchExecutor ();
+
+    /**
+     * Created indices.
+     * Index is weakly referenced since it strongly references its root, it is kept alive by the listeners installed onto the root.
+     */
+    private static final Map<Component, WeakReference<ComponentTextIndex>> indices =
+            new WeakHashMap<Component, WeakReference<ComponentTextIndex>> ();
+
+    /**
+     * Indexed hierarchy root.
+     */
+    private final Component root;
+
+    /**
+     * Indexed components entries.
+     */
+    private final Map<Component, Entry> entries = new LinkedHashMap<Component, Entry> ();
+
+    /**
+     * Entries grouped by text trigrams.
+     */
+    private final Map<Long, Set<Entry>> trigrams = new HashMap<Long, Set<Entry>> ();
+
+    /**
+     * Entries which text has changed since the last search.
+     */
+    private final Set<Entry> dirty = new LinkedHashSet<Entry> ();
+
+    /**
+     * Containers which structure is tracked.
+     */
+    private final Set<Container> containers = new HashSet<Container> ();
+
+    /**
+     * Containers structure listener.
+     */
+    private final ContainerListener structureListener;
+
+    /**
+     * Root displayability listener.
+     */
+    private final HierarchyListener displayabilityListener;
+
+    /**
+     * Index modifications counter.
+     * It is used to determine whether previous search results are still valid or not.
+     */
+    private int modCount = 0;
+
+    /**
+     * Last completed search data.
+     */
+    private String lastText = null;
+    private List<Entry> lastMatches = null;
+    private int lastModCount = -1;
+
+    /**
+     * Current search identifier.
+     * Batched search stops when it doesn't match the current one.
+     * It is only modified in Event Dispatch Thread but also checked by the search thread.
+     */
+    private volatile int searchId = 0;
+
+    /**
+     * Constructs new index for the specified hierarchy root.
+     *
+     * @param root hierarchy root
+     */
+    private ComponentTextIndex ( final Component root )
+    {
+        super ();
+        this.root = root;
+        this.structureListener = new ContainerListener ()
+        {
+            @Override
+            public void componentAdded ( final ContainerEvent e )
+            {
+                if ( isIndexed ( e.getContainer (), e.getChild () ) )
+                {
+                    index ( e.getChild () );
+                }
+            }
+
+            @Override
+            public void componentRemoved ( final ContainerEvent e )
+            {
+                unindex ( e.getChild () );
+            }
+        };
+        this.displayabilityListener = new HierarchyListener ()
+        {
+            @Override
+            public void hierarchyChanged ( final HierarchyEvent e )
+            {
+                if ( ( e.getChangeFlags () & HierarchyEvent.DISPLAYABILITY_CHANGED ) != 0 && !root.isDisplayable () )
+                {
+                    disposeIndex ( root );
+                }
+            }
+        };
+        root.addHierarchyListener ( displayabilityListener );
+        index ( root );
+    }
+
+    /**
+     * Returns executor matching texts of batched searches.
+     *
+     * @return executor matching texts of batched searches
+     */
+    private static ExecutorService createSearchExecutor ()
+    {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor ( 1, 1, SEARCH_THREAD_KEEP_ALIVE, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable> (), new ThreadFactory ()
+        {
+            @Override
+            public Thread newThread ( final Runnable r )
+            {
+                final Thread thread = new Thread ( r, "ComponentTextIndex" );
+                thread.setDaemon ( true );
+                return thread;
+            }
+        } );
+        executor.allowCoreThreadTimeOut ( true );
+        return executor;
+    }
+
+    /**
+     * Returns text index for the specified hierarchy root, creating it if needed.
+     * This method should be called from Event Dispatch Thread.
+     *
+     * @param root hierarchy root
+     * @return text index for the specified hierarchy root
+     */
+    public static ComponentTextIndex getIndex ( final Component root )
+    {
+        final WeakReference<ComponentTextIndex> reference = indices.get ( root );
+        ComponentTextIndex index = reference != null ? reference.get () : null;
+        if ( index == null )
+        {
+            index = new ComponentTextIndex ( root );
+            indices.put ( root, new WeakReference<ComponentTextIndex> ( index ) );
+        }
+        return index;
+    }
+
+    /**
+     * Removes text index for the specified hierarchy root and uninstalls all of its listeners.
+     * This method should be called from Event Dispatch Thread.
+     *
+     * @param root hierarchy root
+     */
+    public static void disposeIndex ( final Component root )
+    {
+        final WeakReference<ComponentTextIndex> reference = indices.remove ( root );
+        final ComponentTextIndex index = reference != null ? reference.get () : null;
+        if ( index != null )
+        {
+            index.cancel ();
+            root.removeHierarchyListener ( index.displayabilityListener );
+            index.unindex ( root );
+        }
+    }
+
+    /**
+     * Returns indexed hierarchy root.
+     *
+     * @return indexed hierarchy root
+     */
+    public Component getRoot ()
+    {
+        return root;
+    }
+
+    /**
+     * Returns amount of indexed components.
+     *
+     * @return amount of indexed components
+     */
+    public int size ()
+    {
+        return entries.size ();
+    }
+
+    /**
+     * Returns list of all indexed components that visually contain the specified text.
+     * Any running batched search is cancelled.
+     *
+     * @param text text to find
+     * @return list of all indexed components that visually contain the specified text
+     */
+    public List<Component> search ( final String text )
+    {
+        searchId++;
+        if ( text == null || text.equals ( "" ) )
+        {
+            return new ArrayList<Component> ( 0 );
+        }
+        final String lowerCase = text.toLowerCase ();
+        final List<Entry> candidates = getCandidates ( lowerCase );
+        final List<Entry> matches = new ArrayList<Entry> ();
+        final List<Component> components = new ArrayList<Component> ();
+        for ( final Entry entry : candidates )
+        {
+            if ( entry.text.contains ( lowerCase ) )
+            {
+                matches.add ( entry );
+                components.add ( entry.getResult () );
+            }
+        }
+        setLastSearch ( lowerCase, matches, modCount );
+        return components;
+    }
+
+    /**
+     * Searches for indexed components that visually contain the specified text using default batch size.
+     *
+     * @param text     text to find
+     * @param listener search results listener
+     * @see #search(String, int, TextSearchListener)
+     */
+    public void search ( final String text, final TextSearchListener listener )
+    {
+        search ( text, defaultBatchSize, listener );
+    }
+
+    /**
+     * Searches for indexed components that visually contain the specified text.
+     * <p/>
+     * Changed texts are re-read and search candidates are chosen in the calling thread, after that texts are matched on a background
+     * thread. Found components are passed into the listener in Event Dispatch Thread after each checked batch of the specified size.
+     * Any running batched search is cancelled. If index changes while search is running the search is restarted.
+     *
+     * @param text      text to find
+     * @param batchSize maximum amount of components checked within a single batch
+     * @param listener  search results listener
+     */
+    public void search ( final String text, final int batchSize, final TextSearchListener listener )
+    {
+        if ( batchSize <= 0 )
+        {
+            throw new IllegalArgumentException ( "Invalid batch size: " + batchSize );
+        }
+        final int id = ++searchId;
+        if ( text == null || text.equals ( "" ) )
+        {
+            listener.componentsFound ( new ArrayList<Component> ( 0 ), true );
+            return;
+        }
+        final String lowerCase = text.toLowerCase ();
+        final List<Entry> candidates = getCandidates ( lowerCase );
+        final int candidatesModCount = modCount;
+
+        // Entry texts are only modified in Event Dispatch Thread, so search thread checks their snapshot
+        final String[] texts = new String[ candidates.size () ];
+        for ( int i = 0; i < texts.length; i++ )
+        {
+            texts[ i ] = candidates.get ( i ).text;
+        }
+
+        // Matched entries, only accessed in Event Dispatch Thread
+        final List<Entry> matches = new ArrayList<Entry> ();
+
+        searchExecutor.execute ( new Runnable ()
+        {
+            @Override
+            public void run ()
+            {
+                int next = 0;
+                do
+                {
+                    if ( id != searchId )
+                    {
+                        // Newer search was started
+                        return;
+                    }
+                    final int end = Math.min ( next + batchSize, texts.length );
+                    final List<Entry> batch = new ArrayList<Entry> ();
+                    for ( ; next < end; next++ )
+                    {
+                        if ( texts[ next ].contains ( lowerCase ) )
+                        {
+                            batch.add ( candidates.get ( next ) );
+                        }
+                    }
+                    final boolean last = next == texts.length;
+                    SwingUtilities.invokeLater ( new Runnable ()
+                    {
+                        @Override
+                        public void run ()
+                        {
+                            batchFound ( batch, last );
+                        }
+                    } );
+                }
+                while ( next < texts.length );
+            }
+
+            /**
+             * Passes found batch into the listener.
+             * This method is called in Event Dispatch Thread.
+             *
+             * @param batch entries found within the batch
+             * @param last  whether this is the last batch of the search or not
+             */
+            private void batchFound ( final List<Entry> batch, final boolean last )
+            {
+                if ( id != searchId )
+                {
+                    // Newer search was started
+                    return;
+                }
+                if ( candidatesModCount != modCount || !dirty.isEmpty () )
+                {
+                    // Index has changed since the search was started
+                    search ( text, batchSize, listener );
+                    return;
+                }
+
+                final List<Component> components = new ArrayList<Component> ( batch.size () );
+                for ( final Entry entry : batch )
+                {
+                    matches.add ( entry );
+                    components.add ( entry.getResult () );
+                }
+                if ( last )
+                {
+                    setLastSearch ( lowerCase, matches, candidatesModCount );
+                }
+                listener.componentsFound ( components, last );
+            }
+        } );
+    }
+
+    /**
+     * Cancels running batched search if there is one.
+     */
+    public void cancel ()
+    {
+        searchId++;
+    }
+
+    /**
+     * Returns entries which might contain the specified lowercase text.
+     *
+     * @param text lowercase text to find
+     * @return entries which might contain the specified lowercase text
+     */
+    private List<Entry> getCandidates ( final String text )
+    {
+        updateDirtyEntries ();
+
+        // Narrowing previous results
+        if ( lastText != null && lastModCount == modCount && text.contains ( lastText ) )
+        {
+            return lastMatches;
+        }
+
+        // Using the rarest text trigram
+        if ( text.length () >= 3 )
+        {
+            Set<Entry> rarest = null;
+            for ( int i = 0; i <= text.length () - 3; i++ )
+            {
+                final Set<Entry> set = trigrams.get ( getTrigram ( text, i ) );
+                if ( set == null )
+                {
+                    return new ArrayList<Entry> ( 0 );
+                }
+                if ( rarest == null || set.size () < rarest.size () )
+                {
+                    rarest = set;
+                }
+            }
+            return new ArrayList<Entry> ( rarest );
+        }
+
+        // Checking all entries
+        return new ArrayList<Entry> ( entries.values () );
+    }
+
+    /**
+     * Remembers completed search data.
+     *
+     * @param text    lowercase searched text
+     * @param matches matched entries
+     * @param modCount index modifications counter at the search start
+     */
+    private void setLastSearch ( final String text, final List<Entry> matches, final int modCount )
+    {
+        this.lastText = text;
+        this.lastMatches = matches;
+        this.lastModCount = modCount;
+    }
+
+    /**
+     * Re-reads texts of all entries marked as changed.
+     */
+    private void updateDirtyEntries ()
+    {
+        if ( !dirty.isEmpty () )
+        {
+            final Entry[] changed = dirty.toArray ( new Entry[ dirty.size () ] );
+            dirty.clear ();
+            for ( final Entry entry : changed )
+            {
+                if ( entry.structureChanged )
+                {
+                    entry.uninstall ();
+                    entry.install ();
+                    entry.structureChanged = false;
+                }
+                final String text = readText ( entry.component );
+                if ( !text.equals ( entry.text ) )
+                {
+                    removeTrigrams ( entry );
+                    entry.text = text;
+                    addTrigrams ( entry );
+                    modCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds specified component and its children into index.
+     *
+     * @param component component to index
+     */
+    private void index ( final Component component )
+    {
+        if ( component == null || entries.containsKey ( component ) || containers.contains ( component ) )
+        {
+            return;
+        }
+        if ( isTextComponent ( component ) )
+        {
+            final Entry entry = new Entry ( component );
+            entry.text = readText ( component );
+            entry.install ();
+            entries.put ( component, entry );
+            addTrigrams ( entry );
+            modCount++;
+        }
+        else if ( component instanceof Container )
+        {
+            final Container container = ( Container ) component;
+            containers.add ( container );
+            container.addContainerListener ( structureListener );
+            for ( final Component child : container.getComponents () )
+            {
+                if ( isIndexed ( container, child ) )
+                {
+                    index ( child );
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes specified component and its children from index.
+     *
+     * @param component component to remove from index
+     */
+    private void unindex ( final Component component )
+    {
+        final Entry entry = entries.remove ( component );
+        if ( entry != null )
+        {
+            entry.uninstall ();
+            removeTrigrams ( entry );
+            dirty.remove ( entry );
+            modCount++;
+        }
+        else if ( component instanceof Container && containers.remove ( component ) )
+        {
+            final Container container = ( Container ) component;
+            container.removeContainerListener ( structureListener );
+            for ( final Component child : container.getComponents () )
+            {
+                unindex ( child );
+            }
+        }
+    }
+
+    /**
+     * Adds entry text trigrams into index.
+     *
+     * @param entry entry to process
+     */
+    private void addTrigrams ( final Entry entry )
+    {
+        final String text = entry.text;
+        for ( int i = 0; i <= text.length () - 3; i++ )
+        {
+            final Long trigram = getTrigram ( text, i );
+            Set<Entry> set = trigrams.get ( trigram );
+            if ( set == null )
+            {
+                set = new HashSet<Entry> ( 4 );
+                trigrams.put ( trigram, set );
+            }
+            set.add ( entry );
+        }
+    }
+
+    /**
+     * Removes entry text trigrams from index.
+     *
+     * @param entry entry to process
+     */
+    private void removeTrigrams ( final Entry entry )
+    {
+        final String text = entry.text;
+        for ( int i = 0; i <= text.length () - 3; i++ )
+        {
+            final Long trigram = getTrigram ( text, i );
+            final Set<Entry> set = trigrams.get ( trigram );
+            if ( set != null )
+            {
+                set.remove ( entry );
+                if ( set.isEmpty () )
+                {
+                    trigrams.remove ( trigram );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns trigram key for the three characters starting at the specified index.
+     *
+     * @param text  text
+     * @param index trigram start index
+     * @return trigram key
+     */
+    private static Long getTrigram ( final String text, final int index )
+    {
+        return ( ( long ) text.charAt ( index ) << 32 ) | ( ( long ) text.charAt ( index + 1 ) << 16 ) | text.charAt ( index + 2 );
+    }
+
+    /**
+     * Returns whether specified container child should be indexed or not.
+     * Only tab contents are indexed within tabbed panes.
+     *
+     * @param container child container
+     * @param child     container child
+     * @return true if specified container child should be indexed, false otherwise
+     */
+    private static boolean isIndexed ( final Container container, final Component child )
+    {
+        return !( container instanceof JTabbedPane ) || ( ( JTabbedPane ) container ).indexOfComponent ( child ) != -1;
+    }
+
+    /**
+     * Returns whether specified component is matched as a whole or not.
+     *
+     * @param component component to process
+     * @return true if specified component is matched as a whole, false otherwise
+     */
+    private static boolean isTextComponent ( final Component component )
+    {
+        return isComposite ( component ) || component instanceof WebCollapsiblePane || component instanceof JComboBox ||
+                component instanceof JSpinner || component instanceof JLabel || component instanceof AbstractButton ||
+                component instanceof JTextComponent;
+    }
+
+    /**
+     * Returns whether specified component is matched by its children texts or not.
+     *
+     * @param component component to process
+     * @return true if specified component is matched by its children texts, false otherwise
+     */
+    private static boolean isComposite ( final Component component )
+    {
+        return component instanceof WebPathField || component instanceof WebFileChooserField || component instanceof WebDateField ||
+                component instanceof WebCalendar;
+    }
+
+    /**
+     * Returns lowercase text visible within the specified component.
+     *
+     * @param component component to process
+     * @return lowercase text visible within the specified component
+     */
+    private static String readText ( final Component component )
+    {
+        final StringBuilder text = new StringBuilder ();
+        appendText ( component, text );
+        return text.toString ().toLowerCase ();
+    }
+
+    /**
+     * Appends text visible within the specified component.
+     *
+     * @param component component to process
+     * @param text      text builder
+     */
+    private static void appendText ( final Component component, final StringBuilder text )
+    {
+        try
+        {
+            if ( isComposite ( component ) )
+            {
+                for ( final Component child : ( ( Container ) component ).getComponents () )
+                {
+                    appendText ( child, text );
+                }
+            }
+            else if ( component instanceof WebCollapsiblePane )
+            {
+                appendText ( ( ( WebCollapsiblePane ) component ).getHeaderPanel (), text );
+            }
+            else if ( component instanceof JComboBox )
+            {
+                final JComboBox<?> comboBox = ( JComboBox<?> ) component;
+                final Object selected = comboBox.getSelectedItem ();
+                if ( selected != null )
+                {
+                    appendText ( selected.toString (), text );
+                }
+                if ( comboBox.isEditable () )
+                {
+                    appendText ( comboBox.getEditor ().getEditorComponent (), text );
+                }
+                else
+                {
+                    // Selected item always belongs to the combobox model, so its renderer can safely render it
+                    @SuppressWarnings ( "unchecked" )
+                    final ListCellRenderer<Object> renderer = ( ListCellRenderer<Object> ) comboBox.getRenderer ();
+                    appendText ( renderer.getListCellRendererComponent ( null, selected, -1, true, true ), text );
+                }
+            }
+            else if ( component instanceof JSpinner )
+            {
+                appendText ( String.valueOf ( ( ( JSpinner ) component ).getValue () ), text );
+            }
+            else if ( component instanceof JLabel )
+            {
+                appendText ( ( ( JLabel ) component ).getText (), text );
+            }
+            else if ( component instanceof AbstractButton )
+            {
+                appendText ( ( ( AbstractButton ) component ).getText (), text );
+            }
+            else if ( component instanceof JTextComponent )
+            {
+                appendText ( ( ( JTextComponent ) component ).getText (), text );
+            }
+            else if ( component instanceof Container )
+            {
+                final Container container = ( Container ) component;
+                for ( final Component child : container.getComponents () )
+                {
+                    if ( isIndexed ( container, child ) )
+                    {
+                        appendText ( child, text );
+                    }
+                }
+            }
+        }
+        catch ( final Throwable e )
+        {
+            // Some renderers and custom components might fail outside of their usual environment
+        }
+    }
+
+    /**
+     * Appends single text part.
+     *
+     * @param part text part
+     * @param text text builder
+     */
+    private static void appendText ( final String part, final StringBuilder text )
+    {
+        if ( part != null && part.length () > 0 )
+        {
+            if ( text.length () > 0 )
+            {
+                text.append ( SEPARATOR );
+            }
+            text.append ( part );
+        }
+    }
+
+    /**
+     * Indexed component entry.
+     * It also listens to all changes that might affect component text and marks itself as changed.
+     */
+    private final class Entry
+            implements PropertyChangeListener, DocumentListener, ChangeListener, ItemListener, ContainerListener
+    {
+        /**
+         * Indexed component.
+         */
+        private final Component component;
+
+        /**
+         * Components this entry listens to.
+         */
+        private final List<Component> listened = new ArrayList<Component> ( 1 );
+
+        /**
+         * Lowercase component text.
+         */
+        private String text;
+
+        /**
+         * Whether listened components structure has changed or not.
+         */
+        private boolean structureChanged = false;
+
+        /**
+         * Constructs new entry for the specified component.
+         *
+         * @param component indexed component
+         */
+        public Entry ( final Component component )
+        {
+            super ();
+            this.component = component;
+        }
+
+        /**
+         * Returns component which should be returned as the search result.
+         * Scroll pane is returned instead of the text component it contains.
+         *
+         * @return component which should be returned as the search result
+         */
+        public Component getResult ()
+        {
+            if ( component instanceof JTextComponent )
+            {
+                final Container parent = component.getParent ();
+                if ( parent != null && parent.getParent () instanceof JScrollPane )
+                {
+                    return parent.getParent ();
+                }
+            }
+            return component;
+        }
+
+        /**
+         * Installs listeners onto all components which affect entry text.
+         */
+        public void install ()
+        {
+            if ( component instanceof JComboBox )
+            {
+                final JComboBox<?> comboBox = ( JComboBox<?> ) component;
+                listened.add ( comboBox );
+                comboBox.addItemListener ( this );
+                comboBox.addPropertyChangeListener ( "editable", this );
+                comboBox.addPropertyChangeListener ( "model", this );
+                comboBox.addPropertyChangeListener ( "editor", this );
+                if ( comboBox.isEditable () && comboBox.getEditor () != null )
+                {
+                    install ( comboBox.getEditor ().getEditorComponent () );
+                }
+            }
+            else if ( component instanceof JSpinner )
+            {
+                listened.add ( component );
+                component.addPropertyChangeListener ( "model", this );
+                ( ( JSpinner ) component ).addChangeListener ( this );
+            }
+            else if ( component instanceof WebCollapsiblePane )
+            {
+                install ( ( ( WebCollapsiblePane ) component ).getHeaderPanel () );
+            }
+            else
+            {
+                install ( component );
+            }
+        }
+
+        /**
+         * Installs listeners onto the specified component and its children.
+         *
+         * @param component component to install listeners onto
+         */
+        private void install ( final Component component )
+        {
+            if ( component == null )
+            {
+                return;
+            }
+            listened.add ( component );
+            if ( component instanceof JTextComponent )
+            {
+                component.addPropertyChangeListener ( "document", this );
+                ( ( JTextComponent ) component ).getDocument ().addDocumentListener ( this );
+            }
+            else if ( component instanceof JLabel || component instanceof AbstractButton )
+            {
+                component.addPropertyChangeListener ( "text", this );
+            }
+            else if ( component instanceof Container )
+            {
+                final Container container = ( Container ) component;
+                container.addContainerListener ( this );
+                for ( final Component child : container.getComponents () )
+                {
+                    install ( child );
+                }
+            }
+        }
+
+        /**
+         * Uninstalls all previously installed listeners.
+         */
+        public void uninstall ()
+        {
+            for ( final Component listened : this.listened )
+            {
+                listened.removePropertyChangeListener ( "text", this );
+                listened.removePropertyChangeListener ( "document", this );
+                listened.removePropertyChangeListener ( "model", this );
+                if ( listened instanceof JTextComponent )
+                {
+                    ( ( JTextComponent ) listened ).getDocument ().removeDocumentListener ( this );
+                }
+                if ( listened instanceof JComboBox )
+                {
+                    listened.removePropertyChangeListener ( "editable", this );
+                    listened.removePropertyChangeListener ( "editor", this );
+                    ( ( JComboBox<?> ) listened ).removeItemListener ( this );
+                }
+                if ( listened instanceof JSpinner )
+                {
+                    ( ( JSpinner ) listened ).removeChangeListener ( this );
+                }
+                if ( listened instanceof Container )
+                {
+                    ( ( Container ) listened ).removeContainerListener ( this );
+                }
+            }
+            listened.clear ();
+        }
+
+        /**
+         * Marks entry as changed.
+         */
+        private void changed ()
+        {
+            dirty.add ( this );
+        }
+
+        /**
+         * Marks entry as changed and requests listeners reinstall.
+         */
+        private void structureChanged ()
+        {
+            structureChanged = true;
+            dirty.add ( this );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void propertyChange ( final PropertyChangeEvent evt )
+        {
+            if ( evt.getPropertyName ().equals ( "document" ) )
+            {
+                // Moving listener to the new document
+                if ( evt.getOldValue () instanceof Document )
+                {
+                    ( ( Document ) evt.getOldValue () ).removeDocumentListener ( this );
+                }
+                if ( evt.getNewValue () instanceof Document )
+                {
+                    ( ( Document ) evt.getNewValue () ).addDocumentListener ( this );
+                }
+                changed ();
+            }
+            else if ( evt.getPropertyName ().equals ( "text" ) )
+            {
+                changed ();
+            }
+            else
+            {
+                structureChanged ();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void insertUpdate ( final DocumentEvent e )
+        {
+            changed ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void removeUpdate ( final DocumentEvent e )
+        {
+            changed ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void changedUpdate ( final DocumentEvent e )
+        {
+            // Attributes changes don't affect text
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void stateChanged ( final ChangeEvent e )
+        {
+            changed ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void itemStateChanged ( final ItemEvent e )
+        {
+            changed ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void componentAdded ( final ContainerEvent e )
+        {
+            structureChanged ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void componentRemoved ( final ContainerEvent e )
+        {
+            structureChanged ();
+        }
+    }
+}
@@ -58,11 +58,12 @@ public final class HighlightManager
 
     /**
      * Highlights components with specified text on window
+     * Components texts are indexed on the first call for each highlight base and kept up to date afterwards
      */
 
     public static List<Component> highlightComponentsWithText ( String text, Component highlightBase )
     {
-        List<Component> found = SwingUtils.findComponentsWithText ( text, highlightBase );
+        List<Component> found = ComponentTextIndex.getIndex ( highlightBase ).search ( text );
         if ( found.size () > 0 )
         {
             setHiglightedComponents ( found, highlightBase );
@@ -74,6 +75,50 @@ public final class HighlightManager
         return found;
     }
 
+    /**
+     * Highlights components with specified text on window in batches
+     * Texts are matched on a background thread and each found batch is highlighted in a separate event
+     * Newer search cancels the running one
+     */
+
+    public static void highlightComponentsWithText ( String text, final Component highlightBase, int batchSize )
+    {
+        ComponentTextIndex.getIndex ( highlightBase ).search ( text, batchSize, new TextSearchListener ()
+        {
+            private boolean found = false;
+
+            @Override
+            public void componentsFound ( List<Component> components, boolean last )
+            {
+                if ( components.size () > 0 )
+                {
+                    if ( found )
+                    {
+                        addHiglightedComponents ( components );
+                    }
+                    else
+                    {
+                        setHiglightedComponents ( components, highlightBase );
+                        found = true;
+                    }
+                }
+                if ( last && !found )
+                {
+                    clearHighlightedComponents ( highlightBase );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Cancels batched highlight started for the specified highlight base
+     */
+
+    public static void cancelHighlightComponentsWithText ( Component highlightBase )
+    {
+        ComponentTextIndex.getIndex ( highlightBase ).cancel ();
+    }
+
     /**
      * Sets highlighted component for its ancestor window
      */
@@ -128,6 +173,25 @@ public final class HighlightManager
         }
     }
 
+    /**
+     * Adds highlighted components to their ancestor windows
+     */
+
+    public static void addHiglightedComponents ( List<Component> highlights )
+    {
+        if ( highlights != null && highlights.size () > 0 )
+        {
+            for ( Component component : highlights )
+            {
+                WebGlassPane wgp = GlassPaneManager.getGlassPane ( SwingUtils.getWindowAncestor ( component ) );
+                if ( wgp != null )
+                {
+                    wgp.addHighlightedComponents ( component );
+                }
+            }
+        }
+    }
+
     /**
      * Removes component highlight from its ancestor window
      */
@@ -0,0 +1,41 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.alee.managers.highlight;
+
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Special listener that receives batched results of the text search performed by ComponentTextIndex.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.highlight.ComponentTextIndex
+ */
+
+public interface TextSearchListener
+{
+    /**
+     * Informs about next found components batch.
+     * This method is always called in Event Dispatch Thread.
+     *
+     * @param components found components batch, might be empty
+     * @param last       whether this is the last batch of the search or not
+     */
+    public void componentsFound ( List<Component> components, boolean last );
+}
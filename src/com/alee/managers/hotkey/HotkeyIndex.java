@@ -0,0 +1,228 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.hotkey;
+
+import com.alee.utils.SwingUtils;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Immutable snapshot of registered hotkeys and container conditions used by HotkeyManager to dispatch key events.
+ * <p/>
+ * Hotkeys are indexed by key code and modifiers mask and stored in sorted primitive arrays, so a lookup for the key event doesn't
+ * allocate anything and its cost doesn't depend on the amount of registered hotkeys. Snapshot keeps only weak references to components.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.hotkey.HotkeyManager
+ */
+
+public final class HotkeyIndex
+{
+    /**
+     * Modifiers mask bits.
+     */
+    private static final int CTRL = 1;
+    private static final int ALT = 2;
+    private static final int SHIFT = 4;
+
+    /**
+     * Sorted index keys.
+     */
+    private final int[] keys;
+
+    /**
+     * Hotkeys for each index key.
+     */
+    private final HotkeyInfo[][] hotkeys;
+
+    /**
+     * Whether each hotkey was registered as global one or not.
+     * Hotkey which component was already collected should not be treated as global one.
+     */
+    private final boolean[][] global;
+
+    /**
+     * Containers which have additional hotkey conditions.
+     */
+    private final List<WeakReference<Container>> containers;
+
+    /**
+     * Conditions for each container.
+     */
+    private final HotkeyCondition[][] conditions;
+
+    /**
+     * Constructs new hotkeys index.
+     *
+     * @param hotkeys             registered hotkeys
+     * @param containerConditions registered container conditions
+     */
+    public HotkeyIndex ( final Map<Component, List<HotkeyInfo>> hotkeys,
+                         final Map<Container, List<HotkeyCondition>> containerConditions )
+    {
+        super ();
+
+        // Grouping hotkeys by index key
+        final Map<Integer, List<HotkeyInfo>> grouped = new TreeMap<Integer, List<HotkeyInfo>> ();
+        for ( final Map.Entry<Component, List<HotkeyInfo>> entry : hotkeys.entrySet () )
+        {
+            for ( final HotkeyInfo hotkeyInfo : entry.getValue () )
+            {
+                final HotkeyData data = hotkeyInfo.getHotkeyData ();
+                if ( data != null && data.getKeyCode () != null )
+                {
+                    final Integer key = getKey ( data.getKeyCode (), data.isCtrl (), data.isAlt (), data.isShift () );
+                    List<HotkeyInfo> list = grouped.get ( key );
+                    if ( list == null )
+                    {
+                        list = new ArrayList<HotkeyInfo> ( 1 );
+                        grouped.put ( key, list );
+                    }
+                    list.add ( hotkeyInfo );
+                }
+            }
+        }
+        this.keys = new int[ grouped.size () ];
+        this.hotkeys = new HotkeyInfo[ grouped.size () ][];
+        this.global = new boolean[ grouped.size () ][];
+        int i = 0;
+        for ( final Map.Entry<Integer, List<HotkeyInfo>> entry : grouped.entrySet () )
+        {
+            final List<HotkeyInfo> list = entry.getValue ();
+            this.keys[ i ] = entry.getKey ();
+            this.hotkeys[ i ] = list.toArray ( new HotkeyInfo[ list.size () ] );
+            this.global[ i ] = new boolean[ list.size () ];
+            for ( int j = 0; j < list.size (); j++ )
+            {
+                this.global[ i ][ j ] = list.get ( j ).getForComponent () == null;
+            }
+            i++;
+        }
+
+        // Collecting non-empty container conditions
+        final List<Container> containersList = new ArrayList<Container> ( containerConditions.size () );
+        final List<HotkeyCondition[]> conditionsList = new ArrayList<HotkeyCondition[]> ( containerConditions.size () );
+        for ( final Map.Entry<Container, List<HotkeyCondition>> entry : containerConditions.entrySet () )
+        {
+            if ( entry.getKey () != null && entry.getValue ().size () > 0 )
+            {
+                containersList.add ( entry.getKey () );
+                conditionsList.add ( entry.getValue ().toArray ( new HotkeyCondition[ entry.getValue ().size () ] ) );
+            }
+        }
+        this.containers = new ArrayList<WeakReference<Container>> ( containersList.size () );
+        for ( final Container container : containersList )
+        {
+            this.containers.add ( new WeakReference<Container> ( container ) );
+        }
+        this.conditions = conditionsList.toArray ( new HotkeyCondition[ conditionsList.size () ][] );
+    }
+
+    /**
+     * Returns index of the hotkeys group triggered by the specified key event or -1 if there are no such hotkeys.
+     *
+     * @param e key event
+     * @return index of the hotkeys group triggered by the specified key event or -1 if there are no such hotkeys
+     */
+    public int indexOf ( final KeyEvent e )
+    {
+        if ( keys.length == 0 )
+        {
+            return -1;
+        }
+        final int key = getKey ( e.getKeyCode (), SwingUtils.isShortcut ( e ), SwingUtils.isAlt ( e ), SwingUtils.isShift ( e ) );
+        final int index = Arrays.binarySearch ( keys, key );
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Returns hotkeys group at the specified index.
+     *
+     * @param index hotkeys group index
+     * @return hotkeys group at the specified index
+     */
+    public HotkeyInfo[] getHotkeys ( final int index )
+    {
+        return hotkeys[ index ];
+    }
+
+    /**
+     * Returns whether hotkey at the specified position was registered as global one or not.
+     *
+     * @param index    hotkeys group index
+     * @param position hotkey position within the group
+     * @return true if hotkey at the specified position was registered as global one, false otherwise
+     */
+    public boolean isGlobal ( final int index, final int position )
+    {
+        return global[ index ][ position ];
+    }
+
+    /**
+     * Returns whether specified component meets all conditions of its parent containers or not.
+     *
+     * @param forComponent hotkey component
+     * @return true if specified component meets all conditions of its parent containers, false otherwise
+     */
+    public boolean meetsParentConditions ( final Component forComponent )
+    {
+        for ( int i = 0; i < containers.size (); i++ )
+        {
+            final Container container = containers.get ( i ).get ();
+            if ( container != null && container.isAncestorOf ( forComponent ) )
+            {
+                for ( final HotkeyCondition condition : conditions[ i ] )
+                {
+                    if ( !condition.checkCondition ( forComponent ) )
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns amount of indexed hotkey groups.
+     *
+     * @return amount of indexed hotkey groups
+     */
+    public int size ()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Returns index key for the specified key code and modifiers.
+     *
+     * @param keyCode key code
+     * @param ctrl    whether shortcut modifier is pressed or not
+     * @param alt     whether ALT modifier is pressed or not
+     * @param shift   whether SHIFT modifier is pressed or not
+     * @return index key for the specified key code and modifiers
+     */
+    private static int getKey ( final int keyCode, final boolean ctrl, final boolean alt, final boolean shift )
+    {
+        return keyCode << 3 | ( ctrl ? CTRL : 0 ) | ( alt ? ALT : 0 ) | ( shift ? SHIFT : 0 );
+    }
+}
@@ -41,6 +41,9 @@ import java.util.List;
  * <p>
  * All hotkeys are stored into WeakHashMap so hotkeys will be removed as soon as the component for which hotkey is registered gets
  * finalized. HotkeyInfo also keeps a weak reference to both top and hotkey components.
+ * <p>
+ * Key events are dispatched through an index of registered hotkeys by key code and modifiers, which is rebuilt only when hotkeys or
+ * container conditions change. Hotkey data should not be modified after registration, re-register the hotkey instead.
  *
  * @author Mikle Garin
  */
@@ -72,6 +75,12 @@ public final class HotkeyManager
      */
     protected static Map<Container, List<HotkeyCondition>> containerConditions = new WeakHashMap<Container, List<HotkeyCondition>> ();
 
+    /**
+     * Registered hotkeys index snapshot used to dispatch key events.
+     * It is dropped on any hotkey or container condition change and rebuilt upon the next key event.
+     */
+    protected static volatile HotkeyIndex index = null;
+
     /**
      * Initialization mark.
      */
@@ -106,13 +115,7 @@ public final class HotkeyManager
                             return;
                         }
 
-                        // Ignore nonexisting hotkeys
-                        if ( !hotkeyForEventExists ( e ) )
-                        {
-                            return;
-                        }
-
-                        // Processing all added hotkeys
+                        // Processing hotkeys triggered by this event
                         processHotkeys ( e );
                     }
                 }
@@ -154,73 +157,105 @@ public final class HotkeyManager
     }
 
     /**
-     * Returns whether at least one hotkey for the specified key event exists or not.
+     * Returns registered hotkeys index snapshot.
+     * Snapshot is rebuilt only if hotkeys or container conditions were changed since the last call.
      *
-     * @param keyEvent key event to search hotkeys for
-     * @return true if at least one hotkey for the specified key event exists, false otherwise
+     * @return registered hotkeys index snapshot
      */
-    protected static boolean hotkeyForEventExists ( final KeyEvent keyEvent )
+    protected static HotkeyIndex getIndex ()
     {
-        final int hotkeyHash = SwingUtils.hotkeyToString ( keyEvent ).hashCode ();
-        for ( final Map.Entry<Component, List<HotkeyInfo>> entry : copyHotkeys ().entrySet () )
+        HotkeyIndex current = index;
+        if ( current == null )
         {
-            for ( final HotkeyInfo hotkeyInfo : entry.getValue () )
+            synchronized ( sync )
             {
-                if ( hotkeyInfo.getHotkeyData ().hashCode () == hotkeyHash )
+                current = index;
+                if ( current == null )
                 {
-                    return true;
+                    current = new HotkeyIndex ( hotkeys, containerConditions );
+                    index = current;
                 }
             }
         }
-        return false;
+        return current;
+    }
+
+    /**
+     * Drops registered hotkeys index snapshot.
+     * This method should be called on any hotkey or container condition change.
+     */
+    protected static void invalidateIndex ()
+    {
+        index = null;
+    }
+
+    /**
+     * Returns whether at least one hotkey for the specified key event exists or not.
+     *
+     * @param keyEvent key event to search hotkeys for
+     * @return true if at least one hotkey for the specified key event exists, false otherwise
+     */
+    protected static boolean hotkeyForEventExists ( final KeyEvent keyEvent )
+    {
+        return getIndex ().indexOf ( keyEvent ) != -1;
     }
 
     /**
-     * @param e
+     * Performs actions of all hotkeys triggered by the specified key event.
+     *
+     * @param e key event
      */
     protected static void processHotkeys ( final KeyEvent e )
     {
-        for ( final Map.Entry<Component, List<HotkeyInfo>> entry : copyHotkeys ().entrySet () )
+        final HotkeyIndex current = getIndex ();
+        final int keyIndex = current.indexOf ( e );
+        if ( keyIndex == -1 )
         {
-            for ( final HotkeyInfo hotkeyInfo : entry.getValue () )
+            return;
+        }
+
+        final HotkeyInfo[] hotkeyInfos = current.getHotkeys ( keyIndex );
+        for ( int i = 0; i < hotkeyInfos.length; i++ )
+        {
+            final HotkeyInfo hotkeyInfo = hotkeyInfos[ i ];
+
+            // Specified components
+            final Component forComponent = hotkeyInfo.getForComponent ();
+
+            // If there is no pointed components - hotkey will be global
+            if ( forComponent == null )
             {
-                // Specified components
-                final Component forComponent = hotkeyInfo.getForComponent ();
+                // Checking hotkey, skipping hotkeys of already collected components
+                if ( current.isGlobal ( keyIndex, i ) && hotkeyInfo.getHotkeyData ().isTriggered ( e ) &&
+                        hotkeyInfo.getAction () != null )
+                {
+                    // Performing hotkey action
+                    SwingUtils.invokeLater ( hotkeyInfo.getAction (), e );
+                }
+            }
+            else
+            {
+                // Finding top component
+                Component topComponent = hotkeyInfo.getTopComponent ();
+                topComponent = topComponent != null ? topComponent : SwingUtils.getWindowAncestor ( forComponent );
 
-                // If there is no pointed components - hotkey will be global
-                if ( forComponent == null )
+                // Checking if componen or one of its childs has focus
+                if ( SwingUtils.hasFocusOwner ( topComponent ) )
                 {
                     // Checking hotkey
                     if ( hotkeyInfo.getHotkeyData ().isTriggered ( e ) && hotkeyInfo.getAction () != null )
                     {
-                        // Performing hotkey action
-                        SwingUtils.invokeLater ( hotkeyInfo.getAction (), e );
-                    }
-                }
-                else
-                {
-                    // Finding top component
-                    Component topComponent = hotkeyInfo.getTopComponent ();
-                    topComponent = topComponent != null ? topComponent : SwingUtils.getWindowAncestor ( forComponent );
-
-                    // Checking if componen or one of its childs has focus
-                    if ( SwingUtils.hasFocusOwner ( topComponent ) )
-                    {
-                        // Checking hotkey
-                        if ( hotkeyInfo.getHotkeyData ().isTriggered ( e ) && hotkeyInfo.getAction () != null )
+                        // Checking that hotkey meets parent containers conditions
+                        if ( current.meetsParentConditions ( forComponent ) )
                         {
-                            // Checking that hotkey meets parent containers conditions
-                            if ( meetsParentConditions ( forComponent ) )
+                            // Transferring focus to hotkey component
+                            if ( transferFocus )
                             {
-                                // Transferring focus to hotkey component
-                                if ( transferFocus )
-                                {
-                                    forComponent.requestFocusInWindow ();
-                                }
-
-                                // Performing hotkey action
-                                SwingUtils.invokeLater ( hotkeyInfo.getAction (), e );
+                                forComponent.requestFocusInWindow ();
                             }
+
+                            // Performing hotkey action
+                            SwingUtils.invokeLater ( hotkeyInfo.getAction (), e );
                         }
                     }
                 }
@@ -228,22 +263,15 @@ public final class HotkeyManager
         }
     }
 
+    /**
+     * Returns whether specified component meets all conditions of its parent containers or not.
+     *
+     * @param forComponent hotkey component
+     * @return true if specified component meets all conditions of its parent containers, false otherwise
+     */
     protected static boolean meetsParentConditions ( final Component forComponent )
     {
-        for ( final Map.Entry<Container, List<HotkeyCondition>> entry : copyContainerConditions ().entrySet () )
-        {
-            if ( entry.getKey ().isAncestorOf ( forComponent ) )
-            {
-                for ( final HotkeyCondition condition : entry.getValue () )
-                {
-                    if ( !condition.checkCondition ( forComponent ) )
-                    {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return getIndex ().meetsParentConditions ( forComponent );
     }
 
     /**
@@ -370,6 +398,7 @@ public final class HotkeyManager
             final List<HotkeyCondition> clist = getContainerHotkeyConditionsCache ( container );
             clist.add ( hotkeyCondition );
             containerConditions.put ( container, clist );
+            invalidateIndex ();
         }
     }
 
@@ -379,6 +408,7 @@ public final class HotkeyManager
         {
             final List<HotkeyCondition> clist = getContainerHotkeyConditionsCache ( container );
             clist.remove ( hotkeyCondition );
+            invalidateIndex ();
         }
     }
 
@@ -387,6 +417,7 @@ public final class HotkeyManager
         synchronized ( sync )
         {
             containerConditions.remove ( container );
+            invalidateIndex ();
         }
     }
 
@@ -437,7 +468,7 @@ public final class HotkeyManager
 
     /**
      * All added hotkeys. Make sure you know what you are doing if you want to modify this map from outside, otherwise your actions might
-     * change HotkeyManager behavior.
+     * change HotkeyManager behavior. Changes made directly to this map will only be taken into account after next hotkey registration.
      */
 
     public static Map<Component, List<HotkeyInfo>> getAllHotkeys ()
@@ -456,6 +487,7 @@ public final class HotkeyManager
             final List<HotkeyInfo> hlist = getComponentHotkeysCache ( hotkeyInfo.getForComponent () );
             hlist.add ( hotkeyInfo );
             hotkeys.put ( hotkeyInfo.getForComponent (), hlist );
+            invalidateIndex ();
         }
     }
 
@@ -465,6 +497,7 @@ public final class HotkeyManager
         {
             final List<HotkeyInfo> hlist = getComponentHotkeysCache ( hotkeyInfo.getForComponent () );
             hlist.remove ( hotkeyInfo );
+            invalidateIndex ();
         }
     }
 
@@ -481,6 +514,7 @@ public final class HotkeyManager
         synchronized ( sync )
         {
             hotkeys.remove ( component );
+            invalidateIndex ();
         }
     }
 
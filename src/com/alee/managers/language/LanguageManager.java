@@ -38,6 +38,7 @@ import java.io.File;
 import java.net.URL;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This manager allows you to quickly setup changeable lanugage onto different components and to listen to application-wide language change
@@ -149,10 +150,41 @@ public final class LanguageManager implements LanguageConstants
     private static Dictionary globalDictionary;
 
     /**
-     * Global values map that contains merged translations for currently selected language.
-     * It gets updated on any dictionaries change or global language change.
+     * Translations operations synchronization object.
      */
-    private static final Map<String, Value> globalCache = new HashMap<String, Value> ();
+    private static final Object translationsLock = new Object ();
+
+    /**
+     * Translation table for currently selected language.
+     * It is replaced with a new table on any dictionaries change or global language change.
+     *
+     * @see #getTranslationTable()
+     */
+    private static volatile TranslationTable translations = null;
+
+    /**
+     * Translation tables built for languages used since the last dictionaries change.
+     * These tables are reused when language is switched back to avoid walking through all dictionaries again.
+     *
+     * @see #preloadLanguage(String)
+     */
+    private static final Map<String, TranslationTable> translationTables = new HashMap<String, TranslationTable> ();
+
+    /**
+     * Temporary values for keys which have no translation for currently selected language.
+     */
+    private static final Map<String, Value> missingValues = new ConcurrentHashMap<String, Value> ();
+
+    /**
+     * Amount of components updated within a single Event Dispatch Thread event.
+     * Used when language is changed outside of the Event Dispatch Thread.
+     */
+    private static int updateBatchSize = 500;
+
+    /**
+     * Last language switch statistics.
+     */
+    private static volatile LanguageSwitchStatistics lastSwitchStatistics = null;
 
     /**
      * List of all added dictionaries.
@@ -298,6 +330,7 @@ public final class LanguageManager implements LanguageConstants
 
             // Default data
             globalDictionary = new Dictionary ();
+            translations = new TranslationTable ( language );
 
             // Class aliases
             XmlUtils.processAnnotations ( Dictionary.class );
@@ -330,7 +363,7 @@ public final class LanguageManager implements LanguageConstants
                 @Override
                 public void languageChanged ( final String oldLang, final String newLang )
                 {
-                    updateAll ();
+                    // Changed translations are updated right after translation table swap
                 }
 
                 @Override
@@ -547,7 +580,11 @@ public final class LanguageManager implements LanguageConstants
         final String key = getComponentKey ( component );
         if ( key != null )
         {
-            final String oldKey = componentKeysCache.get ( component );
+            final String oldKey;
+            synchronized ( componentsLock )
+            {
+                oldKey = componentKeysCache.get ( component );
+            }
             final String newKey = combineWithContainerKeysImpl ( component, key );
             if ( oldKey == null || !CompareUtils.equals ( oldKey, newKey ) )
             {
@@ -696,11 +733,12 @@ public final class LanguageManager implements LanguageConstants
 
     public static void updateAllComponents ( final List<String> keys )
     {
+        final Set<String> keysSet = new HashSet<String> ( keys );
         synchronized ( componentsLock )
         {
             for ( final Map.Entry<Component, String> entry : components.entrySet () )
             {
-                if ( keys.contains ( entry.getValue () ) )
+                if ( keysSet.contains ( entry.getValue () ) )
                 {
                     updateComponent ( entry.getKey (), entry.getValue () );
                 }
@@ -917,8 +955,21 @@ public final class LanguageManager implements LanguageConstants
             // Updating locale
             updateLocale ();
 
-            // Updating global cache
-            rebuildCache ();
+            // Swapping translation table
+            final long start = System.nanoTime ();
+            final TranslationTable oldTable = translations;
+            final TranslationTable newTable;
+            final boolean cached;
+            synchronized ( translationsLock )
+            {
+                final TranslationTable table = translationTables.get ( language );
+                cached = table != null;
+                newTable = cached ? table : new TranslationTable ( language, dictionaries );
+                translationTables.put ( language, newTable );
+                translations = newTable;
+                missingValues.clear ();
+            }
+            final long tableTime = System.nanoTime () - start;
 
             // Updating orientation
             if ( oldComponentOrientation.isLeftToRight () != getOrientation ().isLeftToRight () )
@@ -926,6 +977,9 @@ public final class LanguageManager implements LanguageConstants
                 SwingUtils.updateGlobalOrientations ();
             }
 
+            // Updating changed translations
+            updateTranslations ( oldLanguage, oldTable, newTable, cached, tableTime );
+
             // Firing language change event
             fireLanguageChanged ( oldLanguage, language );
         }
@@ -1101,14 +1155,17 @@ public final class LanguageManager implements LanguageConstants
             removeDictionary ( dictionary );
         }
 
-        // Updating dictionaries
-        dictionaries.add ( dictionary );
+        synchronized ( translationsLock )
+        {
+            // Updating dictionaries
+            dictionaries.add ( dictionary );
 
-        // Updating global dictionary
-        mergeDictionary ( dictionary );
+            // Updating global dictionary
+            mergeDictionary ( dictionary );
 
-        // Updating global cache
-        updateCache ( dictionary );
+            // Updating translation table
+            updateTranslations ( dictionary );
+        }
 
         // Firing add event
         fireDictionaryAdded ( dictionary );
@@ -1139,18 +1196,21 @@ public final class LanguageManager implements LanguageConstants
     {
         if ( dictionary != null && isDictionaryAdded ( dictionary ) )
         {
-            // Clearing global dictionaries storage
-            globalDictionary.clear ();
-
-            // Updating dictionaries
-            dictionaries.remove ( dictionary );
-            for ( final Dictionary d : dictionaries )
+            synchronized ( translationsLock )
             {
-                mergeDictionary ( d );
-            }
+                // Clearing global dictionaries storage
+                globalDictionary.clear ();
 
-            // Updating global cache
-            rebuildCache ();
+                // Updating dictionaries
+                dictionaries.remove ( dictionary );
+                for ( final Dictionary d : dictionaries )
+                {
+                    mergeDictionary ( d );
+                }
+
+                // Updating translation table
+                rebuildTranslations ();
+            }
 
             // Firing removal event
             fireDictionaryRemoved ( dictionary );
@@ -1251,9 +1311,12 @@ public final class LanguageManager implements LanguageConstants
      */
     public static void clearDictionaries ()
     {
-        globalDictionary.clear ();
-        dictionaries.clear ();
-        clearCache ();
+        synchronized ( translationsLock )
+        {
+            globalDictionary.clear ();
+            dictionaries.clear ();
+            clearTranslations ();
+        }
         fireDictionariesCleared ();
     }
 
@@ -1297,8 +1360,17 @@ public final class LanguageManager implements LanguageConstants
 
     public static Value getValue ( final String key )
     {
-        // Global cache might be null when LanguageManager is not initialized
-        return globalCache != null ? globalCache.get ( key ) : null;
+        // Translation table might be null when LanguageManager is not initialized
+        final TranslationTable table = translations;
+        if ( table != null )
+        {
+            final Value value = table.get ( key );
+            return value != null ? value : missingValues.get ( key );
+        }
+        else
+        {
+            return null;
+        }
     }
 
     public static Value getNotNullValue ( final String key )
@@ -1312,7 +1384,7 @@ public final class LanguageManager implements LanguageConstants
         else
         {
             final Value tmpValue = new Value ( getLanguage (), key );
-            globalCache.put ( key, tmpValue );
+            missingValues.put ( key, tmpValue );
             return tmpValue;
         }
     }
@@ -1357,7 +1429,11 @@ public final class LanguageManager implements LanguageConstants
 
     public static String combineWithContainerKeys ( final Component component, final String key )
     {
-        final String cachedKey = componentKeysCache.get ( component );
+        final String cachedKey;
+        synchronized ( componentsLock )
+        {
+            cachedKey = componentKeysCache.get ( component );
+        }
         return cachedKey != null ? cachedKey : combineWithContainerKeysImpl ( component, key );
     }
 
@@ -1378,7 +1454,10 @@ public final class LanguageManager implements LanguageConstants
             }
         }
         final String cachedKey = sb.toString ();
-        componentKeysCache.put ( component, cachedKey );
+        synchronized ( componentsLock )
+        {
+            componentKeysCache.put ( component, cachedKey );
+        }
         return cachedKey;
     }
 
@@ -1407,56 +1486,228 @@ public final class LanguageManager implements LanguageConstants
     }
 
     /**
-     * Cache operations
+     * Translation table operations
      */
 
-    private static void rebuildCache ()
+    /**
+     * Returns translation table for currently selected language.
+     *
+     * @return translation table for currently selected language
+     */
+    public static TranslationTable getTranslationTable ()
     {
-        clearCache ();
-        updateCache ( globalDictionary );
+        return translations;
     }
 
-    private static void clearCache ()
+    /**
+     * Builds translation table for the specified language in advance so switching to it later will not require walking through all
+     * dictionaries. This method can be called from any thread.
+     *
+     * @param language language to prepare translation table for
+     */
+    public static void preloadLanguage ( final String language )
     {
-        globalCache.clear ();
+        synchronized ( translationsLock )
+        {
+            if ( !translationTables.containsKey ( language ) )
+            {
+                translationTables.put ( language, new TranslationTable ( language, dictionaries ) );
+            }
+        }
     }
 
-    private static void updateCache ( final Dictionary dictionary )
+    /**
+     * Returns statistics of the last language switch or null if language was not switched yet.
+     *
+     * @return statistics of the last language switch or null if language was not switched yet
+     */
+    public static LanguageSwitchStatistics getLastSwitchStatistics ()
     {
-        updateCache ( dictionary.getPrefix (), dictionary );
+        return lastSwitchStatistics;
     }
 
-    private static void updateCache ( String prefix, final Dictionary dictionary )
+    /**
+     * Returns amount of components updated within a single Event Dispatch Thread event.
+     *
+     * @return amount of components updated within a single Event Dispatch Thread event
+     */
+    public static int getUpdateBatchSize ()
     {
-        // Determining prefix
-        prefix = prefix != null && !prefix.equals ( "" ) ? prefix + "." : "";
+        return updateBatchSize;
+    }
 
-        // Parsing current level records
-        if ( dictionary.getRecords () != null )
+    /**
+     * Sets amount of components updated within a single Event Dispatch Thread event.
+     * It is only used when language is changed outside of the Event Dispatch Thread.
+     *
+     * @param updateBatchSize amount of components updated within a single Event Dispatch Thread event
+     */
+    public static void setUpdateBatchSize ( final int updateBatchSize )
+    {
+        LanguageManager.updateBatchSize = Math.max ( 1, updateBatchSize );
+    }
+
+    /**
+     * Rebuilds translation table for currently selected language.
+     * This method should only be called under the translations lock.
+     */
+    private static void rebuildTranslations ()
+    {
+        translationTables.clear ();
+        translations = new TranslationTable ( language, dictionaries );
+        translationTables.put ( language, translations );
+        missingValues.clear ();
+    }
+
+    /**
+     * Replaces translation table for currently selected language with an empty one.
+     * This method should only be called under the translations lock.
+     */
+    private static void clearTranslations ()
+    {
+        translationTables.clear ();
+        translations = new TranslationTable ( language );
+        translationTables.put ( language, translations );
+        missingValues.clear ();
+    }
+
+    /**
+     * Replaces translation table for currently selected language with a table which also contains added dictionary records.
+     * This method should only be called under the translations lock.
+     *
+     * @param dictionary added dictionary
+     */
+    private static void updateTranslations ( final Dictionary dictionary )
+    {
+        translationTables.clear ();
+        translations = new TranslationTable ( translations, dictionary );
+        translationTables.put ( language, translations );
+    }
+
+    /**
+     * Updates language key listeners and registered components which translation differs between specified tables.
+     * <p/>
+     * Components with unchanged translations are skipped. If this method is called outside of the Event Dispatch Thread then components
+     * are updated later in the Event Dispatch Thread in small batches to keep UI responsive.
+     *
+     * @param oldLanguage previous language
+     * @param oldTable    previous translation table
+     * @param newTable    new translation table
+     * @param cached      whether new translation table was taken from cache or not
+     * @param tableTime   translation table retrieval time in nanoseconds
+     */
+    private static void updateTranslations ( final String oldLanguage, final TranslationTable oldTable, final TranslationTable newTable,
+                                             final boolean cached, final long tableTime )
+    {
+        final long start = System.nanoTime ();
+
+        // Gathering changed keys
+        final Set<String> changedKeys = oldTable != null ? newTable.getChangedKeys ( oldTable ) : newTable.keySet ();
+
+        // Notifying registered key listeners
+        if ( languageKeyListeners.size () > 0 )
         {
-            for ( final Record record : dictionary.getRecords () )
+            fireLanguageKeysUpdated ( changedKeys );
+        }
+
+        // Components might use additional keys based on their own one so all parent keys are considered changed as well
+        final Set<String> changedPrefixes = new HashSet<String> ( changedKeys.size () * 2 );
+        for ( final String key : changedKeys )
+        {
+            String prefix = key;
+            while ( changedPrefixes.add ( prefix ) )
             {
-                final Value value = record.getValue ( language );
-                if ( value != null && value.getHotkey () == null && record.getHotkey () != null )
+                final int index = prefix.lastIndexOf ( '.' );
+                if ( index <= 0 )
                 {
-                    value.setHotkey ( record.getHotkey () );
+                    break;
                 }
-                globalCache.put ( prefix + record.getKey (), value );
+                prefix = prefix.substring ( 0, index );
             }
         }
 
-        // Parsing subdictionaries
-        if ( dictionary.getSubdictionaries () != null )
+        // Gathering components which translation has changed
+        final int total;
+        final List<Component> updated = new ArrayList<Component> ();
+        final List<String> updatedKeys = new ArrayList<String> ();
+        synchronized ( componentsLock )
         {
-            for ( final Dictionary subDictionary : dictionary.getSubdictionaries () )
+            total = components.size ();
+            for ( final Map.Entry<Component, String> entry : components.entrySet () )
             {
-                final String sp = subDictionary.getPrefix ();
-                final String subPrefix = prefix + ( sp != null && !sp.equals ( "" ) ? sp : "" );
-                updateCache ( subPrefix, subDictionary );
+                final Component component = entry.getKey ();
+                final String key = componentKeysCache.get ( component );
+                if ( key == null || changedPrefixes.contains ( key ) || hasDataProviders ( componentsData.get ( component ) ) )
+                {
+                    updated.add ( component );
+                    updatedKeys.add ( entry.getValue () );
+                }
+            }
+        }
+
+        // Saving statistics
+        final LanguageSwitchStatistics statistics =
+                new LanguageSwitchStatistics ( oldLanguage, newTable.getLanguage (), cached, tableTime, changedKeys.size (), total,
+                        updated.size () );
+        lastSwitchStatistics = statistics;
+
+        // Updating components
+        if ( SwingUtilities.isEventDispatchThread () || updated.size () == 0 )
+        {
+            for ( int i = 0; i < updated.size (); i++ )
+            {
+                updateComponent ( updated.get ( i ), updatedKeys.get ( i ) );
+            }
+            statistics.setUpdateTime ( System.nanoTime () - start );
+        }
+        else
+        {
+            final int batchSize = updateBatchSize;
+            for ( int i = 0; i < updated.size (); i += batchSize )
+            {
+                final int from = i;
+                final int to = Math.min ( i + batchSize, updated.size () );
+                SwingUtilities.invokeLater ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        for ( int j = from; j < to; j++ )
+                        {
+                            updateComponent ( updated.get ( j ), updatedKeys.get ( j ) );
+                        }
+                        if ( to == updated.size () )
+                        {
+                            statistics.setUpdateTime ( System.nanoTime () - start );
+                        }
+                    }
+                } );
             }
         }
     }
 
+    /**
+     * Returns whether specified component data contains data providers or not.
+     * Data provided by them might depend on the language so such components are always updated.
+     *
+     * @param data component data
+     * @return true if specified component data contains data providers, false otherwise
+     */
+    private static boolean hasDataProviders ( final Object[] data )
+    {
+        if ( data != null )
+        {
+            for ( final Object object : data )
+            {
+                if ( object instanceof DataProvider )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Default system language key
      */
@@ -1602,6 +1853,24 @@ public final class LanguageManager implements LanguageConstants
         }
     }
 
+    private static void fireLanguageKeysUpdated ( final Set<String> keys )
+    {
+        synchronized ( languageKeyListenersLock )
+        {
+            for ( final Map.Entry<String, List<LanguageKeyListener>> entry : languageKeyListeners.entrySet () )
+            {
+                if ( keys.contains ( entry.getKey () ) )
+                {
+                    final Value value = getValue ( entry.getKey () );
+                    for ( final LanguageKeyListener listener : CollectionUtils.copy ( entry.getValue () ) )
+                    {
+                        listener.languageKeyUpdated ( entry.getKey (), value );
+                    }
+                }
+            }
+        }
+    }
+
     private static void fireAllLanguageKeysUpdated ()
     {
         synchronized ( languageKeyListenersLock )
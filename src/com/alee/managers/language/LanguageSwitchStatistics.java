@@ -0,0 +1,204 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.language;
+
+/**
+ * This class contains timings and counters of a single language switch performed by LanguageManager.
+ *
+ * @author Mikle Garin
+ * @see LanguageManager#getLastSwitchStatistics()
+ */
+
+public final class LanguageSwitchStatistics
+{
+    /**
+     * Previous language.
+     */
+    private final String oldLanguage;
+
+    /**
+     * New language.
+     */
+    private final String newLanguage;
+
+    /**
+     * Whether translation table was taken from cache or not.
+     */
+    private final boolean cachedTable;
+
+    /**
+     * Translation table retrieval time in nanoseconds.
+     */
+    private final long tableTime;
+
+    /**
+     * Amount of keys which translation has changed.
+     */
+    private final int changedKeys;
+
+    /**
+     * Amount of registered components.
+     */
+    private final int components;
+
+    /**
+     * Amount of components which translation has to be updated.
+     */
+    private final int updatedComponents;
+
+    /**
+     * Components update time in nanoseconds.
+     */
+    private volatile long updateTime = -1;
+
+    /**
+     * Constructs new language switch statistics.
+     *
+     * @param oldLanguage       previous language
+     * @param newLanguage       new language
+     * @param cachedTable       whether translation table was taken from cache or not
+     * @param tableTime         translation table retrieval time in nanoseconds
+     * @param changedKeys       amount of keys which translation has changed
+     * @param components        amount of registered components
+     * @param updatedComponents amount of components which translation has to be updated
+     */
+    protected LanguageSwitchStatistics ( final String oldLanguage, final String newLanguage, final boolean cachedTable,
+                                         final long tableTime, final int changedKeys, final int components,
+                                         final int updatedComponents )
+    {
+        super ();
+        this.oldLanguage = oldLanguage;
+        this.newLanguage = newLanguage;
+        this.cachedTable = cachedTable;
+        this.tableTime = tableTime;
+        this.changedKeys = changedKeys;
+        this.components = components;
+        this.updatedComponents = updatedComponents;
+    }
+
+    /**
+     * Returns previous language.
+     *
+     * @return previous language
+     */
+    public String getOldLanguage ()
+    {
+        return oldLanguage;
+    }
+
+    /**
+     * Returns new language.
+     *
+     * @return new language
+     */
+    public String getNewLanguage ()
+    {
+        return newLanguage;
+    }
+
+    /**
+     * Returns whether translation table was taken from cache or not.
+     *
+     * @return true if translation table was taken from cache, false if it was built
+     */
+    public boolean isCachedTable ()
+    {
+        return cachedTable;
+    }
+
+    /**
+     * Returns translation table retrieval time in milliseconds.
+     *
+     * @return translation table retrieval time in milliseconds
+     */
+    public double getTableTime ()
+    {
+        return tableTime / 1000000d;
+    }
+
+    /**
+     * Returns amount of keys which translation has changed.
+     *
+     * @return amount of keys which translation has changed
+     */
+    public int getChangedKeys ()
+    {
+        return changedKeys;
+    }
+
+    /**
+     * Returns amount of registered components.
+     *
+     * @return amount of registered components
+     */
+    public int getComponents ()
+    {
+        return components;
+    }
+
+    /**
+     * Returns amount of components which translation has to be updated.
+     *
+     * @return amount of components which translation has to be updated
+     */
+    public int getUpdatedComponents ()
+    {
+        return updatedComponents;
+    }
+
+    /**
+     * Returns whether components update is completed or not.
+     *
+     * @return true if components update is completed, false otherwise
+     */
+    public boolean isCompleted ()
+    {
+        return updateTime >= 0;
+    }
+
+    /**
+     * Returns components update time in milliseconds or -1 if update is not yet completed.
+     *
+     * @return components update time in milliseconds or -1 if update is not yet completed
+     */
+    public double getUpdateTime ()
+    {
+        return updateTime >= 0 ? updateTime / 1000000d : -1;
+    }
+
+    /**
+     * Sets components update time in nanoseconds.
+     *
+     * @param updateTime components update time in nanoseconds
+     */
+    protected void setUpdateTime ( final long updateTime )
+    {
+        this.updateTime = updateTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString ()
+    {
+        return oldLanguage + " -> " + newLanguage + " [table: " + getTableTime () + " ms" + ( cachedTable ? " (cached)" : "" ) +
+                ", changed keys: " + changedKeys + ", updated components: " + updatedComponents + "/" + components + ", update: " +
+                getUpdateTime () + " ms]";
+    }
+}
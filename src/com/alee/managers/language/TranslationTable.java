@@ -0,0 +1,198 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.language;
+
+import com.alee.managers.language.data.Dictionary;
+import com.alee.managers.language.data.Record;
+import com.alee.managers.language.data.Value;
+
+import java.util.*;
+
+/**
+ * Immutable flat translation table for a single language.
+ * <p/>
+ * Table is built once from all dictionaries and contains final values for all full record keys, including dictionary prefixes. Since table
+ * is never modified after construction it can be safely read from any thread and replaced with another table in a single step.
+ *
+ * @author Mikle Garin
+ * @see LanguageManager
+ */
+
+public final class TranslationTable
+{
+    /**
+     * Table language.
+     */
+    private final String language;
+
+    /**
+     * Translations by full record keys.
+     */
+    private final Map<String, Value> values;
+
+    /**
+     * Constructs empty translation table for the specified language.
+     *
+     * @param language table language
+     */
+    public TranslationTable ( final String language )
+    {
+        super ();
+        this.language = language;
+        this.values = Collections.emptyMap ();
+    }
+
+    /**
+     * Constructs translation table for the specified language from the specified dictionaries.
+     * Records of the later dictionaries override records with the same keys from earlier ones.
+     *
+     * @param language     table language
+     * @param dictionaries dictionaries
+     */
+    public TranslationTable ( final String language, final List<Dictionary> dictionaries )
+    {
+        super ();
+        this.language = language;
+        this.values = new HashMap<String, Value> ();
+        for ( final Dictionary dictionary : dictionaries )
+        {
+            collect ( dictionary.getPrefix (), dictionary );
+        }
+    }
+
+    /**
+     * Constructs translation table which contains all translations from the specified table and records of the specified dictionary.
+     * Records of the specified dictionary override existing ones with the same keys.
+     *
+     * @param table      base translation table
+     * @param dictionary added dictionary
+     */
+    public TranslationTable ( final TranslationTable table, final Dictionary dictionary )
+    {
+        super ();
+        this.language = table.language;
+        this.values = new HashMap<String, Value> ( table.values );
+        collect ( dictionary.getPrefix (), dictionary );
+    }
+
+    /**
+     * Collects translations from the specified dictionary and all its sub-dictionaries.
+     * This method is only used while table is constructed.
+     *
+     * @param prefix     dictionary keys prefix
+     * @param dictionary dictionary
+     */
+    private void collect ( String prefix, final Dictionary dictionary )
+    {
+        // Determining prefix
+        prefix = prefix != null && !prefix.equals ( "" ) ? prefix + "." : "";
+
+        // Parsing current level records
+        if ( dictionary.getRecords () != null )
+        {
+            for ( final Record record : dictionary.getRecords () )
+            {
+                final Value value = record.getValue ( language );
+                if ( value != null && value.getHotkey () == null && record.getHotkey () != null )
+                {
+                    value.setHotkey ( record.getHotkey () );
+                }
+                values.put ( prefix + record.getKey (), value );
+            }
+        }
+
+        // Parsing subdictionaries
+        if ( dictionary.getSubdictionaries () != null )
+        {
+            for ( final Dictionary subDictionary : dictionary.getSubdictionaries () )
+            {
+                final String sp = subDictionary.getPrefix ();
+                final String subPrefix = prefix + ( sp != null && !sp.equals ( "" ) ? sp : "" );
+                collect ( subPrefix, subDictionary );
+            }
+        }
+    }
+
+    /**
+     * Returns table language.
+     *
+     * @return table language
+     */
+    public String getLanguage ()
+    {
+        return language;
+    }
+
+    /**
+     * Returns translation for the specified full key or null if there is no translation for it.
+     *
+     * @param key full language key
+     * @return translation for the specified full key or null if there is no translation for it
+     */
+    public Value get ( final String key )
+    {
+        return values.get ( key );
+    }
+
+    /**
+     * Returns amount of keys within this table.
+     *
+     * @return amount of keys within this table
+     */
+    public int size ()
+    {
+        return values.size ();
+    }
+
+    /**
+     * Returns unmodifiable set of keys within this table.
+     *
+     * @return unmodifiable set of keys within this table
+     */
+    public Set<String> keySet ()
+    {
+        return Collections.unmodifiableSet ( values.keySet () );
+    }
+
+    /**
+     * Returns keys which translations differ between this and the specified table.
+     * Translations are considered equal only if both tables contain the same value instance or both don't contain any value.
+     *
+     * @param table other translation table
+     * @return keys which translations differ between this and the specified table
+     */
+    public Set<String> getChangedKeys ( final TranslationTable table )
+    {
+        final Set<String> changed = new HashSet<String> ();
+        for ( final Map.Entry<String, Value> entry : values.entrySet () )
+        {
+            if ( entry.getValue () != table.values.get ( entry.getKey () ) )
+            {
+                changed.add ( entry.getKey () );
+            }
+        }
+        for ( final Map.Entry<String, Value> entry : table.values.entrySet () )
+        {
+            if ( entry.getValue () != null && !values.containsKey ( entry.getKey () ) )
+            {
+                changed.add ( entry.getKey () );
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.settings;
+
+/**
+ * This class contains save statistics of a single SettingsGroup.
+ * All statistics values are collected by SettingsManager and can be safely read from any thread.
+ *
+ * @author Mikle Garin
+ * @see SettingsManager#getGroupStatistics(String)
+ */
+
+public final class SettingsGroupStatistics
+{
+    /**
+     * SettingsGroup name.
+     */
+    private final String group;
+
+    /**
+     * Amount of performed file writes.
+     */
+    private long saveCount = 0;
+
+    /**
+     * Amount of saves skipped because group content didn't change since last write.
+     */
+    private long skippedCount = 0;
+
+    /**
+     * Amount of failed saves.
+     */
+    private long failedCount = 0;
+
+    /**
+     * Last save duration in nanoseconds.
+     */
+    private long lastSaveTime = 0;
+
+    /**
+     * Total saves duration in nanoseconds.
+     */
+    private long totalSaveTime = 0;
+
+    /**
+     * Last written file size in bytes.
+     */
+    private long lastBytesWritten = 0;
+
+    /**
+     * Total written bytes.
+     */
+    private long totalBytesWritten = 0;
+
+    /**
+     * Checksum of the last written or read group content.
+     */
+    private long checksum = -1;
+
+    /**
+     * Constructs statistics for the specified SettingsGroup.
+     *
+     * @param group SettingsGroup name
+     */
+    public SettingsGroupStatistics ( final String group )
+    {
+        super ();
+        this.group = group;
+    }
+
+    /**
+     * Returns SettingsGroup name.
+     *
+     * @return SettingsGroup name
+     */
+    public String getGroup ()
+    {
+        return group;
+    }
+
+    /**
+     * Returns amount of performed file writes.
+     *
+     * @return amount of performed file writes
+     */
+    public synchronized long getSaveCount ()
+    {
+        return saveCount;
+    }
+
+    /**
+     * Returns amount of saves skipped because group content didn't change since last write.
+     *
+     * @return amount of skipped saves
+     */
+    public synchronized long getSkippedCount ()
+    {
+        return skippedCount;
+    }
+
+    /**
+     * Returns amount of failed saves.
+     *
+     * @return amount of failed saves
+     */
+    public synchronized long getFailedCount ()
+    {
+        return failedCount;
+    }
+
+    /**
+     * Returns last save duration in milliseconds.
+     *
+     * @return last save duration in milliseconds
+     */
+    public synchronized double getLastSaveTime ()
+    {
+        return lastSaveTime / 1000000d;
+    }
+
+    /**
+     * Returns average save duration in milliseconds.
+     *
+     * @return average save duration in milliseconds
+     */
+    public synchronized double getAverageSaveTime ()
+    {
+        return saveCount > 0 ? totalSaveTime / 1000000d / saveCount : 0;
+    }
+
+    /**
+     * Returns total saves duration in milliseconds.
+     *
+     * @return total saves duration in milliseconds
+     */
+    public synchronized double getTotalSaveTime ()
+    {
+        return totalSaveTime / 1000000d;
+    }
+
+    /**
+     * Returns last written file size in bytes.
+     *
+     * @return last written file size in bytes
+     */
+    public synchronized long getLastBytesWritten ()
+    {
+        return lastBytesWritten;
+    }
+
+    /**
+     * Returns total written bytes.
+     *
+     * @return total written bytes
+     */
+    public synchronized long getTotalBytesWritten ()
+    {
+        return totalBytesWritten;
+    }
+
+    /**
+     * Resets collected statistics.
+     * Content checksum is kept so unchanged group will still not be rewritten.
+     */
+    public synchronized void reset ()
+    {
+        saveCount = 0;
+        skippedCount = 0;
+        failedCount = 0;
+        lastSaveTime = 0;
+        totalSaveTime = 0;
+        lastBytesWritten = 0;
+        totalBytesWritten = 0;
+    }
+
+    /**
+     * Returns checksum of the last written or read group content.
+     *
+     * @return checksum of the last written or read group content or -1 if it is unknown
+     */
+    protected synchronized long getChecksum ()
+    {
+        return checksum;
+    }
+
+    /**
+     * Sets checksum of the last written or read group content.
+     *
+     * @param checksum content checksum
+     */
+    protected synchronized void setChecksum ( final long checksum )
+    {
+        this.checksum = checksum;
+    }
+
+    /**
+     * Records successful group file write.
+     *
+     * @param time     save duration in nanoseconds
+     * @param bytes    written bytes
+     * @param checksum written content checksum
+     */
+    protected synchronized void saved ( final long time, final long bytes, final long checksum )
+    {
+        saveCount++;
+        lastSaveTime = time;
+        totalSaveTime += time;
+        lastBytesWritten = bytes;
+        totalBytesWritten += bytes;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Records save skipped due to unchanged group content.
+     */
+    protected synchronized void skipped ()
+    {
+        skippedCount++;
+    }
+
+    /**
+     * Records failed save.
+     */
+    protected synchronized void failed ()
+    {
+        failedCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString ()
+    {
+        return group + " [saves: " + saveCount + ", skipped: " + skippedCount + ", failed: " + failedCount + ", last: " +
+                getLastSaveTime () + " ms, average: " + getAverageSaveTime () + " ms, last size: " + lastBytesWritten +
+                " bytes, total written: " + totalBytesWritten + " bytes]";
+    }
+}
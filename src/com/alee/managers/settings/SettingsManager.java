@@ -21,16 +21,12 @@ import com.alee.utils.CollectionUtils;
 import com.alee.utils.FileUtils;
 import com.alee.utils.ReflectUtils;
 import com.alee.utils.XmlUtils;
-import com.alee.utils.swing.WebTimer;
 
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.io.File;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.*;
+import java.util.*;
 import java.util.List;
-import java.util.Map;
+import java.util.zip.CRC32;
 
 /**
  * This manager allows you to quickly and easily save any serializable data into settings files using simple XML format.
@@ -43,6 +39,10 @@ import java.util.Map;
  * Settings data aliasing (see XStream documentation and XmlUtils class) or SettingsGroup file location changes should be done before
  * requesting any of the settings, preferably right at the application startup. Otherwise data might not be properly read and settings will
  * appear empty.
+ * <p/>
+ * Changed settings groups are marked dirty and only those are written into file system. Writes are performed by a single background
+ * writer thread, each group is written into a temporary file first which then replaces the actual settings file, so settings file is
+ * never left partially written.
  *
  * @author Mikle Garin
  * @see ComponentSettingsManager
@@ -117,7 +117,12 @@ public final class SettingsManager
     private static boolean saveDefaultValues = true;
 
     /**
-     * Save-on-change scheduler lock object.
+     * Temporary files extension.
+     */
+    private static final String TEMP_FILES_EXTENSION = ".tmp";
+
+    /**
+     * Save-on-change writer lock object.
      */
     private static final Object saveOnChangeLock = new Object ();
 
@@ -128,14 +133,46 @@ public final class SettingsManager
     private static long saveOnChangeDelay = 500;
 
     /**
-     * Save-on-change scheduler timer.
+     * Maximum amount of settings groups waiting for the background writer.
+     * As soon as this amount is reached writer saves pending groups without waiting for the save-on-change delay.
      */
-    private static WebTimer groupSaveScheduler = null;
+    private static int maxPendingGroups = 16;
 
     /**
-     * Delayed settings groups to save.
+     * Settings groups which were changed since their last save.
      */
-    private static List<String> groupsToSaveOnChange = new ArrayList<String> ();
+    private static final Set<String> dirtyGroups = new HashSet<String> ();
+
+    /**
+     * Settings groups waiting for the background writer.
+     */
+    private static final Map<String, SettingsGroup> pendingGroups = new LinkedHashMap<String, SettingsGroup> ();
+
+    /**
+     * Time when background writer should save pending groups, relative to {@link System#nanoTime()}.
+     */
+    private static long pendingSaveTime = 0;
+
+    /**
+     * Background settings writer thread.
+     */
+    private static Thread settingsWriter = null;
+
+    /**
+     * Whether background settings writer was stopped or not.
+     * Once stopped all further settings changes are saved right away.
+     */
+    private static boolean settingsWriterStopped = false;
+
+    /**
+     * Settings files which were changed since their last save.
+     */
+    private static final Set<String> dirtyFiles = new HashSet<String> ();
+
+    /**
+     * Settings groups save statistics.
+     */
+    private static final Map<String, SettingsGroupStatistics> groupStatistics = new HashMap<String, SettingsGroupStatistics> ();
 
     /**
      * Whether should display settings load and save exceptions or not.
@@ -177,7 +214,9 @@ public final class SettingsManager
                 @Override
                 public void run ()
                 {
-                    saveSettings ();
+                    // Writer might be saving some group right now, so it has to finish before remaining changes are saved
+                    stopSettingsWriter ();
+                    saveChangedSettings ();
                 }
             } ) );
         }
@@ -798,7 +837,7 @@ public final class SettingsManager
         initialize ();
 
         // Get SettingsGroup safely
-        final SettingsGroup settingsGroup = getSettingsGroup ( group );
+        final SettingsGroup settingsGroup = getSettingsGroupImpl ( group );
 
         // Get value
         Object value = settingsGroup.get ( key );
@@ -891,17 +930,18 @@ public final class SettingsManager
         initialize ();
 
         // Get SettingsGroup safely
-        final SettingsGroup settingsGroup = getSettingsGroup ( group );
+        final SettingsGroup settingsGroup = getSettingsGroupImpl ( group );
 
         // Put new value
-        final T oldValue = settingsGroup.put ( key, object );
-
-        // Save group if needed
-        if ( saveOnChange )
+        final T oldValue;
+        synchronized ( settingsGroup )
         {
-            delayedSaveSettingsGroup ( group );
+            oldValue = settingsGroup.put ( key, object );
         }
 
+        // Marking group as changed and saving it if needed
+        markDirty ( settingsGroup, saveOnChange );
+
         // Inform about changes
         fireSettingsChanged ( group, key, object );
 
@@ -910,11 +950,34 @@ public final class SettingsManager
 
     /**
      * Returns settings group for the specified name.
+     * Returned group might be modified directly, so it is marked as changed and will be saved along with other changed groups. Its file
+     * is not rewritten if its content didn't actually change though. If group reference is kept and modified after it was saved, this
+     * method or {@link #saveSettingsGroup(SettingsGroup)} should be called again to save those changes.
      *
      * @param group settings group name
      * @return settings group for the specified name
      */
     public static SettingsGroup getSettingsGroup ( final String group )
+    {
+        // Check manager initialization
+        initialize ();
+
+        // Get SettingsGroup safely
+        final SettingsGroup settingsGroup = getSettingsGroupImpl ( group );
+
+        // Marking group as changed since it might be modified by the caller
+        markDirty ( settingsGroup, false );
+
+        return settingsGroup;
+    }
+
+    /**
+     * Returns settings group for the specified name without marking it as changed.
+     *
+     * @param group settings group name
+     * @return settings group for the specified name
+     */
+    private static SettingsGroup getSettingsGroupImpl ( final String group )
     {
         if ( groups.containsKey ( group ) )
         {
@@ -965,7 +1028,11 @@ public final class SettingsManager
                     try
                     {
                         // Read single SettingsGroup
-                        settingsGroup = XmlUtils.fromXML ( file );
+                        final byte[] data = readSettingsFile ( file );
+                        settingsGroup = XmlUtils.fromXMLStream ( new ByteArrayInputStream ( data ), SettingsGroup.class );
+
+                        // Remembering read content checksum to avoid rewriting unchanged group
+                        getGroupStatistics ( group ).setChecksum ( getChecksum ( data, data.length ) );
 
                         // Saving settings group read state
                         groupState.put ( group, new SettingsGroupState ( readFromDump ? ReadState.restored : ReadState.ok ) );
@@ -1012,23 +1079,62 @@ public final class SettingsManager
 
     /**
      * Saves all settings groups and files.
+     * Settings groups which content didn't change since their last save or load are not rewritten.
      */
     public static void saveSettings ()
     {
+        // Saving all component settings into their groups
+        ComponentSettingsManager.saveSettings ();
+
         // Saving all settings groups
-        for ( final Map.Entry<String, SettingsGroup> entry : groups.entrySet () )
+        for ( final SettingsGroup settingsGroup : getLoadedGroups () )
         {
-            saveSettingsGroup ( entry.getValue () );
+            saveSettingsGroup ( settingsGroup );
         }
 
         // Saving all settings files
-        for ( final Map.Entry<String, Object> entry : files.entrySet () )
+        for ( final Map.Entry<String, Object> entry : CollectionUtils.copy ( files.entrySet () ) )
         {
             saveSettings ( entry.getKey (), entry.getValue () );
         }
+    }
 
-        // Saving all component settings
+    /**
+     * Saves only settings groups and files which were changed since their last save.
+     */
+    public static void saveChangedSettings ()
+    {
+        // Saving all component settings into their groups
         ComponentSettingsManager.saveSettings ();
+
+        // Saving changed settings groups
+        final List<SettingsGroup> changed = new ArrayList<SettingsGroup> ();
+        synchronized ( saveOnChangeLock )
+        {
+            for ( final String group : dirtyGroups )
+            {
+                final SettingsGroup settingsGroup = groups.get ( group );
+                if ( settingsGroup != null )
+                {
+                    changed.add ( settingsGroup );
+                }
+            }
+        }
+        for ( final SettingsGroup settingsGroup : changed )
+        {
+            saveSettingsGroup ( settingsGroup );
+        }
+
+        // Saving changed settings files
+        final List<String> changedFiles;
+        synchronized ( saveOnChangeLock )
+        {
+            changedFiles = new ArrayList<String> ( dirtyFiles );
+        }
+        for ( final String fileName : changedFiles )
+        {
+            saveSettings ( fileName, files.get ( fileName ) );
+        }
     }
 
     /**
@@ -1038,11 +1144,12 @@ public final class SettingsManager
      */
     public static void saveSettingsGroup ( final String group )
     {
-        saveSettingsGroup ( getSettingsGroup ( group ) );
+        saveSettingsGroup ( getSettingsGroupImpl ( group ) );
     }
 
     /**
      * Saves specified settings group.
+     * Settings group is not rewritten if its content didn't change since its last save or load.
      *
      * @param settingsGroup settings group to save
      */
@@ -1050,105 +1157,364 @@ public final class SettingsManager
     {
         if ( allowSave )
         {
-            try
+            final String group = settingsGroup.getName ();
+            final SettingsGroupStatistics statistics = getGroupStatistics ( group );
+
+            // Group is saved right now so it should not be saved by writer anymore
+            // Any changes made during the save will mark it as dirty again
+            synchronized ( saveOnChangeLock )
             {
-                // Used values
-                final String group = settingsGroup.getName ();
-                final File dir = new File ( getGroupFileLocation ( group ) );
+                dirtyGroups.remove ( group );
+                pendingGroups.remove ( group );
+            }
 
-                // Ensure group settings directory exists and perform save
-                if ( FileUtils.ensureDirectoryExists ( dir ) )
+            // Saves of the same group are performed one by one
+            synchronized ( statistics )
+            {
+                try
                 {
-                    // Settings file
-                    final File file = new File ( dir, group + settingsFilesExtension );
+                    final long start = System.nanoTime ();
 
-                    // Creating settings dump if there are old settings
-                    File dumpFile = null;
-                    if ( file.exists () )
+                    // Serializing group content
+                    // Group is locked to make sure its content won't be modified during serialization
+                    final ByteArrayOutputStream data = new ByteArrayOutputStream ( 1024 );
+                    synchronized ( settingsGroup )
                     {
-                        dumpFile = new File ( dir, group + settingsFilesExtension + backupFilesExtension );
-                        FileUtils.copyFile ( file, dumpFile );
+                        final OutputStreamWriter writer = new OutputStreamWriter ( data, "UTF-8" );
+                        XmlUtils.toXML ( settingsGroup, writer );
+                        writer.flush ();
                     }
 
-                    // Saving settings
-                    XmlUtils.toXML ( settingsGroup, file );
+                    // Skipping save if file content will not change
+                    final File dir = new File ( getGroupFileLocation ( group ) );
+                    final File file = new File ( dir, group + settingsFilesExtension );
+                    final byte[] bytes = data.toByteArray ();
+                    final long checksum = getChecksum ( bytes, data.size () );
+                    if ( checksum == statistics.getChecksum () && file.exists () )
+                    {
+                        statistics.skipped ();
+                        return;
+                    }
 
-                    // Clearing dump file
-                    if ( dumpFile != null && dumpFile.exists () )
+                    // Writing settings file
+                    writeSettingsFile ( file, bytes, data.size () );
+                    statistics.saved ( System.nanoTime () - start, data.size (), checksum );
+                }
+                catch ( final Throwable e )
+                {
+                    // Group should be saved again later
+                    synchronized ( saveOnChangeLock )
                     {
-                        FileUtils.deleteFile ( dumpFile );
+                        dirtyGroups.add ( group );
+                    }
+                    statistics.failed ();
+
+                    if ( displayExceptions )
+                    {
+                        System.err.println ( ERROR_PREFIX + "Unable to save settings group \"" + group +
+                                "\" due to unexpected exception:" );
+                        e.printStackTrace ();
                     }
                 }
-                else
+            }
+        }
+    }
+
+    /**
+     * Writes settings file content.
+     * <p/>
+     * Content is written into temporary file first which then replaces the settings file. If file cannot be replaced in one step then
+     * old settings file is moved into backup file first, so it will be restored on the next load in case save doesn't complete.
+     *
+     * @param file   settings file
+     * @param data   settings file content
+     * @param length settings file content length
+     * @throws IOException if settings file cannot be written
+     */
+    private static void writeSettingsFile ( final File file, final byte[] data, final int length ) throws IOException
+    {
+        // Ensure settings directory exists
+        final File dir = file.getAbsoluteFile ().getParentFile ();
+        if ( !FileUtils.ensureDirectoryExists ( dir ) )
+        {
+            throw new IOException ( "Cannot create settings directory: " + dir.getAbsolutePath () );
+        }
+
+        // Writing new content into temporary file
+        final File tempFile = new File ( dir, file.getName () + TEMP_FILES_EXTENSION );
+        final FileOutputStream fos = new FileOutputStream ( tempFile );
+        try
+        {
+            fos.write ( data, 0, length );
+            fos.flush ();
+            fos.getFD ().sync ();
+        }
+        finally
+        {
+            fos.close ();
+        }
+
+        // Replacing settings file with the new one
+        if ( !tempFile.renameTo ( file ) )
+        {
+            // Some file systems cannot replace existing file on rename, moving old file into backup first
+            final File dumpFile = new File ( dir, file.getName () + backupFilesExtension );
+            if ( file.exists () )
+            {
+                FileUtils.deleteFile ( dumpFile );
+                if ( !file.renameTo ( dumpFile ) && !FileUtils.copyFile ( file, dumpFile ) )
                 {
-                    throw new RuntimeException ( "Cannot create settings directory: " + dir.getAbsolutePath () );
+                    FileUtils.deleteFile ( tempFile );
+                    throw new IOException ( "Cannot create settings backup: " + dumpFile.getAbsolutePath () );
                 }
+                FileUtils.deleteFile ( file );
             }
-            catch ( Throwable e )
+            if ( !tempFile.renameTo ( file ) )
             {
-                if ( displayExceptions )
+                final boolean copied = FileUtils.copyFile ( tempFile, file );
+                FileUtils.deleteFile ( tempFile );
+                if ( !copied )
                 {
-                    System.err.println ( ERROR_PREFIX + "Unable to save settings group \"" + settingsGroup.getName () +
-                            "\" due to unexpected exception:" );
-                    e.printStackTrace ();
+                    throw new IOException ( "Cannot replace settings file: " + file.getAbsolutePath () );
                 }
             }
+            FileUtils.deleteFile ( dumpFile );
         }
     }
 
     /**
-     * Delays settings group save or performs it immediately according to settings manager configuration.
+     * Returns settings file content.
      *
-     * @param group name of the settings group to save
+     * @param file settings file
+     * @return settings file content
+     * @throws IOException if settings file cannot be read
      */
-    private static void delayedSaveSettingsGroup ( final String group )
+    private static byte[] readSettingsFile ( final File file ) throws IOException
     {
-        // Determining when we should save changes into file system
-        if ( saveOnChangeDelay > 0 )
+        final FileInputStream fis = new FileInputStream ( file );
+        try
         {
-            // Delaying save
-            synchronized ( saveOnChangeLock )
+            final byte[] data = new byte[ ( int ) file.length () ];
+            int read = 0;
+            while ( read < data.length )
+            {
+                final int count = fis.read ( data, read, data.length - read );
+                if ( count < 0 )
+                {
+                    throw new EOFException ( "Settings file was truncated while reading: " + file.getAbsolutePath () );
+                }
+                read += count;
+            }
+            return data;
+        }
+        finally
+        {
+            fis.close ();
+        }
+    }
+
+    /**
+     * Returns checksum for the specified data.
+     *
+     * @param data   data
+     * @param length data length
+     * @return checksum for the specified data
+     */
+    private static long getChecksum ( final byte[] data, final int length )
+    {
+        final CRC32 crc = new CRC32 ();
+        crc.update ( data, 0, length );
+        return crc.getValue () ^ ( ( long ) length << 32 );
+    }
+
+    /**
+     * Marks specified settings group as changed and passes it to the background writer if requested.
+     *
+     * @param settingsGroup changed settings group
+     * @param save          whether should save settings group or not
+     */
+    private static void markDirty ( final SettingsGroup settingsGroup, final boolean save )
+    {
+        final String group = settingsGroup.getName ();
+        final boolean delayed;
+        synchronized ( saveOnChangeLock )
+        {
+            dirtyGroups.add ( group );
+            delayed = save && allowSave && saveOnChangeDelay > 0 && !settingsWriterStopped;
+            if ( delayed )
             {
-                // Adding group for delayed save
-                if ( !groupsToSaveOnChange.contains ( group ) )
+                // Delaying save, all changes made within the delay are saved together
+                if ( pendingGroups.isEmpty () )
+                {
+                    pendingSaveTime = System.nanoTime () + saveOnChangeDelay * 1000000;
+                }
+                pendingGroups.put ( group, settingsGroup );
+
+                // Saving without delay when writer falls behind
+                if ( pendingGroups.size () >= maxPendingGroups )
                 {
-                    groupsToSaveOnChange.add ( group );
+                    pendingSaveTime = System.nanoTime ();
                 }
 
-                // Launching scheduler if it is not yet launched
-                if ( groupSaveScheduler == null || !groupSaveScheduler.isRunning () )
+                // Launching writer if it is not yet launched
+                if ( settingsWriter == null )
                 {
-                    if ( groupSaveScheduler == null )
+                    settingsWriter = new Thread ( new Runnable ()
                     {
-                        groupSaveScheduler = new WebTimer ( "SettingsManager.groupSaveScheduler", saveOnChangeDelay, new ActionListener ()
+                        @Override
+                        public void run ()
                         {
-                            @Override
-                            public void actionPerformed ( final ActionEvent e )
-                            {
-                                synchronized ( saveOnChangeLock )
-                                {
-                                    for ( final String group : groupsToSaveOnChange )
-                                    {
-                                        saveSettingsGroup ( group );
-                                    }
-                                    groupsToSaveOnChange.clear ();
-                                }
-                            }
-                        } );
-                        groupSaveScheduler.setRepeats ( false );
+                            writePendingGroups ();
+                        }
+                    }, "SettingsManager.writer" );
+                    settingsWriter.setDaemon ( true );
+                    settingsWriter.start ();
+                }
+                else
+                {
+                    saveOnChangeLock.notifyAll ();
+                }
+            }
+        }
+
+        // Saving right away
+        if ( save && !delayed )
+        {
+            saveSettingsGroup ( settingsGroup );
+        }
+    }
+
+    /**
+     * Background writer main loop.
+     */
+    private static void writePendingGroups ()
+    {
+        final List<SettingsGroup> toSave = new ArrayList<SettingsGroup> ();
+        while ( true )
+        {
+            // Waiting for pending groups
+            synchronized ( saveOnChangeLock )
+            {
+                try
+                {
+                    if ( settingsWriterStopped )
+                    {
+                        // Pending groups are still marked as dirty and will be saved by whoever stopped the writer
+                        return;
                     }
-                    else
+                    if ( pendingGroups.isEmpty () )
                     {
-                        groupSaveScheduler.setDelay ( saveOnChangeDelay );
+                        saveOnChangeLock.wait ();
+                        continue;
                     }
-                    groupSaveScheduler.start ();
+                    final long wait = pendingSaveTime - System.nanoTime ();
+                    if ( wait > 0 )
+                    {
+                        saveOnChangeLock.wait ( Math.max ( 1, wait / 1000000 ) );
+                        continue;
+                    }
+                    toSave.addAll ( pendingGroups.values () );
+                    pendingGroups.clear ();
+                }
+                catch ( final InterruptedException e )
+                {
+                    // Writer should never be interrupted
+                    continue;
                 }
             }
+
+            // Saving groups
+            for ( final SettingsGroup settingsGroup : toSave )
+            {
+                saveSettingsGroup ( settingsGroup );
+            }
+            toSave.clear ();
         }
-        else
+    }
+
+    /**
+     * Stops background writer and waits until it finishes saving groups it has already taken.
+     * Groups left pending are not saved by this method, they are still marked as changed though.
+     */
+    private static void stopSettingsWriter ()
+    {
+        final Thread writer;
+        synchronized ( saveOnChangeLock )
+        {
+            settingsWriterStopped = true;
+            writer = settingsWriter;
+            saveOnChangeLock.notifyAll ();
+        }
+        if ( writer != null && writer != Thread.currentThread () )
+        {
+            try
+            {
+                writer.join ();
+            }
+            catch ( final InterruptedException e )
+            {
+                // Shutdown should not be delayed any further
+            }
+        }
+    }
+
+    /**
+     * Returns whether settings group with the specified name was changed since its last save or not.
+     *
+     * @param group settings group name
+     * @return true if settings group with the specified name was changed since its last save, false otherwise
+     */
+    public static boolean isChanged ( final String group )
+    {
+        synchronized ( saveOnChangeLock )
         {
-            // Saving right away
-            saveSettingsGroup ( group );
+            return dirtyGroups.contains ( group );
+        }
+    }
+
+    /**
+     * Returns amount of settings groups waiting for the background writer.
+     *
+     * @return amount of settings groups waiting for the background writer
+     */
+    public static int getPendingGroupsCount ()
+    {
+        synchronized ( saveOnChangeLock )
+        {
+            return pendingGroups.size ();
+        }
+    }
+
+    /**
+     * Returns save statistics for the settings group with the specified name.
+     *
+     * @param group settings group name
+     * @return save statistics for the settings group with the specified name
+     */
+    public static SettingsGroupStatistics getGroupStatistics ( final String group )
+    {
+        synchronized ( groupStatistics )
+        {
+            SettingsGroupStatistics statistics = groupStatistics.get ( group );
+            if ( statistics == null )
+            {
+                statistics = new SettingsGroupStatistics ( group );
+                groupStatistics.put ( group, statistics );
+            }
+            return statistics;
+        }
+    }
+
+    /**
+     * Returns save statistics for all settings groups.
+     *
+     * @return save statistics for all settings groups
+     */
+    public static List<SettingsGroupStatistics> getGroupStatistics ()
+    {
+        synchronized ( groupStatistics )
+        {
+            return new ArrayList<SettingsGroupStatistics> ( groupStatistics.values () );
         }
     }
 
@@ -1217,6 +1583,10 @@ public final class SettingsManager
     public static void setSettings ( final String fileName, final Object settings )
     {
         files.put ( fileName, settings );
+        synchronized ( saveOnChangeLock )
+        {
+            dirtyFiles.add ( fileName );
+        }
         if ( saveOnChange )
         {
             saveSettings ( fileName, settings );
@@ -1233,7 +1603,26 @@ public final class SettingsManager
     {
         if ( allowSave )
         {
-            XmlUtils.toXML ( settings, getSettingsFile ( fileName ) );
+            synchronized ( saveOnChangeLock )
+            {
+                dirtyFiles.remove ( fileName );
+            }
+            try
+            {
+                final ByteArrayOutputStream data = new ByteArrayOutputStream ( 1024 );
+                final OutputStreamWriter writer = new OutputStreamWriter ( data, "UTF-8" );
+                XmlUtils.toXML ( settings, writer );
+                writer.flush ();
+                writeSettingsFile ( getSettingsFile ( fileName ), data.toByteArray (), data.size () );
+            }
+            catch ( final Throwable e )
+            {
+                if ( displayExceptions )
+                {
+                    System.err.println ( ERROR_PREFIX + "Unable to save settings file \"" + fileName + "\" due to unexpected exception:" );
+                    e.printStackTrace ();
+                }
+            }
         }
     }
 
@@ -1457,6 +1846,27 @@ public final class SettingsManager
         SettingsManager.saveOnChangeDelay = saveOnChangeDelay;
     }
 
+    /**
+     * Returns maximum amount of settings groups waiting for the background writer.
+     *
+     * @return maximum amount of settings groups waiting for the background writer
+     */
+    public static int getMaxPendingGroups ()
+    {
+        return maxPendingGroups;
+    }
+
+    /**
+     * Sets maximum amount of settings groups waiting for the background writer.
+     * As soon as this amount is reached writer saves pending groups without waiting for the save-on-change delay.
+     *
+     * @param maxPendingGroups maximum amount of settings groups waiting for the background writer
+     */
+    public static void setMaxPendingGroups ( final int maxPendingGroups )
+    {
+        SettingsManager.maxPendingGroups = Math.max ( 1, maxPendingGroups );
+    }
+
     /**
      * Returns whether should display settings load and save error messages or not.
      *
@@ -17,7 +17,6 @@
 
 package com.alee.managers.tooltip;
 
-import com.alee.laf.label.WebLabel;
 import com.alee.managers.glasspane.GlassPaneManager;
 import com.alee.managers.glasspane.WebGlassPane;
 import com.alee.managers.hotkey.Hotkey;
@@ -31,6 +30,7 @@ import com.alee.utils.swing.WebTimer;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +40,9 @@ import java.util.WeakHashMap;
  * This manager allows you to set extended tooltips for any Swing component with any possible content (would it be simple text or some
  * JComponent ancestor) or show one-time tooltips at custom location inside any window. Also this manager is integrated with HotkeyManager
  * and provides an opportunity to automatically show components hotkeys on their tooltips set with this class.
+ * <p/>
+ * Registered tooltips are created lazily and build their content only when displayed for the first time. Instead of listeners and timers
+ * for each component a single global mouse listener tracks the hovered component and a single timer displays its tooltips.
  *
  * @author Mikle Garin
  * @see GlassPaneManager
@@ -56,8 +59,12 @@ public final class TooltipManager
 
     // Standart tooltips
     private static final Map<Component, List<WebCustomTooltip>> webTooltips = new WeakHashMap<Component, List<WebCustomTooltip>> ();
-    private static final Map<Component, MouseAdapter> adapters = new WeakHashMap<Component, MouseAdapter> ();
-    private static final Map<Component, WebTimer> timers = new WeakHashMap<Component, WebTimer> ();
+    private static final Map<Component, Integer> delays = new WeakHashMap<Component, Integer> ();
+
+    // Hovered component and tooltips display timer
+    private static WeakReference<Component> hovered = null;
+    private static WeakReference<Component> delayed = null;
+    private static WebTimer showTimer = null;
 
     // One-time tooltips
     private static final List<WebCustomTooltip> oneTimeTooltips = new ArrayList<WebCustomTooltip> ();
@@ -75,7 +82,28 @@ public final class TooltipManager
         {
             initialized = true;
 
-            // Tooltips hide listener
+            // Tooltips display timer
+            showTimer = new WebTimer ( "TooltipManager.displayTimer", defaultDelay );
+            showTimer.addActionListener ( new ActionListener ()
+            {
+                @Override
+                public void actionPerformed ( final ActionEvent e )
+                {
+                    final Component component = delayed != null ? delayed.get () : null;
+                    delayed = null;
+                    if ( component != null )
+                    {
+                        final Window wa = SwingUtils.getWindowAncestor ( component );
+                        if ( wa != null && wa.isActive () )
+                        {
+                            showTooltips ( component, false );
+                        }
+                    }
+                }
+            } );
+            showTimer.setRepeats ( false );
+
+            // Tooltips show/hide listener
             Toolkit.getDefaultToolkit ().addAWTEventListener ( new AWTEventListener ()
             {
                 @Override
@@ -85,37 +113,148 @@ public final class TooltipManager
                     {
                         hideAllTooltips ();
                     }
+                    else if ( event instanceof MouseEvent )
+                    {
+                        mouseEventDispatched ( ( MouseEvent ) event );
+                    }
                 }
-            }, AWTEvent.MOUSE_WHEEL_EVENT_MASK );
+            }, AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK );
         }
     }
 
     /**
-     * Hides all visible tooltips
+     * Updates hovered component and starts or cancels its tooltips display
      */
 
-    public static void hideAllTooltips ()
+    private static void mouseEventDispatched ( final MouseEvent e )
     {
-        // Hiding standart tooltips
-        for ( final Component component : CollectionUtils.copy ( webTooltips.keySet () ) )
+        final Component current = hovered != null ? hovered.get () : null;
+        if ( current == null && webTooltips.isEmpty () )
+        {
+            return;
+        }
+        switch ( e.getID () )
         {
-            // Stopping any timers
-            final WebTimer timer = timers.get ( component );
-            if ( timer != null )
+            case MouseEvent.MOUSE_PRESSED:
+            case MouseEvent.MOUSE_RELEASED:
+            {
+                // Hiding hovered component tooltips
+                if ( current != null )
+                {
+                    cancelTooltips ( current );
+                }
+                break;
+            }
+            case MouseEvent.MOUSE_ENTERED:
+            case MouseEvent.MOUSE_EXITED:
+            case MouseEvent.MOUSE_MOVED:
             {
-                timer.stop ();
+                // Checking hovered component change
+                final Component component = e.getID () == MouseEvent.MOUSE_EXITED && e.getComponent () instanceof Window ? null :
+                        getTooltipComponentAt ( e );
+                if ( component != current )
+                {
+                    if ( current != null )
+                    {
+                        cancelTooltips ( current );
+                    }
+                    hovered = component != null ? new WeakReference<Component> ( component ) : null;
+                    if ( component != null )
+                    {
+                        // Starting show timer if needed
+                        final Window window = SwingUtils.getWindowAncestor ( component );
+                        if ( window != null && window.isShowing () && window.isActive () )
+                        {
+                            startTimer ( component );
+                        }
+                    }
+                }
+                break;
             }
+        }
+    }
+
+    /**
+     * Returns component with registered tooltips under the mouse or null if there is no such component
+     */
+
+    private static Component getTooltipComponentAt ( final MouseEvent e )
+    {
+        final Component source = e.getComponent ();
+        final Window window = source instanceof Window ? ( Window ) source : SwingUtils.getWindowAncestor ( source );
+        if ( window == null )
+        {
+            return null;
+        }
+        final Point point = SwingUtilities.convertPoint ( source, e.getPoint (), window );
+        Component component = SwingUtilities.getDeepestComponentAt ( window, point.x, point.y );
+        while ( component != null )
+        {
+            if ( webTooltips.containsKey ( component ) )
+            {
+                return component;
+            }
+            component = component instanceof Window ? null : component.getParent ();
+        }
+        return null;
+    }
+
+    /**
+     * Starts delayed tooltips display for the specified component
+     */
+
+    private static void startTimer ( final Component component )
+    {
+        final Integer delay = delays.get ( component );
+        delayed = new WeakReference<Component> ( component );
+        showTimer.setInitialDelay ( delay != null ? delay : defaultDelay );
+        showTimer.restart ();
+    }
+
+    /**
+     * Cancels delayed display and hides tooltips of the specified component
+     */
+
+    private static void cancelTooltips ( final Component component )
+    {
+        if ( delayed != null && delayed.get () == component )
+        {
+            showTimer.stop ();
+            delayed = null;
+        }
+        hideTooltips ( component );
+    }
+
+    /**
+     * Hides all visible tooltips
+     */
+
+    public static void hideAllTooltips ()
+    {
+        // Stopping display timer
+        if ( showTimer != null )
+        {
+            showTimer.stop ();
+            delayed = null;
+        }
 
-            // Closing tooltips
-            final List<WebCustomTooltip> list = webTooltips.get ( component );
-            if ( list != null && list.size () > 0 )
+        // Hiding standart tooltips
+        // Only displayed tooltips are collected since tooltips that were never displayed don't have anything to close
+        final List<WebCustomTooltip> displayed = new ArrayList<WebCustomTooltip> ();
+        for ( final List<WebCustomTooltip> list : webTooltips.values () )
+        {
+            for ( final WebCustomTooltip tooltip : list )
             {
-                for ( final WebCustomTooltip tooltip : CollectionUtils.copy ( list ) )
+                if ( tooltip.getParent () != null )
                 {
-                    tooltip.closeTooltip ();
+                    displayed.add ( tooltip );
                 }
             }
         }
+        for ( final WebCustomTooltip tooltip : displayed )
+        {
+            tooltip.closeTooltip ();
+        }
 
         // Hiding one-time tooltips
         final List<WebCustomTooltip> clonedOneTimeTooltips = new ArrayList<WebCustomTooltip> ();
@@ -160,7 +299,7 @@ public final class TooltipManager
     public static WebCustomTooltip setTooltip ( final Component component, final Icon icon, final String tooltip,
                                                 final TooltipWay tooltipWay, final int delay )
     {
-        return setTooltip ( component, new WebLabel ( tooltip, icon ), tooltipWay, delay );
+        return addTooltip ( component, new WebCustomTooltip ( component, icon, tooltip, tooltipWay, showHotkeysInTooltips ), delay, true );
     }
 
     public static WebCustomTooltip setTooltip ( final Component component, final JComponent tooltip )
@@ -181,7 +320,7 @@ public final class TooltipManager
     public static WebCustomTooltip setTooltip ( final Component component, final JComponent tooltip, final TooltipWay tooltipWay,
                                                 final int delay )
     {
-        return addTooltip ( component, tooltip, tooltipWay, delay, true );
+        return addTooltip ( component, new WebCustomTooltip ( component, tooltip, tooltipWay, showHotkeysInTooltips ), delay, true );
     }
 
     public static WebCustomTooltip addTooltip ( final Component component, final String tooltip )
@@ -214,7 +353,8 @@ public final class TooltipManager
     public static WebCustomTooltip addTooltip ( final Component component, final Icon icon, final String tooltip,
                                                 final TooltipWay tooltipWay, final int delay )
     {
-        return addTooltip ( component, new WebLabel ( tooltip, icon ), tooltipWay, delay );
+        final WebCustomTooltip customTooltip = new WebCustomTooltip ( component, icon, tooltip, tooltipWay, showHotkeysInTooltips );
+        return addTooltip ( component, customTooltip, delay, isClearRequired ( component ) );
     }
 
     public static WebCustomTooltip addTooltip ( final Component component, final JComponent tooltip )
@@ -234,15 +374,23 @@ public final class TooltipManager
 
     public static WebCustomTooltip addTooltip ( final Component component, final JComponent tooltip, final TooltipWay tooltipWay,
                                                 final int delay )
+    {
+        final WebCustomTooltip customTooltip = new WebCustomTooltip ( component, tooltip, tooltipWay, showHotkeysInTooltips );
+        return addTooltip ( component, customTooltip, delay, isClearRequired ( component ) );
+    }
+
+    private static boolean isClearRequired ( final Component component )
     {
         final List<WebCustomTooltip> tooltips = webTooltips.get ( component );
-        final boolean clear = tooltips != null && tooltips.size () > 0 && !allowMultiplyTooltips;
-        return addTooltip ( component, tooltip, tooltipWay, delay, clear );
+        return tooltips != null && tooltips.size () > 0 && !allowMultiplyTooltips;
     }
 
-    private static WebCustomTooltip addTooltip ( final Component component, final JComponent tooltip, final TooltipWay tooltipWay,
-                                                 final int delay, final boolean clear )
+    private static WebCustomTooltip addTooltip ( final Component component, final WebCustomTooltip customTooltip, final int delay,
+                                                 final boolean clear )
     {
+        // Installing shared hover listener if it isn't installed yet
+        initialize ();
+
         // Erase old tooltip if more than one not allowed in this case
         if ( clear )
         {
@@ -250,78 +398,20 @@ public final class TooltipManager
         }
 
         // Create tooltips list if needed
-        if ( webTooltips.get ( component ) == null )
+        List<WebCustomTooltip> tooltips = webTooltips.get ( component );
+        if ( tooltips == null )
         {
-            webTooltips.put ( component, new ArrayList<WebCustomTooltip> () );
+            tooltips = new ArrayList<WebCustomTooltip> ( 1 );
+            webTooltips.put ( component, tooltips );
         }
 
-        // Creating tooltip component
-        final WebCustomTooltip customTooltip = new WebCustomTooltip ( component, tooltip, tooltipWay, showHotkeysInTooltips );
-        webTooltips.get ( component ).add ( customTooltip );
+        // Registering tooltip
+        tooltips.add ( customTooltip );
 
-        // Creating listeners for component if they aren't created yet
-        if ( !timers.containsKey ( component ) || !adapters.containsKey ( component ) )
+        // Display delay is taken from the first registered component tooltip
+        if ( !delays.containsKey ( component ) )
         {
-            // Tooltip pop timer
-            final WebTimer showTips = new WebTimer ( "TooltipManager.displayTimer", delay );
-            showTips.addActionListener ( new ActionListener ()
-            {
-                @Override
-                public void actionPerformed ( final ActionEvent e )
-                {
-                    final Window wa = SwingUtils.getWindowAncestor ( component );
-                    if ( wa != null && wa.isActive () )
-                    {
-                        showTooltips ( component, false );
-                    }
-                }
-            } );
-            showTips.setRepeats ( false );
-            timers.put ( component, showTips );
-
-            // Show/hide listener
-            final MouseAdapter mouseAdapter = new MouseAdapter ()
-            {
-                @Override
-                public void mouseEntered ( final MouseEvent e )
-                {
-                    // Component ancestor window
-                    final Window window = SwingUtils.getWindowAncestor ( component );
-
-                    // Starting show timer if needed
-                    if ( window.isShowing () && window.isActive () )
-                    {
-                        showTips.start ();
-                    }
-                }
-
-                @Override
-                public void mouseExited ( final MouseEvent e )
-                {
-                    cancelTooltips ();
-                }
-
-                @Override
-                public void mousePressed ( final MouseEvent e )
-                {
-                    cancelTooltips ();
-                }
-
-                @Override
-                public void mouseReleased ( final MouseEvent e )
-                {
-                    cancelTooltips ();
-                }
-
-                private void cancelTooltips ()
-                {
-                    // Hiding component tooltips
-                    showTips.stop ();
-                    hideTooltips ( component );
-                }
-            };
-            component.addMouseListener ( mouseAdapter );
-            adapters.put ( component, mouseAdapter );
+            delays.put ( component, delay );
         }
 
         return customTooltip;
@@ -355,7 +445,7 @@ public final class TooltipManager
         {
             if ( delayed )
             {
-                timers.get ( component ).restart ();
+                startTimer ( component );
             }
             else
             {
@@ -504,16 +594,15 @@ public final class TooltipManager
         final List<WebCustomTooltip> tooltips = webTooltips.get ( component );
         if ( tooltips != null && tooltips.contains ( tooltip ) )
         {
-            // Removing all listeners in case its last component tooltip
+            // Cancelling delayed display in case its last component tooltip
             if ( tooltips.size () <= 1 )
             {
-                // Removing mouse listeners
-                component.removeMouseListener ( adapters.get ( component ) );
-                adapters.remove ( component );
-
-                // Clearing timers
-                timers.get ( component ).stop ();
-                timers.remove ( component );
+                if ( delayed != null && delayed.get () == component )
+                {
+                    showTimer.stop ();
+                    delayed = null;
+                }
+                delays.remove ( component );
             }
 
             // Removing registered tooltip
@@ -44,6 +44,9 @@ import java.util.List;
 
 /**
  * User: mgarin Date: 10.12.10 Time: 20:47
+ * <p/>
+ * Tooltip content, hotkey label, fade timer and component listeners are created only when tooltip is displayed for the first time, so
+ * registering tooltips which are never displayed is cheap.
  */
 
 public class WebCustomTooltip extends JComponent implements ShapeProvider
@@ -60,6 +63,9 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
     // Tooltip settings
     private String id = null;
     private JComponent tooltip = null;
+    private Icon defaultIcon = null;
+    private String defaultText = null;
+    private boolean contentInstalled = false;
     private WeakReference<Component> component = null;
     private Point displayLocation = null;
     private TooltipWay displayWay = WebCustomTooltipStyle.displayWay;
@@ -105,7 +111,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
 
     public WebCustomTooltip ( final Component component, final Icon icon, final String tooltip )
     {
-        this ( component, createDefaultComponent ( icon, tooltip ) );
+        this ( component, icon, tooltip, WebCustomTooltipStyle.displayWay );
     }
 
     public WebCustomTooltip ( final Component component, final String tooltip, final TooltipWay tooltipWay )
@@ -115,7 +121,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
 
     public WebCustomTooltip ( final Component component, final Icon icon, final String tooltip, final TooltipWay tooltipWay )
     {
-        this ( component, createDefaultComponent ( icon, tooltip ), tooltipWay );
+        this ( component, icon, tooltip, tooltipWay, WebCustomTooltipStyle.showHotkey );
     }
 
     public WebCustomTooltip ( final Component component, final String tooltip, final boolean showHotkey )
@@ -125,7 +131,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
 
     public WebCustomTooltip ( final Component component, final Icon icon, final String tooltip, final boolean showHotkey )
     {
-        this ( component, createDefaultComponent ( icon, tooltip ), showHotkey );
+        this ( component, icon, tooltip, WebCustomTooltipStyle.displayWay, showHotkey );
     }
 
     public WebCustomTooltip ( final Component component, final String tooltip, final TooltipWay tooltipWay, final boolean showHotkey )
@@ -136,7 +142,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
     public WebCustomTooltip ( final Component component, final Icon icon, final String tooltip, final TooltipWay tooltipWay,
                               final boolean showHotkey )
     {
-        this ( component, createDefaultComponent ( icon, tooltip ), tooltipWay, showHotkey );
+        this ( component, null, icon, tooltip, tooltipWay, showHotkey );
     }
 
     public WebCustomTooltip ( final Component component, final JComponent tooltip )
@@ -155,22 +161,25 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
     }
 
     public WebCustomTooltip ( final Component component, final JComponent tooltip, final TooltipWay tooltipWay, final boolean showHotkey )
+    {
+        this ( component, tooltip, null, null, tooltipWay, showHotkey );
+    }
+
+    private WebCustomTooltip ( final Component component, final JComponent tooltip, final Icon icon, final String text,
+                               final TooltipWay tooltipWay, final boolean showHotkey )
     {
         super ();
 
         SwingUtils.setOrientation ( this );
-        SwingUtils.setForegroundRecursively ( tooltip, textColor );
         setOpaque ( false );
 
-        // Tooltip unique id
-        this.id = TextUtils.generateId ( ID_PREFIX );
-
         // Component to which this tooltip attached
         this.component = new WeakReference<Component> ( component );
 
-        // Tooltip component
+        // Tooltip component or default label data
         this.tooltip = tooltip;
-        this.tooltip.setFont ( WebFonts.getSystemTooltipFont () );
+        this.defaultIcon = icon;
+        this.defaultText = text;
 
         // Show component hotkey on tooltip
         this.showHotkey = showHotkey;
@@ -178,62 +187,21 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
         // Tooltip display direction
         this.displayWay = tooltipWay;
 
-        // Tooltip hotkey preview component
-        hotkey = new HotkeyTipLabel ();
-        hotkey.setFont ( WebFonts.getSystemAcceleratorFont () );
-
         // Components placement on tooltip
         setLayout ( new BorderLayout ( 6, 6 ) );
-        add ( tooltip, BorderLayout.CENTER );
 
-        // Fade in-out timer
-        fadeTimer = new WebTimer ( "WebCustomTooltip.fade", 1000 / fadeFps );
-        fadeTimer.addActionListener ( new ActionListener ()
-        {
-            @Override
-            public void actionPerformed ( final ActionEvent e )
-            {
-                final float roundsCount = fadeTime / ( 1000f / fadeFps );
-                final float fadeSpeed = 1f / roundsCount;
-                if ( fadeStateType.equals ( FadeStateType.fadeIn ) )
-                {
-                    if ( fade < 1f )
-                    {
-                        fade = Math.min ( fade + fadeSpeed, 1f );
-                        WebCustomTooltip.this.repaint ();
-                    }
-                    else
-                    {
-                        fireTooltipFullyShown ();
-                        fadeTimer.stop ();
-                    }
-                }
-                else if ( fadeStateType.equals ( FadeStateType.fadeOut ) )
-                {
-                    if ( fade > 0 )
-                    {
-                        fade = Math.max ( fade - fadeSpeed, 0f );
-                        WebCustomTooltip.this.repaint ();
-                    }
-                    else
-                    {
-                        final JComponent parent = ( JComponent ) WebCustomTooltip.this.getParent ();
-                        if ( parent != null )
-                        {
-                            final Rectangle b = WebCustomTooltip.this.getBounds ();
-                            parent.remove ( WebCustomTooltip.this );
-                            parent.repaint ( b );
-                        }
-                        fadeTimer.stop ();
-                    }
-                }
-            }
-        } );
+        // Tooltip show/hide listener
         addAncestorListener ( new AncestorListener ()
         {
             @Override
             public void ancestorAdded ( final AncestorEvent event )
             {
+                // Creating tooltip content on first display
+                installContent ();
+
+                // Closing tooltip when component is moved or removed
+                installComponentListener ();
+
                 // Updating tooltip hotkey
                 updateHotkey ();
 
@@ -244,7 +212,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
                 // Starting fade-in animation
                 fade = 0;
                 fadeStateType = FadeStateType.fadeIn;
-                fadeTimer.start ();
+                getFadeTimer ().start ();
 
                 // Informing listeners that tooltip was shown
                 fireTooltipShown ();
@@ -257,6 +225,9 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
                 // This check is added for the case when parent glasspane is moved forcing this listener to be called
                 if ( WebCustomTooltip.this.getParent () == null )
                 {
+                    // Component listener is only needed while tooltip is displayed
+                    uninstallComponentListener ();
+
                     // Informing listeners that tooltip was hidden
                     fireTooltipHidden ();
                 }
@@ -270,30 +241,144 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
                 updateLocation ();
             }
         } );
+    }
 
-        // Parent component ancestor listener
-        if ( component instanceof JComponent )
+    /**
+     * Creates tooltip content if it wasn't created yet
+     */
+
+    private void installContent ()
+    {
+        if ( !contentInstalled )
+        {
+            contentInstalled = true;
+            if ( tooltip == null )
+            {
+                tooltip = createDefaultComponent ( defaultIcon, defaultText );
+                defaultIcon = null;
+                defaultText = null;
+            }
+            SwingUtils.setForegroundRecursively ( tooltip, textColor );
+            tooltip.setFont ( WebFonts.getSystemTooltipFont () );
+            add ( tooltip, BorderLayout.CENTER );
+        }
+    }
+
+    /**
+     * Returns tooltip hotkey preview component, creates it if needed
+     */
+
+    private HotkeyTipLabel getHotkey ()
+    {
+        if ( hotkey == null )
         {
-            ancestorListener = new AncestorAdapter ()
+            hotkey = new HotkeyTipLabel ();
+            hotkey.setFont ( WebFonts.getSystemAcceleratorFont () );
+        }
+        return hotkey;
+    }
+
+    /**
+     * Returns fade in-out timer, creates it if needed
+     */
+
+    private WebTimer getFadeTimer ()
+    {
+        if ( fadeTimer == null )
+        {
+            fadeTimer = new WebTimer ( "WebCustomTooltip.fade", 1000 / fadeFps );
+            fadeTimer.addActionListener ( new ActionListener ()
             {
                 @Override
-                public void ancestorRemoved ( final AncestorEvent event )
+                public void actionPerformed ( final ActionEvent e )
                 {
-                    // Closing tooltip
-                    closeTooltip ();
+                    final float roundsCount = fadeTime / ( 1000f / fadeFps );
+                    final float fadeSpeed = 1f / roundsCount;
+                    if ( fadeStateType.equals ( FadeStateType.fadeIn ) )
+                    {
+                        if ( fade < 1f )
+                        {
+                            fade = Math.min ( fade + fadeSpeed, 1f );
+                            WebCustomTooltip.this.repaint ();
+                        }
+                        else
+                        {
+                            fireTooltipFullyShown ();
+                            fadeTimer.stop ();
+                        }
+                    }
+                    else if ( fadeStateType.equals ( FadeStateType.fadeOut ) )
+                    {
+                        if ( fade > 0 )
+                        {
+                            fade = Math.max ( fade - fadeSpeed, 0f );
+                            WebCustomTooltip.this.repaint ();
+                        }
+                        else
+                        {
+                            final JComponent parent = ( JComponent ) WebCustomTooltip.this.getParent ();
+                            if ( parent != null )
+                            {
+                                final Rectangle b = WebCustomTooltip.this.getBounds ();
+                                parent.remove ( WebCustomTooltip.this );
+                                parent.repaint ( b );
+                            }
+                            fadeTimer.stop ();
+                        }
+                    }
                 }
+            } );
+        }
+        return fadeTimer;
+    }
 
-                @Override
-                public void ancestorMoved ( final AncestorEvent event )
+    /**
+     * Installs listener that closes tooltip when component is moved or removed
+     * Ancestor listener registers itself on every component ancestor, so it is only installed while tooltip is displayed
+     */
+
+    private void installComponentListener ()
+    {
+        final Component component = getComponent ();
+        if ( component instanceof JComponent )
+        {
+            if ( ancestorListener == null )
+            {
+                ancestorListener = new AncestorAdapter ()
                 {
-                    // Closing tooltip
-                    closeTooltip ();
-                }
-            };
+                    @Override
+                    public void ancestorRemoved ( final AncestorEvent event )
+                    {
+                        // Closing tooltip
+                        closeTooltip ();
+                    }
+
+                    @Override
+                    public void ancestorMoved ( final AncestorEvent event )
+                    {
+                        // Closing tooltip
+                        closeTooltip ();
+                    }
+                };
+            }
+            ( ( JComponent ) component ).removeAncestorListener ( ancestorListener );
             ( ( JComponent ) component ).addAncestorListener ( ancestorListener );
         }
     }
 
+    /**
+     * Uninstalls listener that closes tooltip when component is moved or removed
+     */
+
+    private void uninstallComponentListener ()
+    {
+        final Component component = getComponent ();
+        if ( ancestorListener != null && component instanceof JComponent )
+        {
+            ( ( JComponent ) component ).removeAncestorListener ( ancestorListener );
+        }
+    }
+
     /**
      * Tooltip hotkey label update
      */
@@ -304,6 +389,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
         if ( showHotkey && !hotkeyText.trim ().equals ( "" ) )
         {
             // Updatings hotkey
+            final HotkeyTipLabel hotkey = getHotkey ();
             hotkey.setText ( hotkeyText );
 
             // Adding or re-adding hotkey label to tooltip
@@ -313,7 +399,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
             }
             WebCustomTooltip.this.add ( hotkey, getActualHotkeyLocation () );
         }
-        else
+        else if ( hotkey != null )
         {
             // Removing hotkey label from tooltip
             WebCustomTooltip.this.remove ( hotkey );
@@ -349,6 +435,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
         }
 
         fadeStateType = FadeStateType.fadeOut;
+        final WebTimer fadeTimer = getFadeTimer ();
         if ( !fadeTimer.isRunning () )
         {
             fadeTimer.start ();
@@ -361,11 +448,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
 
     public void destroyTooltip ()
     {
-        final Component component = getComponent ();
-        if ( component instanceof JComponent )
-        {
-            ( ( JComponent ) component ).removeAncestorListener ( ancestorListener );
-        }
+        uninstallComponentListener ();
         fireTooltipDestroyed ();
     }
 
@@ -687,6 +770,10 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
 
     public String getId ()
     {
+        if ( id == null )
+        {
+            id = TextUtils.generateId ( ID_PREFIX );
+        }
         return id;
     }
 
@@ -696,13 +783,20 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
 
     public JComponent getTooltip ()
     {
+        installContent ();
         return tooltip;
     }
 
     public void setTooltip ( final String tooltip )
     {
+        // Updating default label text if it wasn't created yet
+        if ( !contentInstalled && this.tooltip == null )
+        {
+            defaultText = tooltip;
+        }
+
         // Updating label tooltip text
-        if ( this.tooltip != null && this.tooltip instanceof JLabel )
+        else if ( this.tooltip != null && this.tooltip instanceof JLabel )
         {
             ( ( JLabel ) this.tooltip ).setText ( tooltip );
             updateBorder ();
@@ -713,14 +807,19 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
     public void setTooltip ( final JComponent tooltip )
     {
         // Removing old tooltip
-        if ( this.tooltip != null )
+        if ( this.tooltip != null && contentInstalled )
         {
             remove ( this.tooltip );
         }
 
         // Adding new tooltip component
         this.tooltip = tooltip;
-        add ( tooltip, BorderLayout.CENTER );
+        this.defaultIcon = null;
+        this.defaultText = null;
+        if ( contentInstalled )
+        {
+            add ( tooltip, BorderLayout.CENTER );
+        }
         updateBorder ();
         updateLocation ();
     }
@@ -810,12 +909,12 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
 
     public Color getHotkeyColor ()
     {
-        return hotkey.getForeground ();
+        return getHotkey ().getForeground ();
     }
 
     public void setHotkeyColor ( final Color hotkeyColor )
     {
-        hotkey.setForeground ( hotkeyColor );
+        getHotkey ().setForeground ( hotkeyColor );
     }
 
     /**
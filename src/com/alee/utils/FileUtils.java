@@ -26,6 +26,8 @@ import com.alee.managers.language.LanguageManager;
 import com.alee.managers.proxy.ProxyManager;
 import com.alee.utils.file.FileDescription;
 import com.alee.utils.file.FileDownloadListener;
+import com.alee.utils.file.FileMetadata;
+import com.alee.utils.file.FileMetadataCache;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileSystemView;
@@ -43,9 +45,10 @@ import java.util.*;
 /**
  * This class provides a set of utilities to work with files, file names and their extensions.
  * <p>
- * Note that methods which request information about files from the system has their own caches to improve performance.
- * If you will need to clear that cache simply call the corresponding clearCache method, for example:
+ * Note that methods which request information about files from the system store their results in a single file metadata cache to
+ * improve performance. If you will need to clear that cache simply call the corresponding clearCache method, for example:
  * For method "isHidden" you will need to call "clearIsHiddenCache" and all cached values will be resetted.
+ * You can also call "clearFileCaches" to clear all cached values for a specific file.
  *
  * @author Mikle Garin
  */
@@ -64,7 +67,7 @@ public final class FileUtils
     /**
      * Display date format.
      */
-    private static SimpleDateFormat sdf = new SimpleDateFormat ( "dd MMM yyyy HH:mm" );
+    private static final SimpleDateFormat sdf = new SimpleDateFormat ( "dd MMM yyyy HH:mm" );
 
     /**
      * Buffer size for MD5 calculations.
@@ -104,59 +107,9 @@ public final class FileUtils
                     '{', '}', '[', ']', ']' };
 
     /**
-     * Cache for "isDrive" method result.
+     * File metadata cache used by all cached file methods.
      */
-    private static Map<String, Boolean> isDriveCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isComputer" method result.
-     */
-    private static Map<String, Boolean> isComputerCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isCdDrive" method result.
-     */
-    private static Map<String, Boolean> isCdDriveCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isFile" method result.
-     */
-    private static Map<String, Boolean> isFileCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isDirectory" method result.
-     */
-    private static Map<String, Boolean> isDirectoryCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isHidden" method result.
-     */
-    private static Map<String, Boolean> isHiddenCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "getDisplayFileName" method result.
-     */
-    private static Map<String, String> displayFileNameCache = new HashMap<String, String> ();
-
-    /**
-     * Cache for "getFileDescription" method result.
-     */
-    private static Map<String, FileDescription> fileDescriptionCache = new HashMap<String, FileDescription> ();
-
-    /**
-     * Cache for "getFileTypeDescription" method result.
-     */
-    private static Map<String, String> fileTypeDescriptionCache = new HashMap<String, String> ();
-
-    /**
-     * Cache for "getDisplayFileCreationDate" method result.
-     */
-    private static Map<String, String> displayFileCreationDateCache = new HashMap<String, String> ();
-
-    /**
-     * Cache for "getDisplayFileModificationDate" method result.
-     */
-    private static Map<String, String> displayFileModificationDateCache = new HashMap<String, String> ();
+    private static final FileMetadataCache metadataCache = createMetadataCache ();
 
     /**
      * File extension icons cache lock.
@@ -203,17 +156,49 @@ public final class FileUtils
      */
     public static void clearFileCaches ( final String path )
     {
-        clearDisplayFileNameCache ( path );
-        clearIsHiddenCache ( path );
-        clearIsFileCache ( path );
-        clearIsDirectoryCache ( path );
-        clearIsComputerCache ( path );
-        clearIsDriveCache ( path );
-        clearIsCdDriveCache ( path );
-        clearFileDescriptionCache ( path );
-        clearFileTypeDescriptionCache ( path );
-        clearDisplayFileCreationDateCache ( path );
-        clearDisplayFileModificationDateCache ( path );
+        metadataCache.remove ( path );
+    }
+
+    /**
+     * Clears all cached files metadata.
+     */
+    public static void clearFilesCaches ()
+    {
+        metadataCache.clear ();
+    }
+
+    /**
+     * Returns new file metadata cache which watches file changes if that is supported.
+     *
+     * @return new file metadata cache
+     */
+    private static FileMetadataCache createMetadataCache ()
+    {
+        final FileMetadataCache cache = new FileMetadataCache ();
+        cache.setWatchChanges ( true );
+        return cache;
+    }
+
+    /**
+     * Returns file metadata cache used by all cached file methods.
+     * It can be used to configure cache size and records time to live.
+     *
+     * @return file metadata cache
+     */
+    public static FileMetadataCache getMetadataCache ()
+    {
+        return metadataCache;
+    }
+
+    /**
+     * Returns cached metadata for the specified file.
+     *
+     * @param file file to process
+     * @return cached metadata for the specified file
+     */
+    public static FileMetadata getMetadata ( final File file )
+    {
+        return metadataCache.get ( file );
     }
 
     /**
@@ -1093,7 +1078,7 @@ public final class FileUtils
         final String name = getDisplayFileName ( file );
 
         // File or image size
-        final String size = file.isFile () ? getDisplayFileSize ( file ) + ( fileSize != null ? " (" + fileSize + ")" : "" ) : null;
+        final String size = isFile ( file ) ? getDisplayFileSize ( file ) + ( fileSize != null ? " (" + fileSize + ")" : "" ) : null;
 
         // File type description
         final String description = getFileTypeDescription ( file );
@@ -1113,8 +1098,17 @@ public final class FileUtils
      */
     public static String getDisplayFileSize ( final File file )
     {
-        // todo Cache this value
-        return getFileSizeString ( file.length () );
+        // Length is requested first since cached display size is cleared if it has changed
+        final FileMetadata metadata = getMetadata ( file );
+        final long length = metadata.getLength ();
+        if ( metadata.hasValue ( FileMetadata.DISPLAY_SIZE ) )
+        {
+            return metadata.getValue ( FileMetadata.DISPLAY_SIZE, String.class );
+        }
+        else
+        {
+            return metadata.setValue ( FileMetadata.DISPLAY_SIZE, getFileSizeString ( length ) );
+        }
     }
 
     /**
@@ -1126,8 +1120,7 @@ public final class FileUtils
      */
     public static String getDisplayFileSize ( final File file, final int digits )
     {
-        // todo Cache this value
-        return getFileSizeString ( file.length (), digits );
+        return getFileSizeString ( getMetadata ( file ).getLength (), digits );
     }
 
     /**
@@ -2040,7 +2033,7 @@ public final class FileUtils
      */
     public static void clearIsDriveCache ()
     {
-        isDriveCache.clear ();
+        metadataCache.clearValues ( FileMetadata.IS_DRIVE );
     }
 
     /**
@@ -2048,7 +2041,7 @@ public final class FileUtils
      */
     public static void clearIsDriveCache ( final String absolutePath )
     {
-        isDriveCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.IS_DRIVE );
     }
 
     /**
@@ -2059,16 +2052,14 @@ public final class FileUtils
      */
     public static boolean isDrive ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( isDriveCache.containsKey ( absolutePath ) )
+        final FileMetadata metadata = getMetadata ( file );
+        if ( metadata.hasValue ( FileMetadata.IS_DRIVE ) )
         {
-            return isDriveCache.get ( absolutePath );
+            return metadata.getValue ( FileMetadata.IS_DRIVE, Boolean.class );
         }
         else
         {
-            final boolean isDrive = fsv.isDrive ( file );
-            isDriveCache.put ( absolutePath, isDrive );
-            return isDrive;
+            return metadata.setValue ( FileMetadata.IS_DRIVE, fsv.isDrive ( file ) );
         }
     }
 
@@ -2077,7 +2068,7 @@ public final class FileUtils
      */
     public static void clearIsComputerCache ()
     {
-        isComputerCache.clear ();
+        metadataCache.clearValues ( FileMetadata.IS_COMPUTER );
     }
 
     /**
@@ -2085,7 +2076,7 @@ public final class FileUtils
      */
     public static void clearIsComputerCache ( final String absolutePath )
     {
-        isComputerCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.IS_COMPUTER );
     }
 
     /**
@@ -2096,16 +2087,14 @@ public final class FileUtils
      */
     public static boolean isComputer ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( isComputerCache.containsKey ( absolutePath ) )
+        final FileMetadata metadata = getMetadata ( file );
+        if ( metadata.hasValue ( FileMetadata.IS_COMPUTER ) )
         {
-            return isComputerCache.get ( absolutePath );
+            return metadata.getValue ( FileMetadata.IS_COMPUTER, Boolean.class );
         }
         else
         {
-            final boolean isComputer = fsv.isComputerNode ( file );
-            isComputerCache.put ( absolutePath, isComputer );
-            return isComputer;
+            return metadata.setValue ( FileMetadata.IS_COMPUTER, fsv.isComputerNode ( file ) );
         }
     }
 
@@ -2114,7 +2103,7 @@ public final class FileUtils
      */
     public static void clearIsCdDriveCache ()
     {
-        isCdDriveCache.clear ();
+        metadataCache.clearValues ( FileMetadata.IS_CD_DRIVE );
     }
 
     /**
@@ -2122,7 +2111,7 @@ public final class FileUtils
      */
     public static void clearIsCdDriveCache ( final String absolutePath )
     {
-        isCdDriveCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.IS_CD_DRIVE );
     }
 
     /**
@@ -2135,10 +2124,10 @@ public final class FileUtils
      */
     public static boolean isCdDrive ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( isCdDriveCache.containsKey ( absolutePath ) )
+        final FileMetadata metadata = getMetadata ( file );
+        if ( metadata.hasValue ( FileMetadata.IS_CD_DRIVE ) )
         {
-            return isCdDriveCache.get ( absolutePath );
+            return metadata.getValue ( FileMetadata.IS_CD_DRIVE, Boolean.class );
         }
         else
         {
@@ -2162,8 +2151,7 @@ public final class FileUtils
             {
                 isCdDrive = false;
             }
-            isCdDriveCache.put ( absolutePath, isCdDrive );
-            return isCdDrive;
+            return metadata.setValue ( FileMetadata.IS_CD_DRIVE, isCdDrive );
         }
     }
 
@@ -2172,7 +2160,7 @@ public final class FileUtils
      */
     public static void clearIsFileCache ()
     {
-        isFileCache.clear ();
+        metadataCache.clearValues ( FileMetadata.IS_FILE );
     }
 
     /**
@@ -2180,7 +2168,7 @@ public final class FileUtils
      */
     public static void clearIsFileCache ( final String absolutePath )
     {
-        isFileCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.IS_FILE );
     }
 
     /**
@@ -2191,20 +2179,7 @@ public final class FileUtils
      */
     public static boolean isFile ( final File file )
     {
-        if ( file == null )
-        {
-            return false;
-        }
-        else if ( isFileCache.containsKey ( file.getAbsolutePath () ) )
-        {
-            return isFileCache.get ( file.getAbsolutePath () );
-        }
-        else
-        {
-            final boolean isFile = file.isFile ();
-            isFileCache.put ( file.getAbsolutePath (), isFile );
-            return isFile;
-        }
+        return file != null && getMetadata ( file ).isFile ();
     }
 
     /**
@@ -2212,7 +2187,7 @@ public final class FileUtils
      */
     public static void clearIsDirectoryCache ()
     {
-        isDirectoryCache.clear ();
+        metadataCache.clearValues ( FileMetadata.IS_DIRECTORY );
     }
 
     /**
@@ -2220,7 +2195,7 @@ public final class FileUtils
      */
     public static void clearIsDirectoryCache ( final String absolutePath )
     {
-        isDirectoryCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.IS_DIRECTORY );
     }
 
     /**
@@ -2231,20 +2206,7 @@ public final class FileUtils
      */
     public static boolean isDirectory ( final File file )
     {
-        if ( file == null )
-        {
-            return false;
-        }
-        else if ( isDirectoryCache.containsKey ( file.getAbsolutePath () ) )
-        {
-            return isDirectoryCache.get ( file.getAbsolutePath () );
-        }
-        else
-        {
-            final boolean isDirectory = file.isDirectory ();
-            isDirectoryCache.put ( file.getAbsolutePath (), isDirectory );
-            return isDirectory;
-        }
+        return file != null && getMetadata ( file ).isDirectory ();
     }
 
     /**
@@ -2252,7 +2214,7 @@ public final class FileUtils
      */
     public static void clearIsHiddenCache ()
     {
-        isHiddenCache.clear ();
+        metadataCache.clearValues ( FileMetadata.IS_HIDDEN );
     }
 
     /**
@@ -2260,7 +2222,7 @@ public final class FileUtils
      */
     public static void clearIsHiddenCache ( final String absolutePath )
     {
-        isHiddenCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.IS_HIDDEN );
     }
 
     /**
@@ -2269,23 +2231,9 @@ public final class FileUtils
      * @param file file to process
      * @return true if the specified file is hidden, false otherwise
      */
-    public static boolean isHidden ( File file )
+    public static boolean isHidden ( final File file )
     {
-        if ( file == null )
-        {
-            return false;
-        }
-        else if ( isHiddenCache.containsKey ( file.getAbsolutePath () ) )
-        {
-            return isHiddenCache.get ( file.getAbsolutePath () );
-        }
-        else
-        {
-            file = file.getAbsoluteFile ();
-            final boolean isHidden = file.getParentFile () != null && file.isHidden ();
-            isHiddenCache.put ( file.getAbsolutePath (), isHidden );
-            return isHidden;
-        }
+        return file != null && getMetadata ( file ).isHidden ();
     }
 
     /**
@@ -2293,7 +2241,7 @@ public final class FileUtils
      */
     public static void clearFileDescriptionCache ()
     {
-        fileDescriptionCache.clear ();
+        metadataCache.clearValues ( FileMetadata.DESCRIPTION );
     }
 
     /**
@@ -2301,7 +2249,7 @@ public final class FileUtils
      */
     public static void clearFileDescriptionCache ( final String absolutePath )
     {
-        fileDescriptionCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.DESCRIPTION );
     }
 
     /**
@@ -2313,15 +2261,14 @@ public final class FileUtils
      */
     public static FileDescription getFileDescription ( final File file, final String fileSize )
     {
-        if ( fileDescriptionCache.containsKey ( file.getAbsolutePath () ) )
+        final FileMetadata metadata = getMetadata ( file );
+        if ( metadata.hasValue ( FileMetadata.DESCRIPTION ) )
         {
-            return fileDescriptionCache.get ( file.getAbsolutePath () );
+            return metadata.getValue ( FileMetadata.DESCRIPTION, FileDescription.class );
         }
         else
         {
-            final FileDescription fileDescription = createFileDescription ( file, fileSize );
-            fileDescriptionCache.put ( file.getAbsolutePath (), fileDescription );
-            return fileDescription;
+            return metadata.setValue ( FileMetadata.DESCRIPTION, createFileDescription ( file, fileSize ) );
         }
     }
 
@@ -2330,7 +2277,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileNameCache ()
     {
-        displayFileNameCache.clear ();
+        metadataCache.clearValues ( FileMetadata.DISPLAY_NAME );
     }
 
     /**
@@ -2338,7 +2285,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileNameCache ( final String absolutePath )
     {
-        displayFileNameCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.DISPLAY_NAME );
     }
 
     /**
@@ -2349,10 +2296,10 @@ public final class FileUtils
      */
     public static String getDisplayFileName ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( displayFileNameCache.containsKey ( absolutePath ) )
+        final FileMetadata metadata = getMetadata ( file );
+        if ( metadata.hasValue ( FileMetadata.DISPLAY_NAME ) )
         {
-            return displayFileNameCache.get ( absolutePath );
+            return metadata.getValue ( FileMetadata.DISPLAY_NAME, String.class );
         }
         else
         {
@@ -2361,8 +2308,7 @@ public final class FileUtils
             {
                 name = getFileTypeDescription ( file );
             }
-            displayFileNameCache.put ( absolutePath, name );
-            return name;
+            return metadata.setValue ( FileMetadata.DISPLAY_NAME, name );
         }
     }
 
@@ -2371,7 +2317,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileCreationDateCache ()
     {
-        displayFileCreationDateCache.clear ();
+        metadataCache.clearValues ( FileMetadata.DISPLAY_CREATION_DATE );
     }
 
     /**
@@ -2379,7 +2325,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileCreationDateCache ( final String absolutePath )
     {
-        displayFileCreationDateCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.DISPLAY_CREATION_DATE );
     }
 
     /**
@@ -2390,16 +2336,16 @@ public final class FileUtils
      */
     public static String getDisplayFileCreationDate ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( displayFileCreationDateCache.containsKey ( absolutePath ) )
+        // Modification time is requested first since cached display date is cleared if it has changed
+        final FileMetadata metadata = getMetadata ( file );
+        final long lastModified = metadata.getLastModified ();
+        if ( metadata.hasValue ( FileMetadata.DISPLAY_CREATION_DATE ) )
         {
-            return displayFileCreationDateCache.get ( absolutePath );
+            return metadata.getValue ( FileMetadata.DISPLAY_CREATION_DATE, String.class );
         }
         else
         {
-            final String date = sdf.format ( new Date ( file.lastModified () ) );
-            displayFileCreationDateCache.put ( absolutePath, date );
-            return date;
+            return metadata.setValue ( FileMetadata.DISPLAY_CREATION_DATE, formatDate ( lastModified ) );
         }
     }
 
@@ -2408,7 +2354,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileModificationDateCache ()
     {
-        displayFileModificationDateCache.clear ();
+        metadataCache.clearValues ( FileMetadata.DISPLAY_MODIFICATION_DATE );
     }
 
     /**
@@ -2416,7 +2362,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileModificationDateCache ( final String absolutePath )
     {
-        displayFileModificationDateCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.DISPLAY_MODIFICATION_DATE );
     }
 
     /**
@@ -2427,16 +2373,31 @@ public final class FileUtils
      */
     public static String getDisplayFileModificationDate ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( displayFileModificationDateCache.containsKey ( absolutePath ) )
+        // Modification time is requested first since cached display date is cleared if it has changed
+        final FileMetadata metadata = getMetadata ( file );
+        final long lastModified = metadata.getLastModified ();
+        if ( metadata.hasValue ( FileMetadata.DISPLAY_MODIFICATION_DATE ) )
         {
-            return displayFileModificationDateCache.get ( absolutePath );
+            return metadata.getValue ( FileMetadata.DISPLAY_MODIFICATION_DATE, String.class );
         }
         else
         {
-            final String date = sdf.format ( new Date ( file.lastModified () ) );
-            displayFileModificationDateCache.put ( absolutePath, date );
-            return date;
+            return metadata.setValue ( FileMetadata.DISPLAY_MODIFICATION_DATE, formatDate ( lastModified ) );
+        }
+    }
+
+    /**
+     * Returns date formatted for display.
+     * Date format is not thread-safe so its usage is synchronized.
+     *
+     * @param time date time
+     * @return date formatted for display
+     */
+    private static String formatDate ( final long time )
+    {
+        synchronized ( sdf )
+        {
+            return sdf.format ( new Date ( time ) );
         }
     }
 
@@ -2445,7 +2406,7 @@ public final class FileUtils
      */
     public static void clearFileTypeDescriptionCache ()
     {
-        fileTypeDescriptionCache.clear ();
+        metadataCache.clearValues ( FileMetadata.TYPE_DESCRIPTION );
     }
 
     /**
@@ -2453,7 +2414,7 @@ public final class FileUtils
      */
     public static void clearFileTypeDescriptionCache ( final String absolutePath )
     {
-        fileTypeDescriptionCache.remove ( absolutePath );
+        metadataCache.clearValue ( absolutePath, FileMetadata.TYPE_DESCRIPTION );
     }
 
     /**
@@ -2470,16 +2431,14 @@ public final class FileUtils
         }
         else
         {
-            final String absolutePath = file.getAbsolutePath ();
-            if ( fileTypeDescriptionCache.containsKey ( absolutePath ) )
+            final FileMetadata metadata = getMetadata ( file );
+            if ( metadata.hasValue ( FileMetadata.TYPE_DESCRIPTION ) )
             {
-                return fileTypeDescriptionCache.get ( absolutePath );
+                return metadata.getValue ( FileMetadata.TYPE_DESCRIPTION, String.class );
             }
             else
             {
-                final String description = fsv.getSystemTypeDescription ( file );
-                fileTypeDescriptionCache.put ( absolutePath, description );
-                return description;
+                return metadata.setValue ( FileMetadata.TYPE_DESCRIPTION, fsv.getSystemTypeDescription ( file ) );
             }
         }
     }
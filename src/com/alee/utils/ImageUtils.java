@@ -20,6 +20,7 @@ package com.alee.utils;
 import com.alee.graphics.filters.ShadowFilter;
 import com.alee.laf.GlobalConstants;
 import com.alee.laf.StyleConstants;
+import com.alee.utils.cache.ImageCache;
 import com.mortennobel.imagescaling.ResampleOp;
 
 import javax.imageio.ImageIO;
@@ -33,9 +34,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * User: mgarin Date: 05.07.11 Time: 13:22
@@ -271,7 +271,7 @@ public final class ImageUtils
      * Merges few images into single one
      */
 
-    private static Map<String, ImageIcon> mergedIconsCache = new HashMap<String, ImageIcon> ();
+    private static final ImageCache<String, ImageIcon> mergedIconsCache = new ImageCache<String, ImageIcon> ( "mergedIconsCache" );
 
     public static void clearMergedIconsCache ()
     {
@@ -286,9 +286,13 @@ public final class ImageUtils
     public static ImageIcon mergeIcons ( final String key, final List<ImageIcon> icons )
     {
         // Icon is cached already
-        if ( key != null && mergedIconsCache.containsKey ( key ) )
+        if ( key != null )
         {
-            return mergedIconsCache.get ( key );
+            final ImageIcon cached = mergedIconsCache.get ( key );
+            if ( cached != null )
+            {
+                return cached;
+            }
         }
 
         // No icons given
@@ -326,9 +330,13 @@ public final class ImageUtils
     public static ImageIcon mergeIcons ( final String key, final ImageIcon... icons )
     {
         // Icon is cached already
-        if ( key != null && mergedIconsCache.containsKey ( key ) )
+        if ( key != null )
         {
-            return mergedIconsCache.get ( key );
+            final ImageIcon cached = mergedIconsCache.get ( key );
+            if ( cached != null )
+            {
+                return cached;
+            }
         }
 
         // No icons given
@@ -358,7 +366,8 @@ public final class ImageUtils
         return icon;
     }
 
-    private static Map<String, BufferedImage> mergedImagesCache = new HashMap<String, BufferedImage> ();
+    private static final ImageCache<String, BufferedImage> mergedImagesCache =
+            new ImageCache<String, BufferedImage> ( "mergedImagesCache" );
 
     public static void clearMergedImagesCache ()
     {
@@ -373,9 +382,13 @@ public final class ImageUtils
     public static BufferedImage mergeImages ( final String key, final Image... images )
     {
         // Image is cached already
-        if ( key != null && mergedImagesCache.containsKey ( key ) )
+        if ( key != null )
         {
-            return mergedImagesCache.get ( key );
+            final BufferedImage cached = mergedImagesCache.get ( key );
+            if ( cached != null )
+            {
+                return cached;
+            }
         }
 
         // No images given
@@ -851,11 +864,11 @@ public final class ImageUtils
      * Image read methods
      */
 
-    private static Map<String, ImageIcon> iconsCache = new HashMap<String, ImageIcon> ();
+    private static final ImageCache<String, ImageIcon> iconsCache = new ImageCache<String, ImageIcon> ( "iconsCache" );
 
     public static boolean isImageCached ( final String src )
     {
-        return iconsCache.containsKey ( src ) && iconsCache.get ( src ) != null;
+        return iconsCache.contains ( src );
     }
 
     public static void setImageCache ( final String src, final ImageIcon imageIcon )
@@ -870,13 +883,10 @@ public final class ImageUtils
 
     public static void clearImageCache ( final String src )
     {
-        if ( iconsCache.size () > 0 && iconsCache.containsKey ( src ) )
+        final ImageIcon removed = iconsCache.remove ( src );
+        if ( removed != null && removed.getImage () != null )
         {
-            if ( iconsCache.get ( src ) != null && iconsCache.get ( src ).getImage () != null )
-            {
-                iconsCache.get ( src ).getImage ().flush ();
-            }
-            iconsCache.remove ( src );
+            removed.getImage ().flush ();
         }
     }
 
@@ -899,24 +909,14 @@ public final class ImageUtils
     {
         if ( src != null && !src.trim ().equals ( "" ) )
         {
-            final ImageIcon imageIcon;
-            if ( useCache && iconsCache.containsKey ( src ) )
+            final ImageIcon cached = useCache ? iconsCache.get ( src ) : null;
+            if ( cached != null )
             {
-                imageIcon = iconsCache.get ( src );
-                if ( imageIcon != null )
-                {
-                    return imageIcon;
-                }
-                else
-                {
-                    // todo This might cause performance issues
-                    iconsCache.remove ( src );
-                    return getImageIcon ( src, useCache );
-                }
+                return cached;
             }
             else
             {
-                imageIcon = createImageIcon ( src );
+                final ImageIcon imageIcon = createImageIcon ( src );
                 if ( useCache )
                 {
                     iconsCache.put ( src, imageIcon );
@@ -959,24 +959,14 @@ public final class ImageUtils
         if ( resource != null )
         {
             final String key = resource.toString ();
-            final ImageIcon imageIcon;
-            if ( useCache && iconsCache.containsKey ( key ) )
+            final ImageIcon cached = useCache ? iconsCache.get ( key ) : null;
+            if ( cached != null )
             {
-                imageIcon = iconsCache.get ( key );
-                if ( imageIcon != null )
-                {
-                    return imageIcon;
-                }
-                else
-                {
-                    // todo This might cause performance issues
-                    iconsCache.remove ( key );
-                    return getImageIcon ( key, useCache );
-                }
+                return cached;
             }
             else
             {
-                imageIcon = new ImageIcon ( resource );
+                final ImageIcon imageIcon = new ImageIcon ( resource );
                 if ( useCache )
                 {
                     iconsCache.put ( key, imageIcon );
@@ -1105,34 +1095,35 @@ public final class ImageUtils
      * Scaled preview creation
      */
 
-    private static final Map<String, ImageIcon> sizedPreviewCache = new HashMap<String, ImageIcon> ();
+    private static final ImageCache<String, ImageIcon> sizedPreviewCache = new ImageCache<String, ImageIcon> ( "sizedPreviewCache" );
 
     public static ImageIcon getSizedImagePreview ( final String src, final int length, final boolean drawBorder )
     {
-        if ( sizedPreviewCache.containsKey ( length + IMAGE_CACHE_SEPARATOR + src ) )
+        final String key = length + IMAGE_CACHE_SEPARATOR + src;
+        final ImageIcon cached = sizedPreviewCache.get ( key );
+        if ( cached != null )
         {
-            return sizedPreviewCache.get ( length + IMAGE_CACHE_SEPARATOR + src );
+            return cached;
         }
         else
         {
             final ImageIcon icon = createThumbnailIcon ( src, length );
             final ImageIcon sized = createSizedImagePreview ( icon, length, drawBorder );
-            sizedPreviewCache.put ( length + IMAGE_CACHE_SEPARATOR + src, sized );
-            return sized;
+            return sizedPreviewCache.put ( key, sized );
         }
     }
 
     public static ImageIcon getSizedImagePreview ( final String id, final ImageIcon icon, final int length, final boolean drawBorder )
     {
-        if ( sizedPreviewCache.containsKey ( id ) )
+        final ImageIcon cached = sizedPreviewCache.get ( id );
+        if ( cached != null )
         {
-            return sizedPreviewCache.get ( id );
+            return cached;
         }
         else
         {
             final ImageIcon sized = createSizedImagePreview ( icon, length, drawBorder );
-            sizedPreviewCache.put ( id, sized );
-            return sized;
+            return sizedPreviewCache.put ( id, sized );
         }
     }
 
@@ -1168,7 +1159,7 @@ public final class ImageUtils
      * Creates disabled image copy
      */
 
-    private static Map<String, ImageIcon> grayscaleCache = new HashMap<String, ImageIcon> ();
+    private static final ImageCache<String, ImageIcon> grayscaleCache = new ImageCache<String, ImageIcon> ( "grayscaleCache" );
 
     public static void clearDisabledCopyCache ()
     {
@@ -1182,14 +1173,14 @@ public final class ImageUtils
 
     public static ImageIcon getDisabledCopy ( final String key, final ImageIcon imageIcon )
     {
-        if ( grayscaleCache.containsKey ( key ) )
+        final ImageIcon cached = grayscaleCache.get ( key );
+        if ( cached != null )
         {
-            return grayscaleCache.get ( key );
+            return cached;
         }
         else
         {
-            grayscaleCache.put ( key, createDisabledCopy ( imageIcon ) );
-            return grayscaleCache.get ( key );
+            return grayscaleCache.put ( key, createDisabledCopy ( imageIcon ) );
         }
     }
 
@@ -1234,18 +1225,18 @@ public final class ImageUtils
      * Creating partially transparent ImageIcon
      */
 
-    private static Map<String, ImageIcon> trasparentCache = new HashMap<String, ImageIcon> ();
+    private static final ImageCache<String, ImageIcon> trasparentCache = new ImageCache<String, ImageIcon> ( "trasparentCache" );
 
     public static ImageIcon getTransparentCopy ( final String id, final ImageIcon imageIcon, final float trasparency )
     {
-        if ( trasparentCache.containsKey ( id ) )
+        final ImageIcon cached = trasparentCache.get ( id );
+        if ( cached != null )
         {
-            return trasparentCache.get ( id );
+            return cached;
         }
         else
         {
-            trasparentCache.put ( id, createTransparentCopy ( imageIcon, trasparency ) );
-            return trasparentCache.get ( id );
+            return trasparentCache.put ( id, createTransparentCopy ( imageIcon, trasparency ) );
         }
     }
 
@@ -1306,6 +1297,25 @@ public final class ImageUtils
      * Creating shade for specified shape
      */
 
+    private static final ImageCache<ImageShadeKey, BufferedImage> imageShadesCache =
+            new ImageCache<ImageShadeKey, BufferedImage> ( "imageShadesCache" );
+
+    /**
+     * Returns image shades cache.
+     * It can be used to check image shades cache statistics.
+     *
+     * @return image shades cache
+     */
+    public static ImageCache<?, BufferedImage> getImageShadesCache ()
+    {
+        return imageShadesCache;
+    }
+
+    public static void clearImageShadesCache ()
+    {
+        imageShadesCache.clear ();
+    }
+
     public static BufferedImage createImageShade ( final int w, final int h, final Shape shape, final int shadeWidth,
                                                    final float shadeOpacity )
     {
@@ -1315,12 +1325,38 @@ public final class ImageUtils
     public static BufferedImage createImageShade ( final int w, final int h, final Shape shape, final int shadeWidth,
                                                    final float shadeOpacity, final Color clearColor )
     {
-        // todo Properly use height
+        return copy ( getImageShade ( w, h, shape, shadeWidth, shadeOpacity, clearColor ) );
+    }
+
+    /**
+     * Returns cached shade image for the specified shape.
+     * Returned image is shared between all callers and should never be modified, use createImageShade method to retrieve a copy.
+     *
+     * @param w            shape area width
+     * @param h            shape area height
+     * @param shape        shade shape
+     * @param shadeWidth   shade width
+     * @param shadeOpacity shade opacity
+     * @param clearColor   color used to clear shape area, might be null
+     * @return cached shade image for the specified shape
+     */
+    public static BufferedImage getImageShade ( final int w, final int h, final Shape shape, final int shadeWidth,
+                                                final float shadeOpacity, final Color clearColor )
+    {
+        final ImageShadeKey key = new ImageShadeKey ( w, h, ShadeCache.getGeometry ( shape, 0, 0 ), shadeWidth, shadeOpacity, clearColor );
+        final BufferedImage cached = imageShadesCache.get ( key );
+        return cached != null ? cached : imageShadesCache.put ( key, createImageShadeImpl ( w, h, shape, shadeWidth, shadeOpacity,
+                clearColor ) );
+    }
+
+    private static BufferedImage createImageShadeImpl ( final int w, final int h, final Shape shape, final int shadeWidth,
+                                                        final float shadeOpacity, final Color clearColor )
+    {
         final int width = shadeWidth * 2 + w;
-        @SuppressWarnings ( "UnusedDeclaration" ) final int height = shadeWidth * 2 + h;
+        final int height = shadeWidth * 2 + h;
 
         // Creating template image
-        final BufferedImage bi = createCompatibleImage ( width, width, Transparency.TRANSLUCENT );
+        final BufferedImage bi = createCompatibleImage ( width, height, Transparency.TRANSLUCENT );
         final Graphics2D ig = bi.createGraphics ();
         LafUtils.setupAntialias ( ig );
         ig.translate ( shadeWidth, shadeWidth );
@@ -1347,6 +1383,79 @@ public final class ImageUtils
         return shade;
     }
 
+    /**
+     * Image shade key.
+     */
+    private static final class ImageShadeKey
+    {
+        /**
+         * Shade settings.
+         */
+        private final int width;
+        private final int height;
+        private final double[] geometry;
+        private final int shadeWidth;
+        private final int shadeOpacity;
+        private final Integer clearColor;
+        private final int hashCode;
+
+        /**
+         * Constructs new image shade key.
+         *
+         * @param width        shape area width
+         * @param height       shape area height
+         * @param geometry     shape geometry
+         * @param shadeWidth   shade width
+         * @param shadeOpacity shade opacity
+         * @param clearColor   color used to clear shape area, might be null
+         */
+        public ImageShadeKey ( final int width, final int height, final double[] geometry, final int shadeWidth,
+                               final float shadeOpacity, final Color clearColor )
+        {
+            super ();
+            this.width = width;
+            this.height = height;
+            this.geometry = geometry;
+            this.shadeWidth = shadeWidth;
+            this.shadeOpacity = Float.floatToIntBits ( shadeOpacity );
+            this.clearColor = clearColor != null ? clearColor.getRGB () : null;
+
+            int hash = width;
+            hash = 31 * hash + height;
+            hash = 31 * hash + Arrays.hashCode ( geometry );
+            hash = 31 * hash + shadeWidth;
+            hash = 31 * hash + this.shadeOpacity;
+            hash = 31 * hash + ( this.clearColor != null ? this.clearColor : 0 );
+            this.hashCode = hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals ( final Object obj )
+        {
+            if ( !( obj instanceof ImageShadeKey ) )
+            {
+                return false;
+            }
+            final ImageShadeKey other = ( ImageShadeKey ) obj;
+            return hashCode == other.hashCode && width == other.width && height == other.height && shadeWidth == other.shadeWidth &&
+                    shadeOpacity == other.shadeOpacity &&
+                    ( clearColor == null ? other.clearColor == null : clearColor.equals ( other.clearColor ) ) &&
+                    Arrays.equals ( geometry, other.geometry );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode ()
+        {
+            return hashCode;
+        }
+    }
+
     /**
      * Arrow icons and images creation methods
      */
@@ -1513,6 +1622,7 @@ public final class ImageUtils
 
     private static BufferedImage createArrowImage ( final GeneralPath shape, final GeneralPath border, final int shadeWidth )
     {
+        // Blurred shade is taken from cache, only border is painted on its copy
         final BufferedImage image = createImageShade ( 10, 10, shape, shadeWidth, 1f, Color.BLACK );
         final Graphics2D g2d = image.createGraphics ();
         LafUtils.setupAntialias ( g2d );
@@ -43,6 +43,24 @@ import java.util.Map;
 
 public final class LafUtils
 {
+    /**
+     * Web border shape cache key.
+     */
+    private static final String WEB_BORDER_SHAPE = "web-border";
+
+    /**
+     * Reusable web border shape settings.
+     * Border shapes might be requested from any thread, so each thread has its own settings array.
+     */
+    private static final ThreadLocal<int[]> webBorderShapeSettings = new ThreadLocal<int[]> ()
+    {
+        @Override
+        protected int[] initialValue ()
+        {
+            return new int[ 4 ];
+        }
+    };
+
     /**
      * Creates border for web components.
      */
@@ -692,6 +710,19 @@ public final class LafUtils
     }
 
     public static Shape getWebBorderShape ( final JComponent component, final int shadeWidth, final int round )
+    {
+        // Shape settings are put into reusable array, so cache hit doesn't create any objects
+        final int[] settings = webBorderShapeSettings.get ();
+        settings[ 0 ] = component.getWidth ();
+        settings[ 1 ] = component.getHeight ();
+        settings[ 2 ] = shadeWidth;
+        settings[ 3 ] = round;
+        final Shape shape = ShapeCache.getCachedShape ( component, WEB_BORDER_SHAPE, settings );
+        return shape != null ? shape :
+                ShapeCache.cacheShape ( component, WEB_BORDER_SHAPE, settings, createWebBorderShape ( component, shadeWidth, round ) );
+    }
+
+    public static Shape createWebBorderShape ( final JComponent component, final int shadeWidth, final int round )
     {
         if ( round > 0 )
         {
@@ -942,6 +973,17 @@ public final class LafUtils
             return;
         }
 
+        // Painting gradient shade from cached sprite if possible
+        if ( clip == null && shadeType.equals ( ShadeType.gradient ) )
+        {
+            final Paint paint = shadeColor != null ? shadeColor : g2d.getPaint ();
+            if ( paint instanceof Color && ShadeCache.paintShade ( g2d, shape, ( Color ) paint, width, round ) )
+            {
+                g2d.setPaint ( paint );
+                return;
+            }
+        }
+
         // Applying clip
         final Shape oldClip = clip != null ? intersectClip ( g2d, clip ) : subtractClip ( g2d, shape );
 
@@ -24,27 +24,65 @@ import com.alee.utils.reflection.JarStructure;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.security.CodeSource;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 /**
  * This class provides a set of utilities to simplify work with Reflection API.
  * There is also a few methods to retrieve full JAR archive structure.
+ * <p/>
+ * Loaded classes and resolved constructors and methods are cached, so repeated instantiation or method call with the same argument
+ * types doesn't search through class members again.
  *
  * @author Mikle Garin
  */
 
 public final class ReflectUtils
 {
+    /**
+     * Loaded classes cache.
+     * Contains classes loaded through ReflectUtils class loader by their canonical names, so it never holds classes of other loaders.
+     */
+    private static final Map<String, Class<?>> classesCache = new ConcurrentHashMap<String, Class<?>> ();
+
+    /**
+     * Resolved constructors and methods cache.
+     * Classes are referenced weakly and their members softly, so cached members don't prevent unloading of other class loaders.
+     * Access to this cache is synchronized on the cache itself.
+     */
+    private static final Map<Class<?>, SoftReference<Map<MemberKey, Member>>> membersCache =
+            new WeakHashMap<Class<?>, SoftReference<Map<MemberKey, Member>>> ();
+
+    /**
+     * Clears loaded classes and resolved constructors and methods caches.
+     * Cached members are released automatically under memory pressure, this method can be used to release them right away, for
+     * example when some class loader is discarded.
+     */
+    public static void clearCaches ()
+    {
+        classesCache.clear ();
+        synchronized ( membersCache )
+        {
+            membersCache.clear ();
+        }
+    }
+
     /**
      * Returns class for the specified canonical name.
      *
@@ -589,6 +627,26 @@ public final class ReflectUtils
      * @throws NoSuchMethodException
      */
     public static Constructor getConstructor ( final Class theClass, final Class... parameterTypes ) throws NoSuchMethodException
+    {
+        final MemberKey key = new MemberKey ( theClass, null, parameterTypes );
+        Constructor<?> constructor = ( Constructor<?> ) getCachedMember ( key );
+        if ( constructor == null )
+        {
+            constructor = findConstructor ( theClass, parameterTypes );
+            cacheMember ( new MemberKey ( theClass, null, parameterTypes.clone () ), constructor );
+        }
+        return constructor;
+    }
+
+    /**
+     * Returns class constructor for the specified argument types found among class public constructors.
+     *
+     * @param theClass       class to process
+     * @param parameterTypes constructor argument types
+     * @return class constructor for the specified argument types
+     * @throws NoSuchMethodException
+     */
+    private static Constructor<?> findConstructor ( final Class<?> theClass, final Class<?>... parameterTypes ) throws NoSuchMethodException
     {
         // todo Constructors priority check (by super types)
         // todo For now some constructor with [Object] arg might be used instead of constructor with [String]
@@ -709,45 +767,7 @@ public final class ReflectUtils
     public static <T> T callStaticMethod ( final Class theClass, final String methodName, final Object... arguments )
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException
     {
-        // todo Methods priority check (by super types)
-        // todo For now some method with [Object] arg might be used instead of method with [String]
-        if ( arguments.length == 0 )
-        {
-            // Calling simple method w/o arguments
-            return ( T ) theClass.getMethod ( methodName ).invoke ( null );
-        }
-        else
-        {
-            // Searching for more complex method
-            final Class[] types = getClassTypes ( arguments );
-            for ( final Method method : theClass.getMethods () )
-            {
-                // Checking method name
-                if ( method.getName ().equals ( methodName ) )
-                {
-                    // Checking method arguments count
-                    final Class<?>[] mt = method.getParameterTypes ();
-                    if ( mt.length == types.length )
-                    {
-                        // Checking that arguments fit
-                        boolean fits = true;
-                        for ( int i = 0; i < mt.length; i++ )
-                        {
-                            if ( !isAssignable ( mt[ i ], types[ i ] ) )
-                            {
-                                fits = false;
-                                break;
-                            }
-                        }
-                        if ( fits )
-                        {
-                            return ( T ) method.invoke ( null, arguments );
-                        }
-                    }
-                }
-            }
-            throw new NoSuchMethodException ( theClass.getName () + "." + methodName + argumentTypesToString ( types ) );
-        }
+        return ( T ) getMethod ( theClass, methodName, getClassTypes ( arguments ) ).invoke ( null, arguments );
     }
 
     /**
@@ -867,32 +887,68 @@ public final class ReflectUtils
      */
     public static <T> T callMethod ( final Object object, final String methodName, final Object... arguments )
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException
+    {
+        return ( T ) getMethod ( object.getClass (), methodName, getClassTypes ( arguments ) ).invoke ( object, arguments );
+    }
+
+    /**
+     * Returns class method for the specified name and argument types.
+     *
+     * @param theClass       class to process
+     * @param methodName     method name
+     * @param parameterTypes method argument types
+     * @return class method for the specified name and argument types
+     * @throws NoSuchMethodException
+     */
+    public static Method getMethod ( final Class<?> theClass, final String methodName, final Class<?>... parameterTypes )
+            throws NoSuchMethodException
+    {
+        final MemberKey key = new MemberKey ( theClass, methodName, parameterTypes );
+        Method method = ( Method ) getCachedMember ( key );
+        if ( method == null )
+        {
+            method = findMethod ( theClass, methodName, parameterTypes );
+            cacheMember ( new MemberKey ( theClass, methodName, parameterTypes.clone () ), method );
+        }
+        return method;
+    }
+
+    /**
+     * Returns class method for the specified name and argument types found among class public methods.
+     *
+     * @param theClass       class to process
+     * @param methodName     method name
+     * @param parameterTypes method argument types
+     * @return class method for the specified name and argument types
+     * @throws NoSuchMethodException
+     */
+    private static Method findMethod ( final Class<?> theClass, final String methodName, final Class<?>... parameterTypes )
+            throws NoSuchMethodException
     {
         // todo Methods priority check (by super types)
         // todo For now some method with [Object] arg might be used instead of method with [String]
-        if ( arguments.length == 0 )
+        if ( parameterTypes.length == 0 )
         {
-            // Calling simple method w/o arguments
-            return ( T ) object.getClass ().getMethod ( methodName ).invoke ( object );
+            // Simple method w/o arguments
+            return theClass.getMethod ( methodName );
         }
         else
         {
             // Searching for more complex method
-            final Class[] types = getClassTypes ( arguments );
-            for ( final Method method : object.getClass ().getMethods () )
+            for ( final Method method : theClass.getMethods () )
             {
                 // Checking method name
                 if ( method.getName ().equals ( methodName ) )
                 {
                     // Checking method arguments count
                     final Class<?>[] mt = method.getParameterTypes ();
-                    if ( mt.length == types.length )
+                    if ( mt.length == parameterTypes.length )
                     {
                         // Checking that arguments fit
                         boolean fits = true;
                         for ( int i = 0; i < mt.length; i++ )
                         {
-                            if ( !isAssignable ( mt[ i ], types[ i ] ) )
+                            if ( !isAssignable ( mt[ i ], parameterTypes[ i ] ) )
                             {
                                 fits = false;
                                 break;
@@ -900,12 +956,12 @@ public final class ReflectUtils
                         }
                         if ( fits )
                         {
-                            return ( T ) method.invoke ( object, arguments );
+                            return method;
                         }
                     }
                 }
             }
-            throw new NoSuchMethodException ( object.getClass ().getName () + "." + methodName + argumentTypesToString ( types ) );
+            throw new NoSuchMethodException ( theClass.getName () + "." + methodName + argumentTypesToString ( parameterTypes ) );
         }
     }
 
@@ -961,6 +1017,43 @@ public final class ReflectUtils
         return ReflectUtils.callMethodSafely ( object, "clone" );
     }
 
+    /**
+     * Returns cached member for the specified key or null if it is not cached.
+     *
+     * @param key member key
+     * @return cached member for the specified key or null if it is not cached
+     */
+    private static Member getCachedMember ( final MemberKey key )
+    {
+        synchronized ( membersCache )
+        {
+            final SoftReference<Map<MemberKey, Member>> reference = membersCache.get ( key.type );
+            final Map<MemberKey, Member> members = reference != null ? reference.get () : null;
+            return members != null ? members.get ( key ) : null;
+        }
+    }
+
+    /**
+     * Caches member under the specified key.
+     *
+     * @param key    member key
+     * @param member member to cache
+     */
+    private static void cacheMember ( final MemberKey key, final Member member )
+    {
+        synchronized ( membersCache )
+        {
+            final SoftReference<Map<MemberKey, Member>> reference = membersCache.get ( key.type );
+            Map<MemberKey, Member> members = reference != null ? reference.get () : null;
+            if ( members == null )
+            {
+                members = new HashMap<MemberKey, Member> ( 4 );
+                membersCache.put ( key.type, new SoftReference<Map<MemberKey, Member>> ( members ) );
+            }
+            members.put ( key, member );
+        }
+    }
+
     /**
      * Returns class loaded for the specified canonical class name.
      *
@@ -970,7 +1063,13 @@ public final class ReflectUtils
      */
     public static Class loadClass ( final String canonicalClassName ) throws ClassNotFoundException
     {
-        return ReflectUtils.class.getClassLoader ().loadClass ( canonicalClassName );
+        Class<?> theClass = classesCache.get ( canonicalClassName );
+        if ( theClass == null )
+        {
+            theClass = ReflectUtils.class.getClassLoader ().loadClass ( canonicalClassName );
+            classesCache.put ( canonicalClassName, theClass );
+        }
+        return theClass;
     }
 
     /**
@@ -1071,4 +1170,70 @@ public final class ReflectUtils
             return containsInClassOrSuperclassName ( theClass.getSuperclass (), text );
         }
     }
+
+    /**
+     * Resolved constructor or method cache key.
+     */
+    private static final class MemberKey
+    {
+        /**
+         * Class which contains member.
+         */
+        private final Class<?> type;
+
+        /**
+         * Method name or null for constructor.
+         */
+        private final String name;
+
+        /**
+         * Argument types.
+         */
+        private final Class<?>[] parameterTypes;
+
+        /**
+         * Key hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Constructs new member key.
+         *
+         * @param type           class which contains member
+         * @param name           method name or null for constructor
+         * @param parameterTypes argument types
+         */
+        public MemberKey ( final Class<?> type, final String name, final Class<?>[] parameterTypes )
+        {
+            super ();
+            this.type = type;
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.hashCode = 31 * ( 31 * type.hashCode () + ( name != null ? name.hashCode () : 0 ) ) + Arrays.hashCode ( parameterTypes );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals ( final Object obj )
+        {
+            if ( obj instanceof MemberKey )
+            {
+                final MemberKey other = ( MemberKey ) obj;
+                return type == other.type && ( name == null ? other.name == null : name.equals ( other.name ) ) &&
+                        Arrays.equals ( parameterTypes, other.parameterTypes );
+            }
+            return false;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode ()
+        {
+            return hashCode;
+        }
+    }
 }
\ No newline at end of file
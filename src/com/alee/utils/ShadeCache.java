@@ -0,0 +1,402 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils;
+
+import com.alee.utils.cache.ImageCache;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.RectangularShape;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * This utility class paints gradient shades from pre-rendered sprites instead of stroking the shape multiply times on each paint.
+ * <p/>
+ * Integer-aligned rectangles and round rectangles, which are used by most of the web-styled components, are rendered once into a small
+ * nine-patch-like sprite which depends only on corners rounding, shade width, color and rendering hints. That sprite is then stretched to
+ * any shape size, so all components with similar shape share a single cache entry. Other small shapes are rendered into a sprite of their
+ * full size keyed by shape geometry.
+ * <p/>
+ * Sprites are kept within the shared image cache memory pool.
+ *
+ * @author Mikle Garin
+ * @see LafUtils#drawShade(java.awt.Graphics2D, java.awt.Shape, com.alee.utils.laf.ShadeType, java.awt.Color, int, java.awt.Shape,
+ * boolean)
+ */
+
+public final class ShadeCache
+{
+    /**
+     * Whether shade sprites should be used or not.
+     */
+    public static boolean enabled = true;
+
+    /**
+     * Maximum sprite area in pixels for shapes which cannot be stretched.
+     * Shade of larger shapes will be painted directly.
+     */
+    public static int maxFullSpriteArea = 128 * 128;
+
+    /**
+     * Shade sprites cache.
+     */
+    private static final ImageCache<ShadeKey, BufferedImage> shadeCache = new ImageCache<ShadeKey, BufferedImage> ( "shadeCache" );
+
+    /**
+     * Paints gradient shade for the specified shape using cached sprite if it is possible.
+     * Shade is painted with the graphics clip, like LafUtils paints it without a custom clip.
+     * Result is identical on transparent surfaces and might differ by a couple of color units on opaque ones due to rounding.
+     * Graphics composite alpha is multiplied into each shade stroke when sprite is created, just like LafUtils does it for each stroke,
+     * so sprites are cached separately for each composite alpha. Composites other than source-over alpha composite are not supported.
+     *
+     * @param g2d        graphics context
+     * @param shape      shade shape
+     * @param shadeColor shade color
+     * @param width      shade width
+     * @param round      whether shade stroke should have round cap or not
+     * @return true if shade was painted, false if it should be painted directly
+     */
+    public static boolean paintShade ( final Graphics2D g2d, final Shape shape, final Color shadeColor, final int width,
+                                       final boolean round )
+    {
+        // Checking that sprite will be painted pixel-perfect
+        if ( !enabled || shadeColor == null )
+        {
+            return false;
+        }
+        final Composite composite = g2d.getComposite ();
+        if ( !( composite instanceof AlphaComposite ) || ( ( AlphaComposite ) composite ).getRule () != AlphaComposite.SRC_OVER )
+        {
+            return false;
+        }
+        final float alpha = ( ( AlphaComposite ) composite ).getAlpha ();
+        final AffineTransform transform = g2d.getTransform ();
+        if ( ( transform.getType () & ~AffineTransform.TYPE_TRANSLATION ) != 0 || !isInteger ( transform.getTranslateX () ) ||
+                !isInteger ( transform.getTranslateY () ) )
+        {
+            return false;
+        }
+
+        // Painting shade
+        if ( shape instanceof RoundRectangle2D || shape instanceof Rectangle2D )
+        {
+            final Rectangle2D bounds = ( ( RectangularShape ) shape ).getFrame ();
+            if ( isInteger ( bounds.getX () ) && isInteger ( bounds.getY () ) && isInteger ( bounds.getWidth () ) &&
+                    isInteger ( bounds.getHeight () ) )
+            {
+                return paintStretchedShade ( g2d, shape, bounds, shadeColor, width, round, alpha );
+            }
+        }
+        return paintFullShade ( g2d, shape, shadeColor, width, round, alpha );
+    }
+
+    /**
+     * Paints shade for integer-aligned rectangle or round rectangle using stretched sprite.
+     *
+     * @param g2d        graphics context
+     * @param shape      shade shape
+     * @param bounds     shape bounds
+     * @param shadeColor shade color
+     * @param width      shade width
+     * @param round      whether shade stroke should have round cap or not
+     * @param alpha      graphics composite alpha
+     * @return true if shade was painted, false if it should be painted directly
+     */
+    private static boolean paintStretchedShade ( final Graphics2D g2d, final Shape shape, final Rectangle2D bounds, final Color shadeColor,
+                                                 final int width, final boolean round, final float alpha )
+    {
+        // Corners size, including stroke joins which depend on shade width
+        final double arcW = shape instanceof RoundRectangle2D ? ( ( RoundRectangle2D ) shape ).getArcWidth () : 0;
+        final double arcH = shape instanceof RoundRectangle2D ? ( ( RoundRectangle2D ) shape ).getArcHeight () : 0;
+        final int ax = ( int ) Math.ceil ( arcW / 2 ) + width + 1;
+        final int ay = ( int ) Math.ceil ( arcH / 2 ) + width + 1;
+
+        // Shape should be large enough to be stretched
+        final int x = ( int ) bounds.getX ();
+        final int y = ( int ) bounds.getY ();
+        final int w = ( int ) bounds.getWidth ();
+        final int h = ( int ) bounds.getHeight ();
+        if ( w < ax * 2 + 1 || h < ay * 2 + 1 )
+        {
+            return false;
+        }
+
+        // Retrieving sprite
+        final int m = width + 2;
+        final ShadeKey key = new ShadeKey ( g2d, shadeColor, width, round, alpha, true, new double[]{ arcW, arcH } );
+        BufferedImage sprite = shadeCache.get ( key );
+        if ( sprite == null )
+        {
+            final Shape spriteShape = shape instanceof RoundRectangle2D ?
+                    new RoundRectangle2D.Double ( m, m, ax * 2 + 1, ay * 2 + 1, arcW, arcH ) :
+                    new Rectangle2D.Double ( m, m, ax * 2 + 1, ay * 2 + 1 );
+            sprite = shadeCache.put ( key, createSprite ( g2d, spriteShape, m * 2 + ax * 2 + 1, m * 2 + ay * 2 + 1, shadeColor, width,
+                    round, alpha ) );
+        }
+
+        // Source and destination grids
+        final int[] sx = { 0, m + ax, m + ax + 1, sprite.getWidth () };
+        final int[] sy = { 0, m + ay, m + ay + 1, sprite.getHeight () };
+        final int[] dx = { x - m, x + ax, x + w - ax, x + w + m };
+        final int[] dy = { y - m, y + ay, y + h - ay, y + h + m };
+
+        // Painting sprite parts, central part is fully transparent
+        // Composite alpha is already applied to the sprite
+        final Composite oldComposite = g2d.getComposite ();
+        g2d.setComposite ( AlphaComposite.SrcOver );
+        final Object oldInterpolation = g2d.getRenderingHint ( RenderingHints.KEY_INTERPOLATION );
+        g2d.setRenderingHint ( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR );
+        for ( int row = 0; row < 3; row++ )
+        {
+            for ( int col = 0; col < 3; col++ )
+            {
+                if ( ( row != 1 || col != 1 ) && dx[ col + 1 ] > dx[ col ] && dy[ row + 1 ] > dy[ row ] )
+                {
+                    g2d.drawImage ( sprite, dx[ col ], dy[ row ], dx[ col + 1 ], dy[ row + 1 ], sx[ col ], sy[ row ], sx[ col + 1 ],
+                            sy[ row + 1 ], null );
+                }
+            }
+        }
+        g2d.setRenderingHint ( RenderingHints.KEY_INTERPOLATION,
+                oldInterpolation != null ? oldInterpolation : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR );
+        g2d.setComposite ( oldComposite );
+        return true;
+    }
+
+    /**
+     * Paints shade for any small shape using full-size sprite.
+     *
+     * @param g2d        graphics context
+     * @param shape      shade shape
+     * @param shadeColor shade color
+     * @param width      shade width
+     * @param round      whether shade stroke should have round cap or not
+     * @param alpha      graphics composite alpha
+     * @return true if shade was painted, false if it should be painted directly
+     */
+    private static boolean paintFullShade ( final Graphics2D g2d, final Shape shape, final Color shadeColor, final int width,
+                                            final boolean round, final float alpha )
+    {
+        // Checking sprite size
+        final Rectangle bounds = shape.getBounds ();
+        final int m = width + 2;
+        final int sw = bounds.width + m * 2 + 1;
+        final int sh = bounds.height + m * 2 + 1;
+        if ( sw * sh > maxFullSpriteArea )
+        {
+            return false;
+        }
+
+        // Retrieving sprite
+        final double[] geometry = getGeometry ( shape, bounds.x - m, bounds.y - m );
+        final ShadeKey key = new ShadeKey ( g2d, shadeColor, width, round, alpha, false, geometry );
+        BufferedImage sprite = shadeCache.get ( key );
+        if ( sprite == null )
+        {
+            final Shape spriteShape = AffineTransform.getTranslateInstance ( m - bounds.x, m - bounds.y ).createTransformedShape ( shape );
+            sprite = shadeCache.put ( key, createSprite ( g2d, spriteShape, sw, sh, shadeColor, width, round, alpha ) );
+        }
+
+        // Painting sprite, composite alpha is already applied to it
+        final Composite oldComposite = g2d.getComposite ();
+        g2d.setComposite ( AlphaComposite.SrcOver );
+        g2d.drawImage ( sprite, bounds.x - m, bounds.y - m, null );
+        g2d.setComposite ( oldComposite );
+        return true;
+    }
+
+    /**
+     * Returns new shade sprite.
+     *
+     * @param g2d        graphics context to take rendering hints from
+     * @param shape      shade shape in sprite coordinates
+     * @param width      sprite width
+     * @param height     sprite height
+     * @param shadeColor shade color
+     * @param shadeWidth shade width
+     * @param round      whether shade stroke should have round cap or not
+     * @param alpha      graphics composite alpha multiplied into each stroke
+     * @return new shade sprite
+     */
+    private static BufferedImage createSprite ( final Graphics2D g2d, final Shape shape, final int width, final int height,
+                                                final Color shadeColor, final int shadeWidth, final boolean round, final float alpha )
+    {
+        final BufferedImage sprite = ImageUtils.createCompatibleImage ( width, height, Transparency.TRANSLUCENT );
+        final Graphics2D sg = sprite.createGraphics ();
+        sg.setRenderingHint ( RenderingHints.KEY_ANTIALIASING, g2d.getRenderingHint ( RenderingHints.KEY_ANTIALIASING ) );
+        sg.setRenderingHint ( RenderingHints.KEY_STROKE_CONTROL, g2d.getRenderingHint ( RenderingHints.KEY_STROKE_CONTROL ) );
+        LafUtils.subtractClip ( sg, shape );
+        sg.setPaint ( shadeColor );
+        final int w = shadeWidth * 2;
+        for ( int i = w; i >= 2; i -= 2 )
+        {
+            final float opacity = ( float ) ( w - i ) / ( w - 1 );
+            sg.setComposite ( AlphaComposite.getInstance ( AlphaComposite.SRC_OVER, opacity * alpha ) );
+            sg.setStroke ( LafUtils.getStroke ( i, round ? BasicStroke.CAP_ROUND : BasicStroke.CAP_BUTT ) );
+            sg.draw ( shape );
+        }
+        sg.dispose ();
+        return sprite;
+    }
+
+    /**
+     * Returns shape geometry relative to the specified origin.
+     * Geometry contains segment types and coordinates, so it can be used to compare shapes.
+     *
+     * @param shape shape
+     * @param x     origin X coordinate
+     * @param y     origin Y coordinate
+     * @return shape geometry relative to the specified origin
+     */
+    static double[] getGeometry ( final Shape shape, final int x, final int y )
+    {
+        double[] geometry = new double[ 64 ];
+        int size = 0;
+        final double[] coords = new double[ 6 ];
+        for ( final PathIterator pi = shape.getPathIterator ( null ); !pi.isDone (); pi.next () )
+        {
+            final int type = pi.currentSegment ( coords );
+            final int points = type == PathIterator.SEG_CUBICTO ? 3 : type == PathIterator.SEG_QUADTO ? 2 :
+                    type == PathIterator.SEG_CLOSE ? 0 : 1;
+            if ( size + 1 + points * 2 > geometry.length )
+            {
+                geometry = Arrays.copyOf ( geometry, geometry.length * 2 );
+            }
+            geometry[ size++ ] = type;
+            for ( int i = 0; i < points; i++ )
+            {
+                geometry[ size++ ] = coords[ i * 2 ] - x;
+                geometry[ size++ ] = coords[ i * 2 + 1 ] - y;
+            }
+        }
+        return Arrays.copyOf ( geometry, size );
+    }
+
+    /**
+     * Returns whether specified value is an integer or not.
+     *
+     * @param value value to check
+     * @return true if specified value is an integer, false otherwise
+     */
+    private static boolean isInteger ( final double value )
+    {
+        return value == Math.rint ( value );
+    }
+
+    /**
+     * Returns shade sprites cache.
+     * It can be used to check sprites cache statistics.
+     *
+     * @return shade sprites cache
+     */
+    public static ImageCache<?, BufferedImage> getCache ()
+    {
+        return shadeCache;
+    }
+
+    /**
+     * Clears shade sprites cache.
+     */
+    public static void clearCache ()
+    {
+        shadeCache.clear ();
+    }
+
+    /**
+     * Shade sprite key.
+     */
+    private static final class ShadeKey
+    {
+        /**
+         * Sprite settings.
+         */
+        private final int color;
+        private final int width;
+        private final boolean round;
+        private final int alpha;
+        private final boolean stretched;
+        private final Object antialias;
+        private final Object strokeControl;
+        private final double[] geometry;
+        private final int hashCode;
+
+        /**
+         * Constructs new shade sprite key.
+         *
+         * @param g2d       graphics context
+         * @param color     shade color
+         * @param width     shade width
+         * @param round     whether shade stroke should have round cap or not
+         * @param alpha     composite alpha
+         * @param stretched whether sprite is stretched or not
+         * @param geometry  shape geometry
+         */
+        public ShadeKey ( final Graphics2D g2d, final Color color, final int width, final boolean round, final float alpha,
+                          final boolean stretched, final double[] geometry )
+        {
+            super ();
+            this.color = color.getRGB ();
+            this.width = width;
+            this.round = round;
+            this.alpha = Float.floatToIntBits ( alpha );
+            this.stretched = stretched;
+            this.antialias = g2d.getRenderingHint ( RenderingHints.KEY_ANTIALIASING );
+            this.strokeControl = g2d.getRenderingHint ( RenderingHints.KEY_STROKE_CONTROL );
+            this.geometry = geometry;
+
+            int hash = this.color;
+            hash = 31 * hash + width;
+            hash = 31 * hash + ( round ? 1 : 0 );
+            hash = 31 * hash + this.alpha;
+            hash = 31 * hash + ( stretched ? 1 : 0 );
+            hash = 31 * hash + ( antialias != null ? antialias.hashCode () : 0 );
+            hash = 31 * hash + ( strokeControl != null ? strokeControl.hashCode () : 0 );
+            hash = 31 * hash + Arrays.hashCode ( geometry );
+            this.hashCode = hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals ( final Object obj )
+        {
+            if ( !( obj instanceof ShadeKey ) )
+            {
+                return false;
+            }
+            final ShadeKey other = ( ShadeKey ) obj;
+            return hashCode == other.hashCode && color == other.color && width == other.width && round == other.round &&
+                    alpha == other.alpha && stretched == other.stretched && antialias == other.antialias &&
+                    strokeControl == other.strokeControl && Arrays.equals ( geometry, other.geometry );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode ()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -20,6 +20,7 @@ package com.alee.utils;
 import com.alee.utils.swing.DataProvider;
 
 import java.awt.*;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -27,6 +28,10 @@ import java.util.WeakHashMap;
 /**
  * This utility class can be used to implement shape caching withing any painter or component.
  * This might be useful to improve component painting performance in case it uses complex shapes.
+ * <p/>
+ * Cache can be accessed from any thread, all cache operations are synchronized.
+ * Cached shape instances are returned as is and shared between all callers, so returned shapes must never be modified.
+ * Copy the shape (for example into new GeneralPath) before transforming or appending anything to it.
  *
  * @author Mikle Garin
  */
@@ -34,19 +39,29 @@ import java.util.WeakHashMap;
 public class ShapeCache
 {
     /**
-     * Separator for settings cached within single key.
+     * Whether cache hits and misses should be counted or not.
      */
-    private static final String settingsSeparator = ";";
+    public static boolean collectStatistics = false;
 
     /**
      * Shapes cache map.
+     * Every access to this map and to cache statistics should be synchronized on it.
      */
     private static final Map<Component, Map<String, CachedShape>> shapeCache = new WeakHashMap<Component, Map<String, CachedShape>> ( 10 );
 
+    /**
+     * Cache statistics.
+     */
+    private static long hits = 0;
+    private static long misses = 0;
+
     /**
      * Returns cached component shape.
      * If shape is not yet cached it will be created.
      * If shape settings are changed from the last time it was queued it will be re-created.
+     * <p/>
+     * Settings are compared using their hash code and equals method, so no additional objects are created to check the cached shape.
+     * Returned shape is shared and must not be modified.
      *
      * @param component     component for which shape is cached
      * @param shapeId       unique shape ID
@@ -58,81 +73,214 @@ public class ShapeCache
     public static <T extends Shape> T getShape ( final Component component, final String shapeId, final DataProvider<T> shapeProvider,
                                                  final Object... settings )
     {
-        final String settingsKey = combineSettingsKey ( settings );
-        Map<String, CachedShape> cacheById = shapeCache.get ( component );
-        if ( cacheById == null )
+        final int settingsHash = getSettingsHash ( settings );
+        synchronized ( shapeCache )
         {
-            // Shape is not yet cached
-            final Shape shape = shapeProvider.provide ();
-            cacheById = new HashMap<String, CachedShape> ( 1 );
-            cacheById.put ( shapeId, new CachedShape ( settingsKey, shape ) );
-            shapeCache.put ( component, cacheById );
-            return ( T ) shape;
+            final Map<String, CachedShape> cacheById = shapeCache.get ( component );
+            final CachedShape cachedShape = cacheById != null ? cacheById.get ( shapeId ) : null;
+            if ( cachedShape != null && cachedShape.matches ( settingsHash, settings ) )
+            {
+                // Returning cached shape
+                countHit ();
+                return ( T ) cachedShape.getShape ();
+            }
+            countMiss ();
         }
-        else
+
+        // Shape is not yet cached or cache entry is outdated
+        final T shape = shapeProvider.provide ();
+        putShape ( component, shapeId, new CachedShape ( settingsHash, copySettings ( settings ), shape ) );
+        return shape;
+    }
+
+    /**
+     * Returns cached component shape or null if it is not yet cached or its settings have changed.
+     * This method doesn't create any objects, so it is preferred for shapes requested on each paint.
+     * Settings array is never stored by the cache, so the caller can reuse it between calls.
+     * Returned shape is shared and must not be modified.
+     * <p/>
+     * Usage example:
+     * <pre>
+     * Shape shape = ShapeCache.getCachedShape ( component, shapeId, settings );
+     * if ( shape == null )
+     * {
+     *     shape = ShapeCache.cacheShape ( component, shapeId, settings, createShape () );
+     * }
+     * </pre>
+     *
+     * @param component component for which shape is cached
+     * @param shapeId   unique shape ID
+     * @param settings  shape settings used as a shape key
+     * @return cached component shape or null if it is not yet cached or its settings have changed
+     */
+    public static Shape getCachedShape ( final Component component, final String shapeId, final int[] settings )
+    {
+        synchronized ( shapeCache )
         {
-            final CachedShape cachedShape = cacheById.get ( shapeId );
-            if ( cachedShape == null || !cachedShape.getKey ().equals ( settingsKey ) )
+            final Map<String, CachedShape> cacheById = shapeCache.get ( component );
+            final CachedShape cachedShape = cacheById != null ? cacheById.get ( shapeId ) : null;
+            if ( cachedShape != null && cachedShape.matches ( settings ) )
             {
-                // Shape is not yet cached or cache entry is outdated
-                final Shape shape = shapeProvider.provide ();
-                cacheById.put ( shapeId, new CachedShape ( settingsKey, shape ) );
-                return ( T ) shape;
+                countHit ();
+                return cachedShape.getShape ();
             }
             else
             {
-                // Returning cached shape
-                return ( T ) cachedShape.getShape ();
+                countMiss ();
+                return null;
             }
         }
     }
 
     /**
-     * Combines shape settings into a single key for cache map and returns it.
+     * Caches specified component shape and returns it.
+     * Settings array is copied, so the caller can reuse it between calls.
+     * Cached shape is shared with all further callers, so it must not be modified after this call.
      *
-     * @param settings settings to combine
-     * @return key for the specified shape settings
+     * @param component component for which shape is cached
+     * @param shapeId   unique shape ID
+     * @param settings  shape settings used as a shape key
+     * @param shape     shape to cache
+     * @param <T>       shape type
+     * @return cached component shape
+     */
+    public static <T extends Shape> T cacheShape ( final Component component, final String shapeId, final int[] settings, final T shape )
+    {
+        putShape ( component, shapeId, new CachedShape ( settings.clone (), shape ) );
+        return shape;
+    }
+
+    /**
+     * Puts cached shape into the cache replacing the previous one.
+     *
+     * @param component   component for which shape is cached
+     * @param shapeId     unique shape ID
+     * @param cachedShape cached shape
      */
-    private static String combineSettingsKey ( final Object... settings )
+    private static void putShape ( final Component component, final String shapeId, final CachedShape cachedShape )
     {
-        final StringBuilder stringBuilder = new StringBuilder ();
-        for ( final Object object : settings )
+        synchronized ( shapeCache )
         {
-            if ( stringBuilder.length () > 0 )
+            Map<String, CachedShape> cacheById = shapeCache.get ( component );
+            if ( cacheById == null )
             {
-                stringBuilder.append ( settingsSeparator );
+                cacheById = new HashMap<String, CachedShape> ( 1 );
+                shapeCache.put ( component, cacheById );
             }
-            stringBuilder.append ( getSettingKey ( object ) );
+            cacheById.put ( shapeId, cachedShape );
         }
-        return stringBuilder.toString ();
     }
 
     /**
-     * Returns setting string representation.
+     * Returns hash code combined from all shape settings.
      *
-     * @param setting setting to be converted
-     * @return setting string representation
+     * @param settings settings to combine
+     * @return hash code combined from all shape settings
      */
-    private static String getSettingKey ( final Object setting )
+    private static int getSettingsHash ( final Object... settings )
     {
-        if ( setting instanceof Insets )
+        int hash = 1;
+        for ( final Object setting : settings )
         {
-            final Insets i = ( Insets ) setting;
-            return i.top + "," + i.left + "," + i.bottom + "," + i.right;
+            hash = 31 * hash + ( setting != null ? setting.hashCode () : 0 );
         }
-        else if ( setting instanceof Rectangle )
+        return hash;
+    }
+
+    /**
+     * Returns copy of the settings array which is safe to store.
+     * Mutable geometry settings are copied so that their later modification doesn't affect cached values.
+     *
+     * @param settings settings to copy
+     * @return copy of the settings array
+     */
+    private static Object[] copySettings ( final Object... settings )
+    {
+        final Object[] copy = new Object[ settings.length ];
+        for ( int i = 0; i < settings.length; i++ )
         {
-            final Rectangle r = ( Rectangle ) setting;
-            return r.x + "," + r.y + "," + r.width + "," + r.height;
+            final Object setting = settings[ i ];
+            if ( setting instanceof Insets )
+            {
+                copy[ i ] = ( ( Insets ) setting ).clone ();
+            }
+            else if ( setting instanceof Rectangle )
+            {
+                copy[ i ] = new Rectangle ( ( Rectangle ) setting );
+            }
+            else if ( setting instanceof Point )
+            {
+                copy[ i ] = new Point ( ( Point ) setting );
+            }
+            else if ( setting instanceof Dimension )
+            {
+                copy[ i ] = new Dimension ( ( Dimension ) setting );
+            }
+            else
+            {
+                copy[ i ] = setting;
+            }
         }
-        else if ( setting instanceof Point )
+        return copy;
+    }
+
+    /**
+     * Counts cache hit.
+     */
+    private static void countHit ()
+    {
+        if ( collectStatistics )
         {
-            final Point p = ( Point ) setting;
-            return p.x + "," + p.y;
+            hits++;
         }
-        else
+    }
+
+    /**
+     * Counts cache miss.
+     */
+    private static void countMiss ()
+    {
+        if ( collectStatistics )
+        {
+            misses++;
+        }
+    }
+
+    /**
+     * Returns amount of cache hits since statistics collection was enabled.
+     *
+     * @return amount of cache hits
+     */
+    public static long getHits ()
+    {
+        synchronized ( shapeCache )
         {
-            return setting.toString ();
+            return hits;
+        }
+    }
+
+    /**
+     * Returns amount of cache misses since statistics collection was enabled.
+     *
+     * @return amount of cache misses
+     */
+    public static long getMisses ()
+    {
+        synchronized ( shapeCache )
+        {
+            return misses;
+        }
+    }
+
+    /**
+     * Resets cache statistics.
+     */
+    public static void resetStatistics ()
+    {
+        synchronized ( shapeCache )
+        {
+            hits = 0;
+            misses = 0;
         }
     }
 
@@ -141,19 +289,49 @@ public class ShapeCache
      */
     private static class CachedShape
     {
-        private final String key;
+        private final int settingsHash;
+        private final Object[] settings;
+        private final int[] primitiveSettings;
         private final Shape shape;
 
-        public CachedShape ( final String key, final Shape shape )
+        public CachedShape ( final int settingsHash, final Object[] settings, final Shape shape )
         {
             super ();
-            this.key = key;
+            this.settingsHash = settingsHash;
+            this.settings = settings;
+            this.primitiveSettings = null;
             this.shape = shape;
         }
 
-        private String getKey ()
+        public CachedShape ( final int[] primitiveSettings, final Shape shape )
         {
-            return key;
+            super ();
+            this.settingsHash = 0;
+            this.settings = null;
+            this.primitiveSettings = primitiveSettings;
+            this.shape = shape;
+        }
+
+        private boolean matches ( final int[] settings )
+        {
+            return Arrays.equals ( primitiveSettings, settings );
+        }
+
+        private boolean matches ( final int settingsHash, final Object[] settings )
+        {
+            if ( this.settings == null || this.settingsHash != settingsHash || this.settings.length != settings.length )
+            {
+                return false;
+            }
+            for ( int i = 0; i < settings.length; i++ )
+            {
+                final Object setting = settings[ i ];
+                if ( setting == null ? this.settings[ i ] != null : !setting.equals ( this.settings[ i ] ) )
+                {
+                    return false;
+                }
+            }
+            return true;
         }
 
         private Shape getShape ()
@@ -161,4 +339,4 @@ public class ShapeCache
             return shape;
         }
     }
-}
\ No newline at end of file
+}
@@ -31,7 +31,9 @@ import com.alee.utils.xml.*;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.SingleValueConverter;
+import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.xml.DomDriver;
+import com.thoughtworks.xstream.io.xml.Xpp3Driver;
 
 import javax.swing.*;
 import java.awt.*;
@@ -70,6 +72,12 @@ public final class XmlUtils
      */
     private static XStream xStream = null;
 
+    /**
+     * Streaming XML driver.
+     * It reads XML using pull parser without building the whole DOM tree in memory.
+     */
+    private static final HierarchicalStreamDriver streamingDriver = new Xpp3Driver ();
+
     /**
      * Returns global XStream instance configured with all required aliases and converters.
      *
@@ -314,6 +322,41 @@ public final class XmlUtils
         return ( T ) getXStream ().fromXML ( reader );
     }
 
+    /**
+     * Returns Object deserialized from XML content read by streaming pull parser.
+     * Unlike other methods this one doesn't build DOM tree for the whole XML document.
+     *
+     * @param reader XML text source
+     * @param type   read object type
+     * @param <T>    read object type
+     * @return deserialized object
+     */
+    public static <T> T fromXMLStream ( final Reader reader, final Class<T> type )
+    {
+        return type.cast ( getXStream ().unmarshal ( streamingDriver.createReader ( reader ) ) );
+    }
+
+    /**
+     * Returns Object deserialized from UTF-8 encoded XML content read by streaming pull parser.
+     * Unlike other methods this one doesn't build DOM tree for the whole XML document.
+     *
+     * @param input XML text source
+     * @param type  read object type
+     * @param <T>   read object type
+     * @return deserialized object
+     */
+    public static <T> T fromXMLStream ( final InputStream input, final Class<T> type )
+    {
+        try
+        {
+            return fromXMLStream ( new InputStreamReader ( input, "UTF-8" ), type );
+        }
+        catch ( final UnsupportedEncodingException e )
+        {
+            throw new RuntimeException ( e );
+        }
+    }
+
     /**
      * Returns Object deserialized from XML content.
      *
@@ -18,11 +18,20 @@
 package com.alee.utils;
 
 import com.alee.utils.zip.UnzipListener;
+import com.alee.utils.zip.UnzipProgress;
 
 import java.io.*;
-import java.util.Enumeration;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 /**
  * This class provides a set of utilities to work with ZIP files.
@@ -32,6 +41,28 @@ import java.util.zip.ZipFile;
 
 public final class ZipUtils
 {
+    /**
+     * Default amount of threads used for ZIP file extraction.
+     * Shared extraction threads pool grows when more threads are requested, unused threads die after some time of inactivity.
+     */
+    public static int defaultThreadsAmount = Runtime.getRuntime ().availableProcessors ();
+
+    /**
+     * Size of the copy buffer in bytes.
+     * Each extraction thread keeps its own buffer and reuses it for all entries.
+     */
+    public static int bufferSize = 64 * 1024;
+
+    /**
+     * Copy buffers of extraction threads.
+     */
+    private static final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer> ();
+
+    /**
+     * Worker threads executor.
+     */
+    private static ThreadPoolExecutor executor = null;
+
     /**
      * Extracts ZIP archive contents into destination directory.
      * Any folder required for extraction are created in the process.
@@ -75,6 +106,7 @@ public final class ZipUtils
     /**
      * Extracts ZIP archive contents into destination directory.
      * Any folder required for extraction are created in the process.
+     * Entries are extracted in parallel using default amount of threads.
      *
      * @param archive  ZIP file
      * @param dst      destination directory
@@ -83,50 +115,188 @@ public final class ZipUtils
      */
     public static boolean unzip ( final File archive, final File dst, final UnzipListener listener )
     {
+        return unzip ( archive, dst, listener, defaultThreadsAmount );
+    }
+
+    /**
+     * Extracts ZIP archive contents into destination directory using the specified amount of threads.
+     * Any folder required for extraction are created in the process, each folder is created only once before files extraction.
+     * <p/>
+     * Listener calls are serialized, but they might come from different threads when more than one thread is used.
+     * Directory entries are reported first, file entries are reported in the order they are extracted.
+     * Listener also receives byte-level progress if it implements ProgressUnzipListener.
+     *
+     * @param archive       ZIP file
+     * @param dst           destination directory
+     * @param listener      extraction process listener
+     * @param threadsAmount maximum amount of threads used for extraction
+     * @return true if archive was extracted successfully
+     */
+    public static boolean unzip ( final File archive, final File dst, final UnzipListener listener, final int threadsAmount )
+    {
+        ZipFile zipFile = null;
         try
         {
-            final ZipFile zipFile = new ZipFile ( archive );
+            zipFile = new ZipFile ( archive );
 
             // Informing listener about zip entries amount
-            if ( listener != null )
-            {
-                listener.sizeDetermined ( zipFile.size () );
-            }
+            final UnzipProgress progress = new UnzipProgress ( listener );
+            progress.sizeDetermined ( zipFile.size () );
 
-            // Starting zip extraction
-            final Enumeration entries = zipFile.entries ();
-            int index = 0;
+            // Collecting entries and creating all required directories
+            final String dstPath = getCanonicalPath ( dst );
+            final List<ZipEntry> directories = new ArrayList<ZipEntry> ();
+            final List<File> directoryFiles = new ArrayList<File> ();
+            final List<ZipEntry> files = new ArrayList<ZipEntry> ( zipFile.size () );
+            final List<File> fileFiles = new ArrayList<File> ( zipFile.size () );
+            final Set<File> created = new HashSet<File> ();
+            long totalBytes = 0;
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries ();
             while ( entries.hasMoreElements () )
             {
-                // Single zip entry
-                final ZipEntry entry = ( ZipEntry ) entries.nextElement ();
-                final File extractToFile;
+                final ZipEntry entry = entries.nextElement ();
+                final File extractToFile = getEntryFile ( dst, dstPath, entry );
                 if ( entry.isDirectory () )
                 {
-                    // Creating directories path
-                    extractToFile = new File ( dst, entry.getName () );
-                    extractToFile.mkdirs ();
+                    createDirectory ( extractToFile, created );
+                    directories.add ( entry );
+                    directoryFiles.add ( extractToFile );
                 }
                 else
                 {
-                    // Ensures that destination file and its folders exist
-                    extractToFile = new File ( dst, entry.getName () );
-                    extractToFile.getParentFile ().mkdirs ();
-                    extractToFile.createNewFile ();
-
-                    // Copying file
-                    copyInputStream ( zipFile.getInputStream ( entry ),
-                            new BufferedOutputStream ( new FileOutputStream ( extractToFile ) ) );
+                    createDirectory ( extractToFile.getParentFile (), created );
+                    files.add ( entry );
+                    fileFiles.add ( extractToFile );
+                    totalBytes += Math.max ( 0, entry.getSize () );
                 }
+            }
+            progress.bytesDetermined ( totalBytes );
+
+            // Informing listener about created directories
+            for ( int i = 0; i < directories.size (); i++ )
+            {
+                progress.fileUnzipped ( directories.get ( i ), directoryFiles.get ( i ) );
+            }
+
+            // Extracting files
+            extractFiles ( zipFile, files, fileFiles, progress, threadsAmount );
+            progress.finished ();
+            return true;
+        }
+        catch ( final Throwable e )
+        {
+            e.printStackTrace ();
+            return false;
+        }
+        finally
+        {
+            close ( zipFile );
+        }
+    }
 
-                // Informing listener about single unzipped file
-                if ( listener != null )
+    /**
+     * Extracts ZIP archive downloaded from the specified URL into destination directory.
+     * Archive is extracted while it is being downloaded, any folder required for extraction are created in the process.
+     * Listener receives progress in downloaded archive bytes if it implements ProgressUnzipListener.
+     *
+     * @param url      ZIP archive URL
+     * @param dst      destination directory
+     * @param listener extraction process listener
+     * @return true if archive was extracted successfully
+     */
+    public static boolean unzip ( final URL url, final File dst, final UnzipListener listener )
+    {
+        try
+        {
+            final URLConnection connection = url.openConnection ();
+            return unzip ( connection.getInputStream (), connection.getContentLength (), dst, listener );
+        }
+        catch ( final Throwable e )
+        {
+            e.printStackTrace ();
+            return false;
+        }
+    }
+
+    /**
+     * Extracts ZIP archive read from the specified stream into destination directory.
+     * Archive is extracted while it is being read, any folder required for extraction are created in the process.
+     * Entries amount is unknown in this mode, so listener is not informed about it.
+     * Specified stream is closed when extraction finishes.
+     *
+     * @param in       ZIP archive input stream
+     * @param dst      destination directory
+     * @param listener extraction process listener
+     * @return true if archive was extracted successfully
+     */
+    public static boolean unzip ( final InputStream in, final File dst, final UnzipListener listener )
+    {
+        return unzip ( in, -1, dst, listener );
+    }
+
+    /**
+     * Extracts ZIP archive read from the specified stream into destination directory.
+     *
+     * @param in       ZIP archive input stream
+     * @param length   ZIP archive length in bytes or -1 if it is unknown
+     * @param dst      destination directory
+     * @param listener extraction process listener
+     * @return true if archive was extracted successfully
+     */
+    private static boolean unzip ( final InputStream in, final long length, final File dst, final UnzipListener listener )
+    {
+        ZipInputStream zis = null;
+        try
+        {
+            final UnzipProgress progress = new UnzipProgress ( listener );
+            progress.bytesDetermined ( length );
+
+            // Archive bytes are counted before decompression
+            zis = new ZipInputStream ( new BufferedInputStream ( new FilterInputStream ( in )
+            {
+                @Override
+                public int read () throws IOException
+                {
+                    final int read = super.read ();
+                    if ( read >= 0 )
+                    {
+                        progress.bytesProcessed ( 1 );
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read ( final byte[] b, final int off, final int len ) throws IOException
+                {
+                    final int read = super.read ( b, off, len );
+                    if ( read > 0 )
+                    {
+                        progress.bytesProcessed ( read );
+                    }
+                    return read;
+                }
+            }, bufferSize ) );
+
+            // Extracting entries one by one
+            final String dstPath = getCanonicalPath ( dst );
+            final Set<File> created = new HashSet<File> ();
+            ZipEntry entry;
+            while ( ( entry = zis.getNextEntry () ) != null )
+            {
+                final File extractToFile = getEntryFile ( dst, dstPath, entry );
+                if ( entry.isDirectory () )
+                {
+                    createDirectory ( extractToFile, created );
+                }
+                else
                 {
-                    listener.fileUnzipped ( entry, extractToFile, index );
-                    index++;
+                    createDirectory ( extractToFile.getParentFile (), created );
+                    copy ( zis, extractToFile, null );
                 }
+                zis.closeEntry ();
+                progress.fileUnzipped ( entry, extractToFile );
             }
-            zipFile.close ();
+            progress.finished ();
             return true;
         }
         catch ( final Throwable e )
@@ -134,6 +304,10 @@ public final class ZipUtils
             e.printStackTrace ();
             return false;
         }
+        finally
+        {
+            close ( zis != null ? zis : in );
+        }
     }
 
     /**
@@ -161,21 +335,276 @@ public final class ZipUtils
     }
 
     /**
-     * Performs data copy from input to output stream.
+     * Extracts specified file entries, possibly in parallel.
+     * Calling thread takes part in extraction and this method returns only when all entries are extracted or extraction failed.
      *
-     * @param in  data input stream
-     * @param out data output stream
-     * @throws IOException
+     * @param zipFile       ZIP file
+     * @param files         file entries to extract
+     * @param targets       destination files for the file entries
+     * @param progress      extraction progress tracker
+     * @param threadsAmount maximum amount of threads used for extraction
+     * @throws IOException if any entry cannot be extracted
      */
-    private static void copyInputStream ( final InputStream in, final OutputStream out ) throws IOException
+    private static void extractFiles ( final ZipFile zipFile, final List<ZipEntry> files, final List<File> targets,
+                                       final UnzipProgress progress, final int threadsAmount ) throws IOException
     {
-        final byte[] buffer = new byte[ 1024 ];
-        int len;
-        while ( ( len = in.read ( buffer ) ) >= 0 )
+        final AtomicInteger next = new AtomicInteger ( 0 );
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable> ();
+        final Runnable task = new Runnable ()
         {
-            out.write ( buffer, 0, len );
+            @Override
+            public void run ()
+            {
+                try
+                {
+                    int index;
+                    while ( error.get () == null && ( index = next.getAndIncrement () ) < files.size () )
+                    {
+                        final ZipEntry entry = files.get ( index );
+                        final File extractToFile = targets.get ( index );
+                        copy ( zipFile.getInputStream ( entry ), extractToFile, progress );
+                        progress.fileUnzipped ( entry, extractToFile );
+                    }
+                }
+                catch ( final Throwable e )
+                {
+                    error.compareAndSet ( null, e );
+                }
+            }
+        };
+
+        // Starting additional workers
+        // Each worker claims a slot when it starts, so workers still queued behind other tasks can be dropped later
+        final int workers = Math.max ( 0, Math.min ( threadsAmount, files.size () ) - 1 );
+        final AtomicInteger slots = new AtomicInteger ( workers );
+        final CountDownLatch latch = new CountDownLatch ( workers );
+        if ( workers > 0 )
+        {
+            final ExecutorService executor = getExecutor ( workers );
+            for ( int i = 0; i < workers; i++ )
+            {
+                executor.execute ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        if ( slots.getAndDecrement () > 0 )
+                        {
+                            try
+                            {
+                                task.run ();
+                            }
+                            finally
+                            {
+                                latch.countDown ();
+                            }
+                        }
+                    }
+                } );
+            }
+        }
+
+        // Extracting in calling thread
+        task.run ();
+
+        // Releasing slots of workers which didn't start yet, they have nothing left to do
+        // Otherwise this extraction would wait until other tasks in the shared pool free the threads
+        final int unstarted = Math.max ( 0, slots.getAndSet ( 0 ) );
+        for ( int i = 0; i < unstarted; i++ )
+        {
+            latch.countDown ();
+        }
+
+        // Waiting for workers which are still extracting
+        boolean interrupted = false;
+        while ( true )
+        {
+            try
+            {
+                latch.await ();
+                break;
+            }
+            catch ( final InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread ().interrupt ();
+        }
+        if ( error.get () != null )
+        {
+            throw new IOException ( "Unable to extract ZIP entry", error.get () );
+        }
+    }
+
+    /**
+     * Returns canonical path of the specified destination directory ending with file separator.
+     *
+     * @param dst destination directory
+     * @return canonical path of the specified destination directory ending with file separator
+     * @throws IOException if canonical path cannot be resolved
+     */
+    private static String getCanonicalPath ( final File dst ) throws IOException
+    {
+        final String path = dst.getCanonicalPath ();
+        return path.endsWith ( File.separator ) ? path : path + File.separator;
+    }
+
+    /**
+     * Returns destination file for the specified ZIP entry.
+     * Entries which would be extracted outside of the destination directory, for example those with "../" in their names, are rejected.
+     *
+     * @param dst     destination directory
+     * @param dstPath canonical destination directory path ending with file separator
+     * @param entry   ZIP entry
+     * @return destination file for the specified ZIP entry
+     * @throws IOException if entry points outside of the destination directory
+     */
+    private static File getEntryFile ( final File dst, final String dstPath, final ZipEntry entry ) throws IOException
+    {
+        final File file = new File ( dst, entry.getName () );
+        final String path = file.getCanonicalPath ();
+        if ( !path.startsWith ( dstPath ) && !( path + File.separator ).equals ( dstPath ) )
+        {
+            throw new IOException ( "ZIP entry is outside of the destination directory: " + entry.getName () );
+        }
+        return file;
+    }
+
+    /**
+     * Creates specified directory and all its parent directories unless it was already created during this extraction.
+     *
+     * @param directory directory to create
+     * @param created   directories created during this extraction
+     */
+    private static void createDirectory ( final File directory, final Set<File> created )
+    {
+        if ( directory != null && created.add ( directory ) )
+        {
+            directory.mkdirs ();
+        }
+    }
+
+    /**
+     * Copies input stream data into the specified file through its channel.
+     * Input stream is closed afterwards unless it is ZipInputStream, which stays open to read next entries.
+     *
+     * @param in       data input stream
+     * @param file     destination file
+     * @param progress extraction progress tracker, null if copied bytes should not be counted
+     * @throws IOException if data cannot be copied
+     */
+    private static void copy ( final InputStream in, final File file, final UnzipProgress progress ) throws IOException
+    {
+        try
+        {
+            final FileOutputStream out = new FileOutputStream ( file );
+            try
+            {
+                final FileChannel channel = out.getChannel ();
+                final ByteBuffer buffer = getBuffer ();
+                final byte[] array = buffer.array ();
+                int len;
+                while ( ( len = in.read ( array ) ) >= 0 )
+                {
+                    buffer.clear ();
+                    buffer.limit ( len );
+                    while ( buffer.hasRemaining () )
+                    {
+                        channel.write ( buffer );
+                    }
+                    if ( progress != null )
+                    {
+                        progress.bytesProcessed ( len );
+                    }
+                }
+            }
+            finally
+            {
+                out.close ();
+            }
+        }
+        finally
+        {
+            if ( !( in instanceof ZipInputStream ) )
+            {
+                in.close ();
+            }
+        }
+    }
+
+    /**
+     * Returns copy buffer of the current thread.
+     *
+     * @return copy buffer of the current thread
+     */
+    private static ByteBuffer getBuffer ()
+    {
+        ByteBuffer buffer = buffers.get ();
+        if ( buffer == null || buffer.capacity () != bufferSize )
+        {
+            buffer = ByteBuffer.allocate ( bufferSize );
+            buffers.set ( buffer );
+        }
+        return buffer;
+    }
+
+    /**
+     * Closes specified resource ignoring any exceptions.
+     *
+     * @param closeable resource to close
+     */
+    private static void close ( final Closeable closeable )
+    {
+        if ( closeable != null )
+        {
+            try
+            {
+                closeable.close ();
+            }
+            catch ( final IOException e )
+            {
+                //
+            }
+        }
+    }
+
+    /**
+     * Returns worker threads executor which has at least the specified amount of threads.
+     * Executor is shared between all extractions and grows when more threads are requested.
+     *
+     * @param threads required amount of threads
+     * @return worker threads executor
+     */
+    private static synchronized ExecutorService getExecutor ( final int threads )
+    {
+        if ( executor != null )
+        {
+            if ( executor.getMaximumPoolSize () < threads )
+            {
+                executor.setMaximumPoolSize ( threads );
+                executor.setCorePoolSize ( threads );
+            }
+        }
+        else
+        {
+            final AtomicInteger number = new AtomicInteger ( 0 );
+            final ThreadPoolExecutor pool = new ThreadPoolExecutor ( threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable> (), new ThreadFactory ()
+            {
+                @Override
+                public Thread newThread ( final Runnable r )
+                {
+                    final Thread thread = new Thread ( r, "ZipUtils.worker-" + number.incrementAndGet () );
+                    thread.setDaemon ( true );
+                    return thread;
+                }
+            } );
+            pool.allowCoreThreadTimeOut ( true );
+            executor = pool;
         }
-        in.close ();
-        out.close ();
+        return executor;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,620 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.cache;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Named image cache which stores its values within the single memory pool shared between all image caches.
+ * <p/>
+ * Shared pool has a limited size which is calculated from the pixel memory of the cached images. When that limit is exceeded least
+ * recently used values are evicted from the pool, no matter which cache they belong to. Each cache might also have its own size limit
+ * within the pool, its least recently used values are evicted when it is exceeded. Each cache keeps its own hit, miss and eviction
+ * statistics.
+ * <p/>
+ * All cache methods are thread-safe and can be used from any thread.
+ *
+ * @param <K> cache key type
+ * @param <V> cached value type, usually Image or ImageIcon
+ * @author Mikle Garin
+ */
+
+public final class ImageCache<K, V>
+{
+    /**
+     * Default shared pool size limit in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Shared pool lock.
+     */
+    private static final Object lock = new Object ();
+
+    /**
+     * Shared pool entries in least recently used order.
+     */
+    private static final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<CacheKey, CacheEntry> ( 64, 0.75f, true );
+
+    /**
+     * All created caches.
+     */
+    private static final List<ImageCache<?, ?>> caches = new ArrayList<ImageCache<?, ?>> ();
+
+    /**
+     * Shared pool size limit in bytes.
+     */
+    private static long maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * Shared pool current size in bytes.
+     */
+    private static long size = 0;
+
+    /**
+     * Cache name.
+     */
+    private final String name;
+
+    /**
+     * Cache size limit in bytes.
+     */
+    private long maxCacheSize = Long.MAX_VALUE;
+
+    /**
+     * Cache statistics.
+     */
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long cacheSize = 0;
+    private int count = 0;
+
+    /**
+     * Constructs new image cache with the specified name.
+     *
+     * @param name cache name
+     */
+    public ImageCache ( final String name )
+    {
+        super ();
+        this.name = name;
+        synchronized ( lock )
+        {
+            caches.add ( this );
+        }
+    }
+
+    /**
+     * Returns cache name.
+     *
+     * @return cache name
+     */
+    public String getName ()
+    {
+        return name;
+    }
+
+    /**
+     * Returns cached value for the specified key or null if it is not cached.
+     *
+     * @param key value key
+     * @return cached value for the specified key or null if it is not cached
+     */
+    public V get ( final K key )
+    {
+        synchronized ( lock )
+        {
+            final CacheEntry entry = entries.get ( new CacheKey ( this, key ) );
+            if ( entry != null )
+            {
+                hits++;
+                return getValue ( entry );
+            }
+            else
+            {
+                misses++;
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns value of the specified entry owned by this cache.
+     * Entries are only put into shared pool by {@link #put(Object, Object)} under this cache key, so the value always has this cache type.
+     *
+     * @param entry entry owned by this cache
+     * @return value of the specified entry
+     */
+    @SuppressWarnings ( "unchecked" )
+    private V getValue ( final CacheEntry entry )
+    {
+        return ( V ) entry.value;
+    }
+
+    /**
+     * Returns whether value for the specified key is cached or not.
+     * This method doesn't affect cache statistics and values order.
+     *
+     * @param key value key
+     * @return true if value for the specified key is cached, false otherwise
+     */
+    public boolean contains ( final K key )
+    {
+        synchronized ( lock )
+        {
+            return entries.containsKey ( new CacheKey ( this, key ) );
+        }
+    }
+
+    /**
+     * Caches value under the specified key and returns that value.
+     * Caching null value is the same as removing the key from cache.
+     *
+     * @param key   value key
+     * @param value value to cache
+     * @return cached value
+     */
+    public V put ( final K key, final V value )
+    {
+        if ( value == null )
+        {
+            remove ( key );
+            return null;
+        }
+        final long valueSize = getSize ( value );
+        synchronized ( lock )
+        {
+            final CacheEntry old = entries.put ( new CacheKey ( this, key ), new CacheEntry ( value, valueSize ) );
+            if ( old != null )
+            {
+                size -= old.size;
+                cacheSize -= old.size;
+                count--;
+            }
+            size += valueSize;
+            cacheSize += valueSize;
+            count++;
+            evict ();
+            evictOwn ();
+        }
+        return value;
+    }
+
+    /**
+     * Removes value for the specified key from cache and returns it.
+     *
+     * @param key value key
+     * @return removed value or null if there was no value for the specified key
+     */
+    public V remove ( final K key )
+    {
+        synchronized ( lock )
+        {
+            final CacheEntry old = entries.remove ( new CacheKey ( this, key ) );
+            if ( old != null )
+            {
+                size -= old.size;
+                cacheSize -= old.size;
+                count--;
+                return getValue ( old );
+            }
+            else
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Removes all values of this cache.
+     */
+    public void clear ()
+    {
+        synchronized ( lock )
+        {
+            final Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet ().iterator ();
+            while ( iterator.hasNext () )
+            {
+                final Map.Entry<CacheKey, CacheEntry> entry = iterator.next ();
+                if ( entry.getKey ().cache == this )
+                {
+                    size -= entry.getValue ().size;
+                    iterator.remove ();
+                }
+            }
+            cacheSize = 0;
+            count = 0;
+        }
+    }
+
+    /**
+     * Returns amount of values cached within this cache.
+     *
+     * @return amount of values cached within this cache
+     */
+    public int getCount ()
+    {
+        synchronized ( lock )
+        {
+            return count;
+        }
+    }
+
+    /**
+     * Returns size of values cached within this cache in bytes.
+     *
+     * @return size of values cached within this cache in bytes
+     */
+    public long getSize ()
+    {
+        synchronized ( lock )
+        {
+            return cacheSize;
+        }
+    }
+
+    /**
+     * Returns size limit of this cache in bytes.
+     * It is not limited by default, so only shared pool limit is applied.
+     *
+     * @return size limit of this cache in bytes
+     */
+    public long getMaxCacheSize ()
+    {
+        synchronized ( lock )
+        {
+            return maxCacheSize;
+        }
+    }
+
+    /**
+     * Sets size limit of this cache in bytes.
+     * Least recently used values of this cache are evicted immediately if its current size exceeds the new limit.
+     *
+     * @param maxCacheSize size limit of this cache in bytes
+     */
+    public void setMaxCacheSize ( final long maxCacheSize )
+    {
+        if ( maxCacheSize < 0 )
+        {
+            throw new IllegalArgumentException ( "Invalid cache size: " + maxCacheSize );
+        }
+        synchronized ( lock )
+        {
+            this.maxCacheSize = maxCacheSize;
+            evictOwn ();
+        }
+    }
+
+    /**
+     * Returns amount of cache hits.
+     *
+     * @return amount of cache hits
+     */
+    public long getHits ()
+    {
+        synchronized ( lock )
+        {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns amount of cache misses.
+     *
+     * @return amount of cache misses
+     */
+    public long getMisses ()
+    {
+        synchronized ( lock )
+        {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns amount of values evicted from this cache due to shared pool or cache size limit.
+     *
+     * @return amount of values evicted from this cache
+     */
+    public long getEvictions ()
+    {
+        synchronized ( lock )
+        {
+            return evictions;
+        }
+    }
+
+    /**
+     * Resets cache statistics.
+     */
+    public void resetStatistics ()
+    {
+        synchronized ( lock )
+        {
+            hits = 0;
+            misses = 0;
+            evictions = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString ()
+    {
+        synchronized ( lock )
+        {
+            return name + " [values: " + count + ", size: " + cacheSize + " bytes, hits: " + hits + ", misses: " + misses +
+                    ", evictions: " + evictions + "]";
+        }
+    }
+
+    /**
+     * Returns shared pool size limit in bytes.
+     *
+     * @return shared pool size limit in bytes
+     */
+    public static long getMaxSize ()
+    {
+        synchronized ( lock )
+        {
+            return maxSize;
+        }
+    }
+
+    /**
+     * Sets shared pool size limit in bytes.
+     * Least recently used values are evicted immediately if current pool size exceeds the new limit.
+     *
+     * @param maxSize shared pool size limit in bytes
+     */
+    public static void setMaxSize ( final long maxSize )
+    {
+        if ( maxSize < 0 )
+        {
+            throw new IllegalArgumentException ( "Invalid cache size: " + maxSize );
+        }
+        synchronized ( lock )
+        {
+            ImageCache.maxSize = maxSize;
+            evict ();
+        }
+    }
+
+    /**
+     * Returns shared pool current size in bytes.
+     *
+     * @return shared pool current size in bytes
+     */
+    public static long getPoolSize ()
+    {
+        synchronized ( lock )
+        {
+            return size;
+        }
+    }
+
+    /**
+     * Returns all created image caches.
+     *
+     * @return all created image caches
+     */
+    public static List<ImageCache<?, ?>> getCaches ()
+    {
+        synchronized ( lock )
+        {
+            return new ArrayList<ImageCache<?, ?>> ( caches );
+        }
+    }
+
+    /**
+     * Removes all values from all image caches.
+     */
+    public static void clearAll ()
+    {
+        synchronized ( lock )
+        {
+            entries.clear ();
+            size = 0;
+            for ( final ImageCache<?, ?> cache : caches )
+            {
+                cache.cacheSize = 0;
+                cache.count = 0;
+            }
+        }
+    }
+
+    /**
+     * Evicts least recently used values until shared pool size fits its limit.
+     * This method should only be called under the shared pool lock.
+     */
+    private static void evict ()
+    {
+        final Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet ().iterator ();
+        while ( size > maxSize && iterator.hasNext () )
+        {
+            final Map.Entry<CacheKey, CacheEntry> entry = iterator.next ();
+            final ImageCache<?, ?> cache = entry.getKey ().cache;
+            final long entrySize = entry.getValue ().size;
+            size -= entrySize;
+            cache.cacheSize -= entrySize;
+            cache.count--;
+            cache.evictions++;
+            iterator.remove ();
+        }
+    }
+
+    /**
+     * Evicts least recently used values of this cache until its size fits its own limit.
+     * This method should only be called under the shared pool lock.
+     */
+    private void evictOwn ()
+    {
+        final Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet ().iterator ();
+        while ( cacheSize > maxCacheSize && iterator.hasNext () )
+        {
+            final Map.Entry<CacheKey, CacheEntry> entry = iterator.next ();
+            if ( entry.getKey ().cache == this )
+            {
+                final long entrySize = entry.getValue ().size;
+                size -= entrySize;
+                cacheSize -= entrySize;
+                count--;
+                evictions++;
+                iterator.remove ();
+            }
+        }
+    }
+
+    /**
+     * Returns approximate pixel memory size of the specified value in bytes.
+     *
+     * @param value value to measure
+     * @return approximate pixel memory size of the specified value in bytes
+     */
+    public static long getSize ( final Object value )
+    {
+        if ( value instanceof ImageIcon )
+        {
+            final ImageIcon icon = ( ImageIcon ) value;
+            final Image image = icon.getImage ();
+            return image instanceof BufferedImage ? getSize ( image ) : getSize ( icon.getIconWidth (), icon.getIconHeight (), 4 );
+        }
+        else if ( value instanceof BufferedImage )
+        {
+            final BufferedImage image = ( BufferedImage ) value;
+            final int bytesPerPixel = Math.max ( 1, image.getColorModel ().getPixelSize () / 8 );
+            return getSize ( image.getWidth (), image.getHeight (), bytesPerPixel );
+        }
+        else if ( value instanceof Image )
+        {
+            final Image image = ( Image ) value;
+            return getSize ( image.getWidth ( null ), image.getHeight ( null ), 4 );
+        }
+        else if ( value instanceof Icon )
+        {
+            final Icon icon = ( Icon ) value;
+            return getSize ( icon.getIconWidth (), icon.getIconHeight (), 4 );
+        }
+        else
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns pixel memory size for the specified image dimensions.
+     *
+     * @param width         image width
+     * @param height        image height
+     * @param bytesPerPixel bytes per pixel
+     * @return pixel memory size for the specified image dimensions
+     */
+    private static long getSize ( final int width, final int height, final int bytesPerPixel )
+    {
+        return width > 0 && height > 0 ? ( long ) width * height * bytesPerPixel : 0;
+    }
+
+    /**
+     * Shared pool key which combines cache and value key.
+     */
+    private static final class CacheKey
+    {
+        /**
+         * Cache which owns the value.
+         */
+        private final ImageCache<?, ?> cache;
+
+        /**
+         * Value key.
+         */
+        private final Object key;
+
+        /**
+         * Constructs new shared pool key.
+         *
+         * @param cache cache which owns the value
+         * @param key   value key
+         */
+        public CacheKey ( final ImageCache<?, ?> cache, final Object key )
+        {
+            super ();
+            this.cache = cache;
+            this.key = key;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals ( final Object obj )
+        {
+            if ( obj instanceof CacheKey )
+            {
+                final CacheKey other = ( CacheKey ) obj;
+                return cache == other.cache && ( key == null ? other.key == null : key.equals ( other.key ) );
+            }
+            return false;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode ()
+        {
+            return 31 * System.identityHashCode ( cache ) + ( key != null ? key.hashCode () : 0 );
+        }
+    }
+
+    /**
+     * Shared pool entry.
+     */
+    private static final class CacheEntry
+    {
+        /**
+         * Cached value.
+         */
+        private final Object value;
+
+        /**
+         * Cached value size in bytes.
+         */
+        private final long size;
+
+        /**
+         * Constructs new shared pool entry.
+         *
+         * @param value cached value
+         * @param size  cached value size in bytes
+         */
+        public CacheEntry ( final Object value, final long size )
+        {
+            super ();
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
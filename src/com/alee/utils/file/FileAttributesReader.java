@@ -0,0 +1,174 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * This class reads basic file attributes with a single file system call.
+ * <p/>
+ * Java 7 "Files.readAttributes" method is used through reflection since library can still be used with Java 6. When that method is not
+ * available {@link #read(java.io.File, long[])} simply returns false and attributes should be read through separate File calls.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.file.FileMetadata
+ */
+
+final class FileAttributesReader
+{
+    /**
+     * Attribute flags.
+     */
+    public static final long EXISTS = 1;
+    public static final long IS_FILE = 2;
+    public static final long IS_DIRECTORY = 4;
+
+    /**
+     * Attributes array indices.
+     */
+    public static final int FLAGS = 0;
+    public static final int LENGTH = 1;
+    public static final int LAST_MODIFIED = 2;
+
+    /**
+     * Attributes array length.
+     */
+    public static final int ATTRIBUTES_COUNT = 3;
+
+    /**
+     * Reflected Java 7 methods, null if they are not available.
+     */
+    private static final Method toPath;
+    private static final Method readAttributes;
+    private static final Method isRegularFile;
+    private static final Method isDirectory;
+    private static final Method size;
+    private static final Method lastModifiedTime;
+    private static final Method toMillis;
+
+    /**
+     * Reflected attributes type and empty link options array.
+     */
+    private static final Class<?> attributesType;
+    private static final Object noLinkOptions;
+
+    static
+    {
+        Method toPathMethod = null;
+        Method readAttributesMethod = null;
+        Method isRegularFileMethod = null;
+        Method isDirectoryMethod = null;
+        Method sizeMethod = null;
+        Method lastModifiedTimeMethod = null;
+        Method toMillisMethod = null;
+        Class<?> type = null;
+        Object options = null;
+        try
+        {
+            final Class<?> pathType = Class.forName ( "java.nio.file.Path" );
+            final Class<?> linkOptionType = Class.forName ( "java.nio.file.LinkOption" );
+            type = Class.forName ( "java.nio.file.attribute.BasicFileAttributes" );
+            options = Array.newInstance ( linkOptionType, 0 );
+            toPathMethod = File.class.getMethod ( "toPath" );
+            readAttributesMethod = Class.forName ( "java.nio.file.Files" )
+                    .getMethod ( "readAttributes", pathType, Class.class, options.getClass () );
+            isRegularFileMethod = type.getMethod ( "isRegularFile" );
+            isDirectoryMethod = type.getMethod ( "isDirectory" );
+            sizeMethod = type.getMethod ( "size" );
+            lastModifiedTimeMethod = type.getMethod ( "lastModifiedTime" );
+            toMillisMethod = Class.forName ( "java.nio.file.attribute.FileTime" ).getMethod ( "toMillis" );
+        }
+        catch ( final Throwable e )
+        {
+            // Java 7 file API is not available
+            readAttributesMethod = null;
+        }
+        toPath = toPathMethod;
+        readAttributes = readAttributesMethod;
+        isRegularFile = isRegularFileMethod;
+        isDirectory = isDirectoryMethod;
+        size = sizeMethod;
+        lastModifiedTime = lastModifiedTimeMethod;
+        toMillis = toMillisMethod;
+        attributesType = type;
+        noLinkOptions = options;
+    }
+
+    /**
+     * Returns whether attributes can be read with a single call or not.
+     *
+     * @return true if attributes can be read with a single call, false otherwise
+     */
+    public static boolean isAvailable ()
+    {
+        return readAttributes != null;
+    }
+
+    /**
+     * Reads basic attributes of the specified file into the specified array.
+     * Attributes flags, length and last modification time are put under {@link #FLAGS}, {@link #LENGTH} and {@link #LAST_MODIFIED}.
+     * Files which cannot be accessed are reported as non-existing, just like File methods do it.
+     *
+     * @param file       file to read attributes for
+     * @param attributes array to read attributes into
+     * @return true if attributes were read, false if they should be read through separate File calls
+     */
+    public static boolean read ( final File file, final long[] attributes )
+    {
+        if ( readAttributes == null )
+        {
+            return false;
+        }
+        try
+        {
+            final Object path = toPath.invoke ( file );
+            final Object basic;
+            try
+            {
+                basic = readAttributes.invoke ( null, path, attributesType, noLinkOptions );
+            }
+            catch ( final InvocationTargetException e )
+            {
+                if ( e.getCause () instanceof IOException )
+                {
+                    // File doesn't exist or cannot be accessed
+                    attributes[ FLAGS ] = 0;
+                    attributes[ LENGTH ] = 0;
+                    attributes[ LAST_MODIFIED ] = 0;
+                    return true;
+                }
+                return false;
+            }
+            final boolean regularFile = ( Boolean ) isRegularFile.invoke ( basic );
+            final boolean directory = ( Boolean ) isDirectory.invoke ( basic );
+            attributes[ FLAGS ] = EXISTS | ( regularFile ? IS_FILE : 0 ) | ( directory ? IS_DIRECTORY : 0 );
+            attributes[ LENGTH ] = ( Long ) size.invoke ( basic );
+            attributes[ LAST_MODIFIED ] = ( Long ) toMillis.invoke ( lastModifiedTime.invoke ( basic ) );
+            return true;
+        }
+        catch ( final Throwable e )
+        {
+            // Invalid path or unexpected reflection problem
+            return false;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class watches directories of the cached files and removes metadata records of files changed within them.
+ * <p/>
+ * Java 7 "WatchService" is used through reflection since library can still be used with Java 6. When it is not available
+ * {@link #create(FileMetadataCache)} returns null and metadata records are only refreshed according to their time to live.
+ * <p/>
+ * Amount of watched directories is limited, least recently watched directories stop being watched when that limit is exceeded.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.file.FileMetadataCache
+ */
+
+final class FileChangeWatcher implements Runnable
+{
+    /**
+     * Maximum amount of watched directories.
+     */
+    public static final int MAX_WATCHED_DIRECTORIES = 256;
+
+    /**
+     * Reflected Java 7 methods and values, null if they are not available.
+     */
+    private static final Method newWatchService;
+    private static final Method toPath;
+    private static final Method register;
+    private static final Method take;
+    private static final Method pollEvents;
+    private static final Method reset;
+    private static final Method cancel;
+    private static final Method kind;
+    private static final Method context;
+    private static final Object fileSystem;
+    private static final Object watchedKinds;
+    private static final Object overflowKind;
+
+    static
+    {
+        Method newWatchServiceMethod = null;
+        Method toPathMethod = null;
+        Method registerMethod = null;
+        Method takeMethod = null;
+        Method pollEventsMethod = null;
+        Method resetMethod = null;
+        Method cancelMethod = null;
+        Method kindMethod = null;
+        Method contextMethod = null;
+        Object defaultFileSystem = null;
+        Object kinds = null;
+        Object overflow = null;
+        try
+        {
+            final Class<?> watchServiceType = Class.forName ( "java.nio.file.WatchService" );
+            final Class<?> watchKeyType = Class.forName ( "java.nio.file.WatchKey" );
+            final Class<?> watchEventType = Class.forName ( "java.nio.file.WatchEvent" );
+            final Class<?> kindType = Class.forName ( "java.nio.file.WatchEvent$Kind" );
+            final Class<?> kindsType = Class.forName ( "java.nio.file.StandardWatchEventKinds" );
+            defaultFileSystem = Class.forName ( "java.nio.file.FileSystems" ).getMethod ( "getDefault" ).invoke ( null );
+            kinds = Array.newInstance ( kindType, 3 );
+            Array.set ( kinds, 0, kindsType.getField ( "ENTRY_CREATE" ).get ( null ) );
+            Array.set ( kinds, 1, kindsType.getField ( "ENTRY_DELETE" ).get ( null ) );
+            Array.set ( kinds, 2, kindsType.getField ( "ENTRY_MODIFY" ).get ( null ) );
+            overflow = kindsType.getField ( "OVERFLOW" ).get ( null );
+            newWatchServiceMethod = Class.forName ( "java.nio.file.FileSystem" ).getMethod ( "newWatchService" );
+            toPathMethod = File.class.getMethod ( "toPath" );
+            registerMethod = Class.forName ( "java.nio.file.Path" ).getMethod ( "register", watchServiceType, kinds.getClass () );
+            takeMethod = watchServiceType.getMethod ( "take" );
+            pollEventsMethod = watchKeyType.getMethod ( "pollEvents" );
+            resetMethod = watchKeyType.getMethod ( "reset" );
+            cancelMethod = watchKeyType.getMethod ( "cancel" );
+            kindMethod = watchEventType.getMethod ( "kind" );
+            contextMethod = watchEventType.getMethod ( "context" );
+        }
+        catch ( final Throwable e )
+        {
+            // Java 7 watch service is not available
+            newWatchServiceMethod = null;
+        }
+        newWatchService = newWatchServiceMethod;
+        toPath = toPathMethod;
+        register = registerMethod;
+        take = takeMethod;
+        pollEvents = pollEventsMethod;
+        reset = resetMethod;
+        cancel = cancelMethod;
+        kind = kindMethod;
+        context = contextMethod;
+        fileSystem = defaultFileSystem;
+        watchedKinds = kinds;
+        overflowKind = overflow;
+    }
+
+    /**
+     * Metadata cache to update.
+     */
+    private final FileMetadataCache cache;
+
+    /**
+     * Watch service.
+     */
+    private final Object watchService;
+
+    /**
+     * Watch keys mapped by watched directory path in least recently watched order.
+     */
+    private final LinkedHashMap<String, Object> keys = new LinkedHashMap<String, Object> ( 64, 0.75f, true );
+
+    /**
+     * Watched directories mapped by their watch keys.
+     */
+    private final Map<Object, File> directories = new HashMap<Object, File> ();
+
+    /**
+     * Whether watch thread is started or not.
+     */
+    private boolean started = false;
+
+    /**
+     * Constructs new watcher for the specified cache.
+     *
+     * @param cache        metadata cache to update
+     * @param watchService watch service
+     */
+    private FileChangeWatcher ( final FileMetadataCache cache, final Object watchService )
+    {
+        super ();
+        this.cache = cache;
+        this.watchService = watchService;
+    }
+
+    /**
+     * Returns new watcher for the specified cache or null if file changes cannot be watched.
+     *
+     * @param cache metadata cache to update
+     * @return new watcher for the specified cache or null if file changes cannot be watched
+     */
+    public static FileChangeWatcher create ( final FileMetadataCache cache )
+    {
+        if ( newWatchService == null )
+        {
+            return null;
+        }
+        try
+        {
+            return new FileChangeWatcher ( cache, newWatchService.invoke ( fileSystem ) );
+        }
+        catch ( final Throwable e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Starts watching the specified directory if it is not watched yet.
+     * Watch thread is started when the first directory is watched.
+     *
+     * @param directory directory to watch
+     */
+    public void watch ( final File directory )
+    {
+        final String path = directory.getAbsolutePath ();
+        synchronized ( keys )
+        {
+            if ( keys.get ( path ) != null )
+            {
+                return;
+            }
+            try
+            {
+                final Object key = register.invoke ( toPath.invoke ( directory ), watchService, watchedKinds );
+                keys.put ( path, key );
+                directories.put ( key, directory );
+            }
+            catch ( final Throwable e )
+            {
+                // Directory cannot be watched, its records will be refreshed according to their time to live
+                return;
+            }
+
+            // Releasing least recently watched directories
+            final Iterator<Map.Entry<String, Object>> iterator = keys.entrySet ().iterator ();
+            while ( keys.size () > MAX_WATCHED_DIRECTORIES && iterator.hasNext () )
+            {
+                final Object key = iterator.next ().getValue ();
+                iterator.remove ();
+                directories.remove ( key );
+                invokeQuietly ( cancel, key );
+            }
+
+            // Starting watch thread
+            if ( !started )
+            {
+                started = true;
+                final Thread thread = new Thread ( this, "FileChangeWatcher" );
+                thread.setDaemon ( true );
+                thread.start ();
+            }
+        }
+    }
+
+    /**
+     * Stops watching all directories and closes watch service.
+     */
+    public void close ()
+    {
+        synchronized ( keys )
+        {
+            keys.clear ();
+            directories.clear ();
+        }
+        try
+        {
+            ( ( Closeable ) watchService ).close ();
+        }
+        catch ( final IOException e )
+        {
+            // Nothing to do here
+        }
+    }
+
+    /**
+     * Processes file change events until watch service is closed.
+     */
+    @Override
+    public void run ()
+    {
+        while ( true )
+        {
+            final Object key;
+            try
+            {
+                key = take.invoke ( watchService );
+            }
+            catch ( final Throwable e )
+            {
+                // Watch service was closed or thread was interrupted
+                return;
+            }
+
+            final File directory;
+            synchronized ( keys )
+            {
+                directory = directories.get ( key );
+            }
+            if ( directory != null )
+            {
+                processEvents ( key, directory );
+            }
+        }
+    }
+
+    /**
+     * Removes metadata records of the files changed within the specified directory.
+     *
+     * @param key       signalled watch key
+     * @param directory watched directory
+     */
+    private void processEvents ( final Object key, final File directory )
+    {
+        try
+        {
+            final List<?> events = ( List<?> ) pollEvents.invoke ( key );
+            for ( final Object event : events )
+            {
+                if ( kind.invoke ( event ) == overflowKind )
+                {
+                    // Some events were lost, so all records within the directory are outdated
+                    cache.removeChildren ( directory.getAbsolutePath () );
+                }
+                else
+                {
+                    cache.remove ( new File ( directory, context.invoke ( event ).toString () ).getAbsolutePath () );
+                }
+            }
+            if ( !( Boolean ) reset.invoke ( key ) )
+            {
+                // Directory is no longer accessible
+                synchronized ( keys )
+                {
+                    keys.remove ( directory.getAbsolutePath () );
+                    directories.remove ( key );
+                }
+            }
+        }
+        catch ( final Throwable e )
+        {
+            // Events of this key are skipped, records will be refreshed according to their time to live
+        }
+    }
+
+    /**
+     * Invokes the specified no-argument method ignoring any exceptions.
+     *
+     * @param method method to invoke
+     * @param object object to invoke method for
+     */
+    private static void invokeQuietly ( final Method method, final Object object )
+    {
+        try
+        {
+            method.invoke ( object );
+        }
+        catch ( final Throwable e )
+        {
+            // Nothing to do here
+        }
+    }
+}
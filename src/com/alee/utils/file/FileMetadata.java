@@ -0,0 +1,352 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.file;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class represents cached metadata of a single file.
+ * <p/>
+ * All file attributes and values like display name or type description are requested from the system only when they are needed for
+ * the first time and stored within this metadata afterwards. When running on Java 7 or later basic file attributes (existence, type,
+ * length and last modification time) are read together with a single file system call, otherwise each of them is read separately.
+ * File length and last modification time might change at any time, so they are read again once they get older than
+ * {@link #changingValuesTimeToLive}, display values based on them are cleared if they change.
+ * <p/>
+ * Each cached attribute and value can be cleared separately using its key, it will be read again when requested.
+ * <p/>
+ * This class is thread-safe, though some lazy value might be computed more than once if it is requested from different threads
+ * simultaneously.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.file.FileMetadataCache
+ */
+
+public final class FileMetadata
+{
+    /**
+     * Lazy values keys.
+     */
+    public static final int DISPLAY_NAME = 0;
+    public static final int TYPE_DESCRIPTION = 1;
+    public static final int DESCRIPTION = 2;
+    public static final int DISPLAY_SIZE = 3;
+    public static final int DISPLAY_CREATION_DATE = 4;
+    public static final int DISPLAY_MODIFICATION_DATE = 5;
+    public static final int IS_DRIVE = 6;
+    public static final int IS_COMPUTER = 7;
+    public static final int IS_CD_DRIVE = 8;
+
+    /**
+     * Basic file attributes keys.
+     */
+    public static final int EXISTS = 9;
+    public static final int IS_FILE = 10;
+    public static final int IS_DIRECTORY = 11;
+    public static final int IS_HIDDEN = 12;
+
+    /**
+     * Lazy values amount.
+     */
+    public static final int VALUES_COUNT = 13;
+
+    /**
+     * Time in milliseconds after which file length and last modification time are read from the file system again.
+     * Zero means that they are read each time they are requested.
+     */
+    public static long changingValuesTimeToLive = 1000;
+
+    /**
+     * Marker for basic attributes which cannot be read with a single call.
+     */
+    private static final long NOT_READ = -1;
+
+    /**
+     * Marker for computed null values.
+     */
+    private static final Object NULL = new Object ();
+
+    /**
+     * Absolute file.
+     */
+    private final File file;
+
+    /**
+     * Absolute file path.
+     */
+    private final String path;
+
+    /**
+     * Changing file attributes and the time they were read at.
+     * Zero read time means that attribute wasn't read yet.
+     */
+    private volatile long length;
+    private volatile long lengthReadTime = 0;
+    private volatile long lastModified;
+    private volatile long lastModifiedReadTime = 0;
+
+    /**
+     * Time when this metadata was created.
+     */
+    private final long creationTime;
+
+    /**
+     * Lazy values and basic file attributes.
+     */
+    private final AtomicReferenceArray<Object> values = new AtomicReferenceArray<Object> ( VALUES_COUNT );
+
+    /**
+     * Constructs metadata for the specified file.
+     * No file attributes are read at this point.
+     *
+     * @param file file to read metadata for
+     */
+    public FileMetadata ( final File file )
+    {
+        super ();
+        this.file = file.getAbsoluteFile ();
+        this.path = this.file.getAbsolutePath ();
+        this.creationTime = System.currentTimeMillis ();
+    }
+
+    /**
+     * Returns absolute file path.
+     *
+     * @return absolute file path
+     */
+    public String getPath ()
+    {
+        return path;
+    }
+
+    /**
+     * Returns whether file exists or not.
+     *
+     * @return true if file exists, false otherwise
+     */
+    public boolean exists ()
+    {
+        final Boolean exists = getValue ( EXISTS, Boolean.class );
+        if ( exists != null )
+        {
+            return exists;
+        }
+        final long flags = readAttributes ();
+        return flags != NOT_READ ? ( flags & FileAttributesReader.EXISTS ) != 0 : setValue ( EXISTS, file.exists () );
+    }
+
+    /**
+     * Returns whether file is a normal file or not.
+     *
+     * @return true if file is a normal file, false otherwise
+     */
+    public boolean isFile ()
+    {
+        final Boolean isFile = getValue ( IS_FILE, Boolean.class );
+        if ( isFile != null )
+        {
+            return isFile;
+        }
+        final long flags = readAttributes ();
+        return flags != NOT_READ ? ( flags & FileAttributesReader.IS_FILE ) != 0 : setValue ( IS_FILE, file.isFile () );
+    }
+
+    /**
+     * Returns whether file is a directory or not.
+     *
+     * @return true if file is a directory, false otherwise
+     */
+    public boolean isDirectory ()
+    {
+        final Boolean isDirectory = getValue ( IS_DIRECTORY, Boolean.class );
+        if ( isDirectory != null )
+        {
+            return isDirectory;
+        }
+        final long flags = readAttributes ();
+        return flags != NOT_READ ? ( flags & FileAttributesReader.IS_DIRECTORY ) != 0 : setValue ( IS_DIRECTORY, file.isDirectory () );
+    }
+
+    /**
+     * Returns whether file is hidden or not.
+     * File system roots are never considered to be hidden.
+     *
+     * @return true if file is hidden, false otherwise
+     */
+    public boolean isHidden ()
+    {
+        final Boolean hidden = getValue ( IS_HIDDEN, Boolean.class );
+        return hidden != null ? hidden : setValue ( IS_HIDDEN, file.getParentFile () != null && file.isHidden () );
+    }
+
+    /**
+     * Returns file length in bytes.
+     * Length is read again if it is older than {@link #changingValuesTimeToLive}.
+     * Display size and description values are cleared if length has changed.
+     *
+     * @return file length in bytes
+     */
+    public long getLength ()
+    {
+        final long time = System.currentTimeMillis ();
+        final long readTime = lengthReadTime;
+        if ( ( readTime == 0 || time - readTime >= changingValuesTimeToLive ) && readAttributes () == NOT_READ )
+        {
+            updateLength ( isFile () ? file.length () : 0, time );
+        }
+        return length;
+    }
+
+    /**
+     * Updates file length.
+     * Display size and description values are cleared if length has changed.
+     *
+     * @param length file length in bytes
+     * @param time   time when length was read
+     */
+    private void updateLength ( final long length, final long time )
+    {
+        if ( lengthReadTime != 0 && length != this.length )
+        {
+            clearValue ( DISPLAY_SIZE );
+            clearValue ( DESCRIPTION );
+        }
+        this.length = length;
+        this.lengthReadTime = time;
+    }
+
+    /**
+     * Returns file last modification time.
+     * Modification time is read again if it is older than {@link #changingValuesTimeToLive}.
+     * Display date values are cleared if modification time has changed.
+     *
+     * @return file last modification time
+     */
+    public long getLastModified ()
+    {
+        final long time = System.currentTimeMillis ();
+        final long readTime = lastModifiedReadTime;
+        if ( ( readTime == 0 || time - readTime >= changingValuesTimeToLive ) && readAttributes () == NOT_READ )
+        {
+            updateLastModified ( file.lastModified (), time );
+        }
+        return lastModified;
+    }
+
+    /**
+     * Updates file last modification time.
+     * Display date values are cleared if modification time has changed.
+     *
+     * @param lastModified file last modification time
+     * @param time         time when modification time was read
+     */
+    private void updateLastModified ( final long lastModified, final long time )
+    {
+        if ( lastModifiedReadTime != 0 && lastModified != this.lastModified )
+        {
+            clearValue ( DISPLAY_CREATION_DATE );
+            clearValue ( DISPLAY_MODIFICATION_DATE );
+        }
+        this.lastModified = lastModified;
+        this.lastModifiedReadTime = time;
+    }
+
+    /**
+     * Reads file existence, type, length and last modification time with a single file system call and stores them.
+     * This is only possible on Java 7 or later.
+     *
+     * @return read attribute flags or {@link #NOT_READ} if attributes should be read separately
+     */
+    private long readAttributes ()
+    {
+        final long[] attributes = new long[ FileAttributesReader.ATTRIBUTES_COUNT ];
+        if ( !FileAttributesReader.read ( file, attributes ) )
+        {
+            return NOT_READ;
+        }
+        final long time = System.currentTimeMillis ();
+        final long flags = attributes[ FileAttributesReader.FLAGS ];
+        final boolean isFile = ( flags & FileAttributesReader.IS_FILE ) != 0;
+        setValue ( EXISTS, ( flags & FileAttributesReader.EXISTS ) != 0 );
+        setValue ( IS_FILE, isFile );
+        setValue ( IS_DIRECTORY, ( flags & FileAttributesReader.IS_DIRECTORY ) != 0 );
+        updateLength ( isFile ? attributes[ FileAttributesReader.LENGTH ] : 0, time );
+        updateLastModified ( attributes[ FileAttributesReader.LAST_MODIFIED ], time );
+        return flags;
+    }
+
+    /**
+     * Returns time when this metadata was created.
+     *
+     * @return time when this metadata was created
+     */
+    public long getCreationTime ()
+    {
+        return creationTime;
+    }
+
+    /**
+     * Returns whether lazy value for the specified key was already computed or not.
+     *
+     * @param key value key
+     * @return true if lazy value for the specified key was already computed, false otherwise
+     */
+    public boolean hasValue ( final int key )
+    {
+        return values.get ( key ) != null;
+    }
+
+    /**
+     * Returns lazy value for the specified key or null if it wasn't computed yet.
+     *
+     * @param key  value key
+     * @param type value type
+     * @param <T>  value type
+     * @return lazy value for the specified key or null if it wasn't computed yet
+     */
+    public <T> T getValue ( final int key, final Class<T> type )
+    {
+        final Object value = values.get ( key );
+        return value != NULL ? type.cast ( value ) : null;
+    }
+
+    /**
+     * Stores lazy value for the specified key and returns it.
+     *
+     * @param key   value key
+     * @param value value to store
+     * @param <T>   value type
+     * @return stored value
+     */
+    public <T> T setValue ( final int key, final T value )
+    {
+        values.set ( key, value != null ? value : NULL );
+        return value;
+    }
+
+    /**
+     * Clears lazy value for the specified key.
+     *
+     * @param key value key
+     */
+    public void clearValue ( final int key )
+    {
+        values.set ( key, null );
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.file;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe store of file metadata which keeps a single metadata record for each file path.
+ * <p/>
+ * Store has a limited size and evicts least recently used records when that size is exceeded. Records can also be given a limited time
+ * to live after which they are read from the file system again, that allows store to pick up file system changes made outside of the
+ * application without clearing it manually. File length and modification time are refreshed by records themselves regardless of
+ * this setting, see {@link com.alee.utils.file.FileMetadata#changingValuesTimeToLive}.
+ * <p/>
+ * When running on Java 7 or later store can also watch directories of the stored records and remove records of the files changed within
+ * them as soon as the change happens, see {@link #setWatchChanges(boolean)}.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.file.FileMetadata
+ * @see com.alee.utils.FileUtils
+ */
+
+public final class FileMetadataCache
+{
+    /**
+     * Default maximum amount of stored records.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    /**
+     * Stored records in least recently used order.
+     */
+    private final LinkedHashMap<String, FileMetadata> records = new LinkedHashMap<String, FileMetadata> ( 64, 0.75f, true );
+
+    /**
+     * Maximum amount of stored records.
+     */
+    private int maxSize;
+
+    /**
+     * Records time to live in milliseconds.
+     * Zero means that records are kept until they are evicted or cleared.
+     */
+    private long timeToLive;
+
+    /**
+     * File changes watcher, null if changes are not watched.
+     */
+    private FileChangeWatcher watcher = null;
+
+    /**
+     * Store statistics.
+     */
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Constructs new store with default maximum size and unlimited records time to live.
+     */
+    public FileMetadataCache ()
+    {
+        this ( DEFAULT_MAX_SIZE, 0 );
+    }
+
+    /**
+     * Constructs new store with the specified maximum size and records time to live.
+     *
+     * @param maxSize    maximum amount of stored records
+     * @param timeToLive records time to live in milliseconds, zero means unlimited time
+     */
+    public FileMetadataCache ( final int maxSize, final long timeToLive )
+    {
+        super ();
+        setMaxSize ( maxSize );
+        setTimeToLive ( timeToLive );
+    }
+
+    /**
+     * Returns metadata record for the specified file.
+     * Record is created if it doesn't exist yet or if it is outdated.
+     *
+     * @param file file to retrieve metadata for
+     * @return metadata record for the specified file
+     */
+    public FileMetadata get ( final File file )
+    {
+        final String path = file.getAbsolutePath ();
+        synchronized ( records )
+        {
+            final FileMetadata metadata = records.get ( path );
+            if ( metadata != null && ( timeToLive <= 0 || System.currentTimeMillis () - metadata.getCreationTime () < timeToLive ) )
+            {
+                hits++;
+                return metadata;
+            }
+        }
+
+        // File attributes are read lazily by the record itself
+        final FileMetadata metadata = new FileMetadata ( file );
+        final FileChangeWatcher watcher;
+        synchronized ( records )
+        {
+            misses++;
+            records.put ( path, metadata );
+            evict ();
+            watcher = this.watcher;
+        }
+
+        // Watching for file changes
+        if ( watcher != null )
+        {
+            final File parent = file.getAbsoluteFile ().getParentFile ();
+            if ( parent != null )
+            {
+                watcher.watch ( parent );
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Removes metadata record for the specified file path.
+     *
+     * @param path absolute file path
+     */
+    public void remove ( final String path )
+    {
+        synchronized ( records )
+        {
+            records.remove ( path );
+        }
+    }
+
+    /**
+     * Removes metadata records of all files located directly within the directory under the specified path.
+     *
+     * @param path absolute directory path
+     */
+    public void removeChildren ( final String path )
+    {
+        final String prefix = path.endsWith ( File.separator ) ? path : path + File.separator;
+        synchronized ( records )
+        {
+            final Iterator<String> iterator = records.keySet ().iterator ();
+            while ( iterator.hasNext () )
+            {
+                final String recordPath = iterator.next ();
+                if ( recordPath.startsWith ( prefix ) && recordPath.indexOf ( File.separatorChar, prefix.length () ) == -1 )
+                {
+                    iterator.remove ();
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears lazy value with the specified key within the record for the specified file path.
+     *
+     * @param path absolute file path
+     * @param key  lazy value key
+     */
+    public void clearValue ( final String path, final int key )
+    {
+        synchronized ( records )
+        {
+            final FileMetadata metadata = records.get ( path );
+            if ( metadata != null )
+            {
+                metadata.clearValue ( key );
+            }
+        }
+    }
+
+    /**
+     * Clears lazy value with the specified key within all records.
+     *
+     * @param key lazy value key
+     */
+    public void clearValues ( final int key )
+    {
+        synchronized ( records )
+        {
+            for ( final FileMetadata metadata : records.values () )
+            {
+                metadata.clearValue ( key );
+            }
+        }
+    }
+
+    /**
+     * Removes all records.
+     */
+    public void clear ()
+    {
+        synchronized ( records )
+        {
+            records.clear ();
+        }
+    }
+
+    /**
+     * Returns amount of stored records.
+     *
+     * @return amount of stored records
+     */
+    public int size ()
+    {
+        synchronized ( records )
+        {
+            return records.size ();
+        }
+    }
+
+    /**
+     * Returns maximum amount of stored records.
+     *
+     * @return maximum amount of stored records
+     */
+    public int getMaxSize ()
+    {
+        synchronized ( records )
+        {
+            return maxSize;
+        }
+    }
+
+    /**
+     * Sets maximum amount of stored records.
+     * Least recently used records are evicted immediately if there are more records than the new limit.
+     *
+     * @param maxSize maximum amount of stored records
+     */
+    public void setMaxSize ( final int maxSize )
+    {
+        if ( maxSize <= 0 )
+        {
+            throw new IllegalArgumentException ( "Invalid cache size: " + maxSize );
+        }
+        synchronized ( records )
+        {
+            this.maxSize = maxSize;
+            evict ();
+        }
+    }
+
+    /**
+     * Returns records time to live in milliseconds.
+     *
+     * @return records time to live in milliseconds
+     */
+    public long getTimeToLive ()
+    {
+        synchronized ( records )
+        {
+            return timeToLive;
+        }
+    }
+
+    /**
+     * Sets records time to live in milliseconds.
+     * Zero means that records are kept until they are evicted or cleared.
+     *
+     * @param timeToLive records time to live in milliseconds
+     */
+    public void setTimeToLive ( final long timeToLive )
+    {
+        synchronized ( records )
+        {
+            this.timeToLive = Math.max ( 0, timeToLive );
+        }
+    }
+
+    /**
+     * Returns whether file changes are watched or not.
+     *
+     * @return true if file changes are watched, false otherwise
+     */
+    public boolean isWatchChanges ()
+    {
+        synchronized ( records )
+        {
+            return watcher != null;
+        }
+    }
+
+    /**
+     * Sets whether file changes should be watched or not.
+     * Changes can only be watched when running on Java 7 or later, otherwise this setting has no effect.
+     * Only a limited amount of most recently used directories is watched at once.
+     *
+     * @param watch whether file changes should be watched or not
+     * @return true if file changes are watched, false otherwise
+     */
+    public boolean setWatchChanges ( final boolean watch )
+    {
+        synchronized ( records )
+        {
+            if ( watch && watcher == null )
+            {
+                watcher = FileChangeWatcher.create ( this );
+            }
+            else if ( !watch && watcher != null )
+            {
+                watcher.close ();
+                watcher = null;
+            }
+            return watcher != null;
+        }
+    }
+
+    /**
+     * Returns amount of record requests served from the store.
+     *
+     * @return amount of record requests served from the store
+     */
+    public long getHits ()
+    {
+        synchronized ( records )
+        {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns amount of record requests which required creating new record.
+     *
+     * @return amount of record requests which required creating new record
+     */
+    public long getMisses ()
+    {
+        synchronized ( records )
+        {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns amount of records evicted due to store size limit.
+     *
+     * @return amount of records evicted due to store size limit
+     */
+    public long getEvictions ()
+    {
+        synchronized ( records )
+        {
+            return evictions;
+        }
+    }
+
+    /**
+     * Resets store statistics.
+     */
+    public void resetStatistics ()
+    {
+        synchronized ( records )
+        {
+            hits = 0;
+            misses = 0;
+            evictions = 0;
+        }
+    }
+
+    /**
+     * Evicts least recently used records until store size fits its limit.
+     * This method should only be called under the records lock.
+     */
+    private void evict ()
+    {
+        final Iterator<Map.Entry<String, FileMetadata>> iterator = records.entrySet ().iterator ();
+        while ( records.size () > maxSize && iterator.hasNext () )
+        {
+            iterator.next ();
+            iterator.remove ();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.file;
+
+import javax.swing.*;
+import java.io.File;
+import java.util.EventListener;
+
+/**
+ * This listener interface is used to receive thumbnails created by ThumbnailService.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.file.ThumbnailService
+ */
+
+public interface ThumbnailListener extends EventListener
+{
+    /**
+     * Called when thumbnail creation is finished.
+     * This method is called from one of the thumbnail service threads.
+     *
+     * @param file      image file
+     * @param thumbnail created thumbnail with original image size as description or null if thumbnail cannot be created
+     */
+    public void thumbnailCreated ( File file, ImageIcon thumbnail );
+}
@@ -0,0 +1,576 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.file;
+
+import com.alee.utils.FileUtils;
+import com.alee.utils.ImageUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.Iterator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service that creates image file thumbnails on a limited pool of threads.
+ * <p/>
+ * Requests are executed from the most recently requested or prioritized one to the oldest one, so components can push thumbnails of
+ * the currently visible elements forward and cancel requests for elements which are no longer visible. Images are decoded with source
+ * subsampling, so large images are never fully decoded just to create a small thumbnail. Created thumbnails can also be stored in an
+ * optional disk cache which is keyed by file path, size and modification time.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.file.ThumbnailListener
+ */
+
+public final class ThumbnailService
+{
+    /**
+     * Default amount of thumbnail service threads.
+     */
+    public static int defaultThreadsAmount = Math.max ( 1, Math.min ( 4, Runtime.getRuntime ().availableProcessors () ) );
+
+    /**
+     * Threads keep-alive time in milliseconds.
+     */
+    private static final long KEEP_ALIVE_TIME = 10000;
+
+    /**
+     * Disk cache files extension.
+     */
+    private static final String CACHE_FILE_EXTENSION = ".thumb";
+
+    /**
+     * Shared thumbnail service instance.
+     */
+    private static ThumbnailService instance;
+
+    /**
+     * Requests executor.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Requests priority sequence.
+     */
+    private final AtomicLong sequence = new AtomicLong ( 0 );
+
+    /**
+     * Disk cache directory or null if disk cache is disabled.
+     */
+    private volatile File cacheDirectory = null;
+
+    /**
+     * Service statistics.
+     */
+    private final AtomicLong createdCount = new AtomicLong ( 0 );
+    private final AtomicLong diskCacheHits = new AtomicLong ( 0 );
+    private final AtomicLong cancelledCount = new AtomicLong ( 0 );
+
+    /**
+     * Returns shared thumbnail service instance.
+     *
+     * @return shared thumbnail service instance
+     */
+    public static synchronized ThumbnailService getInstance ()
+    {
+        if ( instance == null )
+        {
+            instance = new ThumbnailService ( defaultThreadsAmount );
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs new thumbnail service which uses the specified amount of threads.
+     *
+     * @param threadsAmount amount of threads
+     */
+    public ThumbnailService ( final int threadsAmount )
+    {
+        super ();
+        final AtomicInteger threadNumber = new AtomicInteger ( 0 );
+        executor = new ThreadPoolExecutor ( threadsAmount, threadsAmount, KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable> (), new ThreadFactory ()
+        {
+            @Override
+            public Thread newThread ( final Runnable r )
+            {
+                final Thread thread = new Thread ( r, "ThumbnailService-" + threadNumber.incrementAndGet () );
+                thread.setDaemon ( true );
+                thread.setPriority ( Thread.MIN_PRIORITY );
+                return thread;
+            }
+        } );
+        executor.allowCoreThreadTimeOut ( true );
+    }
+
+    /**
+     * Returns disk cache directory or null if disk cache is disabled.
+     *
+     * @return disk cache directory or null if disk cache is disabled
+     */
+    public File getCacheDirectory ()
+    {
+        return cacheDirectory;
+    }
+
+    /**
+     * Sets disk cache directory.
+     * Disk cache is disabled if null is specified.
+     *
+     * @param cacheDirectory disk cache directory or null to disable disk cache
+     */
+    public void setCacheDirectory ( final File cacheDirectory )
+    {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Requests thumbnail creation for the specified image file.
+     * New request is executed before all previous requests.
+     *
+     * @param file     image file
+     * @param size     maximum thumbnail side length
+     * @param listener listener to inform when thumbnail is created
+     * @return thumbnail request
+     */
+    public Request request ( final File file, final int size, final ThumbnailListener listener )
+    {
+        final Request request = new Request ( file, size, listener, sequence.incrementAndGet () );
+        executor.execute ( request );
+        return request;
+    }
+
+    /**
+     * Moves specified request before all other requests if it is not started yet.
+     *
+     * @param request request to prioritize
+     * @return true if request was prioritized, false if it was already started or cancelled
+     */
+    public boolean prioritize ( final Request request )
+    {
+        if ( executor.remove ( request ) )
+        {
+            request.priority = sequence.incrementAndGet ();
+            executor.execute ( request );
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Cancels specified request if it is not started yet.
+     *
+     * @param request request to cancel
+     * @return true if request was cancelled, false if it was already started or cancelled
+     */
+    public boolean cancel ( final Request request )
+    {
+        if ( executor.remove ( request ) )
+        {
+            cancelledCount.incrementAndGet ();
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Returns amount of pending requests.
+     *
+     * @return amount of pending requests
+     */
+    public int getQueueSize ()
+    {
+        return executor.getQueue ().size ();
+    }
+
+    /**
+     * Returns amount of created thumbnails, including those read from disk cache.
+     *
+     * @return amount of created thumbnails
+     */
+    public long getCreatedCount ()
+    {
+        return createdCount.get ();
+    }
+
+    /**
+     * Returns amount of thumbnails read from disk cache.
+     *
+     * @return amount of thumbnails read from disk cache
+     */
+    public long getDiskCacheHits ()
+    {
+        return diskCacheHits.get ();
+    }
+
+    /**
+     * Returns amount of cancelled requests.
+     *
+     * @return amount of cancelled requests
+     */
+    public long getCancelledCount ()
+    {
+        return cancelledCount.get ();
+    }
+
+    /**
+     * Returns thumbnail for the specified image file.
+     * This method reads thumbnail from disk cache if possible, otherwise it creates thumbnail and stores it into disk cache.
+     *
+     * @param file image file
+     * @param size maximum thumbnail side length
+     * @return thumbnail with original image size as description or null if thumbnail cannot be created
+     */
+    public ImageIcon createThumbnail ( final File file, final int size )
+    {
+        // Trying to read thumbnail from disk cache
+        final File cacheFile = getCacheFile ( file, size );
+        if ( cacheFile != null && cacheFile.exists () )
+        {
+            final ImageIcon thumbnail = readCacheFile ( cacheFile );
+            if ( thumbnail != null )
+            {
+                createdCount.incrementAndGet ();
+                diskCacheHits.incrementAndGet ();
+                return thumbnail;
+            }
+        }
+
+        // Decoding subsampled image
+        final Dimension imageSize = new Dimension ();
+        final BufferedImage image = readSubsampledImage ( file, size * 2, imageSize );
+        final ImageIcon thumbnail;
+        if ( image != null )
+        {
+            thumbnail = new ImageIcon ( ImageUtils.createPreviewImage ( image, size ) );
+            thumbnail.setDescription ( imageSize.width + "x" + imageSize.height );
+        }
+        else
+        {
+            // Image format is not supported by ImageIO readers
+            thumbnail = ImageUtils.createThumbnailIcon ( file.getAbsolutePath (), size );
+        }
+
+        // Storing thumbnail into disk cache
+        if ( thumbnail != null )
+        {
+            createdCount.incrementAndGet ();
+            if ( cacheFile != null )
+            {
+                writeCacheFile ( cacheFile, thumbnail );
+            }
+        }
+        return thumbnail;
+    }
+
+    /**
+     * Returns image decoded with source subsampling so that its sides are not much longer than the specified length.
+     *
+     * @param file      image file
+     * @param length    minimum length of the longest image side after subsampling
+     * @param imageSize dimension to store original image size into
+     * @return image decoded with source subsampling or null if image cannot be decoded
+     * @throws OutOfMemoryError if there is not enough memory to decode even subsampled image
+     */
+    public static BufferedImage readSubsampledImage ( final File file, final int length, final Dimension imageSize )
+    {
+        ImageInputStream iis = null;
+        try
+        {
+            iis = ImageIO.createImageInputStream ( file );
+            if ( iis == null )
+            {
+                return null;
+            }
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders ( iis );
+            if ( !readers.hasNext () )
+            {
+                return null;
+            }
+            final ImageReader reader = readers.next ();
+            try
+            {
+                reader.setInput ( iis, true, true );
+                final int width = reader.getWidth ( 0 );
+                final int height = reader.getHeight ( 0 );
+                imageSize.setSize ( width, height );
+
+                final ImageReadParam param = reader.getDefaultReadParam ();
+                final int subsampling = Math.max ( 1, Math.max ( width, height ) / Math.max ( 1, length ) );
+                if ( subsampling > 1 )
+                {
+                    param.setSourceSubsampling ( subsampling, subsampling, 0, 0 );
+                }
+                return reader.read ( 0, param );
+            }
+            finally
+            {
+                reader.dispose ();
+            }
+        }
+        catch ( final Exception e )
+        {
+            // Broken or unsupported image, errors like OutOfMemoryError are not hidden though
+            return null;
+        }
+        finally
+        {
+            if ( iis != null )
+            {
+                try
+                {
+                    iis.close ();
+                }
+                catch ( final IOException e )
+                {
+                    // Ignore stream closing exceptions
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns disk cache file for the specified image file thumbnail or null if disk cache is disabled.
+     *
+     * @param file image file
+     * @param size maximum thumbnail side length
+     * @return disk cache file for the specified image file thumbnail or null if disk cache is disabled
+     */
+    private File getCacheFile ( final File file, final int size )
+    {
+        final File directory = cacheDirectory;
+        if ( directory == null || !FileUtils.ensureDirectoryExists ( directory ) )
+        {
+            return null;
+        }
+        final String key = file.getAbsolutePath () + ";" + file.lastModified () + ";" + file.length () + ";" + size;
+        String hash;
+        try
+        {
+            hash = FileUtils.computeMD5 ( new ByteArrayInputStream ( key.getBytes ( "UTF-8" ) ) );
+        }
+        catch ( final UnsupportedEncodingException e )
+        {
+            hash = null;
+        }
+        return hash != null ? new File ( directory, hash + CACHE_FILE_EXTENSION ) : null;
+    }
+
+    /**
+     * Returns thumbnail read from the specified disk cache file or null if it cannot be read.
+     *
+     * @param cacheFile disk cache file
+     * @return thumbnail read from the specified disk cache file or null if it cannot be read
+     */
+    private static ImageIcon readCacheFile ( final File cacheFile )
+    {
+        DataInputStream dis = null;
+        try
+        {
+            dis = new DataInputStream ( new BufferedInputStream ( new FileInputStream ( cacheFile ) ) );
+            final int width = dis.readInt ();
+            final int height = dis.readInt ();
+            final BufferedImage image = ImageIO.read ( dis );
+            if ( image == null )
+            {
+                return null;
+            }
+            final ImageIcon thumbnail = new ImageIcon ( image );
+            thumbnail.setDescription ( width + "x" + height );
+            return thumbnail;
+        }
+        catch ( final IOException e )
+        {
+            return null;
+        }
+        finally
+        {
+            closeSafely ( dis );
+        }
+    }
+
+    /**
+     * Writes thumbnail into the specified disk cache file.
+     * Thumbnail is written into a temporary file first so that other threads never read incomplete cache file.
+     *
+     * @param cacheFile disk cache file
+     * @param thumbnail thumbnail to write
+     */
+    private static void writeCacheFile ( final File cacheFile, final ImageIcon thumbnail )
+    {
+        final File tmpFile = new File ( cacheFile.getParentFile (), cacheFile.getName () + "." + Thread.currentThread ().getId () );
+        DataOutputStream dos = null;
+        try
+        {
+            final int[] size = parseImageSize ( thumbnail.getDescription () );
+            dos = new DataOutputStream ( new BufferedOutputStream ( new FileOutputStream ( tmpFile ) ) );
+            dos.writeInt ( size[ 0 ] );
+            dos.writeInt ( size[ 1 ] );
+            ImageIO.write ( ImageUtils.getBufferedImage ( thumbnail ), "png", dos );
+            dos.close ();
+            dos = null;
+            if ( !tmpFile.renameTo ( cacheFile ) )
+            {
+                tmpFile.delete ();
+            }
+        }
+        catch ( final IOException e )
+        {
+            closeSafely ( dos );
+            tmpFile.delete ();
+        }
+    }
+
+    /**
+     * Returns image size parsed from thumbnail description.
+     *
+     * @param description thumbnail description
+     * @return image size parsed from thumbnail description
+     */
+    private static int[] parseImageSize ( final String description )
+    {
+        final int[] size = { 0, 0 };
+        if ( description != null )
+        {
+            final int index = description.indexOf ( 'x' );
+            if ( index > 0 )
+            {
+                try
+                {
+                    size[ 0 ] = Integer.parseInt ( description.substring ( 0, index ) );
+                    size[ 1 ] = Integer.parseInt ( description.substring ( index + 1 ) );
+                }
+                catch ( final NumberFormatException e )
+                {
+                    // Unknown image size
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Closes specified stream ignoring any exceptions.
+     *
+     * @param closeable stream to close
+     */
+    private static void closeSafely ( final Closeable closeable )
+    {
+        if ( closeable != null )
+        {
+            try
+            {
+                closeable.close ();
+            }
+            catch ( final IOException e )
+            {
+                // Ignore stream closing exceptions
+            }
+        }
+    }
+
+    /**
+     * Thumbnail creation request.
+     */
+    public final class Request implements Runnable, Comparable<Request>
+    {
+        /**
+         * Image file.
+         */
+        private final File file;
+
+        /**
+         * Maximum thumbnail side length.
+         */
+        private final int size;
+
+        /**
+         * Listener to inform when thumbnail is created.
+         */
+        private final ThumbnailListener listener;
+
+        /**
+         * Request priority, requests with higher priority are executed first.
+         * It is only modified while request is not queued.
+         */
+        private volatile long priority;
+
+        /**
+         * Constructs new thumbnail request.
+         *
+         * @param file     image file
+         * @param size     maximum thumbnail side length
+         * @param listener listener to inform when thumbnail is created
+         * @param priority request priority
+         */
+        private Request ( final File file, final int size, final ThumbnailListener listener, final long priority )
+        {
+            super ();
+            this.file = file;
+            this.size = size;
+            this.listener = listener;
+            this.priority = priority;
+        }
+
+        /**
+         * Returns image file.
+         *
+         * @return image file
+         */
+        public File getFile ()
+        {
+            return file;
+        }
+
+        /**
+         * Creates thumbnail and informs listener.
+         */
+        @Override
+        public void run ()
+        {
+            listener.thumbnailCreated ( file, createThumbnail ( file, size ) );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo ( final Request request )
+        {
+            return priority > request.priority ? -1 : priority < request.priority ? 1 : 0;
+        }
+    }
+}
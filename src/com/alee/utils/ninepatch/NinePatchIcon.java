@@ -19,13 +19,18 @@ package com.alee.utils.ninepatch;
 
 import com.alee.utils.ImageUtils;
 import com.alee.utils.NinePatchUtils;
+import com.alee.utils.cache.ImageCache;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class allows you to create and use nine-patch icons within Swing applications.
@@ -39,6 +44,11 @@ import java.util.List;
  * NinePatchIconPainter painter = new NinePatchIconPainter ( icon );
  * WebPanel panel = new WebPanel ( painter );
  * </code>
+ * <p>
+ * Stretched icon can be cached as a raster for each painted size. Such raster is created when icon is painted twice in a row with the
+ * same size and then each repeated paint at that size is a single image blit. Rasters are kept in a shared image cache with its own size
+ * limit. Rasters are keyed by icon image and stretch intervals, so icons sharing the same image also share rasters, and cached rasters
+ * never keep icons or their components from being garbage collected.
  *
  * @author Mikle Garin
  * @see com.alee.extended.painter.NinePatchIconPainter
@@ -46,6 +56,32 @@ import java.util.List;
  */
 public class NinePatchIcon implements Icon
 {
+    /**
+     * Whether stretched icon rasters should be cached by default or not.
+     */
+    public static boolean cacheRastersByDefault = true;
+
+    /**
+     * Maximum area of a single cached raster in pixels.
+     * Icons painted at larger sizes are always painted directly.
+     */
+    public static int maxRasterArea = 1024 * 1024;
+
+    /**
+     * Default size limit of stretched icon rasters cache in bytes.
+     */
+    public static final long DEFAULT_RASTER_CACHE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Maximum amount of cached interval tables for each icon axis.
+     */
+    protected static final int INTERVAL_TABLES_CACHE_SIZE = 4;
+
+    /**
+     * Stretched icon rasters cache shared by all nine-patch icons.
+     */
+    protected static final ImageCache<RasterKey, BufferedImage> rasterCache = createRasterCache ();
+
     /**
      * Component onto which this nine-patch icon will be stretched.
      */
@@ -94,6 +130,36 @@ public class NinePatchIcon implements Icon
      */
     protected Integer cachedHeight1;
 
+    /**
+     * Whether stretched icon rasters should be cached or not.
+     */
+    protected boolean cacheRasters = cacheRastersByDefault;
+
+    /**
+     * Stretch intervals hash for which interval tables were calculated.
+     */
+    protected int tablesHash = 0;
+
+    /**
+     * Cached horizontal interval tables, final intervals widths for specific icon width.
+     */
+    protected final Map<Integer, int[]> columnsCache = createTablesCache ();
+
+    /**
+     * Cached vertical interval tables, final intervals heights for specific icon height.
+     */
+    protected final Map<Integer, int[]> rowsCache = createTablesCache ();
+
+    /**
+     * Last painted icon width.
+     */
+    protected int lastWidth = -1;
+
+    /**
+     * Last painted icon height.
+     */
+    protected int lastHeight = -1;
+
     /**
      * Constructs new NinePatchIcon using the nine-patch image from the specified URL.
      *
@@ -495,42 +561,70 @@ public class NinePatchIcon implements Icon
     {
         final int componentWidth = Math.max ( width, getIconWidth () );
         final int componentHeight = Math.max ( height, getIconHeight () );
-        final int fixedPixelsX = getFixedPixelsWidth ( false );
-        final int unfixedX = componentWidth - fixedPixelsX;
-        final int fixedPixelsY = getFixedPixelsHeight ( false );
-        final int unfixedY = componentHeight - fixedPixelsY;
 
-        int currentY = y;
-        for ( NinePatchInterval intervalY : verticalStretch )
+        // Interval tables for the painted size
+        final int hash = getStretchHash ();
+        if ( hash != tablesHash )
         {
-            // Percent part height
-            int intervalHeight = intervalY.getEnd () - intervalY.getStart () + 1;
-            int finalHeight;
-            if ( intervalY.isPixel () )
+            columnsCache.clear ();
+            rowsCache.clear ();
+            tablesHash = hash;
+        }
+        final int[] columns = getColumns ( componentWidth );
+        final int[] rows = getRows ( componentHeight );
+
+        // Painting cached raster if possible
+        if ( isRasterCacheable ( g2d, componentWidth, componentHeight ) )
+        {
+            final RasterKey key = new RasterKey ( rawImage, hash, componentWidth, componentHeight );
+            BufferedImage raster = rasterCache.get ( key );
+            if ( raster == null && componentWidth == lastWidth && componentHeight == lastHeight )
             {
-                finalHeight = intervalHeight;
+                // Icon is painted at the same size again so raster is worth creating
+                raster = ImageUtils.createCompatibleImage ( componentWidth, componentHeight, Transparency.TRANSLUCENT );
+                final Graphics2D rg2d = raster.createGraphics ();
+                rg2d.setComposite ( AlphaComposite.Src );
+                paintIcon ( rg2d, 0, 0, columns, rows );
+                rg2d.dispose ();
+                rasterCache.put ( key, raster );
             }
-            else
+            lastWidth = componentWidth;
+            lastHeight = componentHeight;
+            if ( raster != null )
             {
-                float percents = ( float ) intervalHeight / ( rawImage.getHeight () - fixedPixelsY );
-                finalHeight = Math.round ( percents * unfixedY );
+                g2d.drawImage ( raster, x, y, null );
+                return;
             }
+        }
+
+        // Painting stretched icon parts
+        paintIcon ( g2d, x, y, columns, rows );
+    }
+
+    /**
+     * Paints stretched icon parts using the specified interval tables.
+     *
+     * @param g2d     graphics context
+     * @param x       location X coordinate
+     * @param y       location Y coordinate
+     * @param columns final horizontal intervals widths
+     * @param rows    final vertical intervals heights
+     */
+    protected void paintIcon ( Graphics2D g2d, int x, int y, int[] columns, int[] rows )
+    {
+        int currentY = y;
+        for ( int i = 0; i < rows.length; i++ )
+        {
+            final NinePatchInterval intervalY = verticalStretch.get ( i );
+            final int intervalHeight = intervalY.getEnd () - intervalY.getStart () + 1;
+            final int finalHeight = rows[ i ];
 
             int currentX = x;
-            for ( NinePatchInterval intervalX : horizontalStretch )
+            for ( int j = 0; j < columns.length; j++ )
             {
-                // Percent part width
-                int intervalWidth = intervalX.getEnd () - intervalX.getStart () + 1;
-                int finalWidth;
-                if ( intervalX.isPixel () )
-                {
-                    finalWidth = intervalWidth;
-                }
-                else
-                {
-                    float percents = ( float ) intervalWidth / ( rawImage.getWidth () - fixedPixelsX );
-                    finalWidth = Math.round ( percents * unfixedX );
-                }
+                final NinePatchInterval intervalX = horizontalStretch.get ( j );
+                final int intervalWidth = intervalX.getEnd () - intervalX.getStart () + 1;
+                final int finalWidth = columns[ j ];
 
                 // Drawing image part
                 g2d.drawImage ( rawImage, currentX, currentY, currentX + finalWidth, currentY + finalHeight, intervalX.getStart (),
@@ -545,6 +639,180 @@ public class NinePatchIcon implements Icon
         }
     }
 
+    /**
+     * Returns whether icon painted with the specified graphics context and size can be taken from raster cache or not.
+     * Cached raster is only used for untransformed graphics and default image interpolation so it looks exactly like direct painting.
+     *
+     * @param g2d    graphics context
+     * @param width  icon width
+     * @param height icon height
+     * @return true if icon painted with the specified graphics context and size can be taken from raster cache, false otherwise
+     */
+    protected boolean isRasterCacheable ( Graphics2D g2d, int width, int height )
+    {
+        if ( !cacheRasters || width <= 0 || height <= 0 || ( long ) width * height > maxRasterArea )
+        {
+            return false;
+        }
+        final Object interpolation = g2d.getRenderingHint ( RenderingHints.KEY_INTERPOLATION );
+        if ( interpolation != null && interpolation != RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR )
+        {
+            return false;
+        }
+        return ( g2d.getTransform ().getType () & ~AffineTransform.TYPE_TRANSLATION ) == 0;
+    }
+
+    /**
+     * Returns final horizontal intervals widths for the specified icon width.
+     *
+     * @param width icon width
+     * @return final horizontal intervals widths for the specified icon width
+     */
+    protected int[] getColumns ( int width )
+    {
+        int[] columns = columnsCache.get ( width );
+        if ( columns == null )
+        {
+            columns = calculateIntervals ( horizontalStretch, rawImage.getWidth (), getFixedPixelsWidth ( false ), width );
+            columnsCache.put ( width, columns );
+        }
+        return columns;
+    }
+
+    /**
+     * Returns final vertical intervals heights for the specified icon height.
+     *
+     * @param height icon height
+     * @return final vertical intervals heights for the specified icon height
+     */
+    protected int[] getRows ( int height )
+    {
+        int[] rows = rowsCache.get ( height );
+        if ( rows == null )
+        {
+            rows = calculateIntervals ( verticalStretch, rawImage.getHeight (), getFixedPixelsHeight ( false ), height );
+            rowsCache.put ( height, rows );
+        }
+        return rows;
+    }
+
+    /**
+     * Returns final intervals lengths for the specified icon side length.
+     *
+     * @param intervals   stretch intervals
+     * @param imageLength raw image side length
+     * @param fixedPixels fixed pixels length
+     * @param length      icon side length
+     * @return final intervals lengths for the specified icon side length
+     */
+    protected int[] calculateIntervals ( List<NinePatchInterval> intervals, int imageLength, int fixedPixels, int length )
+    {
+        final int unfixed = length - fixedPixels;
+        final int[] lengths = new int[ intervals.size () ];
+        for ( int i = 0; i < lengths.length; i++ )
+        {
+            // Percent part length
+            final NinePatchInterval interval = intervals.get ( i );
+            final int intervalLength = interval.getEnd () - interval.getStart () + 1;
+            if ( interval.isPixel () )
+            {
+                lengths[ i ] = intervalLength;
+            }
+            else
+            {
+                final float percents = ( float ) intervalLength / ( imageLength - fixedPixels );
+                lengths[ i ] = Math.round ( percents * unfixed );
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * Returns hash of the current stretch intervals.
+     * Intervals might be modified directly so this hash is used to detect changes and drop outdated interval tables and rasters.
+     *
+     * @return hash of the current stretch intervals
+     */
+    protected int getStretchHash ()
+    {
+        int hash = 1;
+        for ( NinePatchInterval interval : horizontalStretch )
+        {
+            hash = 31 * ( 31 * ( 31 * hash + interval.getStart () ) + interval.getEnd () ) + ( interval.isPixel () ? 1 : 0 );
+        }
+        hash = 31 * hash + 7;
+        for ( NinePatchInterval interval : verticalStretch )
+        {
+            hash = 31 * ( 31 * ( 31 * hash + interval.getStart () ) + interval.getEnd () ) + ( interval.isPixel () ? 1 : 0 );
+        }
+        return hash;
+    }
+
+    /**
+     * Returns whether stretched icon rasters should be cached or not.
+     *
+     * @return true if stretched icon rasters should be cached, false otherwise
+     */
+    public boolean isCacheRasters ()
+    {
+        return cacheRasters;
+    }
+
+    /**
+     * Sets whether stretched icon rasters should be cached or not.
+     *
+     * @param cacheRasters whether stretched icon rasters should be cached or not
+     */
+    public void setCacheRasters ( boolean cacheRasters )
+    {
+        this.cacheRasters = cacheRasters;
+        if ( !cacheRasters )
+        {
+            lastWidth = -1;
+            lastHeight = -1;
+        }
+    }
+
+    /**
+     * Returns shared stretched icon rasters cache.
+     *
+     * @return shared stretched icon rasters cache
+     */
+    public static ImageCache<RasterKey, BufferedImage> getRasterCache ()
+    {
+        return rasterCache;
+    }
+
+    /**
+     * Returns new stretched icon rasters cache limited to {@link #DEFAULT_RASTER_CACHE_SIZE}.
+     * Its size limit can be changed later through {@link #getRasterCache()}.
+     *
+     * @return new stretched icon rasters cache
+     */
+    protected static ImageCache<RasterKey, BufferedImage> createRasterCache ()
+    {
+        final ImageCache<RasterKey, BufferedImage> cache = new ImageCache<RasterKey, BufferedImage> ( "NinePatchIcon.rasters" );
+        cache.setMaxCacheSize ( DEFAULT_RASTER_CACHE_SIZE );
+        return cache;
+    }
+
+    /**
+     * Returns new interval tables cache.
+     *
+     * @return new interval tables cache
+     */
+    protected static Map<Integer, int[]> createTablesCache ()
+    {
+        return new LinkedHashMap<Integer, int[]> ( INTERVAL_TABLES_CACHE_SIZE * 2, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry ( Map.Entry<Integer, int[]> eldest )
+            {
+                return size () > INTERVAL_TABLES_CACHE_SIZE;
+            }
+        };
+    }
+
     /**
      * Returns cached fixed minimum width for this icon.
      *
@@ -698,4 +966,83 @@ public class NinePatchIcon implements Icon
     {
         return new Dimension ( getRawImage ().getWidth (), getRawImage ().getHeight () );
     }
+
+    /**
+     * Stretched icon raster cache key.
+     * Icon image is referenced weakly, so keys of collected images never match anything and are simply evicted from cache later.
+     */
+    public static final class RasterKey
+    {
+        /**
+         * Weak reference to icon raw image.
+         */
+        private final WeakReference<BufferedImage> image;
+
+        /**
+         * Icon raw image identity hash code.
+         */
+        private final int imageHash;
+
+        /**
+         * Stretch intervals hash.
+         */
+        private final int hash;
+
+        /**
+         * Raster width.
+         */
+        private final int width;
+
+        /**
+         * Raster height.
+         */
+        private final int height;
+
+        /**
+         * Constructs new raster key.
+         *
+         * @param image  icon raw image
+         * @param hash   stretch intervals hash
+         * @param width  raster width
+         * @param height raster height
+         */
+        public RasterKey ( BufferedImage image, int hash, int width, int height )
+        {
+            super ();
+            this.image = new WeakReference<BufferedImage> ( image );
+            this.imageHash = System.identityHashCode ( image );
+            this.hash = hash;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals ( Object obj )
+        {
+            if ( obj instanceof RasterKey )
+            {
+                final RasterKey other = ( RasterKey ) obj;
+                if ( this == other )
+                {
+                    return true;
+                }
+                final BufferedImage image = this.image.get ();
+                return image != null && image == other.image.get () && hash == other.hash && width == other.width &&
+                        height == other.height;
+            }
+            return false;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode ()
+        {
+            return ( ( imageHash * 31 + hash ) * 31 + width ) * 31 + height;
+        }
+    }
 }
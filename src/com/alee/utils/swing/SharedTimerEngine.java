@@ -0,0 +1,377 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.swing;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default WebTimer engine which runs all timers on a single scheduler thread.
+ * <p/>
+ * Timeline is split into frames of the specified length and all ticks which fall into the same frame are executed together. Ticks which
+ * should be executed in Event Dispatch Thread are passed into it within a single event, all other ticks are passed to a pool of worker
+ * threads which are created on demand and die after some time of inactivity.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.swing.TimerEngine
+ * @see com.alee.utils.swing.WebTimer
+ */
+
+public class SharedTimerEngine implements TimerEngine
+{
+    /**
+     * Default frame length in milliseconds.
+     */
+    public static long defaultFrameLength = 10;
+
+    /**
+     * Worker threads keep-alive time in milliseconds.
+     */
+    public static long workerKeepAliveTime = 30000;
+
+    /**
+     * Ticks due time comparator.
+     */
+    private static final Comparator<TimerTick> dueTimeComparator = new Comparator<TimerTick> ()
+    {
+        @Override
+        public int compare ( final TimerTick t1, final TimerTick t2 )
+        {
+            final long diff = t1.getDueTime () - t2.getDueTime ();
+            return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+        }
+    };
+
+    /**
+     * Scheduled ticks queue ordered by due time.
+     */
+    private final PriorityQueue<TimerTick> queue = new PriorityQueue<TimerTick> ( 16, dueTimeComparator );
+
+    /**
+     * Engine timeline origin in nanoseconds.
+     * Frames are aligned relative to this time.
+     */
+    private final long origin = System.nanoTime ();
+
+    /**
+     * Frame length in nanoseconds.
+     */
+    private long frameLength;
+
+    /**
+     * Scheduler name, used for threads naming.
+     */
+    private final String name;
+
+    /**
+     * Scheduler thread.
+     */
+    private Thread scheduler = null;
+
+    /**
+     * Worker threads pool for non-EDT ticks.
+     */
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * Engine statistics.
+     */
+    private volatile long framesCount = 0;
+    private volatile long ticksCount = 0;
+    private volatile int maxQueueSize = 0;
+
+    /**
+     * Constructs new shared timer engine with default frame length.
+     */
+    public SharedTimerEngine ()
+    {
+        this ( "WebTimer", defaultFrameLength );
+    }
+
+    /**
+     * Constructs new shared timer engine with the specified name and frame length.
+     *
+     * @param name        engine name, used for threads naming
+     * @param frameLength frame length in milliseconds
+     */
+    public SharedTimerEngine ( final String name, final long frameLength )
+    {
+        super ();
+        this.name = name;
+        setFrameLength ( frameLength );
+
+        final AtomicInteger workerNumber = new AtomicInteger ( 0 );
+        workers = new ThreadPoolExecutor ( 0, Integer.MAX_VALUE, workerKeepAliveTime, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<Runnable> (), new ThreadFactory ()
+        {
+            @Override
+            public Thread newThread ( final Runnable r )
+            {
+                final Thread thread = new Thread ( r, name + ".worker-" + workerNumber.incrementAndGet () );
+                thread.setDaemon ( true );
+                return thread;
+            }
+        } );
+    }
+
+    /**
+     * Returns frame length in milliseconds.
+     *
+     * @return frame length in milliseconds
+     */
+    public long getFrameLength ()
+    {
+        return TimeUnit.NANOSECONDS.toMillis ( frameLength );
+    }
+
+    /**
+     * Sets frame length in milliseconds.
+     * All ticks which fall into the same frame are executed together at the frame end.
+     *
+     * @param frameLength frame length in milliseconds
+     */
+    public void setFrameLength ( final long frameLength )
+    {
+        if ( frameLength <= 0 )
+        {
+            throw new IllegalArgumentException ( "Invalid frame length: " + frameLength );
+        }
+        synchronized ( queue )
+        {
+            this.frameLength = TimeUnit.MILLISECONDS.toNanos ( frameLength );
+            queue.notifyAll ();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void schedule ( final TimerTick tick )
+    {
+        synchronized ( queue )
+        {
+            queue.add ( tick );
+            maxQueueSize = Math.max ( maxQueueSize, queue.size () );
+            if ( scheduler == null )
+            {
+                scheduler = new Thread ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        processTicks ();
+                    }
+                }, name + ".scheduler" );
+                scheduler.setDaemon ( true );
+                scheduler.start ();
+            }
+            else if ( queue.peek () == tick )
+            {
+                // Waking up scheduler only if its wait time has changed
+                queue.notifyAll ();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancel ( final TimerTick tick )
+    {
+        synchronized ( queue )
+        {
+            queue.remove ( tick );
+        }
+    }
+
+    /**
+     * Returns amount of currently scheduled ticks.
+     *
+     * @return amount of currently scheduled ticks
+     */
+    public int getQueueSize ()
+    {
+        synchronized ( queue )
+        {
+            return queue.size ();
+        }
+    }
+
+    /**
+     * Returns maximum amount of simultaneously scheduled ticks.
+     *
+     * @return maximum amount of simultaneously scheduled ticks
+     */
+    public int getMaxQueueSize ()
+    {
+        return maxQueueSize;
+    }
+
+    /**
+     * Returns amount of frames processed by this engine.
+     *
+     * @return amount of frames processed by this engine
+     */
+    public long getFramesCount ()
+    {
+        return framesCount;
+    }
+
+    /**
+     * Returns amount of ticks processed by this engine.
+     *
+     * @return amount of ticks processed by this engine
+     */
+    public long getTicksCount ()
+    {
+        return ticksCount;
+    }
+
+    /**
+     * Returns amount of currently alive worker threads.
+     *
+     * @return amount of currently alive worker threads
+     */
+    public int getWorkersCount ()
+    {
+        return workers.getPoolSize ();
+    }
+
+    /**
+     * Scheduler thread main loop.
+     */
+    private void processTicks ()
+    {
+        final List<TimerTick> edtTicks = new ArrayList<TimerTick> ();
+        final List<TimerTick> otherTicks = new ArrayList<TimerTick> ();
+        while ( true )
+        {
+            // Waiting for the next frame
+            synchronized ( queue )
+            {
+                try
+                {
+                    final TimerTick first = queue.peek ();
+                    if ( first == null )
+                    {
+                        queue.wait ();
+                        continue;
+                    }
+
+                    final long frameEnd = getFrameEnd ( first.getDueTime () );
+                    final long wait = frameEnd - System.nanoTime ();
+                    if ( wait > 0 )
+                    {
+                        queue.wait ( wait / 1000000, ( int ) ( wait % 1000000 ) );
+                        continue;
+                    }
+
+                    // Collecting all ticks which fall into this frame
+                    while ( !queue.isEmpty () && queue.peek ().getDueTime () <= frameEnd )
+                    {
+                        final TimerTick tick = queue.poll ();
+                        if ( tick.isEventDispatchThread () )
+                        {
+                            edtTicks.add ( tick );
+                        }
+                        else
+                        {
+                            otherTicks.add ( tick );
+                        }
+                    }
+                }
+                catch ( final InterruptedException e )
+                {
+                    // Scheduler should never be interrupted
+                    continue;
+                }
+            }
+
+            // Dispatching frame ticks
+            framesCount++;
+            ticksCount += edtTicks.size () + otherTicks.size ();
+            if ( edtTicks.size () > 0 )
+            {
+                final TimerTick[] frame = edtTicks.toArray ( new TimerTick[ edtTicks.size () ] );
+                SwingUtilities.invokeLater ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        for ( final TimerTick tick : frame )
+                        {
+                            runSafely ( tick );
+                        }
+                    }
+                } );
+                edtTicks.clear ();
+            }
+            if ( otherTicks.size () > 0 )
+            {
+                for ( final TimerTick tick : otherTicks )
+                {
+                    workers.execute ( new Runnable ()
+                    {
+                        @Override
+                        public void run ()
+                        {
+                            runSafely ( tick );
+                        }
+                    } );
+                }
+                otherTicks.clear ();
+            }
+        }
+    }
+
+    /**
+     * Returns end time of the frame which contains specified time.
+     *
+     * @param time time in nanoseconds
+     * @return end time of the frame which contains specified time
+     */
+    private long getFrameEnd ( final long time )
+    {
+        final long relative = Math.max ( 0, time - origin );
+        return origin + ( relative + frameLength - 1 ) / frameLength * frameLength;
+    }
+
+    /**
+     * Runs specified tick and makes sure that thrown exception doesn't affect other ticks.
+     *
+     * @param tick tick to run
+     */
+    private void runSafely ( final TimerTick tick )
+    {
+        try
+        {
+            tick.run ();
+        }
+        catch ( final Throwable e )
+        {
+            e.printStackTrace ();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.swing;
+
+/**
+ * This interface represents timing engine which runs WebTimer cycles.
+ * Engine is responsible only for running scheduled ticks at the proper time and in the proper thread, all timer logic is kept within
+ * the WebTimer itself and the TimerTick it provides.
+ * <p/>
+ * Engine must run ticks which return true from {@link TimerTick#isEventDispatchThread()} within the Event Dispatch Thread, all other
+ * ticks must be run outside of the Event Dispatch Thread.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.swing.WebTimer#setEngine(TimerEngine)
+ * @see com.alee.utils.swing.SharedTimerEngine
+ */
+
+public interface TimerEngine
+{
+    /**
+     * Schedules specified tick execution.
+     *
+     * @param tick tick to schedule
+     */
+    public void schedule ( TimerTick tick );
+
+    /**
+     * Cancels specified tick execution if it wasn't executed yet.
+     *
+     * @param tick tick to cancel
+     */
+    public void cancel ( TimerTick tick );
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.swing;
+
+/**
+ * This class represents single scheduled WebTimer cycle.
+ * Ticks are created by WebTimer and executed by the TimerEngine at the specified due time.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.swing.WebTimer
+ * @see com.alee.utils.swing.TimerEngine
+ */
+
+public final class TimerTick implements Runnable
+{
+    /**
+     * Timer which has scheduled this tick.
+     */
+    private final WebTimer timer;
+
+    /**
+     * Timer session this tick belongs to.
+     * Each timer start and stop changes session and makes all previously scheduled ticks outdated.
+     */
+    private final int session;
+
+    /**
+     * Timer cycle number.
+     */
+    private final int cycle;
+
+    /**
+     * Tick due time in nanoseconds, relative to {@link System#nanoTime()}.
+     */
+    private final long dueTime;
+
+    /**
+     * Whether this tick should be executed in Event Dispatch Thread or not.
+     */
+    private final boolean eventDispatchThread;
+
+    /**
+     * Constructs new timer tick.
+     *
+     * @param timer               timer which has scheduled this tick
+     * @param session             timer session
+     * @param cycle               timer cycle number
+     * @param dueTime             tick due time in nanoseconds
+     * @param eventDispatchThread whether this tick should be executed in Event Dispatch Thread or not
+     */
+    protected TimerTick ( final WebTimer timer, final int session, final int cycle, final long dueTime,
+                          final boolean eventDispatchThread )
+    {
+        super ();
+        this.timer = timer;
+        this.session = session;
+        this.cycle = cycle;
+        this.dueTime = dueTime;
+        this.eventDispatchThread = eventDispatchThread;
+    }
+
+    /**
+     * Returns timer which has scheduled this tick.
+     *
+     * @return timer which has scheduled this tick
+     */
+    public WebTimer getTimer ()
+    {
+        return timer;
+    }
+
+    /**
+     * Returns timer session this tick belongs to.
+     *
+     * @return timer session this tick belongs to
+     */
+    public int getSession ()
+    {
+        return session;
+    }
+
+    /**
+     * Returns timer cycle number.
+     *
+     * @return timer cycle number
+     */
+    public int getCycle ()
+    {
+        return cycle;
+    }
+
+    /**
+     * Returns tick due time in nanoseconds, relative to {@link System#nanoTime()}.
+     *
+     * @return tick due time in nanoseconds
+     */
+    public long getDueTime ()
+    {
+        return dueTime;
+    }
+
+    /**
+     * Returns whether this tick should be executed in Event Dispatch Thread or not.
+     *
+     * @return true if this tick should be executed in Event Dispatch Thread, false otherwise
+     */
+    public boolean isEventDispatchThread ()
+    {
+        return eventDispatchThread;
+    }
+
+    /**
+     * Executes timer cycle.
+     */
+    @Override
+    public void run ()
+    {
+        timer.processTick ( this );
+    }
+}
@@ -18,20 +18,20 @@
 package com.alee.utils.swing;
 
 import com.alee.utils.CollectionUtils;
-import com.alee.utils.SwingUtils;
 import com.alee.utils.TimeUtils;
 
+import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This timer is a small extension for standart javax.swing.Timer. Instead of running in a single queue it creates separate Threads for
- * each timer and does not affect event-dispatching thread, until events are dispatched. This basically means that you can use any number
- * of Timer instances and you can run them alltogether without having any issues.
+ * This timer is a small extension for standart javax.swing.Timer. Instead of running in Swing timer queue it is run by a pluggable
+ * TimerEngine and does not affect event-dispatching thread, until events are dispatched. Default engine runs all timers on a single
+ * scheduler thread and merges cycles which fall into the same frame into a single event-dispatching thread call, so you can use any
+ * number of Timer instances and run them alltogether without having any issues.
  * <p/>
  * Also this Timer implementation offers a variety of additional features and improvements which standard timer doesn't have (for example
  * you can dispatch events in a separate non-EDT thread and as a result avoid using EDT at all where it is not necessary).
@@ -59,19 +59,32 @@ public class WebTimer
     private final List<ActionListener> listeners = new ArrayList<ActionListener> ( 1 );
 
     /**
-     * Unique (within one timer instance) ID of currently running thread.
+     * Timing engine used by all timers.
      */
-    private int id = 0;
+    private static TimerEngine engine = null;
 
     /**
-     * ID of previously executed thread.
+     * Current timer session.
+     * Session changes on each timer start and stop and makes all previously scheduled ticks outdated.
      */
-    private int lastId;
+    private int session = 0;
 
     /**
-     * Map of marks for currently active threads.
+     * Whether timer is running or not.
      */
-    private final Map<Integer, Boolean> running = new Hashtable<Integer, Boolean> ();
+    private boolean running = false;
+
+    /**
+     * Last scheduled tick.
+     */
+    private TimerTick scheduled = null;
+
+    /**
+     * Amount of cycles being executed at the moment and thread which executes the latest of them.
+     * These are used to wait for the executed cycle to finish when timer is stopped.
+     */
+    private int executingCycles = 0;
+    private Thread executingThread = null;
 
     /**
      * Last timer cycle start time.
@@ -84,9 +97,14 @@ public class WebTimer
     private long sleepTime = 0;
 
     /**
-     * Last timer thread.
+     * Timer statistics.
+     * Fire times are measured in nanoseconds, backlog is measured in milliseconds.
      */
-    private Thread exec = null;
+    private volatile long fireCount = 0;
+    private volatile long totalFireTime = 0;
+    private volatile long maxFireTime = 0;
+    private volatile long lastBacklog = 0;
+    private volatile long maxBacklog = 0;
 
     /**
      * Delay between timer cycles in milliseconds.
@@ -502,10 +520,6 @@ public class WebTimer
     public void setName ( final String name )
     {
         this.name = name;
-        if ( exec != null )
-        {
-            exec.setName ( name );
-        }
     }
 
     /**
@@ -539,6 +553,8 @@ public class WebTimer
 
     /**
      * Stops timer execution.
+     * If timer cycle is being executed at the moment this method waits for it to finish, so no actions are fired after this method
+     * returns. The only exception is when timer is stopped from its own cycle thread, in that case cycle finishes after this call.
      */
     public void stop ()
     {
@@ -561,152 +577,270 @@ public class WebTimer
      */
     public synchronized boolean isRunning ()
     {
-        return exec != null && exec.isAlive ();
+        return running;
     }
 
     /**
-     * Starts timer execution thread.
+     * Starts timer execution.
      */
     private synchronized void startExec ()
     {
         // Ignore if timer is already running
-        if ( isRunning () )
+        if ( running )
         {
             return;
         }
 
-        // Saving current thread unique id
-        lastId = id;
-        id++;
+        // Starting new session
+        running = true;
+        session++;
+
+        // Scheduling first cycle
+        final long actualInitialDelay = getInitialDelay () < 0 ? getDelay () : getInitialDelay ();
+        scheduleTick ( 0, actualInitialDelay );
+    }
+
+    /**
+     * Stops timer execution.
+     * Waits for the cycle which is being executed at the moment to finish, no more cycles will be executed after that.
+     */
+    private synchronized void stopExec ()
+    {
+        if ( running )
+        {
+            // Outdating current session
+            running = false;
+            session++;
+
+            // Cancelling scheduled cycle
+            if ( scheduled != null )
+            {
+                getEngine ().cancel ( scheduled );
+                scheduled = null;
+            }
+        }
+
+        // Waiting for the executed cycle to finish
+        // Cycle thread itself cannot wait since cycle would never finish in that case
+        while ( executingCycles > 0 && executingThread != Thread.currentThread () )
+        {
+            try
+            {
+                wait ();
+            }
+            catch ( final InterruptedException e )
+            {
+                // Keeping interrupted state for the caller
+                Thread.currentThread ().interrupt ();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Schedules timer cycle execution within the current session.
+     *
+     * @param cycle cycle number
+     * @param delay delay before cycle execution in milliseconds
+     */
+    private void scheduleTick ( final int cycle, final long delay )
+    {
+        sleepStart = System.currentTimeMillis ();
+        sleepTime = delay;
+        final long dueTime = System.nanoTime () + TimeUnit.MILLISECONDS.toNanos ( delay );
+        scheduled = new TimerTick ( this, session, cycle, dueTime, useEventDispatchThread );
+        getEngine ().schedule ( scheduled );
+    }
 
-        // Starting new cycling thread
-        final int currentId = lastId;
-        exec = new Thread ( new Runnable ()
+    /**
+     * Executes timer cycle represented by the specified tick.
+     * This method is called by timing engine in the thread appropriate for this timer.
+     *
+     * @param tick timer tick
+     */
+    protected void processTick ( final TimerTick tick )
+    {
+        // Skipping outdated ticks
+        synchronized ( this )
         {
-            @Override
-            public void run ()
+            if ( !running || tick.getSession () != session )
             {
-                // Adding a live thread into map
-                setAlive ( currentId, true );
+                return;
+            }
+            scheduled = null;
+            executingCycles++;
+            executingThread = Thread.currentThread ();
+        }
+
+        // Updating backlog statistics
+        final long start = System.nanoTime ();
+        final long backlog = Math.max ( 0, TimeUnit.NANOSECONDS.toMillis ( start - tick.getDueTime () ) );
+        lastBacklog = backlog;
+        maxBacklog = Math.max ( maxBacklog, backlog );
 
-                try
+        // Firing events
+        final List<ActionListener> listenerList = CollectionUtils.copy ( listeners );
+        final ActionEvent actionEvent = createActionEvent ();
+        if ( tick.isEventDispatchThread () && !coalesce && listenerList.size () > 1 )
+        {
+            // Make separate event calls to event dispatch thread
+            fireSeparately ( tick, listenerList, actionEvent, 0, start );
+        }
+        else
+        {
+            // Merge all events into single call
+            try
+            {
+                for ( final ActionListener listener : listenerList )
                 {
-                    // Initial delay
-                    final long actualInitialDelay = getInitialDelay () < 0 ? getDelay () : getInitialDelay ();
-                    if ( actualInitialDelay > 0 )
-                    {
-                        sleepStart = System.currentTimeMillis ();
-                        sleepTime = actualInitialDelay;
-                        Thread.sleep ( actualInitialDelay );
-                    }
+                    listener.actionPerformed ( actionEvent );
+                }
+            }
+            finally
+            {
+                completeTick ( tick, start );
+            }
+        }
+    }
 
-                    // Checking if we sould stop execution
-                    if ( shouldContinue ( -1, currentId ) )
+    /**
+     * Fires action event for the listener with the specified index and schedules next listener call in a separate event.
+     *
+     * @param tick        timer tick
+     * @param listeners   action listeners
+     * @param actionEvent action event
+     * @param index       listener index
+     * @param start       tick processing start time in nanoseconds
+     */
+    private void fireSeparately ( final TimerTick tick, final List<ActionListener> listeners, final ActionEvent actionEvent,
+                                  final int index, final long start )
+    {
+        try
+        {
+            listeners.get ( index ).actionPerformed ( actionEvent );
+        }
+        finally
+        {
+            if ( index < listeners.size () - 1 )
+            {
+                SwingUtilities.invokeLater ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
                     {
-                        // Starting cycles execution
-                        if ( repeats )
-                        {
-                            // Repeated events
-                            int cycle = 0;
-                            while ( shouldContinue ( cycle, currentId ) )
-                            {
-                                // Firing events
-                                fireEvent ();
-
-                                // Incrementing cycles count
-                                cycle++;
-
-                                // Checking if we sould stop execution due to changes through events
-                                if ( !shouldContinue ( cycle, currentId ) )
-                                {
-                                    break;
-                                }
-
-                                // Waiting for next execution
-                                if ( getDelay () > 0 )
-                                {
-                                    final long currentDelay = getDelay ();
-                                    sleepStart = System.currentTimeMillis ();
-                                    sleepTime = currentDelay;
-                                    Thread.sleep ( currentDelay );
-                                }
-                            }
-                        }
-                        else
-                        {
-                            // Single event
-                            fireEvent ();
-                        }
+                        fireSeparately ( tick, listeners, actionEvent, index + 1, start );
                     }
+                } );
+            }
+            else
+            {
+                completeTick ( tick, start );
+            }
+        }
+    }
+
+    /**
+     * Updates statistics and schedules next timer cycle if needed.
+     *
+     * @param tick  processed timer tick
+     * @param start tick processing start time in nanoseconds
+     */
+    private void completeTick ( final TimerTick tick, final long start )
+    {
+        // Updating fire time statistics
+        final long fireTime = System.nanoTime () - start;
+        fireCount++;
+        totalFireTime += fireTime;
+        maxFireTime = Math.max ( maxFireTime, fireTime );
+
+        // Scheduling next cycle
+        synchronized ( this )
+        {
+            // Checking if we sould stop execution due to changes through events
+            if ( running && tick.getSession () == session )
+            {
+                final int cycle = tick.getCycle () + 1;
+                if ( repeats && ( cyclesLimit <= 0 || cyclesLimit > cycle ) )
+                {
+                    scheduleTick ( cycle, getDelay () );
                 }
-                catch ( InterruptedException e )
+                else
                 {
-                    // Execution interrupted
+                    running = false;
                 }
+            }
 
-                // Removing finished thread from map
-                cleanUp ( currentId );
+            // Informing threads waiting for timer stop
+            executingCycles--;
+            if ( executingCycles == 0 )
+            {
+                executingThread = null;
             }
-        }, name );
-        exec.start ();
+            notifyAll ();
+        }
     }
 
     /**
-     * Returns whether thread with specified ID should continue execution or not.
+     * Returns amount of executed timer cycles.
      *
-     * @param cycle cycle number
-     * @param id    thread ID
-     * @return true if thread with specified ID should continue execution, false otherwise
+     * @return amount of executed timer cycles
      */
-    private boolean shouldContinue ( final int cycle, final int id )
+    public long getFireCount ()
     {
-        return running.get ( id ) && !Thread.currentThread ().isInterrupted () && ( cyclesLimit <= 0 || cyclesLimit > cycle );
+        return fireCount;
     }
 
     /**
-     * Sets whether thread under specified ID is alive or not.
+     * Returns average timer cycle execution time in milliseconds.
      *
-     * @param id    thread ID
-     * @param alive whether thread is alive or not
+     * @return average timer cycle execution time in milliseconds
      */
-    private void setAlive ( final int id, final boolean alive )
+    public double getAverageFireTime ()
     {
-        running.put ( id, alive );
+        return fireCount > 0 ? ( double ) totalFireTime / fireCount / 1000000 : 0;
     }
 
     /**
-     * Cleans thread ID cache.
+     * Returns maximum timer cycle execution time in milliseconds.
      *
-     * @param id thread ID
+     * @return maximum timer cycle execution time in milliseconds
      */
-    private void cleanUp ( final int id )
+    public double getMaxFireTime ()
     {
-        running.remove ( id );
+        return ( double ) maxFireTime / 1000000;
     }
 
     /**
-     * Stops timer execution.
+     * Returns delay in milliseconds between last cycle due time and its actual execution start.
+     * Large backlog values mean that timing engine or Event Dispatch Thread cannot keep up with the timer.
+     *
+     * @return delay in milliseconds between last cycle due time and its actual execution start
      */
-    private synchronized void stopExec ()
+    public long getLastBacklog ()
     {
-        if ( exec != null )
-        {
-            // Interrupt thread
-            exec.interrupt ();
+        return lastBacklog;
+    }
 
-            // Stop execution from inside
-            setAlive ( lastId, false );
+    /**
+     * Returns maximum delay in milliseconds between cycle due time and its actual execution start.
+     *
+     * @return maximum delay in milliseconds between cycle due time and its actual execution start
+     */
+    public long getMaxBacklog ()
+    {
+        return maxBacklog;
+    }
 
-            // Wait for execution to stop
-            try
-            {
-                exec.join ();
-            }
-            catch ( InterruptedException e )
-            {
-                e.printStackTrace ();
-            }
-        }
+    /**
+     * Resets timer statistics.
+     */
+    public void resetStatistics ()
+    {
+        fireCount = 0;
+        totalFireTime = 0;
+        maxFireTime = 0;
+        lastBacklog = 0;
+        maxBacklog = 0;
     }
 
     /**
@@ -746,71 +880,38 @@ public class WebTimer
     }
 
     /**
-     * Fires action events.
+     * Returns action event.
+     *
+     * @return action event
      */
-    private void fireEvent ()
+    private ActionEvent createActionEvent ()
     {
-        if ( listeners.size () > 0 )
-        {
-            // Event
-            final ActionEvent actionEvent = createActionEvent ();
-
-            // Working with local array
-            final List<ActionListener> listenerList = CollectionUtils.copy ( listeners );
+        return new ActionEvent ( WebTimer.this, 0, actionCommand, TimeUtils.currentTime (), 0 );
+    }
 
-            // Dispatch event in chosen way
-            if ( useEventDispatchThread )
-            {
-                if ( coalesce )
-                {
-                    // Merge all events into single call to event dispatch thread
-                    SwingUtils.invokeAndWaitSafely ( new Runnable ()
-                    {
-                        @Override
-                        public void run ()
-                        {
-                            for ( final ActionListener listener : listenerList )
-                            {
-                                listener.actionPerformed ( actionEvent );
-                            }
-                        }
-                    } );
-                }
-                else
-                {
-                    // Make separate event calls to event dispatch thread
-                    for ( final ActionListener listener : listenerList )
-                    {
-                        SwingUtils.invokeAndWaitSafely ( new Runnable ()
-                        {
-                            @Override
-                            public void run ()
-                            {
-                                listener.actionPerformed ( actionEvent );
-                            }
-                        } );
-                    }
-                }
-            }
-            else
-            {
-                // Execute events in the same thread with timer
-                for ( final ActionListener listener : listenerList )
-                {
-                    listener.actionPerformed ( actionEvent );
-                }
-            }
+    /**
+     * Returns timing engine used by all timers.
+     *
+     * @return timing engine used by all timers
+     */
+    public static synchronized TimerEngine getEngine ()
+    {
+        if ( engine == null )
+        {
+            engine = new SharedTimerEngine ();
         }
+        return engine;
     }
 
     /**
-     * Returns action event.
+     * Sets timing engine used by all timers.
+     * Timers which are already running will be switched to the new engine upon their next cycle.
      *
-     * @return action event
+     * @param engine new timing engine
      */
-    private ActionEvent createActionEvent ()
+    public static synchronized void setEngine ( final TimerEngine engine )
     {
-        return new ActionEvent ( WebTimer.this, 0, actionCommand, TimeUtils.currentTime (), 0 );
+        WebTimer.engine = engine;
     }
 
     /**
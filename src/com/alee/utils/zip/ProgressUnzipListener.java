@@ -0,0 +1,49 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.zip;
+
+/**
+ * The listener interface for receiving unzip operation events including byte-level extraction progress.
+ * Any UnzipListener passed into ZipUtils methods is checked for this interface.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.ZipUtils
+ * @see com.alee.utils.zip.UnzipAdapter
+ */
+
+public interface ProgressUnzipListener extends UnzipListener
+{
+    /**
+     * Notifies about total amount of bytes which will be processed.
+     * For archives extracted from file this is total uncompressed entries size, for streamed archives this is archive size.
+     *
+     * @param bytes total amount of bytes or -1 if it is unknown
+     */
+    public void bytesDetermined ( long bytes );
+
+    /**
+     * Notifies about extraction progress.
+     * This method is called periodically during extraction and once again when extraction is finished.
+     *
+     * @param processedBytes amount of already processed bytes
+     * @param totalBytes     total amount of bytes or -1 if it is unknown
+     * @param bytesPerSecond average extraction throughput in bytes per second
+     * @param remainingTime  estimated remaining time in milliseconds or -1 if it is unknown
+     */
+    public void progressChanged ( long processedBytes, long totalBytes, long bytesPerSecond, long remainingTime );
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.zip;
+
+import java.io.File;
+import java.util.zip.ZipEntry;
+
+/**
+ * An abstract adapter class for receiving unzip operation events.
+ * Methods in this class are empty, it exists as convenience for creating listener objects.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.zip.ProgressUnzipListener
+ */
+
+public abstract class UnzipAdapter implements ProgressUnzipListener
+{
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sizeDetermined ( final int size )
+    {
+        //
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bytesDetermined ( final long bytes )
+    {
+        //
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fileUnzipped ( final ZipEntry entry, final File file, final int index )
+    {
+        //
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void progressChanged ( final long processedBytes, final long totalBytes, final long bytesPerSecond, final long remainingTime )
+    {
+        //
+    }
+}
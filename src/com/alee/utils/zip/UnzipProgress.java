@@ -0,0 +1,211 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.zip;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+
+/**
+ * Thread-safe unzip operation progress tracker.
+ * It counts processed bytes, computes throughput and remaining time and passes them into the listener not more often than once per
+ * report interval. All listener calls are serialized, so listener doesn't need to be thread-safe even if extraction is parallel.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.ZipUtils
+ */
+
+public final class UnzipProgress
+{
+    /**
+     * Minimum interval between two progress reports in milliseconds.
+     */
+    public static long reportInterval = 100;
+
+    /**
+     * Unzip listener, might be null.
+     */
+    private final UnzipListener listener;
+
+    /**
+     * Progress listener, null if listener doesn't support byte-level progress.
+     */
+    private final ProgressUnzipListener progressListener;
+
+    /**
+     * Total amount of bytes or -1 if it is unknown.
+     */
+    private long totalBytes = -1;
+
+    /**
+     * Amount of processed bytes.
+     */
+    private final AtomicLong processedBytes = new AtomicLong ( 0 );
+
+    /**
+     * Operation start time in nanoseconds.
+     */
+    private final long startTime = System.nanoTime ();
+
+    /**
+     * Next progress report time in nanoseconds.
+     */
+    private volatile long nextReportTime = startTime;
+
+    /**
+     * Amount of unzipped files.
+     */
+    private int unzippedFiles = 0;
+
+    /**
+     * Constructs new progress tracker for the specified listener.
+     *
+     * @param listener unzip listener, might be null
+     */
+    public UnzipProgress ( final UnzipListener listener )
+    {
+        super ();
+        this.listener = listener;
+        this.progressListener = listener instanceof ProgressUnzipListener ? ( ProgressUnzipListener ) listener : null;
+    }
+
+    /**
+     * Informs listener about entries amount.
+     *
+     * @param size entries amount
+     */
+    public synchronized void sizeDetermined ( final int size )
+    {
+        if ( listener != null )
+        {
+            listener.sizeDetermined ( size );
+        }
+    }
+
+    /**
+     * Informs listener about total amount of bytes.
+     *
+     * @param bytes total amount of bytes or -1 if it is unknown
+     */
+    public synchronized void bytesDetermined ( final long bytes )
+    {
+        totalBytes = bytes;
+        if ( progressListener != null )
+        {
+            progressListener.bytesDetermined ( bytes );
+        }
+    }
+
+    /**
+     * Adds processed bytes and informs listener about progress if report interval has passed.
+     *
+     * @param bytes amount of processed bytes
+     */
+    public void bytesProcessed ( final int bytes )
+    {
+        processedBytes.addAndGet ( bytes );
+        if ( progressListener != null && System.nanoTime () >= nextReportTime )
+        {
+            synchronized ( this )
+            {
+                final long time = System.nanoTime ();
+                if ( time >= nextReportTime )
+                {
+                    nextReportTime = time + TimeUnit.MILLISECONDS.toNanos ( reportInterval );
+                    fireProgressChanged ( time, false );
+                }
+            }
+        }
+    }
+
+    /**
+     * Informs listener about unzipped file.
+     *
+     * @param entry file zip entry
+     * @param file  unzipped file
+     */
+    public synchronized void fileUnzipped ( final ZipEntry entry, final File file )
+    {
+        if ( listener != null )
+        {
+            listener.fileUnzipped ( entry, file, unzippedFiles );
+        }
+        unzippedFiles++;
+    }
+
+    /**
+     * Informs listener about final progress.
+     */
+    public synchronized void finished ()
+    {
+        if ( progressListener != null )
+        {
+            fireProgressChanged ( System.nanoTime (), true );
+        }
+    }
+
+    /**
+     * Returns amount of processed bytes.
+     *
+     * @return amount of processed bytes
+     */
+    public long getProcessedBytes ()
+    {
+        return processedBytes.get ();
+    }
+
+    /**
+     * Returns average throughput in bytes per second.
+     *
+     * @return average throughput in bytes per second
+     */
+    public long getBytesPerSecond ()
+    {
+        return getBytesPerSecond ( processedBytes.get (), System.nanoTime () );
+    }
+
+    /**
+     * Returns average throughput in bytes per second.
+     *
+     * @param processed amount of processed bytes
+     * @param time      current time in nanoseconds
+     * @return average throughput in bytes per second
+     */
+    private long getBytesPerSecond ( final long processed, final long time )
+    {
+        final long elapsed = time - startTime;
+        return elapsed > 0 ? processed * TimeUnit.SECONDS.toNanos ( 1 ) / elapsed : 0;
+    }
+
+    /**
+     * Informs listener about current progress.
+     * This method should only be called under this tracker lock.
+     *
+     * @param time     current time in nanoseconds
+     * @param finished whether extraction is finished or not
+     */
+    private void fireProgressChanged ( final long time, final boolean finished )
+    {
+        final long processed = processedBytes.get ();
+        final long bytesPerSecond = getBytesPerSecond ( processed, time );
+        final long remainingTime = finished ? 0 : totalBytes >= 0 && bytesPerSecond > 0 ?
+                Math.max ( 0, totalBytes - processed ) * 1000 / bytesPerSecond : -1;
+        progressListener.progressChanged ( processed, totalBytes, bytesPerSecond, remainingTime );
+    }
+}